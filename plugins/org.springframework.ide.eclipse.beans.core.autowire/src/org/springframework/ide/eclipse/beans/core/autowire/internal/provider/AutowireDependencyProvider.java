@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 Spring IDE Developers
+ * Copyright (c) 2009, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -114,6 +114,11 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 
 	private Map<Class<?>, String> resolvableDependencies = new HashMap<Class<?>, String>();
 
+	/** Names of the beans of the context by every type they can be injected as, see {@link #getTypeIndex()} */
+	private Map<Class<?>, Set<String>> typeIndex;
+
+	private ClassLoader typeIndexClassLoader;
+
 	private Class<?> factoryBeanClass;
 	private Class<?> objectFactoryClass;
 	private Class<?> providerClass;
@@ -302,6 +307,11 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 		} catch (Throwable e) {
 			// Ignore here as this can easily happen if project class path is not complete
 		}
+
+		// the type index depends on the FactoryBean class
+		synchronized (this) {
+			typeIndex = null;
+		}
 	}
 
 	public boolean containsBean(String beanName) {
@@ -361,22 +371,43 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 	}
 
 	public String[] getBeansForType(Class<?> requiredType) {
-		Set<String> matchingBeans = new HashSet<String>();
-		
+		Set<String> matchingBeans = getTypeIndex().get(requiredType);
+		if (matchingBeans == null) {
+			return new String[0];
+		}
+		return (String[]) matchingBeans.toArray(new String[matchingBeans.size()]);
+	}
+
+	/**
+	 * Returns the names of the beans of the context by each superclass and interface of their bean class and, for
+	 * factory beans, of the product type.
+	 * <p>
+	 * The index is built on first use (with the bean classes visible to the active project class loader), so that
+	 * resolving an injection point is a map lookup instead of loading and checking the class of every bean.
+	 */
+	private synchronized Map<Class<?>, Set<String>> getTypeIndex() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (typeIndex == null || typeIndexClassLoader != classLoader) {
+			typeIndex = createTypeIndex();
+			typeIndexClassLoader = classLoader;
+		}
+		return typeIndex;
+	}
+
+	private Map<Class<?>, Set<String>> createTypeIndex() {
+		Map<Class<?>, Set<String>> index = new HashMap<Class<?>, Set<String>>();
+
 		for (IBean bean : beans) {
 			String beanClassName = ValidationRuleUtils.getBeanClassName(bean, context);
 			if (beanClassName != null) {
 				try {
 					Class<?> beanClass = ClassUtils.loadClass(beanClassName);
-					if (requiredType.isAssignableFrom(beanClass)) {
-						matchingBeans.add(bean.getElementName());
-					}
-					else if (factoryBeanClass != null && factoryBeanClass.isAssignableFrom(beanClass)) {
-						if (isFactoryForType(beanClass, requiredType)) {
-							matchingBeans.add(bean.getElementName());
-						} 
-						else if (isExtensibleFactoryForType(bean, beanClass, requiredType)) {
-							matchingBeans.add(bean.getElementName());
+					Set<Class<?>> indexedTypes = new HashSet<Class<?>>();
+					addToTypeIndex(index, beanClass, bean.getElementName(), indexedTypes);
+					if (factoryBeanClass != null && factoryBeanClass.isAssignableFrom(beanClass)) {
+						addToTypeIndex(index, getFactoryObjectType(beanClass), bean.getElementName(), indexedTypes);
+						for (Class<?> beanType : getExtensibleFactoryTypes(bean, beanClass)) {
+							addToTypeIndex(index, beanType, bean.getElementName(), indexedTypes);
 						}
 					}
 				}
@@ -391,14 +422,37 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 				}
 			}
 		}
-		return (String[]) matchingBeans.toArray(new String[matchingBeans.size()]);
+		return index;
+	}
+
+	private void addToTypeIndex(Map<Class<?>, Set<String>> index, Class<?> type, String beanName,
+			Set<Class<?>> indexedTypes) {
+		if (type == null || !indexedTypes.add(type)) {
+			return;
+		}
+
+		Set<String> beanNames = index.get(type);
+		if (beanNames == null) {
+			beanNames = new HashSet<String>();
+			index.put(type, beanNames);
+		}
+		beanNames.add(beanName);
+
+		addToTypeIndex(index, type.getSuperclass(), beanName, indexedTypes);
+		for (Class<?> interfaceType : type.getInterfaces()) {
+			addToTypeIndex(index, interfaceType, beanName, indexedTypes);
+		}
+		if (type.isInterface()) {
+			// interfaces don't have a superclass, but are assignable to Object
+			addToTypeIndex(index, Object.class, beanName, indexedTypes);
+		}
 	}
 
-	private boolean isFactoryForType(Class<?> beanClass, Class<?> requiredType) {
+	private Class<?> getFactoryObjectType(Class<?> beanClass) {
 		try {
 			Method factoryMethod = beanClass.getMethod("getObject", new Class[] {});
-			if (factoryMethod != null && requiredType.isAssignableFrom(factoryMethod.getReturnType())) {
-				return true;
+			if (factoryMethod != null) {
+				return factoryMethod.getReturnType();
 			}
 		}
 		catch (NoClassDefFoundError e) {
@@ -408,20 +462,21 @@ public class AutowireDependencyProvider implements IAutowireDependencyResolver {
 			BeansCorePlugin.log(e);
 		}
 
-		return false;
+		return null;
 	}
 
-	private boolean isExtensibleFactoryForType(IBean bean, Class<?> beanClass, Class<?> requiredType) {
+	private List<Class<?>> getExtensibleFactoryTypes(IBean bean, Class<?> beanClass) {
+		List<Class<?>> beanTypes = new ArrayList<Class<?>>();
 		IFactoryBeanTypeResolver[] resolvers = FactoryBeanTypeResolverExtensions.getFactoryBeanTypeResolvers();
 		
 		for (IFactoryBeanTypeResolver factoryTypeResolver : resolvers) {
 			Class<?> beanType = factoryTypeResolver.resolveBeanTypeFromFactory(bean, beanClass);
-			if (beanType != null && requiredType.isAssignableFrom(beanType)) {
-				return true;
+			if (beanType != null) {
+				beanTypes.add(beanType);
 			}
 		}
 
-		return false;
+		return beanTypes;
 	}
 
 	public boolean isAutowireCandidate(String beanName, DependencyDescriptor descriptor)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 Spring IDE Developers
+ * Copyright (c) 2010, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,12 +11,15 @@
 package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
 
 import java.util.Collections;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
 import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadataModel;
@@ -28,6 +31,9 @@ import org.springframework.ide.eclipse.core.SpringCore;
 /**
  * {@link IBeanMetadataModel} implementation that saves and reloads its contents from a backing
  * store.
+ * <p>
+ * The backing stores are per project and load lazily, and only changed entries are written back on {@link #stop()}.
+ * The stored data of a project is deleted when the project is deleted or closed.
  * @author Christian Dupuis
  * @since 2.0.5
  */
@@ -43,15 +49,25 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 
 	private final Lock w = rwl.writeLock();
 
-	private Map<String, BeanMetadataHolder> beanMetadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
+	private BeanMetadataStore<BeanMetadataHolder> beanMetadata;
 
-	private Map<String, BeanPropertyDataHolder> beanPropertyData = new ConcurrentHashMap<String, BeanPropertyDataHolder>();
+	private BeanMetadataStore<BeanPropertyDataHolder> beanPropertyData;
+
+	private final IResourceChangeListener projectListener = new IResourceChangeListener() {
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResource resource = event.getResource();
+			if (resource instanceof IProject) {
+				removeProject((IProject) resource);
+			}
+		}
+	};
 
 	public Set<IBeanMetadata> getBeanMetadata(IBean bean) {
 		try {
 			r.lock();
-			if (beanMetadata.containsKey(bean.getElementID())) {
-				return beanMetadata.get(bean.getElementID()).getBeanMetaData();
+			BeanMetadataHolder holder = (beanMetadata != null ? beanMetadata.get(bean.getElementID()) : null);
+			if (holder != null) {
+				return holder.getBeanMetaData();
 			}
 			return Collections.emptySet();
 		}
@@ -70,7 +86,9 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 			holder.setMethodMetaData(methodMetaData);
 			// safe time so we can purge very old entries after a while
 			holder.setLastModified(System.currentTimeMillis());
-			beanMetadata.put(bean.getElementID(), holder);
+			if (beanMetadata != null) {
+				beanMetadata.put(bean.getElementID(), holder);
+			}
 		}
 		finally {
 			w.unlock();
@@ -80,7 +98,9 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 	public void clearBeanMetadata(IBean bean) {
 		try {
 			w.lock();
-			beanMetadata.remove(bean.getElementID());
+			if (beanMetadata != null) {
+				beanMetadata.remove(bean.getElementID());
+			}
 		}
 		finally {
 			w.unlock();
@@ -90,8 +110,10 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 	public Set<IBeanProperty> getBeanProperties(IBean bean) {
 		try {
 			r.lock();
-			if (beanPropertyData.containsKey(bean.getElementID())) {
-				return beanPropertyData.get(bean.getElementID()).getBeanProperties();
+			BeanPropertyDataHolder holder = (beanPropertyData != null ? beanPropertyData.get(bean.getElementID())
+					: null);
+			if (holder != null) {
+				return holder.getBeanProperties();
 			}
 			return Collections.emptySet();
 		}
@@ -108,7 +130,9 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 			holder.setBeanProperties(beanProperties);
 			// safe time so we can purge very old entries after a while
 			holder.setLastModified(System.currentTimeMillis());
-			beanPropertyData.put(bean.getElementID(), holder);
+			if (beanPropertyData != null) {
+				beanPropertyData.put(bean.getElementID(), holder);
+			}
 		}
 		finally {
 			w.unlock();
@@ -118,7 +142,9 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 	public void clearBeanProperties(IBean bean) {
 		try {
 			w.lock();
-			beanPropertyData.remove(bean.getElementID());
+			if (beanPropertyData != null) {
+				beanPropertyData.remove(bean.getElementID());
+			}
 		}
 		finally {
 			w.unlock();
@@ -126,33 +152,59 @@ public class BeanMetadataModel implements IBeanMetadataModel {
 	}
 
 	/**
-	 * Starts and loads the internal model.
+	 * Starts the internal model. The persisted data of a project is loaded when it is first accessed.
 	 */
 	public void start() {
-
-		Map<String, BeanMetadataHolder> storedBeanMetadata = BeanMetadataPersistence.loadMetadata();
-		Map<String, BeanPropertyDataHolder> storedProperties = BeanMetadataPersistence
-				.loadProperties();
+		BeanMetadataStore<BeanMetadataHolder> storedBeanMetadata = BeanMetadataPersistence.createMetadataStore();
+		BeanMetadataStore<BeanPropertyDataHolder> storedProperties = BeanMetadataPersistence.createPropertiesStore();
+		BeanMetadataPersistence.migrate(storedBeanMetadata, storedProperties);
 		try {
 			w.lock();
 			beanMetadata = storedBeanMetadata;
 			beanPropertyData = storedProperties;
 		}
-		catch (Exception e) {
-			beanMetadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
-			beanPropertyData = new ConcurrentHashMap<String, BeanPropertyDataHolder>();
-		}
 		finally {
 			w.unlock();
 		}
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(projectListener,
+				IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.PRE_CLOSE);
 	}
 
 	/**
-	 * Stops and saves the internal model.
+	 * Stops the internal model and saves all changes.
 	 */
 	public void stop() {
-		BeanMetadataPersistence.storeMetadata(beanMetadata);
-		BeanMetadataPersistence.storeProperties(beanPropertyData);
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(projectListener);
+		try {
+			w.lock();
+			if (beanMetadata != null) {
+				beanMetadata.save();
+			}
+			if (beanPropertyData != null) {
+				beanPropertyData.save();
+			}
+		}
+		finally {
+			w.unlock();
+		}
+	}
+
+	/**
+	 * Discards the stored data of the given project.
+	 */
+	public void removeProject(IProject project) {
+		try {
+			w.lock();
+			if (beanMetadata != null) {
+				beanMetadata.removeProject(project.getName());
+			}
+			if (beanPropertyData != null) {
+				beanPropertyData.removeProject(project.getName());
+			}
+		}
+		finally {
+			w.unlock();
+		}
 	}
 
 }
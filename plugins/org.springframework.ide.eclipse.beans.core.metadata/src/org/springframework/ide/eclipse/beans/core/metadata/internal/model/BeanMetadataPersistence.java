@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2013 Spring IDE Developers
+ * Copyright (c) 2010, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,8 +26,12 @@ import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
 
 /**
  * Stores and loads the {@link IBeanMetadata}s from the persisted file.
+ * <p>
+ * Since 3.9.7 the model is kept in per-project {@link BeanMetadataStore}s; the single-file format is only read to
+ * migrate existing state.
  * @author Christian Dupuis
  * @author Martin Lippert
+ * @author Spring IDE Developers
  * @since 2.0.5
  */
 public class BeanMetadataPersistence {
@@ -38,12 +42,63 @@ public class BeanMetadataPersistence {
 
 	private static final String BEANPROPERTIES_FOLDER_NAME = "/properties/";
 
+	private static final String STORE_FOLDER_NAME = "projects";
+
+	/**
+	 * @since 3.9.7
+	 */
+	public static BeanMetadataStore<BeanMetadataHolder> createMetadataStore() {
+		File directory = BeansMetadataPlugin.getDefault().getStateLocation()
+				.append(METADATA_FOLDER_NAME + STORE_FOLDER_NAME).toFile();
+		return new BeanMetadataStore<BeanMetadataHolder>(directory, BeanMetadataHolder.class);
+	}
+
+	/**
+	 * @since 3.9.7
+	 */
+	public static BeanMetadataStore<BeanPropertyDataHolder> createPropertiesStore() {
+		File directory = BeansMetadataPlugin.getDefault().getStateLocation()
+				.append(BEANPROPERTIES_FOLDER_NAME + STORE_FOLDER_NAME).toFile();
+		return new BeanMetadataStore<BeanPropertyDataHolder>(directory, BeanPropertyDataHolder.class);
+	}
+
+	/**
+	 * Moves the contents of the single-file state written by earlier versions into the given stores and deletes the
+	 * old files.
+	 * @since 3.9.7
+	 */
+	public static void migrate(BeanMetadataStore<BeanMetadataHolder> metadataStore,
+			BeanMetadataStore<BeanPropertyDataHolder> propertiesStore) {
+		File metadataFile = BeansMetadataPlugin.getDefault().getStateLocation()
+				.append(METADATA_FOLDER_NAME + STATE_FILE_NAME).toFile();
+		if (metadataFile.exists()) {
+			metadataStore.putAll(loadMetadata());
+			metadataStore.save();
+			metadataFile.delete();
+		}
+		File propertiesFile = BeansMetadataPlugin.getDefault().getStateLocation()
+				.append(BEANPROPERTIES_FOLDER_NAME + STATE_FILE_NAME).toFile();
+		if (propertiesFile.exists()) {
+			propertiesStore.putAll(loadProperties());
+			propertiesStore.save();
+			propertiesFile.delete();
+		}
+	}
+
+	/**
+	 * @deprecated since 3.9.7; the model is persisted in a {@link BeanMetadataStore}
+	 */
+	@Deprecated
 	public static void storeMetadata(Map<String, BeanMetadataHolder> metaData) {
 		File file = BeansMetadataPlugin.getDefault().getStateLocation().append(METADATA_FOLDER_NAME + STATE_FILE_NAME)
 				.toFile();
 		store(metaData, file);
 	}
 
+	/**
+	 * @deprecated since 3.9.7; the model is persisted in a {@link BeanMetadataStore}
+	 */
+	@Deprecated
 	public static void storeProperties(Map<String, BeanPropertyDataHolder> properties) {
 		File file = BeansMetadataPlugin.getDefault().getStateLocation()
 				.append(BEANPROPERTIES_FOLDER_NAME + STATE_FILE_NAME).toFile();
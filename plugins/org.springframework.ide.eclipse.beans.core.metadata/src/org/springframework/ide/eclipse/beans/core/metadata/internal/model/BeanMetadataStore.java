@@ -0,0 +1,437 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.internal.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.springframework.ide.eclipse.beans.core.metadata.BeansMetadataPlugin;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+
+/**
+ * Persistent store for per-bean data (e.g. {@link BeanMetadataHolder}s) keyed by bean element id, with one file per
+ * project.
+ * <p>
+ * Each file is a log of records: a record either stores the (deflated, serialized) value of a bean or removes it.
+ * {@link #save()} only appends records for the beans that changed since the last save; once a file contains
+ * considerably more records than live beans it is rewritten. Every record carries a checksum, so a corrupted or
+ * truncated write only loses the records after it instead of the whole store.
+ * <p>
+ * Files are read when a bean of the project is accessed for the first time, and values are only deserialized when
+ * they are requested.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeanMetadataStore<T extends Serializable> {
+
+	private static final int MAGIC = 0x53424d53;
+
+	private static final int VERSION = 1;
+
+	private static final byte PUT = 1;
+
+	private static final byte REMOVE = 2;
+
+	private static final String FILE_EXTENSION = ".dat";
+
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+	/** Number of obsolete records tolerated in a file on top of the number of live entries */
+	private static final int COMPACTION_SLACK = 256;
+
+	/** Stands for element ids without a project segment */
+	private static final String DEFAULT_PROJECT = "_";
+
+	private final File directory;
+
+	private final Class<T> type;
+
+	private final ConcurrentMap<String, ProjectStore> projects = new ConcurrentHashMap<String, ProjectStore>();
+
+	public BeanMetadataStore(File directory, Class<T> type) {
+		this.directory = directory;
+		this.type = type;
+	}
+
+	public T get(String elementId) {
+		return getProjectStore(elementId).get(elementId);
+	}
+
+	public void put(String elementId, T value) {
+		getProjectStore(elementId).put(elementId, value);
+	}
+
+	public void putAll(Map<String, T> values) {
+		for (Map.Entry<String, T> entry : values.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	public void remove(String elementId) {
+		getProjectStore(elementId).remove(elementId);
+	}
+
+	/**
+	 * Persists all changes made since the last save.
+	 */
+	public void save() {
+		for (ProjectStore projectStore : projects.values()) {
+			projectStore.save();
+		}
+	}
+
+	/**
+	 * Discards all values of the given project and deletes its file, e.g. because the project was deleted or closed.
+	 */
+	public void removeProject(String projectName) {
+		ProjectStore projectStore = projects.remove(projectName);
+		if (projectStore != null) {
+			projectStore.delete();
+		}
+		else {
+			new File(directory, projectName + FILE_EXTENSION).delete();
+		}
+	}
+
+	private ProjectStore getProjectStore(String elementId) {
+		String projectName = getProjectName(elementId);
+		ProjectStore projectStore = projects.get(projectName);
+		if (projectStore == null) {
+			ProjectStore newStore = new ProjectStore(new File(directory, projectName + FILE_EXTENSION));
+			projectStore = projects.putIfAbsent(projectName, newStore);
+			if (projectStore == null) {
+				projectStore = newStore;
+			}
+		}
+		return projectStore;
+	}
+
+	/**
+	 * Returns the name of the project segment of the given bean element id (e.g. <code>project</code> for
+	 * <code>1:model|2:project|3:/beans.xml|...</code>).
+	 */
+	static String getProjectName(String elementId) {
+		int start = elementId.indexOf(IModelElement.ID_DELIMITER);
+		if (start >= 0) {
+			start = elementId.indexOf(IModelElement.ID_SEPARATOR, start);
+			if (start >= 0) {
+				int end = elementId.indexOf(IModelElement.ID_DELIMITER, start);
+				String name = (end >= 0 ? elementId.substring(start + 1, end) : elementId.substring(start + 1));
+				if (name.length() > 0) {
+					return name;
+				}
+			}
+		}
+		return DEFAULT_PROJECT;
+	}
+
+	private static void log(String message, Throwable e) {
+		BeansMetadataPlugin plugin = BeansMetadataPlugin.getDefault();
+		if (plugin != null) {
+			plugin.getLog().log(new Status(IStatus.ERROR, BeansMetadataPlugin.PLUGIN_ID, message, e));
+		}
+	}
+
+	/**
+	 * A value that is kept in its serialized form until it is needed.
+	 */
+	private class Entry {
+
+		private byte[] payload;
+
+		private T value;
+
+		public Entry(byte[] payload) {
+			this.payload = payload;
+		}
+
+		public Entry(T value) {
+			this.value = value;
+		}
+
+		public T getValue() {
+			if (value == null && payload != null) {
+				// if it can't be read anymore (e.g. the class went away) the entry is dropped on the next rewrite
+				value = decode(payload);
+				payload = null;
+			}
+			return value;
+		}
+
+		public byte[] getPayload() throws IOException {
+			if (payload == null && value != null) {
+				payload = encode(value);
+			}
+			return payload;
+		}
+	}
+
+	/**
+	 * The entries of a single project, backed by one file.
+	 */
+	private class ProjectStore {
+
+		private final File file;
+
+		private Map<String, Entry> entries;
+
+		/** Entries changed since the last save; <code>null</code> values stand for removed entries */
+		private final Map<String, Entry> changes = new LinkedHashMap<String, Entry>();
+
+		/** Number of records in the file */
+		private int records;
+
+		/** <code>true</code> if the file has to be rewritten, e.g. because it has a corrupted tail */
+		private boolean rewrite;
+
+		public ProjectStore(File file) {
+			this.file = file;
+		}
+
+		public synchronized T get(String elementId) {
+			Entry entry = getEntries().get(elementId);
+			return entry != null ? entry.getValue() : null;
+		}
+
+		public synchronized void put(String elementId, T value) {
+			Entry entry = new Entry(value);
+			getEntries().put(elementId, entry);
+			changes.put(elementId, entry);
+		}
+
+		public synchronized void remove(String elementId) {
+			if (getEntries().remove(elementId) != null) {
+				changes.put(elementId, null);
+			}
+		}
+
+		public synchronized void save() {
+			if (entries == null || (changes.isEmpty() && !rewrite)) {
+				return;
+			}
+			try {
+				if (rewrite || records + changes.size() > 2 * entries.size() + COMPACTION_SLACK) {
+					writeAll();
+				}
+				else {
+					append();
+				}
+				changes.clear();
+				rewrite = false;
+			}
+			catch (IOException e) {
+				log("Exception saving bean meta data to '" + file + "'", e);
+			}
+		}
+
+		public synchronized void delete() {
+			entries = new HashMap<String, Entry>();
+			changes.clear();
+			records = 0;
+			rewrite = false;
+			file.delete();
+			new File(file.getParentFile(), file.getName() + TEMP_FILE_EXTENSION).delete();
+		}
+
+		private Map<String, Entry> getEntries() {
+			if (entries == null) {
+				entries = new HashMap<String, Entry>();
+				if (file.exists()) {
+					read();
+				}
+			}
+			return entries;
+		}
+
+		private void read() {
+			DataInputStream in = null;
+			try {
+				in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+					rewrite = true;
+					return;
+				}
+				CRC32 crc = new CRC32();
+				while (true) {
+					int kind = in.read();
+					if (kind == -1) {
+						break;
+					}
+					String elementId = in.readUTF();
+					if (kind == PUT) {
+						int length = in.readInt();
+						if (length < 0 || length > file.length()) {
+							throw new IOException("Invalid record length for '" + elementId + "'");
+						}
+						byte[] payload = new byte[length];
+						in.readFully(payload);
+						crc.reset();
+						crc.update(payload);
+						if (in.readInt() != (int) crc.getValue()) {
+							throw new IOException("Checksum mismatch for '" + elementId + "'");
+						}
+						entries.put(elementId, new Entry(payload));
+					}
+					else if (kind == REMOVE) {
+						entries.remove(elementId);
+					}
+					else {
+						throw new IOException("Unknown record type " + kind);
+					}
+					records++;
+				}
+			}
+			catch (EOFException e) {
+				// truncated write; keep what has been read so far
+				rewrite = true;
+			}
+			catch (IOException e) {
+				log("Exception restoring bean meta data from '" + file + "'", e);
+				rewrite = true;
+			}
+			finally {
+				close(in);
+			}
+		}
+
+		private void append() throws IOException {
+			boolean header = !file.exists() || file.length() == 0;
+			DataOutputStream out = null;
+			try {
+				file.getParentFile().mkdirs();
+				out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+				if (header) {
+					out.writeInt(MAGIC);
+					out.writeInt(VERSION);
+				}
+				for (Map.Entry<String, Entry> change : changes.entrySet()) {
+					writeRecord(out, change.getKey(), change.getValue());
+				}
+			}
+			finally {
+				close(out);
+			}
+			records += changes.size();
+		}
+
+		private void writeAll() throws IOException {
+			File tempFile = new File(file.getParentFile(), file.getName() + TEMP_FILE_EXTENSION);
+			int written = 0;
+			DataOutputStream out = null;
+			try {
+				file.getParentFile().mkdirs();
+				out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+					if (writeRecord(out, entry.getKey(), entry.getValue())) {
+						written++;
+					}
+				}
+			}
+			finally {
+				close(out);
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			records = written;
+		}
+
+		private boolean writeRecord(DataOutputStream out, String elementId, Entry entry) throws IOException {
+			if (entry == null) {
+				out.writeByte(REMOVE);
+				out.writeUTF(elementId);
+				return true;
+			}
+			byte[] payload = null;
+			try {
+				payload = entry.getPayload();
+			}
+			catch (IOException e) {
+				log("Exception saving bean meta data for '" + elementId + "'", e);
+			}
+			if (payload == null) {
+				return false;
+			}
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			out.writeByte(PUT);
+			out.writeUTF(elementId);
+			out.writeInt(payload.length);
+			out.write(payload);
+			out.writeInt((int) crc.getValue());
+			return true;
+		}
+	}
+
+	private byte[] encode(T value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bytes));
+		try {
+			out.writeObject(value);
+		}
+		finally {
+			out.close();
+		}
+		return bytes.toByteArray();
+	}
+
+	private T decode(byte[] payload) {
+		ObjectInputStream in = null;
+		try {
+			in = new ObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)));
+			Object value = in.readObject();
+			return type.isInstance(value) ? type.cast(value) : null;
+		}
+		catch (Exception e) {
+			log("Exception restoring bean meta data of type " + type.getName(), e);
+			return null;
+		}
+		finally {
+			close(in);
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+			}
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.core.classreading.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansJavaConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.java.classreading.ProjectMetadataReaderCache;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Compares full reloads of the test project's Java configs with an empty {@link ProjectMetadataReaderCache} against
+ * reloads with shared metadata readers.
+ * <p>
+ * Each round loads the five configuration classes of the {@code beans-config-tests} project twice in fresh
+ * {@link BeansProject}s: first right after the cache was cleared, as after a classpath change, then again with the
+ * readers the first load left behind, as in the next incremental build. The totals of both loads over 20 rounds are
+ * printed after a warm-up load. Both loads must find the same number of beans; the timings are not checked, which is
+ * why the class is left out of {@code AllBeansCoreTests}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ProjectMetadataReaderCacheBenchmark {
+
+	private static final String[] CONFIG_CLASSES = { "org.test.spring.SimpleConfigurationClass",
+			"org.test.spring.OuterConfigurationClass", "org.test.spring.DoubleOuterConfigurationClass",
+			"org.test.advanced.AdvancedConfigurationClass", "org.test.profile.ProfileConfigurationClass" };
+
+	private static final int BENCHMARK_RELOADS = 20;
+
+	private IProject project;
+	private IJavaProject javaProject;
+	private ProjectMetadataReaderCache cache;
+
+	@BeforeClass
+	public static void setUp() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		javaProject = JdtUtils.getJavaProject(project);
+		cache = ProjectMetadataReaderCache.getDefault();
+		cache.clear();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		cache.clear();
+		project.delete(true, null);
+	}
+
+	@Test
+	public void benchmarkJavaConfigReload() throws Exception {
+		// warm up class loading and the JDT model
+		int beans = reloadConfigs();
+
+		long uncached = 0;
+		long shared = 0;
+		for (int i = 0; i < BENCHMARK_RELOADS; i++) {
+			cache.clear();
+			long start = System.nanoTime();
+			assertEquals(beans, reloadConfigs());
+			uncached += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			assertEquals(beans, reloadConfigs());
+			shared += System.nanoTime() - start;
+		}
+
+		System.out.println(String.format(
+				"ProjectMetadataReaderCache benchmark (%d reloads of %d Java configs, times in ms)", BENCHMARK_RELOADS,
+				CONFIG_CLASSES.length));
+		System.out.println(String.format("  full reload: empty cache %d, shared readers %d", uncached / 1000000,
+				shared / 1000000));
+	}
+
+	/**
+	 * Loads all Java configs of the test project from scratch and returns the number of beans found.
+	 */
+	private int reloadConfigs() throws Exception {
+		BeansProject beansProject = new BeansProject(new BeansModel(), project);
+		int beans = 0;
+		for (String className : CONFIG_CLASSES) {
+			IType configClass = javaProject.findType(className);
+			BeansJavaConfig config = new BeansJavaConfig(beansProject, configClass, className, IBeansConfig.Type.MANUAL);
+			beans += config.getBeans().size();
+		}
+		return beans;
+	}
+
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.core.classreading.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansJavaConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.java.classreading.ProjectMetadataReaderCache;
+import org.springframework.util.FileCopyUtils;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests that Java configs loaded with readers shared by {@link ProjectMetadataReaderCache} equal the ones loaded with
+ * an empty cache, and that readers are discarded once the project's sources or classpath change.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ProjectMetadataReaderCacheTest {
+
+	private static final String[] CONFIG_CLASSES = { "org.test.spring.SimpleConfigurationClass",
+			"org.test.spring.OuterConfigurationClass", "org.test.spring.DoubleOuterConfigurationClass",
+			"org.test.advanced.AdvancedConfigurationClass", "org.test.profile.ProfileConfigurationClass" };
+
+	private IProject project;
+	private IJavaProject javaProject;
+	private ProjectMetadataReaderCache cache;
+
+	@BeforeClass
+	public static void setUp() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		javaProject = JdtUtils.getJavaProject(project);
+		cache = ProjectMetadataReaderCache.getDefault();
+		cache.clear();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		cache.clear();
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testReadersAreSharedAcrossFactories() throws Exception {
+		MetadataReaderFactory factory1 = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		MetadataReaderFactory factory2 = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		assertNotSame(factory1, factory2);
+
+		MetadataReader reader = factory1.getMetadataReader("org.test.spring.SimpleConfigurationClass");
+		assertEquals("org.test.spring.SimpleConfigurationClass", reader.getClassMetadata().getClassName());
+		assertSame(reader, factory2.getMetadataReader("org.test.spring.SimpleConfigurationClass"));
+	}
+
+	@Test
+	public void testClearDiscardsReaders() throws Exception {
+		MetadataReaderFactory factory = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		MetadataReader reader = factory.getMetadataReader("org.test.spring.SimpleConfigurationClass");
+
+		cache.clear(project);
+		factory = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		assertNotSame(reader, factory.getMetadataReader("org.test.spring.SimpleConfigurationClass"));
+	}
+
+	@Test
+	public void testSharedReloadEqualsUncached() throws Exception {
+		Set<String> uncached = reloadConfigs();
+		assertFalse(uncached.isEmpty());
+		assertEquals(uncached, reloadConfigs());
+		assertEquals(uncached, reloadConfigs());
+	}
+
+	@Test
+	public void testChangedSourceIsSeenAfterNextBuild() throws Exception {
+		MetadataReaderFactory factory = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		MetadataReader reader = factory.getMetadataReader("org.test.spring.SimpleConfigurationClass");
+		Set<String> before = reloadConfigs();
+		assertFalse(before.contains("addedBean"));
+
+		IFile source = (IFile) javaProject.findType("org.test.spring.SimpleConfigurationClass").getResource();
+		String contents = new String(FileCopyUtils.copyToByteArray(source.getContents()), StandardCharsets.UTF_8);
+		int lastBrace = contents.lastIndexOf('}');
+		contents = contents.substring(0, lastBrace)
+				+ "\t@Bean\n\tpublic SimpleBeanClass addedBean() {\n\t\treturn new SimpleBeanClass();\n\t}\n}\n";
+		source.setContents(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), true, false, null);
+		project.getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+
+		factory = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		assertNotSame(reader, factory.getMetadataReader("org.test.spring.SimpleConfigurationClass"));
+		Set<String> shared = reloadConfigs();
+		assertTrue(shared.contains("addedBean"));
+
+		cache.clear();
+		assertEquals(reloadConfigs(), shared);
+	}
+
+	@Test
+	public void testClasspathChangeDiscardsReaders() throws Exception {
+		MetadataReaderFactory factory = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		MetadataReader reader = factory.getMetadataReader("org.test.spring.SimpleConfigurationClass");
+
+		List<IClasspathEntry> entries = new ArrayList<IClasspathEntry>();
+		for (IClasspathEntry entry : javaProject.getRawClasspath()) {
+			if (!entry.getPath().lastSegment().startsWith("org.springframework.transaction")) {
+				entries.add(entry);
+			}
+		}
+		javaProject.setRawClasspath(entries.toArray(new IClasspathEntry[entries.size()]), null);
+
+		factory = cache.getMetadataReaderFactory(javaProject, getClassLoader());
+		MetadataReader reread = factory.getMetadataReader("org.test.spring.SimpleConfigurationClass");
+		assertNotSame(reader, reread);
+		assertEquals(reader.getClassMetadata().getClassName(), reread.getClassMetadata().getClassName());
+	}
+
+	private ClassLoader getClassLoader() {
+		return JdtUtils.getClassLoader(project, ApplicationContext.class.getClassLoader());
+	}
+
+	/**
+	 * Loads all Java configs of the test project from scratch and returns the names of the beans found.
+	 */
+	private Set<String> reloadConfigs() throws Exception {
+		BeansProject beansProject = new BeansProject(new BeansModel(), project);
+		Set<String> beans = new TreeSet<String>();
+		for (String className : CONFIG_CLASSES) {
+			IType configClass = javaProject.findType(className);
+			BeansJavaConfig config = new BeansJavaConfig(beansProject, configClass, className, IBeansConfig.Type.MANUAL);
+			for (IBean bean : config.getBeans()) {
+				beans.add(bean.getElementName());
+			}
+		}
+		return beans;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 Spring IDE Developers
+ * Copyright (c) 2005, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,11 +14,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.InstanceScope;
@@ -26,6 +32,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.springframework.beans.factory.FactoryBean;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.AutowireDependencyProvider;
 import org.springframework.ide.eclipse.beans.core.autowire.internal.provider.FactoryBeanTypeResolverExtensions;
@@ -33,11 +40,15 @@ import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.ValidationRuleUtils;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeanReference;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
 import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.ClassUtils;
+import org.springframework.ide.eclipse.core.java.IProjectClassLoaderSupport;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
 /**
@@ -722,6 +733,188 @@ public class AutowireDependencyProviderTest {
 		}
 	}
 
+	@Test
+	public void testBeansForTypeEqualsUncachedLookup() throws Exception {
+		IFactoryBeanTypeResolver[] resolvers = FactoryBeanTypeResolverExtensions.getFactoryBeanTypeResolvers();
+		FactoryBeanTypeResolverExtensions.setFactoryBeanTypeResolvers(new IFactoryBeanTypeResolver[] { new IFactoryBeanTypeResolver() {
+			public Class<?> resolveBeanTypeFromFactory(IBean factoryBean, Class<?> factoryBeanClass) {
+				if (factoryBeanClass.getName().endsWith("$UnknownFactoryBean")) {
+					try {
+						return factoryBeanClass.getClassLoader().loadClass("test.beans.TestBean");
+					}
+					catch (ClassNotFoundException e) {
+						fail(e.getMessage());
+					}
+				}
+				return null;
+			}
+		} });
+		try {
+			assertBeansForTypeEqualsUncachedLookup();
+		}
+		finally {
+			FactoryBeanTypeResolverExtensions.setFactoryBeanTypeResolvers(resolvers);
+		}
+	}
+
+	private void assertBeansForTypeEqualsUncachedLookup() throws Exception {
+		for (String configName : new String[] { "testExtendedResourceInjection-context.xml",
+				"testStringTypeFactoryBean-context.xml", "testUnknownTypeFactoryBean-context.xml",
+				"testMethodInjectionWithMapAndMultipleMatches-context.xml" }) {
+			final BeansConfig config = new BeansConfig(beansProject, "src/org/springframework/beans/factory/annotation/"
+					+ configName, IBeansConfig.Type.MANUAL);
+			final AutowireDependencyProvider provider = new AutowireDependencyProvider(config, config);
+
+			withProjectClassLoader(new IProjectClassLoaderSupport.IProjectClassLoaderAwareCallback() {
+				public void doWithActiveProjectClassLoader() throws Throwable {
+					provider.preloadClasses();
+					Set<Class<?>> requiredTypes = getRequiredTypes(config);
+					assertTrue(requiredTypes.size() > 3);
+					for (Class<?> requiredType : requiredTypes) {
+						assertEquals(requiredType.getName(), getBeansForTypeUncached(config, requiredType),
+								new HashSet<String>(Arrays.asList(provider.getBeansForType(requiredType))));
+						// and again from the index
+						assertEquals(requiredType.getName(), getBeansForTypeUncached(config, requiredType),
+								new HashSet<String>(Arrays.asList(provider.getBeansForType(requiredType.getName()))));
+					}
+				}
+			});
+		}
+	}
+
+	@Test
+	public void testBeansForTypeIsRebuiltWhenFactoryBeanClassIsLoaded() throws Exception {
+		final BeansConfig config = new BeansConfig(beansProject, "src/org/springframework/beans/factory/annotation/testStringTypeFactoryBean-context.xml", IBeansConfig.Type.MANUAL);
+		final AutowireDependencyProvider provider = new AutowireDependencyProvider(config, config);
+
+		withProjectClassLoader(new IProjectClassLoaderSupport.IProjectClassLoaderAwareCallback() {
+			public void doWithActiveProjectClassLoader() throws Throwable {
+				// without the FactoryBean class, factory beans are only known by their own class
+				assertEquals(0, provider.getBeansForType(String.class).length);
+
+				provider.preloadClasses();
+				assertEquals(Collections.singletonList("testBean"), Arrays.asList(provider.getBeansForType(String.class)));
+			}
+		});
+	}
+
+	@Test
+	public void testBeansForTypeOfChangedConfig() throws Exception {
+		final IFile file = project.getFile("src/type-index-context.xml");
+		file.create(beans("first"), true, null);
+		withProjectClassLoader(new IProjectClassLoaderSupport.IProjectClassLoaderAwareCallback() {
+			public void doWithActiveProjectClassLoader() throws Throwable {
+				assertEquals(new HashSet<String>(Arrays.asList("first")), getBeansForTestBean(file));
+			}
+		});
+
+		// every validation run creates a provider for the current state of the model
+		file.setContents(beans("first", "second"), true, false, null);
+		withProjectClassLoader(new IProjectClassLoaderSupport.IProjectClassLoaderAwareCallback() {
+			public void doWithActiveProjectClassLoader() throws Throwable {
+				assertEquals(new HashSet<String>(Arrays.asList("first", "second")), getBeansForTestBean(file));
+			}
+		});
+	}
 
+	private Set<String> getBeansForTestBean(IFile file) throws Exception {
+		BeansConfig config = new BeansConfig(beansProject, file.getProjectRelativePath().toString(), IBeansConfig.Type.MANUAL);
+		AutowireDependencyProvider provider = new AutowireDependencyProvider(config, config);
+		provider.preloadClasses();
+		Class<?> testBeanClass = ClassUtils.loadClass("test.beans.TestBean");
+		Set<String> beanNames = new HashSet<String>(Arrays.asList(provider.getBeansForType(testBeanClass)));
+		assertEquals(getBeansForTypeUncached(config, testBeanClass), beanNames);
+		return beanNames;
+	}
+
+	private void withProjectClassLoader(IProjectClassLoaderSupport.IProjectClassLoaderAwareCallback callback) throws Exception {
+		try {
+			JdtUtils.getProjectClassLoaderSupport(project, null).executeCallback(callback);
+		}
+		catch (Exception e) {
+			throw e;
+		}
+		catch (Error e) {
+			throw e;
+		}
+		catch (Throwable e) {
+			throw new Exception(e);
+		}
+	}
+
+	/**
+	 * Returns the classes of all beans of the given config, their super types and the types their factories create.
+	 */
+	private static Set<Class<?>> getRequiredTypes(IBeansConfig config) throws Exception {
+		Set<Class<?>> requiredTypes = new HashSet<Class<?>>();
+		requiredTypes.add(Object.class);
+		requiredTypes.add(String.class);
+		requiredTypes.add(Runnable.class);
+		for (IBean bean : BeansModelUtils.getBeans(config)) {
+			String beanClassName = ValidationRuleUtils.getBeanClassName(bean, config);
+			if (beanClassName != null) {
+				Class<?> beanClass = ClassUtils.loadClass(beanClassName);
+				addTypes(requiredTypes, beanClass);
+				try {
+					addTypes(requiredTypes, beanClass.getMethod("getObject").getReturnType());
+				}
+				catch (NoSuchMethodException e) {
+					// not a factory
+				}
+			}
+		}
+		return requiredTypes;
+	}
+
+	private static void addTypes(Set<Class<?>> types, Class<?> type) {
+		if (type != null && types.add(type)) {
+			addTypes(types, type.getSuperclass());
+			for (Class<?> interfaceType : type.getInterfaces()) {
+				addTypes(types, interfaceType);
+			}
+		}
+	}
+
+	/**
+	 * Finds the beans of the given type the way the provider did before it had a type index.
+	 */
+	private static Set<String> getBeansForTypeUncached(IBeansConfig config, Class<?> requiredType) throws Exception {
+		Class<?> factoryBeanClass = ClassUtils.loadClass(FactoryBean.class.getName());
+		Set<String> matchingBeans = new HashSet<String>();
+		for (IBean bean : BeansModelUtils.getBeans(config)) {
+			String beanClassName = ValidationRuleUtils.getBeanClassName(bean, config);
+			if (beanClassName == null) {
+				continue;
+			}
+			Class<?> beanClass = ClassUtils.loadClass(beanClassName);
+			if (requiredType.isAssignableFrom(beanClass)) {
+				matchingBeans.add(bean.getElementName());
+			}
+			else if (factoryBeanClass.isAssignableFrom(beanClass)) {
+				if (requiredType.isAssignableFrom(beanClass.getMethod("getObject").getReturnType())) {
+					matchingBeans.add(bean.getElementName());
+				}
+				else {
+					for (IFactoryBeanTypeResolver resolver : FactoryBeanTypeResolverExtensions.getFactoryBeanTypeResolvers()) {
+						Class<?> beanType = resolver.resolveBeanTypeFromFactory(bean, beanClass);
+						if (beanType != null && requiredType.isAssignableFrom(beanType)) {
+							matchingBeans.add(bean.getElementName());
+							break;
+						}
+					}
+				}
+			}
+		}
+		return matchingBeans;
+	}
+
+	private static InputStream beans(String... beanNames) {
+		StringBuilder beans = new StringBuilder("<beans xmlns=\"http://www.springframework.org/schema/beans\">");
+		for (String beanName : beanNames) {
+			beans.append("<bean id=\"").append(beanName).append("\" class=\"test.beans.TestBean\"/>");
+		}
+		beans.append("</beans>");
+		return new ByteArrayInputStream(beans.toString().getBytes(StandardCharsets.UTF_8));
+	}
 
 }
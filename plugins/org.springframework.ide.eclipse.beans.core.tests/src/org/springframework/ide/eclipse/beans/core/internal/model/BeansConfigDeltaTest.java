@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansComponent;
+import org.springframework.ide.eclipse.core.model.xml.XmlSourceLocation;
+
+/**
+ * Tests for the bean changes computed by {@link BeansConfigDelta}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansConfigDeltaTest {
+
+	@Test
+	public void testUnchangedBeans() {
+		BeansConfigDelta delta = new BeansConfigDelta(null, beans(bean("a", "org.example.A", 1)),
+				beans(bean("a", "org.example.A", 1)));
+		assertTrue(delta.isEmpty());
+	}
+
+	@Test
+	public void testAddedRemovedAndChangedBeans() {
+		Bean removed = bean("removed", "org.example.A", 1);
+		Bean changed = bean("changed", "org.example.B", 5);
+		Bean added = bean("added", "org.example.A", 10);
+		BeansConfigDelta delta = new BeansConfigDelta(null, beans(removed, bean("changed", "org.example.A", 5)),
+				beans(changed, added));
+
+		assertFalse(delta.isEmpty());
+		assertEquals(Collections.singleton(added), delta.getAddedBeans());
+		assertEquals(Collections.singleton(removed), delta.getRemovedBeans());
+		assertEquals(Collections.singleton(changed), delta.getChangedBeans());
+	}
+
+	@Test
+	public void testMovedBeanIsChanged() {
+		Bean moved = bean("a", "org.example.A", 3);
+		BeansConfigDelta delta = new BeansConfigDelta(null, beans(bean("a", "org.example.A", 1)), beans(moved));
+		assertEquals(Collections.singleton(moved), delta.getChangedBeans());
+	}
+
+	private static Map<String, IBean> beans(IBean... beans) {
+		return BeansConfigDelta.getBeansByName(Arrays.asList(beans),
+				Collections.<IBeansComponent> emptyList());
+	}
+
+	private static Bean bean(String name, String className, int line) {
+		GenericBeanDefinition definition = new GenericBeanDefinition();
+		definition.setBeanClassName(className);
+		definition.setSource(new XmlSourceLocation(null, null, line, line + 2));
+		return new Bean(null, name, null, definition);
+	}
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.ide.eclipse.core.model.xml.XmlSourceLocation;
+
+/**
+ * Reports the heap used per {@link Bean} for a synthetic model of many beans sharing few classes.
+ * <p>
+ * 50,000 bean definitions over 500 class names are built with fresh strings, as the XML parser produces them, and then
+ * wrapped in {@link Bean}s whose properties are materialized. The heap after each step (taken after a few
+ * {@code System.gc()} calls, so only approximate) is printed per bean; the difference between the two lines is what
+ * the model elements cost on top of the definitions. The only assertion is that beans of the same class share a
+ * pooled class name; the byte counts are for reading, not checking, so the class isn't in {@code AllBeansCoreTests}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansModelFootprintBenchmark {
+
+	private static final int BENCHMARK_BEANS = 50000;
+
+	private static final int BENCHMARK_CLASSES = 500;
+
+	@Test
+	public void testBenchmarkHeapPerBean() {
+		long start = usedMemory();
+		List<BeanDefinition> definitions = new ArrayList<BeanDefinition>(BENCHMARK_BEANS);
+		for (int i = 0; i < BENCHMARK_BEANS; i++) {
+			definitions.add(definition(i));
+		}
+		long definitionsLoaded = usedMemory();
+
+		List<Bean> beans = new ArrayList<Bean>(BENCHMARK_BEANS);
+		for (int i = 0; i < BENCHMARK_BEANS; i++) {
+			Bean bean = new Bean(null, "bean" + i, null, definitions.get(i));
+			// materialize the children of the bean
+			bean.getProperties();
+			beans.add(bean);
+		}
+		long modelCreated = usedMemory();
+
+		System.out.println(String.format("Beans model footprint benchmark (%d beans of %d classes)",
+				BENCHMARK_BEANS, BENCHMARK_CLASSES));
+		System.out.println(String.format("  bean definitions:        %d bytes per bean",
+				(definitionsLoaded - start) / BENCHMARK_BEANS));
+		System.out.println(String.format("  with model elements:     %d bytes per bean",
+				(modelCreated - start) / BENCHMARK_BEANS));
+
+		assertEquals(BENCHMARK_BEANS, beans.size());
+		assertSame(beans.get(0).getClassName(), beans.get(BENCHMARK_CLASSES).getClassName());
+	}
+
+	private static GenericBeanDefinition definition(int index) {
+		GenericBeanDefinition definition = new GenericBeanDefinition();
+		// build new strings for every definition just like the XML parser does
+		definition.setBeanClassName("org.example.service.Service" + (index % BENCHMARK_CLASSES));
+		definition.setParentName("abstract" + (index % 10));
+		definition.getPropertyValues().add("name", "value" + index);
+		definition.getPropertyValues().add("dataSource", new RuntimeBeanReference("dataSource" + (index % 10)));
+		definition.getConstructorArgumentValues().addGenericArgumentValue("argument" + index, "java.lang.String");
+		definition.setSource(new XmlSourceLocation(null, null, index, index + 3));
+		return definition;
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.ide.eclipse.core.model.xml.XmlSourceLocation;
+
+/**
+ * Tests for the memory footprint of {@link Bean}s and their children.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansModelFootprintTest {
+
+	private static final int CLASSES = 500;
+
+	@Test
+	public void testPoolsNames() {
+		Bean first = new Bean(null, "bean1", new String[] { "alias" }, definition(1));
+		Bean second = new Bean(null, "bean" + (1 + CLASSES), new String[] { "alias" }, definition(1 + CLASSES));
+
+		assertEquals(first.getClassName(), second.getClassName());
+		assertSame(first.getClassName(), second.getClassName());
+		assertSame(first.getParentName(), second.getParentName());
+		assertSame(first.getAliases()[0], second.getAliases()[0]);
+		assertSame(first.getProperty("name").getElementName(), second.getProperty("name").getElementName());
+	}
+
+	@Test
+	public void testSharesEmptyCollections() {
+		GenericBeanDefinition definition = new GenericBeanDefinition();
+		definition.setBeanClassName("org.example.Empty");
+		Bean bean = new Bean(null, "empty", null, definition);
+
+		assertSame(Collections.emptySet(), bean.getConstructorArguments());
+		assertSame(Collections.emptySet(), bean.getMethodOverrides());
+		assertTrue(bean.getProperties().isEmpty());
+		assertNull(bean.getProperty("name"));
+	}
+
+	@Test
+	public void testDefinitionKeepsItsNames() {
+		GenericBeanDefinition definition = definition(7);
+		String className = new String(definition.getBeanClassName());
+		String parentName = new String(definition.getParentName());
+		Bean bean = new Bean(null, "bean7", null, definition);
+
+		assertEquals(className, definition.getBeanClassName());
+		assertEquals(parentName, definition.getParentName());
+		assertSame(definition.getBeanClassName(), bean.getClassName());
+		assertSame(definition.getParentName(), bean.getParentName());
+	}
+
+	private static GenericBeanDefinition definition(int index) {
+		GenericBeanDefinition definition = new GenericBeanDefinition();
+		// build new strings for every definition just like the XML parser does
+		definition.setBeanClassName("org.example.service.Service" + (index % CLASSES));
+		definition.setParentName("abstract" + (index % 10));
+		definition.getPropertyValues().add("name", "value" + index);
+		definition.getPropertyValues().add("dataSource", new RuntimeBeanReference("dataSource" + (index % 10)));
+		definition.getConstructorArgumentValues().addGenericArgumentValue("argument" + index, "java.lang.String");
+		definition.setSource(new XmlSourceLocation(null, null, index, index + 3));
+		return definition;
+	}
+
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.ConfigLoadingScheduler.Priority;
+
+/**
+ * Tests for {@link ConfigLoadingScheduler}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ConfigLoadingSchedulerTest {
+
+	private ConfigLoadingScheduler scheduler;
+
+	private CountDownLatch blocker;
+
+	@Before
+	public void setUp() throws Exception {
+		scheduler = new ConfigLoadingScheduler(1, Executors.defaultThreadFactory());
+		blocker = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		blocker.countDown();
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testLoadsByPriority() throws Exception {
+		blockWorker();
+		List<String> order = new CopyOnWriteArrayList<String>();
+		Future<?> background = scheduler.schedule(Priority.BACKGROUND, record(order, "background"));
+		Future<?> build = scheduler.schedule(Priority.BUILD, record(order, "build"));
+		Future<?> interactive = scheduler.schedule(Priority.INTERACTIVE, record(order, "interactive"));
+		assertEquals(3, scheduler.getQueueSize());
+
+		blocker.countDown();
+		background.get(5, TimeUnit.SECONDS);
+		build.get(5, TimeUnit.SECONDS);
+		interactive.get(5, TimeUnit.SECONDS);
+		assertEquals("[interactive, build, background]", order.toString());
+	}
+
+	@Test
+	public void testLoadsEachRequest() throws Exception {
+		final AtomicInteger loads = new AtomicInteger();
+		Callable<Integer> operation = new Callable<Integer>() {
+			public Integer call() {
+				return loads.incrementAndGet();
+			}
+		};
+		blockWorker();
+		Future<Integer> first = scheduler.schedule(Priority.BACKGROUND, operation);
+		Future<Integer> second = scheduler.schedule(Priority.INTERACTIVE, operation);
+		assertNotSame(first, second);
+
+		blocker.countDown();
+		first.get(5, TimeUnit.SECONDS);
+		second.get(5, TimeUnit.SECONDS);
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testCancelsLoadOnTimeout() throws Exception {
+		final CountDownLatch stopped = new CountDownLatch(1);
+		Callable<Integer> operation = new Callable<Integer>() {
+			public Integer call() throws Exception {
+				try {
+					while (true) {
+						ConfigLoadingScheduler.checkCanceled();
+						// cancelling doesn't interrupt the loading thread, so this never throws
+						Thread.sleep(10);
+					}
+				}
+				catch (OperationCanceledException e) {
+					stopped.countDown();
+					throw e;
+				}
+			}
+		};
+
+		try {
+			scheduler.load(operation, 100, TimeUnit.MILLISECONDS);
+			fail("Expected load to time out");
+		}
+		catch (TimeoutException e) {
+		}
+		assertTrue(stopped.await(5, TimeUnit.SECONDS));
+		assertEquals(1, scheduler.getTimedOutCount());
+		assertEquals(1, scheduler.getCancelledCount());
+	}
+
+	@Test
+	public void testAddsThreadForOverrunningLoad() throws Exception {
+		final CountDownLatch running = new CountDownLatch(1);
+		Callable<Integer> hangingOperation = new Callable<Integer>() {
+			public Integer call() throws Exception {
+				// never reaches a check point until released
+				running.countDown();
+				blocker.await();
+				return 1;
+			}
+		};
+
+		try {
+			scheduler.load(hangingOperation, 100, TimeUnit.MILLISECONDS);
+			fail("Expected load to time out");
+		}
+		catch (TimeoutException e) {
+		}
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		assertEquals(1, scheduler.getOverrunCount());
+
+		// the only worker thread still runs the cancelled load
+		Integer result = scheduler.load(new Callable<Integer>() {
+			public Integer call() {
+				return 42;
+			}
+		}, 5, TimeUnit.SECONDS);
+		assertEquals(Integer.valueOf(42), result);
+
+		blocker.countDown();
+		long end = System.currentTimeMillis() + 5000;
+		while (scheduler.getOverrunCount() > 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, scheduler.getOverrunCount());
+	}
+
+	@Test
+	public void testRunsNestedLoadInline() throws Exception {
+		final ConfigLoadingScheduler nestedScheduler = scheduler;
+		Integer result = scheduler.load(new Callable<Integer>() {
+			public Integer call() throws Exception {
+				// the only worker thread is busy with this load
+				return nestedScheduler.load(new Callable<Integer>() {
+					public Integer call() {
+						return 42;
+					}
+				}, 100, TimeUnit.MILLISECONDS);
+			}
+		}, 5, TimeUnit.SECONDS);
+		assertEquals(Integer.valueOf(42), result);
+	}
+
+	private void blockWorker() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		scheduler.schedule(Priority.INTERACTIVE, new Callable<Object>() {
+			public Object call() throws Exception {
+				started.countDown();
+				blocker.await();
+				return null;
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+	}
+
+	private static Callable<Object> record(final List<String> order, final String name) {
+		return new Callable<Object>() {
+			public Object call() {
+				order.add(name);
+				return null;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.util.Properties;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the persisted target namespaces of {@link ClasspathSchemaMappings}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ClasspathSchemaMappingsTest {
+
+	private static final String ENTRY = "org/example/example.xsd";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testScansXsdInJar() throws Exception {
+		File jar = createJar("urn:example");
+		ClasspathSchemaMappings mappings = new ClasspathSchemaMappings(new File(folder.getRoot(), "state.properties"));
+		assertEquals("urn:example", mappings.getTargetNamespace(getEntryUrl(jar)));
+	}
+
+	@Test
+	public void testReusesPersistedTargetNamespace() throws Exception {
+		File jar = createJar("urn:example");
+		File stateFile = new File(folder.getRoot(), "state.properties");
+		ClasspathSchemaMappings mappings = new ClasspathSchemaMappings(stateFile);
+		mappings.getTargetNamespace(getEntryUrl(jar));
+		mappings.save();
+
+		// tamper with the persisted value to see whether it is used instead of scanning the XSD again
+		Properties properties = load(stateFile);
+		assertEquals(1, properties.size());
+		String key = properties.stringPropertyNames().iterator().next();
+		assertTrue(key.endsWith("!/" + ENTRY));
+		properties.setProperty(key, "urn:persisted");
+		store(properties, stateFile);
+
+		mappings = new ClasspathSchemaMappings(stateFile);
+		assertEquals("urn:persisted", mappings.getTargetNamespace(getEntryUrl(jar)));
+	}
+
+	@Test
+	public void testRescansChangedJar() throws Exception {
+		File jar = createJar("urn:example");
+		File stateFile = new File(folder.getRoot(), "state.properties");
+		Properties properties = new Properties();
+		properties.setProperty(jar.getAbsolutePath() + '|' + jar.length() + '|' + jar.lastModified() + "!/" + ENTRY,
+				"urn:example");
+		store(properties, stateFile);
+
+		createJar("urn:changed-example");
+		ClasspathSchemaMappings mappings = new ClasspathSchemaMappings(stateFile);
+		assertEquals("urn:changed-example", mappings.getTargetNamespace(getEntryUrl(jar)));
+
+		// the entry of the replaced jar is dropped
+		mappings.save();
+		properties = load(stateFile);
+		assertEquals(1, properties.size());
+		assertEquals("urn:changed-example", properties.values().iterator().next());
+	}
+
+	private File createJar(String targetNamespace) throws Exception {
+		File jar = new File(folder.getRoot(), "example.jar");
+		long lastModified = jar.lastModified();
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			out.putNextEntry(new ZipEntry(ENTRY));
+			out.write(("<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\""
+					+ targetNamespace + "\"/>").getBytes("UTF-8"));
+			out.closeEntry();
+		}
+		finally {
+			out.close();
+		}
+		// make sure a replaced jar has a different identity
+		if (lastModified != 0) {
+			jar.setLastModified(lastModified + 2000);
+		}
+		return jar;
+	}
+
+	private static URL getEntryUrl(File jar) throws Exception {
+		return new URL("jar:" + jar.toURI().toURL() + "!/" + ENTRY);
+	}
+
+	private static Properties load(File file) throws Exception {
+		Properties properties = new Properties();
+		FileInputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		}
+		finally {
+			in.close();
+		}
+		return properties;
+	}
+
+	private static void store(Properties properties, File file) throws Exception {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			properties.store(out, null);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDelta;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProjectChangeEvent;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.springframework.ide.eclipse.core.project.DefaultProjectContributorState;
+import org.springframework.util.FileCopyUtils;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests the change events that {@link BeansConfigReloadingProjectContributionEventListener} sends once a build
+ * reloaded configs.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansConfigReloadingProjectContributionEventListenerTest {
+
+	private IProject project;
+
+	private BeansModel model;
+
+	private BeansModel originalModel;
+
+	private BeansProject beansProject;
+
+	private IBeansConfig config;
+
+	private IBeansConfig otherConfig;
+
+	private boolean autoBuilding;
+
+	private final List<ModelChangeEvent> events = new ArrayList<ModelChangeEvent>();
+
+	private final IModelChangeListener listener = new IModelChangeListener() {
+		public void elementChanged(ModelChangeEvent event) {
+			events.add(event);
+		}
+	};
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-model-utils-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		// the test plays the builder
+		autoBuilding = setAutoBuilding(false);
+
+		model = new BeansModel();
+		beansProject = new BeansProject(model, project);
+		model.addProject(beansProject);
+		originalModel = (BeansModel) BeansCorePlugin.getModel();
+		BeansCorePlugin.setModel(model);
+
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		beansProject.addConfig("basic-bean-config-2.xml", IBeansConfig.Type.MANUAL);
+		config = beansProject.getConfig("basic-bean-config.xml");
+		otherConfig = beansProject.getConfig("basic-bean-config-2.xml");
+		config.getBeans();
+		otherConfig.getBeans();
+		waitForAutoDetection();
+		model.addChangeListener(listener);
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		model.removeChangeListener(listener);
+		BeansCorePlugin.setModel(originalModel);
+		setAutoBuilding(autoBuilding);
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testReloadedConfigsAreReportedInOneEvent() throws Exception {
+		setContents(config, getContents(config).replace("</beans>",
+				"<bean id=\"addedBean\" class=\"org.test.spring.SimpleBeanClass\"/></beans>"));
+		setContents(otherConfig, getContents(otherConfig));
+
+		build(IncrementalProjectBuilder.INCREMENTAL_BUILD);
+
+		assertEquals(1, events.size());
+		BeansProjectChangeEvent event = (BeansProjectChangeEvent) events.get(0);
+		assertSame(beansProject, event.getElement());
+		assertEquals(ModelChangeEvent.Type.CHANGED, event.getType());
+		assertEquals(2, event.getDeltas().size());
+
+		BeansConfigDelta delta = event.getDelta(config);
+		assertEquals(1, delta.getAddedBeans().size());
+		assertEquals("addedBean", delta.getAddedBeans().iterator().next().getElementName());
+		assertTrue(delta.getRemovedBeans().isEmpty());
+		assertNotNull(config.getBean("addedBean"));
+	}
+
+	@Test
+	public void testReloadWithEqualBeansIsReported() throws Exception {
+		setContents(config, getContents(config));
+
+		build(IncrementalProjectBuilder.INCREMENTAL_BUILD);
+
+		assertEquals(1, events.size());
+		BeansProjectChangeEvent event = (BeansProjectChangeEvent) events.get(0);
+		assertTrue(event.getDelta(config).isEmpty());
+		assertNull(event.getDelta(otherConfig));
+	}
+
+	@Test
+	public void testUnchangedConfigsAreNotReported() throws Exception {
+		build(IncrementalProjectBuilder.INCREMENTAL_BUILD);
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	public void testFullBuildReportsProjectChange() throws Exception {
+		build(IncrementalProjectBuilder.FULL_BUILD);
+
+		assertEquals(1, events.size());
+		assertFalse(events.get(0) instanceof BeansProjectChangeEvent);
+		assertSame(beansProject, events.get(0).getElement());
+		assertEquals(ModelChangeEvent.Type.CHANGED, events.get(0).getType());
+	}
+
+	@Test
+	public void testStructuralJavaChangeReportsProjectChange() throws Exception {
+		IFile scanning = project.getFile("scanning-bean-config.xml");
+		scanning.create(new ByteArrayInputStream(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<beans xmlns=\"http://www.springframework.org/schema/beans\""
+				+ " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+				+ " xmlns:context=\"http://www.springframework.org/schema/context\""
+				+ " xsi:schemaLocation=\"http://www.springframework.org/schema/beans"
+				+ " http://www.springframework.org/schema/beans/spring-beans.xsd"
+				+ " http://www.springframework.org/schema/context"
+				+ " http://www.springframework.org/schema/context/spring-context.xsd\">"
+				+ "<context:component-scan base-package=\"org.test.spring\"/></beans>")
+				.getBytes(StandardCharsets.UTF_8)), true, null);
+		beansProject.addConfig("scanning-bean-config.xml", IBeansConfig.Type.MANUAL);
+		beansProject.getConfig("scanning-bean-config.xml").getBeans();
+		waitForAutoDetection();
+		events.clear();
+
+		// without a resource delta and change detection in Java files every Java file counts as changed
+		build(IncrementalProjectBuilder.INCREMENTAL_BUILD);
+
+		assertEquals(1, events.size());
+		assertFalse(events.get(0) instanceof BeansProjectChangeEvent);
+		assertSame(beansProject, events.get(0).getElement());
+	}
+
+	private void build(int kind) {
+		BeansConfigReloadingProjectContributionEventListener reloader = new BeansConfigReloadingProjectContributionEventListener();
+		DefaultProjectContributorState state = new DefaultProjectContributorState();
+		reloader.start(kind, null, null, null, state, project, new NullProgressMonitor());
+		reloader.finish(kind, null, null, null, state, project);
+	}
+
+	private static void waitForAutoDetection() throws Exception {
+		Job.getJobManager().join("populateAutoConfigsJobFamily", null);
+	}
+
+	private static String getContents(IBeansConfig config) throws Exception {
+		return new String(FileCopyUtils.copyToByteArray(((IFile) config.getElementResource()).getContents()),
+				StandardCharsets.UTF_8);
+	}
+
+	private static void setContents(IBeansConfig config, String contents) throws Exception {
+		((IFile) config.getElementResource()).setContents(
+				new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), true, false, null);
+	}
+
+	private static boolean setAutoBuilding(boolean autoBuilding) throws Exception {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		boolean previous = description.isAutoBuilding();
+		description.setAutoBuilding(autoBuilding);
+		workspace.setDescription(description);
+		return previous;
+	}
+
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.tests;
+
+import static org.springframework.ide.eclipse.beans.core.metadata.tests.BeanMetadataStoreTest.assertHolder;
+import static org.springframework.ide.eclipse.beans.core.metadata.tests.BeanMetadataStoreTest.beanId;
+import static org.springframework.ide.eclipse.beans.core.metadata.tests.BeanMetadataStoreTest.holder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataHolder;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataPersistence;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataStore;
+
+/**
+ * Compares the save and startup times of {@link BeanMetadataStore} with the single-file serialization used by
+ * {@link BeanMetadataPersistence} before.
+ * <p>
+ * Metadata for 20 projects of 500 beans each is written once in full, written again after a single bean changed, and
+ * read back with one lookup, the way the plug-in does at startup. In the second step the store only appends a record
+ * for the changed bean, and at startup it only reads the file of the project that is looked up. Each step runs once,
+ * so compare the orders of magnitude of the printed milliseconds rather than exact values. It asserts nothing about
+ * the timings and is therefore not in {@code AllBeansCoreTests}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeanMetadataStoreBenchmark {
+
+	private static final int BENCHMARK_PROJECTS = 20;
+
+	private static final int BENCHMARK_BEANS_PER_PROJECT = 500;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void benchmarkAgainstSingleFileSerialization() throws Exception {
+		Map<String, BeanMetadataHolder> metadata = new ConcurrentHashMap<String, BeanMetadataHolder>();
+		for (int p = 0; p < BENCHMARK_PROJECTS; p++) {
+			for (int b = 0; b < BENCHMARK_BEANS_PER_PROJECT; b++) {
+				String id = beanId("project" + p, "bean" + b);
+				metadata.put(id, holder(id));
+			}
+		}
+		String changedId = beanId("project0", "bean0");
+
+		// single file
+		File file = new File(folder.newFolder("single"), ".state");
+		long start = System.nanoTime();
+		storeSingleFile(metadata, file);
+		long legacyFullSave = System.nanoTime() - start;
+
+		metadata.put(changedId, holder(changedId));
+		start = System.nanoTime();
+		storeSingleFile(metadata, file);
+		long legacyIncrementalSave = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		Map<?, ?> loaded = BeanMetadataPersistence.load(file, Map.class);
+		assertHolder(changedId, (BeanMetadataHolder) loaded.get(changedId));
+		long legacyStartup = System.nanoTime() - start;
+
+		// per project store
+		File directory = folder.newFolder("store");
+		BeanMetadataStore<BeanMetadataHolder> store = BeanMetadataStoreTest.createStore(directory);
+		start = System.nanoTime();
+		store.putAll(metadata);
+		store.save();
+		long storeFullSave = System.nanoTime() - start;
+
+		store.put(changedId, holder(changedId));
+		start = System.nanoTime();
+		store.save();
+		long storeIncrementalSave = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		store = BeanMetadataStoreTest.createStore(directory);
+		assertHolder(changedId, store.get(changedId));
+		long storeStartup = System.nanoTime() - start;
+
+		System.out.println(String.format("BeanMetadataStore benchmark (%d beans in %d projects, times in ms)",
+				metadata.size(), BENCHMARK_PROJECTS));
+		System.out.println(String.format("  full save:        single file %d, per project %d", millis(legacyFullSave),
+				millis(storeFullSave)));
+		System.out.println(String.format("  one bean changed: single file %d, per project %d",
+				millis(legacyIncrementalSave), millis(storeIncrementalSave)));
+		System.out.println(String.format("  startup + lookup: single file %d, per project %d", millis(legacyStartup),
+				millis(storeStartup)));
+
+		// all data must survive the round trip
+		for (int p = 0; p < BENCHMARK_PROJECTS; p++) {
+			String id = beanId("project" + p, "bean" + (BENCHMARK_BEANS_PER_PROJECT - 1));
+			assertHolder(id, store.get(id));
+		}
+	}
+
+	/**
+	 * Writes the whole model to a single file, the way {@link BeanMetadataPersistence} did before 3.9.7.
+	 */
+	private static void storeSingleFile(Object obj, File file) throws Exception {
+		ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file));
+		try {
+			out.writeObject(obj);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	private static long millis(long nanos) {
+		return nanos / 1000000;
+	}
+
+}
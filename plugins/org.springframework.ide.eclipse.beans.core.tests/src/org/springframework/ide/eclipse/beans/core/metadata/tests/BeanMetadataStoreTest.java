@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.metadata.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataHolder;
+import org.springframework.ide.eclipse.beans.core.metadata.internal.model.BeanMetadataStore;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IBeanMetadata;
+import org.springframework.ide.eclipse.beans.core.metadata.model.IMethodMetadata;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.metadata.core.StereotypeAnnotationMetadata;
+
+/**
+ * Tests for {@link BeanMetadataStore}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeanMetadataStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testStoreAndReload() throws Exception {
+		File directory = folder.newFolder("store");
+		BeanMetadataStore<BeanMetadataHolder> store = createStore(directory);
+		store.put(beanId("p1", "a"), holder(beanId("p1", "a")));
+		store.put(beanId("p2", "b"), holder(beanId("p2", "b")));
+		store.save();
+
+		assertTrue(new File(directory, "p1.dat").exists());
+		assertTrue(new File(directory, "p2.dat").exists());
+
+		store = createStore(directory);
+		assertHolder(beanId("p1", "a"), store.get(beanId("p1", "a")));
+		assertHolder(beanId("p2", "b"), store.get(beanId("p2", "b")));
+		assertNull(store.get(beanId("p1", "c")));
+	}
+
+	@Test
+	public void testIncrementalSave() throws Exception {
+		File directory = folder.newFolder("store");
+		BeanMetadataStore<BeanMetadataHolder> store = createStore(directory);
+		store.put(beanId("p1", "a"), holder(beanId("p1", "a")));
+		store.put(beanId("p1", "b"), holder(beanId("p1", "b")));
+		store.save();
+		long length = new File(directory, "p1.dat").length();
+
+		store = createStore(directory);
+		store.remove(beanId("p1", "a"));
+		store.put(beanId("p1", "c"), holder(beanId("p1", "c")));
+		store.save();
+		assertTrue(new File(directory, "p1.dat").length() > length);
+
+		store = createStore(directory);
+		assertNull(store.get(beanId("p1", "a")));
+		assertHolder(beanId("p1", "b"), store.get(beanId("p1", "b")));
+		assertHolder(beanId("p1", "c"), store.get(beanId("p1", "c")));
+	}
+
+	@Test
+	public void testCorruptedTail() throws Exception {
+		File directory = folder.newFolder("store");
+		BeanMetadataStore<BeanMetadataHolder> store = createStore(directory);
+		store.put(beanId("p1", "a"), holder(beanId("p1", "a")));
+		store.save();
+		long length = new File(directory, "p1.dat").length();
+		store.put(beanId("p1", "b"), holder(beanId("p1", "b")));
+		store.save();
+
+		// simulate an interrupted write of the second record
+		RandomAccessFile file = new RandomAccessFile(new File(directory, "p1.dat"), "rw");
+		try {
+			file.setLength(length + 10);
+		}
+		finally {
+			file.close();
+		}
+
+		store = createStore(directory);
+		assertHolder(beanId("p1", "a"), store.get(beanId("p1", "a")));
+		assertNull(store.get(beanId("p1", "b")));
+
+		// the next save repairs the file
+		store.put(beanId("p1", "c"), holder(beanId("p1", "c")));
+		store.save();
+		store = createStore(directory);
+		assertHolder(beanId("p1", "a"), store.get(beanId("p1", "a")));
+		assertHolder(beanId("p1", "c"), store.get(beanId("p1", "c")));
+	}
+
+	@Test
+	public void testRemoveProject() throws Exception {
+		File directory = folder.newFolder("store");
+		BeanMetadataStore<BeanMetadataHolder> store = createStore(directory);
+		store.put(beanId("p1", "a"), holder(beanId("p1", "a")));
+		store.put(beanId("p2", "b"), holder(beanId("p2", "b")));
+		store.save();
+
+		store.removeProject("p1");
+		assertFalse(new File(directory, "p1.dat").exists());
+		assertNull(store.get(beanId("p1", "a")));
+		assertHolder(beanId("p2", "b"), store.get(beanId("p2", "b")));
+
+		// nothing of the removed project is written back
+		store.save();
+		assertFalse(new File(directory, "p1.dat").exists());
+		store = createStore(directory);
+		assertNull(store.get(beanId("p1", "a")));
+		assertHolder(beanId("p2", "b"), store.get(beanId("p2", "b")));
+	}
+
+	@Test
+	public void testRemoveProjectThatWasNotLoaded() throws Exception {
+		File directory = folder.newFolder("store");
+		BeanMetadataStore<BeanMetadataHolder> store = createStore(directory);
+		store.put(beanId("p1", "a"), holder(beanId("p1", "a")));
+		store.save();
+
+		store = createStore(directory);
+		store.removeProject("p1");
+		assertFalse(new File(directory, "p1.dat").exists());
+		assertNull(store.get(beanId("p1", "a")));
+	}
+
+	static BeanMetadataStore<BeanMetadataHolder> createStore(File directory) {
+		return new BeanMetadataStore<BeanMetadataHolder>(directory, BeanMetadataHolder.class);
+	}
+
+	static String beanId(String project, String bean) {
+		return "1:beansModel|2:" + project + "|3:src/beans.xml|4:" + bean;
+	}
+
+	static BeanMetadataHolder holder(String id) {
+		BeanMetadataHolder holder = new BeanMetadataHolder();
+		holder.setElemenetId(id);
+		Set<IBeanMetadata> beanMetadata = new LinkedHashSet<IBeanMetadata>();
+		beanMetadata.add(new StereotypeAnnotationMetadata(bean(id), "org.springframework.stereotype.Component", id, null));
+		beanMetadata.add(new StereotypeAnnotationMetadata(bean(id), "org.springframework.context.annotation.Scope", id,
+				null));
+		holder.setBeanMetaData(beanMetadata);
+		holder.setMethodMetaData(Collections.<IMethodMetadata> emptySet());
+		holder.setLastModified(42);
+		return holder;
+	}
+
+	static void assertHolder(String id, BeanMetadataHolder holder) {
+		assertNotNull(holder);
+		assertEquals(id, holder.getElemenetId());
+		assertEquals(42, holder.getLastModified());
+		assertEquals(2, holder.getBeanMetaData().size());
+		Map<String, Object> values = new HashMap<String, Object>();
+		for (IBeanMetadata metadata : holder.getBeanMetaData()) {
+			values.put(metadata.getKey(), metadata.getValue());
+		}
+		assertEquals(id, values.get("org.springframework.stereotype.Component"));
+	}
+
+	/**
+	 * Returns a stand-in for a bean; the meta data only keeps its element id.
+	 */
+	private static IBean bean(final String id) {
+		return (IBean) Proxy.newProxyInstance(BeanMetadataStoreTest.class.getClassLoader(), new Class<?>[] { IBean.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return "getElementID".equals(method.getName()) ? id : null;
+					}
+				});
+	}
+
+}
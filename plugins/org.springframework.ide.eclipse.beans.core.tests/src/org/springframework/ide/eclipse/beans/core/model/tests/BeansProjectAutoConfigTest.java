@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,13 +15,19 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.junit.After;
 import org.junit.Before;
@@ -35,6 +41,8 @@ import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorDefinition;
 import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorFactory;
 import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
 import org.springsource.ide.eclipse.commons.frameworks.test.util.ACondition;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
@@ -44,6 +52,8 @@ import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
  */
 public class BeansProjectAutoConfigTest {
 
+	private static final String ROOT_CONTEXT = "WebContent/WEB-INF/spring/root-context.xml";
+
 	private BeansModel model;
 	private BeansModel realModel;
 
@@ -412,4 +422,169 @@ public class BeansProjectAutoConfigTest {
 		}
 	}
 
+	@Test
+	public void testLazyAutoDetectionRunsOnFirstRequest() throws Exception {
+		IProject project = StsTestUtil.createPredefinedProject("beans-autoconfig-xml-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		IEclipsePreferences preferences = enableLazyAutoDetection();
+
+		try {
+			BeansProject beansProject = new BeansProject(model, project);
+			model.addProject(beansProject);
+
+			// reading the project description doesn't run the locators
+			assertEquals(0, beansProject.getManualConfigNames().size());
+			assertEquals(0, Job.getJobManager().find("populateAutoConfigsJobFamily").length);
+
+			// the first request schedules the detection job and, as it can block, waits for it
+			assertEquals(1, beansProject.getConfigs().size());
+			assertEquals(Collections.singleton(ROOT_CONTEXT), beansProject.getAutoConfigNames());
+		} finally {
+			preferences.remove(BeansCorePlugin.LAZY_AUTO_DETECTION);
+			waitForJobsToComplete();
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testLazyAutoDetectionEqualsEagerOnEveryReadPath() throws Exception {
+		IProject project = StsTestUtil.createPredefinedProject("beans-autoconfig-xml-tests", "org.springframework.ide.eclipse.beans.core.tests");
+
+		try {
+			BeansProject eager = new BeansProject(model, project);
+			eager.getConfigs();
+			Job.getJobManager().join("populateAutoConfigsJobFamily", null);
+			assertEquals(Collections.singleton(ROOT_CONTEXT), eager.getConfigNames());
+
+			IEclipsePreferences preferences = enableLazyAutoDetection();
+			try {
+				assertEquals(eager.hasConfig(ROOT_CONTEXT), new BeansProject(model, project).hasConfig(ROOT_CONTEXT));
+				assertEquals(eager.hasConfig(project.getFile(ROOT_CONTEXT)),
+						new BeansProject(model, project).hasConfig(project.getFile(ROOT_CONTEXT)));
+				assertEquals(eager.getConfig(ROOT_CONTEXT).getElementName(),
+						new BeansProject(model, project).getConfig(ROOT_CONTEXT).getElementName());
+				assertEquals(eager.getConfig(project.getFile(ROOT_CONTEXT)).getElementName(),
+						new BeansProject(model, project).getConfig(project.getFile(ROOT_CONTEXT)).getElementName());
+				assertEquals(eager.getConfigs(project.getFile(ROOT_CONTEXT), false).size(),
+						new BeansProject(model, project).getConfigs(project.getFile(ROOT_CONTEXT), false).size());
+				assertEquals(eager.getConfigNames(), new BeansProject(model, project).getConfigNames());
+				assertEquals(eager.getAutoConfigNames(), new BeansProject(model, project).getAutoConfigNames());
+				assertEquals(eager.getConfigs().size(), new BeansProject(model, project).getConfigs().size());
+				assertEquals(eager.getConfigSets().size(), new BeansProject(model, project).getConfigSets().size());
+			} finally {
+				preferences.remove(BeansCorePlugin.LAZY_AUTO_DETECTION);
+			}
+		} finally {
+			waitForJobsToComplete();
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testLazyAutoDetectionRunsBeforeConfigIsAdded() throws Exception {
+		IProject project = StsTestUtil.createPredefinedProject("beans-autoconfig-xml-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		IEclipsePreferences preferences = enableLazyAutoDetection();
+
+		try {
+			BeansProject beansProject = new BeansProject(model, project);
+			model.addProject(beansProject);
+
+			// the detected config is turned into a manual one instead of being detected again later
+			assertTrue(beansProject.addConfig(ROOT_CONTEXT, IBeansConfig.Type.MANUAL));
+			assertEquals(Collections.singleton(ROOT_CONTEXT), beansProject.getManualConfigNames());
+			assertEquals(0, beansProject.getAutoConfigNames().size());
+			assertEquals(1, beansProject.getConfigs().size());
+		} finally {
+			preferences.remove(BeansCorePlugin.LAZY_AUTO_DETECTION);
+			waitForJobsToComplete();
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testConcurrentFirstRequestsWaitForLazyAutoDetection() throws Exception {
+		IProject project = StsTestUtil.createPredefinedProject("beans-autoconfig-xml-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		IEclipsePreferences preferences = enableLazyAutoDetection();
+
+		try {
+			final BeansProject beansProject = new BeansProject(model, project);
+			model.addProject(beansProject);
+			beansProject.getManualConfigNames();
+
+			final int requests = 4;
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(requests);
+			final AtomicInteger complete = new AtomicInteger();
+			for (int i = 0; i < requests; i++) {
+				new Thread("lazy-auto-detection-" + i) {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							if (beansProject.getConfigs().size() == 1 && beansProject.hasConfig(ROOT_CONTEXT)) {
+								complete.incrementAndGet();
+							}
+						}
+						catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						finally {
+							done.countDown();
+						}
+					}
+				}.start();
+			}
+			start.countDown();
+			assertTrue(done.await(60, TimeUnit.SECONDS));
+			assertEquals(requests, complete.get());
+		} finally {
+			preferences.remove(BeansCorePlugin.LAZY_AUTO_DETECTION);
+			waitForJobsToComplete();
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testLazyAutoDetectionDoesntBlockCallersHoldingAConflictingRule() throws Exception {
+		IProject project = StsTestUtil.createPredefinedProject("beans-autoconfig-xml-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		IEclipsePreferences preferences = enableLazyAutoDetection();
+		final List<Thread> notifyingThreads = new CopyOnWriteArrayList<Thread>();
+		IModelChangeListener listener = new IModelChangeListener() {
+			public void elementChanged(ModelChangeEvent event) {
+				notifyingThreads.add(Thread.currentThread());
+			}
+		};
+		model.addChangeListener(listener);
+
+		try {
+			BeansProject beansProject = new BeansProject(model, project);
+			model.addProject(beansProject);
+
+			Job.getJobManager().beginRule(project, null);
+			try {
+				// the detection job needs the workspace, so this caller gets the configs detected so far
+				assertEquals(0, beansProject.getConfigs().size());
+				assertEquals(1, Job.getJobManager().find("populateAutoConfigsJobFamily").length);
+			} finally {
+				Job.getJobManager().endRule(project);
+			}
+
+			Job.getJobManager().join("populateAutoConfigsJobFamily", null);
+			assertEquals(Collections.singleton(ROOT_CONTEXT), beansProject.getAutoConfigNames());
+			// the change is reported by the job, not by the getter
+			assertFalse(notifyingThreads.isEmpty());
+			assertFalse(notifyingThreads.contains(Thread.currentThread()));
+		} finally {
+			model.removeChangeListener(listener);
+			preferences.remove(BeansCorePlugin.LAZY_AUTO_DETECTION);
+			waitForJobsToComplete();
+			project.delete(true, null);
+		}
+	}
+
+	private static IEclipsePreferences enableLazyAutoDetection() {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(BeansCorePlugin.PLUGIN_ID);
+		preferences.putBoolean(BeansCorePlugin.LAZY_AUTO_DETECTION, true);
+		return preferences;
+	}
+
 }
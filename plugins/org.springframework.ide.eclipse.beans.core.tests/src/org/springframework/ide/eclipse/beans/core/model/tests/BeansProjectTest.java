@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,11 +12,27 @@ package org.springframework.ide.eclipse.beans.core.model.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -482,4 +498,140 @@ public class BeansProjectTest {
 		assertFalse(beansProject.hasConfig(otherFile, "basic-bean-config.xml", false));
 	}
 	
+	@Test
+	public void testReadersSeePublishedConfigsWhileWriterHoldsLock() throws Exception {
+		final SnapshotBeansProject writerProject = new SnapshotBeansProject(model, project);
+		writerProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+
+		final CountDownLatch writing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicReference<Set<String>> seenByWriter = new AtomicReference<Set<String>>();
+		final IBeansConfig autoConfig = blockingConfig(new Runnable() {
+			public void run() {
+				seenByWriter.set(writerProject.getConfigNames());
+				writing.countDown();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			Future<?> writer = executor.submit(new Runnable() {
+				public void run() {
+					writerProject.setAutoDetectedConfig("auto-config.xml", autoConfig);
+				}
+			});
+			assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+			// the writer reads its own changes before they are published
+			assertEquals(new LinkedHashSet<String>(Arrays.asList("basic-bean-config.xml", "auto-config.xml")),
+					seenByWriter.get());
+
+			// other threads don't wait for the writer and read the published configs
+			Callable<Set<String>> reader = new Callable<Set<String>>() {
+				public Set<String> call() {
+					assertFalse(writerProject.hasConfig("auto-config.xml"));
+					assertNull(writerProject.getConfig("auto-config.xml"));
+					assertEquals(1, writerProject.getConfigs().size());
+					return writerProject.getConfigNames();
+				}
+			};
+			Future<Set<String>> first = executor.submit(reader);
+			Future<Set<String>> second = executor.submit(reader);
+			assertEquals(Collections.singleton("basic-bean-config.xml"), first.get(10, TimeUnit.SECONDS));
+			assertEquals(Collections.singleton("basic-bean-config.xml"), second.get(10, TimeUnit.SECONDS));
+
+			release.countDown();
+			writer.get(10, TimeUnit.SECONDS);
+
+			assertTrue(writerProject.hasConfig("auto-config.xml"));
+			assertSame(autoConfig, writerProject.getConfig("auto-config.xml"));
+			assertEquals(2, writerProject.getConfigs().size());
+			assertEquals(seenByWriter.get(), writerProject.getConfigNames());
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testWriterSeesPopulatedModel() throws Exception {
+		final SnapshotBeansProject writerProject = new SnapshotBeansProject(model, project);
+		final AtomicReference<Set<String>> suffixesSeenByWriter = new AtomicReference<Set<String>>();
+		final AtomicReference<Set<IBeansConfig>> configsSeenByWriter = new AtomicReference<Set<IBeansConfig>>();
+		final IBeansConfig autoConfig = blockingConfig(new Runnable() {
+			public void run() {
+				suffixesSeenByWriter.set(writerProject.getConfigSuffixes());
+				configsSeenByWriter.set(new LinkedHashSet<IBeansConfig>(writerProject.getConfigs()));
+			}
+		});
+
+		// the first access to the project is a write
+		writerProject.setAutoDetectedConfig("auto-config.xml", autoConfig);
+
+		// the model has been populated from the project description before the write
+		assertTrue(suffixesSeenByWriter.get().contains("xml"));
+		assertTrue(configsSeenByWriter.get().contains(autoConfig));
+		assertEquals(configsSeenByWriter.get(), writerProject.getConfigs());
+		assertTrue(writerProject.hasConfig("auto-config.xml"));
+	}
+
+	/**
+	 * Returns a config that runs the given callback when the project registers
+	 * its listener, i.e. while the project holds its write lock.
+	 */
+	private static IBeansConfig blockingConfig(final Runnable onRegister) {
+		return (IBeansConfig) Proxy.newProxyInstance(BeansProjectTest.class.getClassLoader(),
+				new Class<?>[] { IBeansConfig.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String methodName = method.getName();
+						if (methodName.equals("registerEventListener")) {
+							onRegister.run();
+						}
+						else if (methodName.equals("getElementName")) {
+							return "auto-config.xml";
+						}
+						else if (methodName.equals("hashCode")) {
+							return System.identityHashCode(proxy);
+						}
+						else if (methodName.equals("equals")) {
+							return proxy == args[0];
+						}
+						else if (method.getReturnType() == boolean.class) {
+							return false;
+						}
+						return null;
+					}
+				});
+	}
+
+	/**
+	 * Exposes setting auto detected configs, which is done by the config
+	 * locators otherwise.
+	 */
+	private static class SnapshotBeansProject extends BeansProject {
+
+		public SnapshotBeansProject(BeansModel model, IProject project) {
+			super(model, project);
+		}
+
+		@Override
+		protected void populateAutoDetectedConfigsAndConfigSets(Map<IBeansConfigSet, Set<String>> removedConfigsFromSets) {
+			// the test sets the auto detected configs itself
+		}
+
+		public void setAutoDetectedConfig(String configName, IBeansConfig config) {
+			BeansConfigLocatorDefinition locator = BeansConfigLocatorFactory.getBeansConfigLocatorDefinitions().get(0);
+			setAutoDetectedConfigs(
+					Collections.singletonMap(locator, Collections.singletonMap(configName, config)),
+					Collections.<BeansConfigLocatorDefinition, String> emptyMap());
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 Spring IDE Developers
+ * Copyright (c) 2005, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,9 +16,15 @@ import org.junit.runners.Suite.SuiteClasses;
 import org.springframework.ide.core.classreading.tests.JdtAnnotationMetadataTest;
 import org.springframework.ide.core.classreading.tests.JdtBasedAnnotationMetadataTest;
 import org.springframework.ide.core.classreading.tests.JdtClassMetadataTest;
+import org.springframework.ide.core.classreading.tests.ProjectMetadataReaderCacheTest;
 import org.springframework.ide.eclipse.beans.core.autowire.AutowireDependencyProviderTest;
 import org.springframework.ide.eclipse.beans.core.autowire.CommonAnnotationInjectionMetadataProviderTests;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDeltaTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelFootprintTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.ConfigLoadingSchedulerTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ClasspathSchemaMappingsTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.resources.tests.ResourceChangeEventHandlerTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.validation.BeansConfigReloadingProjectContributionEventListenerTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanClassRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRulesAutowireTest;
@@ -30,6 +36,7 @@ import org.springframework.ide.eclipse.beans.core.internal.model.validation.rule
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanReferenceRuleWithConfigSetTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.NamespaceElementsRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.RequiredPropertyRuleTest;
+import org.springframework.ide.eclipse.beans.core.metadata.tests.BeanMetadataStoreTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectAutoConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectDescriptionWriterTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigFactoryTest;
@@ -38,9 +45,18 @@ import org.springframework.ide.eclipse.beans.core.model.tests.BeansJavaConfigTes
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelUtilsTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectTest;
 import org.springframework.ide.eclipse.beans.ui.refactoring.tests.BeansJavaConfigRenameTypeRefactoringParticipantTest;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchIndexTest;
+import org.springframework.ide.eclipse.core.io.xml.SchemaGrammarPoolTest;
+import org.springframework.ide.eclipse.core.io.xml.XercesDocumentLoaderTest;
 import org.springframework.ide.eclipse.core.java.IntrospectorTest;
 import org.springframework.ide.eclipse.core.java.JdtUtilsTest;
+import org.springframework.ide.eclipse.core.java.annotation.AnnotationIndexTest;
 import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
+import org.springframework.ide.eclipse.core.internal.project.ResourceContentHashesTest;
+import org.springframework.ide.eclipse.core.model.validation.AbstractValidatorTest;
+import org.springframework.ide.eclipse.core.model.validation.ValidationMetricsTest;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowBeanIndexTest;
+import org.springframework.ide.eclipse.webflow.core.internal.model.validation.WebflowValidationModelCacheTest;
 
 /**
  * Test suite for <code>beans.core</code> plugin.
@@ -66,12 +82,19 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	NamespaceElementsRuleTest.class,
 	IntrospectorTest.class,
 	JdtUtilsTest.class,
+	AnnotationIndexTest.class,
 	AutowireDependencyProviderTest.class,
 	CommonAnnotationInjectionMetadataProviderTests.class,
 	JdtAnnotationMetadataTest.class,
 	JdtBasedAnnotationMetadataTest.class,
 	JdtClassMetadataTest.class,
+	ProjectMetadataReaderCacheTest.class,
 	BeansConfigTest.class,
+	ConfigLoadingSchedulerTest.class,
+	ClasspathSchemaMappingsTest.class,
+	BeansModelFootprintTest.class,
+	BeansConfigDeltaTest.class,
+	BeansConfigReloadingProjectContributionEventListenerTest.class,
 	BeansJavaConfigTest.class,
 	BeansConfigFactoryTest.class,
 	BeansProjectTest.class,
@@ -80,7 +103,16 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	BeansJavaConfigRenameTypeRefactoringParticipantTest.class,
 	ResourceChangeEventHandlerTest.class,
 	TypeHierarchyEngineTest.class,
-	BeansModelUtilsTest.class
+	BeansModelUtilsTest.class,
+	BeanMetadataStoreTest.class,
+	AbstractValidatorTest.class,
+	ValidationMetricsTest.class,
+	ResourceContentHashesTest.class,
+	BeansSearchIndexTest.class,
+	WebflowValidationModelCacheTest.class,
+	WebflowBeanIndexTest.class,
+	SchemaGrammarPoolTest.class,
+	XercesDocumentLoaderTest.class
 })
 public class AllBeansCoreTests {
 	// goofy junit4, no class body needed
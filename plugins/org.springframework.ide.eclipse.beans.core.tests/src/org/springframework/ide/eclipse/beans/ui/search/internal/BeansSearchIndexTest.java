@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.search.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDelta;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProjectChangeEvent;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchIndex.KeyProvider;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent.Type;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests that {@link BeansSearchIndex} finds the same elements as walking the beans model and that it is dropped when
+ * the model changes, for reloaded configs only if the change names them.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansSearchIndexTest {
+
+	private IProject project;
+
+	private BeansModel model;
+
+	private BeansModel originalModel;
+
+	private BeansProject beansProject;
+
+	private IBeansConfig config;
+
+	private CountingKeyProvider keyProvider = new CountingKeyProvider();
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-model-utils-tests", "org.springframework.ide.eclipse.beans.core.tests");
+
+		model = new BeansModel();
+		beansProject = new BeansProject(model, project);
+		model.addProject(beansProject);
+
+		originalModel = (BeansModel) BeansCorePlugin.getModel();
+		BeansCorePlugin.setModel(model);
+		// make the index listen to the test model
+		BeansSearchIndex.dispose();
+
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		config = beansProject.getConfig("basic-bean-config.xml");
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		BeansSearchIndex.dispose();
+		project.delete(true, null);
+		BeansCorePlugin.setModel(originalModel);
+	}
+
+	@Test
+	public void testLiteralLookupEqualsModelWalk() {
+		assertFind("simpleBean1", "simpleBean1", null);
+		assertFind("noSuchBean", "noSuchBean", null);
+	}
+
+	@Test
+	public void testPrefixLookupEqualsModelWalk() {
+		assertFind("simple.*", null, "simple");
+		assertFind("chained.*", null, "chained");
+		assertFind(".*", null, "");
+	}
+
+	@Test
+	public void testPatternLookupEqualsModelWalk() {
+		assertFind(".*Bean2", null, null);
+		assertFind(".*[Ff]actory.*", null, null);
+	}
+
+	@Test
+	public void testIndexIsBuiltOnce() {
+		find("simpleBean1", "simpleBean1", null);
+		int visits = keyProvider.visits.get();
+		find(".*Bean2", null, null);
+		find("factory.*", null, "factory");
+		assertEquals(visits, keyProvider.visits.get());
+	}
+
+	@Test
+	public void testConfigChangeDropsIndex() {
+		assertIndexDroppedBy(config);
+	}
+
+	@Test
+	public void testProjectChangeDropsIndex() {
+		assertIndexDroppedBy(beansProject);
+	}
+
+	@Test
+	public void testModelChangeDropsIndex() {
+		assertIndexDroppedBy(model);
+	}
+
+	@Test
+	public void testReloadEventDropsOnlyReloadedConfigs() {
+		beansProject.addConfig("basic-bean-config-2.xml", IBeansConfig.Type.MANUAL);
+		IBeansConfig otherConfig = beansProject.getConfig("basic-bean-config-2.xml");
+		List<IModelElement> before = find("simple.*", null, "simple");
+		int configVisits = keyProvider.visits.get();
+		List<IModelElement> otherBefore = find(otherConfig, ".*", "");
+		int visits = keyProvider.visits.get();
+
+		Map<String, IBean> noBeans = Collections.emptyMap();
+		model.notifyListeners(new BeansProjectChangeEvent(beansProject,
+				Collections.singletonList(new BeansConfigDelta(config, noBeans, noBeans))));
+
+		// the config that wasn't reloaded is still indexed
+		assertEquals(otherBefore, find(otherConfig, ".*", ""));
+		assertEquals(visits, keyProvider.visits.get());
+		assertEquals(before, find("simple.*", null, "simple"));
+		assertEquals(visits + configVisits, keyProvider.visits.get());
+	}
+
+	private void assertIndexDroppedBy(IModelElement changed) {
+		List<IModelElement> before = find("simple.*", null, "simple");
+		int visits = keyProvider.visits.get();
+
+		model.notifyListeners(changed, Type.CHANGED);
+
+		assertEquals(before, find("simple.*", null, "simple"));
+		assertEquals(2 * visits, keyProvider.visits.get());
+	}
+
+	private void assertFind(String regex, String literal, String prefix) {
+		List<IModelElement> expected = walk(Pattern.compile(regex));
+		assertEquals(expected, find(regex, literal, prefix));
+		// and again from the index
+		assertEquals(expected, find(regex, literal, prefix));
+		if (literal == null || !literal.startsWith("noSuch")) {
+			assertFalse(expected.isEmpty());
+		}
+	}
+
+	private List<IModelElement> find(String regex, String literal, String prefix) {
+		return BeansSearchIndex.getDefault().find(config, keyProvider, Pattern.compile(regex), literal, prefix);
+	}
+
+	private List<IModelElement> find(IBeansConfig beansConfig, String regex, String prefix) {
+		return BeansSearchIndex.getDefault().find(beansConfig, keyProvider, Pattern.compile(regex), null, prefix);
+	}
+
+	/**
+	 * Finds the matching elements the way the queries did before there was an index.
+	 */
+	private List<IModelElement> walk(final Pattern pattern) {
+		final List<IModelElement> matches = new ArrayList<IModelElement>();
+		final KeyProvider uncounted = new CountingKeyProvider();
+		config.accept(new IModelElementVisitor() {
+			public boolean visit(IModelElement element, IProgressMonitor monitor) {
+				Set<String> keys = new LinkedHashSet<String>();
+				uncounted.collectKeys(element, keys);
+				for (String key : keys) {
+					if (pattern.matcher(key).matches()) {
+						matches.add(element);
+						break;
+					}
+				}
+				return true;
+			}
+		}, new NullProgressMonitor());
+		return matches;
+	}
+
+	/**
+	 * Uses bean names and aliases as keys, like the bean name query, and counts the visited elements.
+	 */
+	private static class CountingKeyProvider implements KeyProvider {
+
+		private final AtomicInteger visits = new AtomicInteger();
+
+		public void collectKeys(IModelElement element, Collection<String> keys) {
+			visits.incrementAndGet();
+			if (element instanceof IBean) {
+				IBean bean = (IBean) element;
+				keys.add(bean.getElementName());
+				if (bean.getAliases() != null) {
+					for (String alias : bean.getAliases()) {
+						keys.add(alias);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+
+/**
+ * Tests that {@link ResourceContentHashes} only reports files as unchanged if a full check would find the same
+ * content, and forgets its hashes whenever they might be stale.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ResourceContentHashesTest extends BeansCoreTestCase {
+
+	private static final Set<String> CONTRIBUTORS = Collections.singleton("validator");
+
+	private IProject project;
+
+	private IFile file;
+
+	@Before
+	public void setUp() throws Exception {
+		project = getWorkspaceRoot().getProject("content-hashes");
+		project.create(null);
+		project.open(null);
+		file = project.getFile("beans.xml");
+		file.create(content("<beans/>"), true, null);
+		ResourceContentHashes.load(project, CONTRIBUTORS).reset();
+	}
+
+	@Test
+	public void testUnknownFileIsNeverUnchanged() throws Exception {
+		assertFalse(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testTouchedFileIsUnchanged() throws Exception {
+		build();
+		file.setContents(content("<beans/>"), true, false, null);
+		assertTrue(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testModifiedFileIsChanged() throws Exception {
+		build();
+		file.setContents(content("<beans><bean id=\"foo\"/></beans>"), true, false, null);
+		assertFalse(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testRestoredFileIsUnchanged() throws Exception {
+		build();
+		file.setContents(content("<beans><bean id=\"foo\"/></beans>"), true, false, null);
+		file.setContents(content("<beans/>"), true, false, null);
+		assertTrue(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testOtherContributorsInvalidateHashes() throws Exception {
+		build();
+		assertFalse(ResourceContentHashes.load(project, Collections.singleton("other")).isUnchanged(file));
+	}
+
+	@Test
+	public void testCancelledBuildInvalidatesHashes() throws Exception {
+		build();
+		ResourceContentHashes cancelled = ResourceContentHashes.load(project, CONTRIBUTORS);
+		cancelled.record(file);
+		cancelled.discard();
+		assertFalse(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testRemovedFileIsForgotten() throws Exception {
+		build();
+		ResourceContentHashes hashes = ResourceContentHashes.load(project, CONTRIBUTORS);
+		hashes.remove(file);
+		hashes.save();
+		assertFalse(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testFullBuildForgetsHashes() throws Exception {
+		build();
+		ResourceContentHashes.load(project, CONTRIBUTORS).reset();
+		assertFalse(ResourceContentHashes.load(project, CONTRIBUTORS).isUnchanged(file));
+	}
+
+	@Test
+	public void testUnchangedHashesAreNotWrittenAgain() throws Exception {
+		ResourceContentHashes first = ResourceContentHashes.load(project, CONTRIBUTORS);
+		first.record(file);
+		assertTrue(first.save());
+
+		ResourceContentHashes second = ResourceContentHashes.load(project, CONTRIBUTORS);
+		second.record(file);
+		assertFalse(second.save());
+
+		file.setContents(content("<beans><bean id=\"foo\"/></beans>"), true, false, null);
+		ResourceContentHashes third = ResourceContentHashes.load(project, CONTRIBUTORS);
+		third.record(file);
+		assertTrue(third.save());
+		assertFalse(ResourceContentHashes.load(project, CONTRIBUTORS).save());
+	}
+
+	/**
+	 * Records the file during a successful build.
+	 */
+	private void build() {
+		ResourceContentHashes hashes = ResourceContentHashes.load(project, CONTRIBUTORS);
+		hashes.record(file);
+		hashes.save();
+	}
+
+	private static ByteArrayInputStream content(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
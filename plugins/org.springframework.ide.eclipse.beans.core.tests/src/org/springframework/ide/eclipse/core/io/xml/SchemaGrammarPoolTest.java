@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLSchemaDescription;
+import org.junit.Test;
+
+/**
+ * Tests that {@link SchemaGrammarPool} only hands out a grammar for the namespace and location it was compiled from.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class SchemaGrammarPoolTest {
+
+	private static final String BEANS = "http://www.springframework.org/schema/beans";
+
+	private static final String BEANS_43 = "http://www.springframework.org/schema/beans/spring-beans-4.3.xsd";
+
+	private static final String BEANS_25 = "http://www.springframework.org/schema/beans/spring-beans-2.5.xsd";
+
+	@Test
+	public void testKeyIsNamespaceAndLiteralSystemId() {
+		assertEquals(BEANS + ' ' + BEANS_43, SchemaGrammarPool.getKey(schema(BEANS, BEANS_43, BEANS_25)));
+	}
+
+	@Test
+	public void testKeyFallsBackToFirstLocationHint() {
+		assertEquals(BEANS + ' ' + BEANS_25, SchemaGrammarPool.getKey(schema(BEANS, null, BEANS_25, BEANS_43)));
+	}
+
+	@Test
+	public void testKeyOfSchemaWithoutNamespace() {
+		assertEquals(' ' + BEANS_43, SchemaGrammarPool.getKey(schema(null, BEANS_43)));
+	}
+
+	@Test
+	public void testSchemaWithRelativeOrNoLocationHasNoKey() {
+		assertNull(SchemaGrammarPool.getKey(schema(BEANS, "spring-beans.xsd")));
+		assertNull(SchemaGrammarPool.getKey(schema(BEANS, null, "spring-beans.xsd")));
+		assertNull(SchemaGrammarPool.getKey(schema(BEANS, null)));
+		assertNull(SchemaGrammarPool.getKey(schema(BEANS, null, (String[]) null)));
+	}
+
+	@Test
+	public void testOtherGrammarsHaveNoKey() {
+		XMLGrammarDescription dtd = proxy(XMLGrammarDescription.class, description(BEANS, BEANS_43));
+		assertNull(SchemaGrammarPool.getKey(dtd));
+		assertNull(SchemaGrammarPool.getKey(null));
+	}
+
+	@Test
+	public void testGrammarIsReusedForSameNamespaceAndLocation() {
+		SchemaGrammarPool pool = new SchemaGrammarPool();
+		Grammar grammar = grammar(schema(BEANS, BEANS_43));
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { grammar });
+
+		assertSame(grammar, pool.retrieveGrammar(schema(BEANS, BEANS_43)));
+		assertSame(grammar, pool.retrieveGrammar(schema(BEANS, null, BEANS_43)));
+		assertNull(pool.retrieveGrammar(schema(BEANS, BEANS_25)));
+		assertNull(pool.retrieveGrammar(schema("http://www.springframework.org/schema/context", BEANS_43)));
+		assertEquals(0, pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA).length);
+	}
+
+	@Test
+	public void testFirstCachedGrammarIsKept() {
+		SchemaGrammarPool pool = new SchemaGrammarPool();
+		Grammar first = grammar(schema(BEANS, BEANS_43));
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { first });
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { grammar(schema(BEANS, BEANS_43)) });
+		assertSame(first, pool.retrieveGrammar(schema(BEANS, BEANS_43)));
+	}
+
+	@Test
+	public void testUncacheableGrammarsAreNotCached() {
+		SchemaGrammarPool pool = new SchemaGrammarPool();
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { grammar(schema(BEANS, "beans.xsd")) });
+		assertNull(pool.retrieveGrammar(schema(BEANS, "beans.xsd")));
+	}
+
+	@Test
+	public void testLockedPoolCachesNothing() {
+		SchemaGrammarPool pool = new SchemaGrammarPool();
+		pool.lockPool();
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { grammar(schema(BEANS, BEANS_43)) });
+		assertNull(pool.retrieveGrammar(schema(BEANS, BEANS_43)));
+
+		pool.unlockPool();
+		Grammar grammar = grammar(schema(BEANS, BEANS_43));
+		pool.cacheGrammars(XMLGrammarDescription.XML_SCHEMA, new Grammar[] { grammar });
+		assertSame(grammar, pool.retrieveGrammar(schema(BEANS, BEANS_43)));
+
+		pool.clear();
+		assertNull(pool.retrieveGrammar(schema(BEANS, BEANS_43)));
+	}
+
+	private static XMLSchemaDescription schema(String namespace, String literalSystemId, String... locationHints) {
+		return proxy(XMLSchemaDescription.class, description(namespace, literalSystemId, locationHints));
+	}
+
+	private static InvocationHandler description(final String namespace, final String literalSystemId,
+			final String... locationHints) {
+		return new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String methodName = method.getName();
+				if (methodName.equals("getNamespace")) {
+					return namespace;
+				}
+				if (methodName.equals("getLiteralSystemId")) {
+					return literalSystemId;
+				}
+				if (methodName.equals("getLocationHints")) {
+					return locationHints;
+				}
+				if (methodName.equals("getGrammarType")) {
+					return XMLGrammarDescription.XML_SCHEMA;
+				}
+				if (methodName.equals("hashCode")) {
+					return System.identityHashCode(proxy);
+				}
+				if (methodName.equals("equals")) {
+					return proxy == args[0];
+				}
+				if (method.getReturnType() == short.class) {
+					return (short) 0;
+				}
+				return null;
+			}
+		};
+	}
+
+	private static Grammar grammar(final XMLGrammarDescription description) {
+		return proxy(Grammar.class, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String methodName = method.getName();
+				if (methodName.equals("getGrammarDescription")) {
+					return description;
+				}
+				if (methodName.equals("hashCode")) {
+					return System.identityHashCode(proxy);
+				}
+				if (methodName.equals("equals")) {
+					return proxy == args[0];
+				}
+				return null;
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SchemaGrammarPoolTest.class.getClassLoader(), new Class<?>[] { type },
+				handler);
+	}
+
+}
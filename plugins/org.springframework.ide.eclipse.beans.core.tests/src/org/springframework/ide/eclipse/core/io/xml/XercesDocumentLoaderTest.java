@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Tests that loaders for the same project share compiled schemas, and that they stop sharing them once the schemas on
+ * the project's classpath may have changed.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class XercesDocumentLoaderTest extends BeansCoreTestCase {
+
+	private static final String NAMESPACE = "http://example.org/schema/pool";
+
+	private static final String SCHEMA_LOCATION = "http://example.org/schema/pool/pool-1.0.xsd";
+
+	private static final String SCHEMA = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<xsd:schema xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" targetNamespace=\"" + NAMESPACE + "\""
+			+ " elementFormDefault=\"qualified\">"
+			+ "<xsd:element name=\"root\"><xsd:complexType>"
+			+ "<xsd:attribute name=\"mode\" type=\"xsd:string\" default=\"pooled\"/>"
+			+ "</xsd:complexType></xsd:element></xsd:schema>";
+
+	private static final String DOCUMENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<root xmlns=\"" + NAMESPACE + "\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+			+ " xsi:schemaLocation=\"" + NAMESPACE + " " + SCHEMA_LOCATION + "\"/>";
+
+	private IProject project;
+
+	private CountingEntityResolver entityResolver;
+
+	@Before
+	public void setUp() throws Exception {
+		project = createPredefinedProject("beans-model-utils-tests");
+		XercesDocumentLoader.discardSharedSchemas(project);
+		entityResolver = new CountingEntityResolver();
+	}
+
+	@Test
+	public void testPooledDocumentEqualsUnpooled() throws Exception {
+		Document expected = load(new XercesDocumentLoader());
+		Document first = load(newLoader(project));
+		Document second = load(newLoader(project));
+		for (Document document : new Document[] { first, second }) {
+			assertEquals(expected.getDocumentElement().getNamespaceURI(),
+					document.getDocumentElement().getNamespaceURI());
+			assertEquals(expected.getDocumentElement().getLocalName(), document.getDocumentElement().getLocalName());
+			assertEquals(expected.getDocumentElement().getAttribute("mode"),
+					document.getDocumentElement().getAttribute("mode"));
+		}
+		assertEquals("pooled", second.getDocumentElement().getAttribute("mode"));
+	}
+
+	@Test
+	public void testUnpooledLoaderCompilesSchemaEveryTime() throws Exception {
+		XercesDocumentLoader loader = new XercesDocumentLoader();
+		load(loader);
+		load(loader);
+		assertEquals(2, entityResolver.resolved);
+	}
+
+	@Test
+	public void testLoadersOfProjectShareSchemas() throws Exception {
+		load(newLoader(project));
+		assertEquals(1, entityResolver.resolved);
+		load(newLoader(project));
+		load(newLoader(project));
+		assertEquals(1, entityResolver.resolved);
+	}
+
+	@Test
+	public void testProjectsDontShareSchemas() throws Exception {
+		IProject other = getWorkspaceRoot().getProject("other-schema-pool");
+		XercesDocumentLoader.discardSharedSchemas(other);
+		load(newLoader(project));
+		load(newLoader(other));
+		assertEquals(2, entityResolver.resolved);
+	}
+
+	@Test
+	public void testDiscardedSchemasAreCompiledAgain() throws Exception {
+		XercesDocumentLoader before = newLoader(project);
+		load(before);
+		XercesDocumentLoader.discardSharedSchemas(project);
+
+		load(newLoader(project));
+		assertEquals(2, entityResolver.resolved);
+		load(newLoader(project));
+		assertEquals(2, entityResolver.resolved);
+
+		// loaders created before keep their own parsers
+		load(before);
+		assertEquals(2, entityResolver.resolved);
+	}
+
+	@Test
+	public void testClasspathChangeCompilesSchemasAgain() throws Exception {
+		load(newLoader(project));
+		assertEquals(1, entityResolver.resolved);
+
+		IJavaProject javaProject = JavaCore.create(project);
+		List<IClasspathEntry> entries = new ArrayList<IClasspathEntry>();
+		for (IClasspathEntry entry : javaProject.getRawClasspath()) {
+			if (!entry.getPath().lastSegment().startsWith("org.springframework.context")) {
+				entries.add(entry);
+			}
+		}
+		javaProject.setRawClasspath(entries.toArray(new IClasspathEntry[entries.size()]), null);
+
+		load(newLoader(project));
+		assertEquals(2, entityResolver.resolved);
+		load(newLoader(project));
+		assertEquals(2, entityResolver.resolved);
+	}
+
+	private XercesDocumentLoader newLoader(IProject project) {
+		return new XercesDocumentLoader(project, getClass().getClassLoader());
+	}
+
+	private Document load(XercesDocumentLoader loader) throws Exception {
+		return loader.loadDocument(new InputSource(new StringReader(DOCUMENT)), entityResolver, new DefaultHandler(),
+				XmlBeanDefinitionReader.VALIDATION_XSD, true);
+	}
+
+	/**
+	 * Resolves the test schema and counts how often the parsers needed it.
+	 */
+	private static class CountingEntityResolver implements EntityResolver {
+
+		private int resolved;
+
+		public InputSource resolveEntity(String publicId, String systemId) {
+			if (SCHEMA_LOCATION.equals(systemId)) {
+				resolved++;
+				InputSource source = new InputSource(new StringReader(SCHEMA));
+				source.setSystemId(systemId);
+				return source;
+			}
+			return null;
+		}
+	}
+
+}
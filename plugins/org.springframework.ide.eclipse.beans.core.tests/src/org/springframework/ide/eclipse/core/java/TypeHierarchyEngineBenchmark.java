@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathLookupDirect;
+import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Compares concurrent lookups of the {@link TypeHierarchyEngine} that clean up after every lookup against lookups
+ * that share the open jars.
+ * <p>
+ * In each of 50 rounds, 8 threads resolve the same super class and interface checks against a new engine, so every
+ * round reads the class files from the {@code type-hierarchy-engine-testcases} jars again. With auto cleanup every
+ * lookup opens and closes the jars it needs; without it the threads share the jars opened by the first lookup until
+ * the round clears the engine. Both modes are warmed up once before the measured run and their wall-clock totals are
+ * printed. Every lookup must still give the expected answer, but the class doesn't judge the timings and so isn't in
+ * {@code AllBeansCoreTests}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class TypeHierarchyEngineBenchmark {
+
+	private static final int BENCHMARK_THREADS = 8;
+
+	private static final int BENCHMARK_ROUNDS = 50;
+
+	private IProject project;
+	private DirectTypeHierarchyElementCacheFactory elementCacheFactory;
+
+	@BeforeClass
+	public static void setUp() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("type-hierarchy-engine-testcases", "org.springframework.ide.eclipse.beans.core.tests");
+		elementCacheFactory = new DirectTypeHierarchyElementCacheFactory();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testBenchmarkConcurrentLookups() throws Exception {
+		// warm up
+		runConcurrentLookups(true);
+		runConcurrentLookups(false);
+
+		long autoCleanup = runConcurrentLookups(true);
+		long concurrent = runConcurrentLookups(false);
+
+		System.out.println(String.format("Type hierarchy engine benchmark (%d threads, %d rounds on cold caches)",
+				BENCHMARK_THREADS, BENCHMARK_ROUNDS));
+		System.out.println(String.format("  cleanup after every lookup: %d ms", autoCleanup / 1000000));
+		System.out.println(String.format("  concurrent lookups:         %d ms", concurrent / 1000000));
+	}
+
+	/**
+	 * Runs <code>doesExtend</code> and <code>doesImplement</code> lookups from all benchmark threads at the same time
+	 * on a new engine for every round, so that the class files have to be read from the project's jars again.
+	 * @return the elapsed time in nanoseconds
+	 */
+	private long runConcurrentLookups(boolean autoCleanup) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(BENCHMARK_THREADS);
+		try {
+			long start = System.nanoTime();
+			for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+				final TypeHierarchyEngine benchmarkEngine = new TypeHierarchyEngine(autoCleanup);
+				benchmarkEngine.setClassReaderFactory(new DirectLookupClassReaderFactory());
+				benchmarkEngine.setTypeHierarchyElementCacheFactory(elementCacheFactory);
+
+				List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+				for (int i = 0; i < BENCHMARK_THREADS; i++) {
+					results.add(executor.submit(new Callable<Boolean>() {
+						public Boolean call() throws Exception {
+							return benchmarkEngine.doesExtend("org.sub.ClassABCD", "org.ClassA", project)
+									&& benchmarkEngine.doesExtend("org.ImplementingInterfaceThroughExtendingTypeFromLibrary",
+											"org.springframework.beans.factory.config.AbstractFactoryBean", project)
+									&& benchmarkEngine.doesImplement("org.sub.ClassABCD", "org.sub.InterfaceCD", project)
+									&& benchmarkEngine.doesImplement("org.ImplementingInterfaceThroughExtendingTypeFromLibrary",
+											"org.springframework.beans.factory.FactoryBean", project)
+									&& !benchmarkEngine.doesImplement("org.sub.ClassABCD", "org.SimpleInterface", project);
+						}
+					}));
+				}
+				for (Future<Boolean> result : results) {
+					assertTrue(result.get());
+				}
+				benchmarkEngine.clearCache();
+			}
+			return System.nanoTime() - start;
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Reads the class files directly from the jars and folders of the project's classpath.
+	 */
+	private static class DirectLookupClassReaderFactory implements TypeHierarchyClassReaderFactory {
+
+		public TypeHierarchyClassReader createClassReader(IProject project) {
+			List<URL> urls = ProjectClassLoaderCache.getClassPathUrls(project, null);
+			return new BytecodeTypeHierarchyClassReader(new ClasspathLookupDirect(urls.toArray(new URL[urls.size()])));
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,12 +12,22 @@ package org.springframework.ide.eclipse.core.java;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
@@ -25,11 +35,13 @@ import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElementJar;
 import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReader;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReaderFactory;
@@ -37,6 +49,7 @@ import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElem
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElementCache;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElementCacheFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.util.FileCopyUtils;
 import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
 
 /**
@@ -282,6 +295,53 @@ public class TypeHierarchyEngineTest {
 		assertEquals(1, caches[0].classAccessed("org/ClassA")); // this one is accessed for the first time
 	}
 	
+	@Test
+	public void testReplacedJarIsReadAgainWithoutCleanup() throws Exception {
+		// jars held open can't be replaced on Windows
+		Assume.assumeFalse(Platform.OS_WIN32.equals(Platform.getOS()));
+
+		File jar = File.createTempFile("type-hierarchy", ".jar");
+		File replacement = File.createTempFile("type-hierarchy-replacement", ".jar");
+		try {
+			writeJar(jar, "org/first/First.class", "first");
+			ClasspathElementJar element = new ClasspathElementJar(jar.getAbsolutePath());
+			InputStream held = element.getStream("org/first/First.class", "org/first", "First.class");
+			assertNotNull(held);
+			assertNull(element.getStream("org/second/Second.class", "org/second", "Second.class"));
+
+			// replace the jar while a reader still holds the old one
+			writeJar(replacement, "org/second/Second.class", "second, replacing first");
+			replacement.setLastModified(jar.lastModified() + 10000);
+			Files.move(replacement.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			// the last seen stamp of the jar is trusted for a second
+			Thread.sleep(1500);
+
+			InputStream stream = element.getStream("org/second/Second.class", "org/second", "Second.class");
+			assertEquals("second, replacing first", new String(FileCopyUtils.copyToByteArray(stream),
+					StandardCharsets.UTF_8));
+			assertNull(element.getStream("org/first/First.class", "org/first", "First.class"));
+			held.close();
+			element.cleanup();
+		}
+		finally {
+			jar.delete();
+			replacement.delete();
+		}
+	}
+
+	private static void writeJar(File jar, String entryName, String contents) throws Exception {
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			out.putNextEntry(new JarEntry(entryName));
+			out.write(contents.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+		finally {
+			out.close();
+		}
+	}
+
 	private static class AccessLoggingClassReaderFactory implements TypeHierarchyClassReaderFactory {
 		
 		private TypeHierarchyClassReaderFactory readerFactory;
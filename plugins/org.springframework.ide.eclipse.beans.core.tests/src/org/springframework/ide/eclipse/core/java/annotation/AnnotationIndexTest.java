@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class AnnotationIndexTest {
+
+	private static final String CONFIGURATION = "org.springframework.context.annotation.Configuration";
+
+	private IProject project;
+	private IJavaProject javaProject;
+	private AnnotationIndex index;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-config-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		javaProject = JdtUtils.getJavaProject(project);
+		index = AnnotationIndex.getDefault();
+		index.clear();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		index.clear();
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testSameResultAsSearch() throws Exception {
+		IJavaSearchScope sources = SearchEngine.createJavaSearchScope(new IJavaElement[] { javaProject },
+				IJavaSearchScope.SOURCES);
+		Set<IType> searched = JdtUtils.searchForJavaConfigs(sources);
+		assertFalse(searched.isEmpty());
+		assertEquals(searched, JdtUtils.searchForJavaConfigs(javaProject));
+	}
+
+	@Test
+	public void testChangedCompilationUnit() throws Exception {
+		assertTrue(getConfigNames().contains("org.test.spring.SimpleConfigurationClass"));
+
+		IFile file = project.getFile("src/org/test/spring/SimpleConfigurationClass.java");
+		file.setContents(new ByteArrayInputStream(
+				"package org.test.spring;\n\npublic class SimpleConfigurationClass {\n}\n".getBytes()), true, false, null);
+		assertFalse(getConfigNames().contains("org.test.spring.SimpleConfigurationClass"));
+
+		file.setContents(new ByteArrayInputStream(("package org.test.spring;\n\n"
+				+ "@org.springframework.context.annotation.Configuration\n"
+				+ "public class SimpleConfigurationClass {\n}\n").getBytes()), true, false, null);
+		assertTrue(getConfigNames().contains("org.test.spring.SimpleConfigurationClass"));
+	}
+
+	@Test
+	public void testAddedAndRemovedCompilationUnit() throws Exception {
+		assertFalse(getConfigNames().contains("org.test.spring.AddedConfigurationClass"));
+
+		IFile file = project.getFile("src/org/test/spring/AddedConfigurationClass.java");
+		file.create(new ByteArrayInputStream(("package org.test.spring;\n\n"
+				+ "@org.springframework.context.annotation.Configuration\n"
+				+ "public class AddedConfigurationClass {\n}\n").getBytes()), true, null);
+		assertTrue(getConfigNames().contains("org.test.spring.AddedConfigurationClass"));
+
+		file.delete(true, null);
+		assertFalse(getConfigNames().contains("org.test.spring.AddedConfigurationClass"));
+	}
+
+	private Set<String> getConfigNames() {
+		Set<String> names = new HashSet<String>();
+		for (IType type : index.getAnnotatedTypes(javaProject, CONFIGURATION)) {
+			names.add(type.getFullyQualifiedName());
+		}
+		return names;
+	}
+
+}
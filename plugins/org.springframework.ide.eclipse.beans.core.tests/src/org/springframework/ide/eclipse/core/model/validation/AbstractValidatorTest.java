@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IResourceModelElement;
+
+/**
+ * Tests that parallel validation in {@link AbstractValidator} has the same outcome as serial validation, and that
+ * markers are only reconciled by validators that know the markers their cleanup deletes.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class AbstractValidatorTest extends BeansCoreTestCase {
+
+	private List<IResource> resources;
+
+	@Before
+	public void setUp() throws Exception {
+		IProject project = getWorkspaceRoot().getProject("parallel-validation");
+		project.create(null);
+		project.open(null);
+		resources = new ArrayList<IResource>();
+		for (int i = 0; i < 6; i++) {
+			IFile file = project.getFile("config" + i + ".xml");
+			file.create(new ByteArrayInputStream(new byte[0]), true, null);
+			resources.add(file);
+		}
+	}
+
+	@Test
+	public void testParallelEqualsSerial() throws Exception {
+		Set<IResource> affected = new LinkedHashSet<IResource>(resources);
+
+		TestValidator serial = new TestValidator(false, Collections.<IResource> emptySet());
+		serial.validate(affected, 0, new NullProgressMonitor());
+		Map<String, Set<String>> serialMarkers = getMarkers();
+		assertEquals(resources.size(), serialMarkers.size());
+
+		clearMarkers();
+		TestValidator parallel = new TestValidator(true, Collections.<IResource> emptySet());
+		parallel.validate(affected, 0, new NullProgressMonitor());
+		assertEquals(serialMarkers, getMarkers());
+		assertEquals(new HashSet<IResource>(resources), parallel.getValidated());
+		assertTrue(parallel.getLiveCallbacks().isEmpty());
+	}
+
+	@Test
+	public void testParallelStopsAtFirstExternalResourceLikeSerial() throws Exception {
+		Set<IResource> affected = new LinkedHashSet<IResource>(resources);
+		Set<IResource> external = Collections.singleton(resources.get(2));
+
+		TestValidator serial = new TestValidator(false, external);
+		serial.validate(affected, 0, new NullProgressMonitor());
+		Map<String, Set<String>> serialMarkers = getMarkers();
+		assertEquals(2, serialMarkers.size());
+
+		clearMarkers();
+		TestValidator parallel = new TestValidator(true, external);
+		parallel.validate(affected, 0, new NullProgressMonitor());
+		assertEquals(serialMarkers, getMarkers());
+
+		// nothing after the external resource was even initialized, let alone validated
+		assertEquals(new HashSet<IResource>(resources.subList(0, 3)), parallel.getInitialized());
+		assertEquals(serial.getValidated(), parallel.getValidated());
+		assertTrue(parallel.getLiveCallbacks().isEmpty());
+	}
+
+	@Test
+	public void testDefaultCleanupMarkersAreReconciled() throws Exception {
+		Set<IResource> affected = new LinkedHashSet<IResource>(resources);
+		TestValidator validator = new TestValidator(false, Collections.<IResource> emptySet());
+		validator.setReconcile(true);
+
+		validator.validate(affected, 0, new NullProgressMonitor());
+		Set<Long> markerIds = getMarkerIds();
+		assertEquals(resources.size() * 3, markerIds.size());
+
+		validator.validate(affected, 0, new NullProgressMonitor());
+		assertEquals(markerIds, getMarkerIds());
+	}
+
+	@Test
+	public void testMarkersAreRecreatedByDefault() throws Exception {
+		Set<IResource> affected = new LinkedHashSet<IResource>(resources);
+		TestValidator validator = new TestValidator(false, Collections.<IResource> emptySet());
+
+		validator.validate(affected, 0, new NullProgressMonitor());
+		Set<Long> markerIds = getMarkerIds();
+		Map<String, Set<String>> markers = getMarkers();
+
+		validator.validate(affected, 0, new NullProgressMonitor());
+		assertEquals(markers, getMarkers());
+		Set<Long> recreated = new HashSet<Long>(getMarkerIds());
+		recreated.retainAll(markerIds);
+		assertTrue(recreated.isEmpty());
+	}
+
+	@Test
+	public void testDefaultCleanupMarkersAreTheMarkersCleanupDeletes() throws Exception {
+		IResource resource = resources.get(0);
+		IMarker own = resource.createMarker(SpringCore.MARKER_ID);
+		IMarker other = resource.createMarker(IMarker.PROBLEM);
+		TestValidator validator = new TestValidator(false, Collections.<IResource> emptySet());
+
+		IMarker[] found = validator.getDefaultCleanupMarkers(resource);
+		assertEquals(1, found.length);
+		assertEquals(own.getId(), found[0].getId());
+
+		validator.cleanup(resource, new NullProgressMonitor());
+		assertFalse(own.exists());
+		assertTrue(other.exists());
+	}
+
+	private Set<Long> getMarkerIds() throws CoreException {
+		Set<Long> ids = new HashSet<Long>();
+		for (IResource resource : resources) {
+			for (IMarker marker : resource.findMarkers(SpringCore.MARKER_ID, true, IResource.DEPTH_ZERO)) {
+				ids.add(marker.getId());
+			}
+		}
+		return ids;
+	}
+
+	private Map<String, Set<String>> getMarkers() throws CoreException {
+		Map<String, Set<String>> markers = new LinkedHashMap<String, Set<String>>();
+		for (IResource resource : resources) {
+			Set<String> messages = new TreeSet<String>();
+			for (IMarker marker : resource.findMarkers(SpringCore.MARKER_ID, true, IResource.DEPTH_ZERO)) {
+				messages.add((String) marker.getAttribute(IMarker.MESSAGE));
+			}
+			if (!messages.isEmpty()) {
+				markers.put(resource.getName(), messages);
+			}
+		}
+		return markers;
+	}
+
+	private void clearMarkers() throws CoreException {
+		for (IResource resource : resources) {
+			resource.deleteMarkers(SpringCore.MARKER_ID, true, IResource.DEPTH_ZERO);
+		}
+	}
+
+	/**
+	 * Validator that reports one problem per context element of a resource, without running any rules.
+	 */
+	private static class TestValidator extends AbstractValidator {
+
+		private final boolean parallel;
+
+		private final Set<IResource> external;
+
+		private final Set<IResource> initialized = Collections.synchronizedSet(new HashSet<IResource>());
+
+		private final Set<IResource> validated = Collections.synchronizedSet(new HashSet<IResource>());
+
+		private final Set<Object> liveCallbacks = Collections.synchronizedSet(new HashSet<Object>());
+
+		private boolean reconcile;
+
+		TestValidator(boolean parallel, Set<IResource> external) {
+			this.parallel = parallel;
+			this.external = external;
+			setMarkerId(SpringCore.MARKER_ID);
+			setValidatorId("test");
+		}
+
+		void setReconcile(boolean reconcile) {
+			this.reconcile = reconcile;
+		}
+
+		IMarker[] getDefaultCleanupMarkers(IResource resource) throws CoreException {
+			return findDefaultCleanupMarkers(resource);
+		}
+
+		Set<IResource> getInitialized() {
+			return initialized;
+		}
+
+		Set<IResource> getValidated() {
+			return validated;
+		}
+
+		Set<Object> getLiveCallbacks() {
+			return liveCallbacks;
+		}
+
+		@Override
+		protected boolean isParallelValidationEnabled() {
+			return parallel;
+		}
+
+		@Override
+		protected IMarker[] findExistingMarkers(IResource resource) throws CoreException {
+			return reconcile ? findDefaultCleanupMarkers(resource) : null;
+		}
+
+		@Override
+		protected Set<ValidationRuleDefinition> getRuleDefinitions(IResource resource) {
+			return Collections.singleton(new ValidationRuleDefinition("test", "rule", "rule", "rule"));
+		}
+
+		public Set<IResource> deriveResources(Object object) {
+			return Collections.emptySet();
+		}
+
+		public Set<IResource> getAffectedResources(IResource resource, int kind, int deltaKind) {
+			return Collections.singleton(resource);
+		}
+
+		@Override
+		protected boolean supports(IModelElement element) {
+			return false;
+		}
+
+		@Override
+		protected IValidationContext createContext(final IResourceModelElement rootElement,
+				final IResourceModelElement contextElement) {
+			return proxy(IValidationContext.class, new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if (method.getName().equals("getProblems")) {
+						IResource resource = rootElement.getElementResource();
+						validated.add(resource);
+						return Collections.singleton(new ValidationProblem(IMarker.SEVERITY_WARNING,
+								"Problem in " + contextElement.getElementName(), resource, 1));
+					}
+					return null;
+				}
+			});
+		}
+
+		@Override
+		protected IValidationElementLifecycleManager createValidationElementLifecycleManager() {
+			return new IValidationElementLifecycleManager() {
+
+				private IResourceModelElement rootElement;
+
+				public void init(IResource resource) {
+					initialized.add(resource);
+					liveCallbacks.add(this);
+					rootElement = element(resource, resource.getName(), external.contains(resource));
+				}
+
+				public IResourceModelElement getRootElement() {
+					return rootElement;
+				}
+
+				public Set<IResourceModelElement> getContextElements() {
+					IResource resource = rootElement.getElementResource();
+					Set<IResourceModelElement> contextElements = new LinkedHashSet<IResourceModelElement>();
+					for (int i = 0; i < 3; i++) {
+						contextElements.add(element(resource, resource.getName() + "#" + i, false));
+					}
+					return contextElements;
+				}
+
+				public void destroy() {
+					assertTrue("destroyed twice", liveCallbacks.remove(this));
+				}
+			};
+		}
+
+		private static IResourceModelElement element(final IResource resource, final String name,
+				final boolean isExternal) {
+			return proxy(IResourceModelElement.class, new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String methodName = method.getName();
+					if (methodName.equals("getElementResource")) {
+						return resource;
+					}
+					if (methodName.equals("getElementName")) {
+						return name;
+					}
+					if (methodName.equals("isExternal")) {
+						return isExternal;
+					}
+					if (methodName.equals("hashCode")) {
+						return System.identityHashCode(proxy);
+					}
+					if (methodName.equals("equals")) {
+						return proxy == args[0];
+					}
+					if (method.getReturnType() == boolean.class) {
+						return false;
+					}
+					if (method.getReturnType() == int.class) {
+						return 0;
+					}
+					return null;
+				}
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return (T) Proxy.newProxyInstance(AbstractValidatorTest.class.getClassLoader(), new Class<?>[] { type },
+					handler);
+		}
+	}
+
+}
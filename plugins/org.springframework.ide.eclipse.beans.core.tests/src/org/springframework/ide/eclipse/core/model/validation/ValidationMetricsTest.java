@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.model.validation.ValidationMetrics.Stats;
+
+/**
+ * Tests the aggregation of {@link ValidationMetrics} and its CSV and JSON reports.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ValidationMetricsTest {
+
+	private ValidationMetrics metrics;
+
+	@Before
+	public void setUp() {
+		metrics = ValidationMetrics.getDefault();
+		metrics.reset();
+	}
+
+	@After
+	public void tearDown() {
+		metrics.reset();
+	}
+
+	private static long millis(double millis) {
+		return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	private void recordSamples() {
+		metrics.recordRule("r1", "Bean \"class\", rule", millis(3));
+		metrics.recordRule("r1", "Bean \"class\", rule", millis(5.7));
+		metrics.recordRule("r2", "Slow rule", millis(20));
+		metrics.recordResource("beans", "C:\\ws\\a.xml", millis(2));
+	}
+
+	@Test
+	public void testStatsSlowestFirst() {
+		recordSamples();
+		List<Stats> rules = metrics.getRuleStats();
+		assertEquals(2, rules.size());
+		assertEquals("r2", rules.get(0).getId());
+		assertEquals("r1", rules.get(1).getId());
+		assertEquals(2, rules.get(1).getCount());
+		assertEquals(8, rules.get(1).getTotalMillis());
+		assertEquals(5, rules.get(1).getMaxMillis());
+
+		List<Stats> resources = metrics.getResourceStats();
+		assertEquals(1, resources.size());
+		assertEquals("beans:C:\\ws\\a.xml", resources.get(0).getId());
+		assertEquals("C:\\ws\\a.xml", resources.get(0).getName());
+	}
+
+	@Test
+	public void testCsv() {
+		recordSamples();
+		assertEquals("kind,id,name,count,totalMillis,maxMillis\n"
+				+ "rule,r2,Slow rule,1,20,20\n"
+				+ "rule,r1,\"Bean \"\"class\"\", rule\",2,8,5\n"
+				+ "resource,beans:C:\\ws\\a.xml,C:\\ws\\a.xml,1,2,2\n", metrics.toCsv());
+	}
+
+	@Test
+	public void testJson() {
+		recordSamples();
+		assertEquals("{\n"
+				+ "  \"rules\": [\n"
+				+ "    {\"id\": \"r2\", \"name\": \"Slow rule\", \"count\": 1, \"totalMillis\": 20, \"maxMillis\": 20},\n"
+				+ "    {\"id\": \"r1\", \"name\": \"Bean \\\"class\\\", rule\", \"count\": 2, \"totalMillis\": 8, \"maxMillis\": 5}\n"
+				+ "  ],\n"
+				+ "  \"resources\": [\n"
+				+ "    {\"id\": \"beans:C:\\\\ws\\\\a.xml\", \"name\": \"C:\\\\ws\\\\a.xml\", \"count\": 1, \"totalMillis\": 2, \"maxMillis\": 2}\n"
+				+ "  ]\n"
+				+ "}\n", metrics.toJson());
+	}
+
+	@Test
+	public void testEmptyReports() {
+		recordSamples();
+		metrics.reset();
+		assertEquals("kind,id,name,count,totalMillis,maxMillis\n", metrics.toCsv());
+		assertEquals("{\n  \"rules\": [],\n  \"resources\": []\n}\n", metrics.toJson());
+	}
+
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.webflow.core.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDelta;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProjectChangeEvent;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent.Type;
+import org.springframework.ide.eclipse.webflow.core.Activator;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Tests that {@link WebflowBeanIndex} finds the same beans as the beans model, that a reload only drops the indexes of
+ * flows linking the reloaded configs, and that an index built while the model changed isn't kept.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class WebflowBeanIndexTest {
+
+	private IProject project;
+
+	private BeansModel model;
+
+	private BeansModel originalModel;
+
+	private BeansProject beansProject;
+
+	private IBeansConfig beansConfig;
+
+	private WebflowConfig flow;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-model-utils-tests", "org.springframework.ide.eclipse.beans.core.tests");
+
+		// make the index listen to the test model
+		WebflowBeanIndex.dispose();
+		model = new BeansModel();
+		beansProject = new BeansProject(model, project);
+		model.addProject(beansProject);
+		originalModel = (BeansModel) BeansCorePlugin.getModel();
+		BeansCorePlugin.setModel(model);
+
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		beansConfig = beansProject.getConfig("basic-bean-config.xml");
+		flow = createFlow();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		WebflowBeanIndex.dispose();
+		project.delete(true, null);
+		BeansCorePlugin.setModel(originalModel);
+	}
+
+	@Test
+	public void testLookupsEqualBeansModel() {
+		Set<IBean> expected = new HashSet<IBean>(BeansModelUtils.getBeans(beansConfig, null));
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, WebflowBeanIndex.getDefault().getBeans(flow));
+		for (IBean bean : expected) {
+			assertEquals(bean.getElementName(), WebflowBeanIndex.getDefault().getBean(flow, bean.getElementName())
+					.getElementName());
+			assertTrue(WebflowBeanIndex.getDefault().isBeanFound(flow, bean.getElementName()));
+		}
+		assertNull(WebflowBeanIndex.getDefault().getBean(flow, "noSuchBean"));
+		assertNull(WebflowBeanIndex.getDefault().getBean(flow, null));
+		assertFalse(WebflowBeanIndex.getDefault().isBeanFound(flow, "noSuchBean"));
+	}
+
+	@Test
+	public void testIndexIsReused() {
+		Set<IBean> beans = WebflowBeanIndex.getDefault().getBeans(flow);
+		assertSame(beans, WebflowBeanIndex.getDefault().getBeans(flow));
+	}
+
+	@Test
+	public void testModelChangeDropsIndex() {
+		Set<IBean> beans = WebflowBeanIndex.getDefault().getBeans(flow);
+		model.notifyListeners(beansConfig, Type.CHANGED);
+		Set<IBean> rebuilt = WebflowBeanIndex.getDefault().getBeans(flow);
+		assertNotSame(beans, rebuilt);
+		assertEquals(beans, rebuilt);
+	}
+
+	@Test
+	public void testReloadDropsOnlyIndexesOfReloadedConfigs() {
+		beansProject.addConfig("basic-bean-config-2.xml", IBeansConfig.Type.MANUAL);
+		IBeansConfig otherConfig = beansProject.getConfig("basic-bean-config-2.xml");
+		WebflowConfig otherFlow = createFlow();
+		otherFlow.setBeansConfigs(Collections.<IModelElement> singleton(otherConfig));
+		BeansConfigSet configSet = new BeansConfigSet(beansProject, "set", IBeansConfigSet.Type.MANUAL);
+		configSet.addConfig(beansConfig.getElementName());
+		WebflowConfig configSetFlow = createFlow();
+		configSetFlow.setBeansConfigs(Collections.<IModelElement> singleton(configSet));
+
+		Set<IBean> beans = WebflowBeanIndex.getDefault().getBeans(flow);
+		Set<IBean> otherBeans = WebflowBeanIndex.getDefault().getBeans(otherFlow);
+		Set<IBean> configSetBeans = WebflowBeanIndex.getDefault().getBeans(configSetFlow);
+
+		Map<String, IBean> noBeans = Collections.emptyMap();
+		model.notifyListeners(new BeansProjectChangeEvent(beansProject,
+				Collections.singletonList(new BeansConfigDelta(beansConfig, noBeans, noBeans))));
+
+		assertNotSame(beans, WebflowBeanIndex.getDefault().getBeans(flow));
+		assertNotSame(configSetBeans, WebflowBeanIndex.getDefault().getBeans(configSetFlow));
+		assertSame(otherBeans, WebflowBeanIndex.getDefault().getBeans(otherFlow));
+	}
+
+	@Test
+	public void testUnlinkedConfigDropsIndex() {
+		assertFalse(WebflowBeanIndex.getDefault().getBeans(flow).isEmpty());
+		flow.setBeansConfigs(Collections.<IModelElement> emptySet());
+		assertTrue(WebflowBeanIndex.getDefault().getBeans(flow).isEmpty());
+		assertFalse(WebflowBeanIndex.getDefault().isBeanFound(flow, "simpleBean1"));
+	}
+
+	@Test
+	public void testIndexBuiltDuringModelChangeIsNotKept() {
+		final boolean[] changing = { true };
+		WebflowConfig racingFlow = new WebflowConfig(flow.getProject()) {
+			@Override
+			public Set<IModelElement> getBeansConfigs() {
+				Set<IModelElement> beansConfigs = super.getBeansConfigs();
+				if (changing[0]) {
+					// the model changes after this lookup started collecting beans
+					changing[0] = false;
+					model.notifyListeners(beansConfig, Type.CHANGED);
+				}
+				return beansConfigs;
+			}
+		};
+		racingFlow.setBeansConfigs(Collections.<IModelElement> singleton(beansConfig));
+
+		Set<IBean> stale = WebflowBeanIndex.getDefault().getBeans(racingFlow);
+		Set<IBean> fresh = WebflowBeanIndex.getDefault().getBeans(racingFlow);
+		assertNotSame(stale, fresh);
+		assertSame(fresh, WebflowBeanIndex.getDefault().getBeans(racingFlow));
+	}
+
+	private WebflowConfig createFlow() {
+		WebflowConfig config = new WebflowConfig(new WebflowProject(project, Activator.getModel()));
+		config.setBeansConfigs(Collections.<IModelElement> singleton(beansConfig));
+		return config;
+	}
+
+}
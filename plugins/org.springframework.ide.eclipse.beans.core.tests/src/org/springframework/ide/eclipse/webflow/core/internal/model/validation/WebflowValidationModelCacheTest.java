@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.webflow.core.internal.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.project.DefaultProjectContributorState;
+import org.springframework.ide.eclipse.core.project.IProjectContributorState;
+import org.springframework.ide.eclipse.webflow.core.Activator;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowConfig;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowProject;
+import org.springframework.ide.eclipse.webflow.core.model.IActionState;
+import org.springframework.ide.eclipse.webflow.core.model.IEndState;
+import org.springframework.ide.eclipse.webflow.core.model.IState;
+import org.springframework.ide.eclipse.webflow.core.model.IViewState;
+import org.springframework.ide.eclipse.webflow.core.model.IWebflowConfig;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests that {@link WebflowValidationModelCache} answers like reading the flow files directly, and that every build
+ * starts with a fresh cache so changed flows are seen by the next validation run.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class WebflowValidationModelCacheTest extends BeansCoreTestCase {
+
+	private static final String FLOW_1 = "http://www.springframework.org/schema/webflow/spring-webflow-1.0.xsd";
+
+	private static final String FLOW_2 = "http://www.springframework.org/schema/webflow/spring-webflow-2.0.xsd";
+
+	private static final Map<String, Class<?>> STATE_TYPES = new HashMap<String, Class<?>>();
+
+	static {
+		STATE_TYPES.put("view-state", IViewState.class);
+		STATE_TYPES.put("action-state", IActionState.class);
+		STATE_TYPES.put("end-state", IEndState.class);
+	}
+
+	private IProject project;
+
+	private IWebflowConfig parent;
+
+	private IWebflowConfig child;
+
+	private IWebflowConfig legacy;
+
+	@Before
+	public void setUp() throws Exception {
+		project = getWorkspaceRoot().getProject("webflow-model-cache");
+		project.create(null);
+		project.open(null);
+		parent = config("parent-flow.xml", flow(FLOW_2, null,
+				"<view-state id=\"enter\"/><action-state id=\"save\"/><end-state id=\"done\"/>"));
+		child = config("child-flow.xml", flow(FLOW_2, "parent-flow", "<view-state id=\"show\"/>"));
+		legacy = config("legacy-flow.xml", flow(FLOW_1, null, "<end-state id=\"done\"/>"));
+	}
+
+	@Test
+	public void testCachedVersionEqualsUncached() throws Exception {
+		WebflowValidationModelCache cache = new WebflowValidationModelCache();
+		for (IWebflowConfig config : Arrays.asList(parent, child, legacy)) {
+			boolean expected = readRoot(config).getAttributeNS("http://www.w3.org/2001/XMLSchema-instance",
+					"schemaLocation").contains("spring-webflow-1");
+			assertEquals(expected, cache.isVersion1(config.getElementResource()));
+			assertEquals(expected, cache.isVersion1(config.getElementResource()));
+		}
+		assertTrue(cache.isVersion1(legacy.getElementResource()));
+		assertFalse(cache.isVersion1(parent.getElementResource()));
+	}
+
+	@Test
+	public void testCachedParentEqualsUncached() throws Exception {
+		WebflowValidationModelCache cache = new WebflowValidationModelCache();
+		assertEquals(readRoot(child).getAttribute("parent"), cache.getParent(child));
+		assertEquals("parent-flow", cache.getParent(child));
+		assertNull(cache.getParent(parent));
+		assertNull(cache.getParent(null));
+	}
+
+	@Test
+	public void testCachedStatesEqualUncached() throws Exception {
+		WebflowValidationModelCache cache = new WebflowValidationModelCache();
+		List<Element> states = readStates(parent);
+		assertEquals(3, states.size());
+		for (Element expected : states) {
+			IState state = cache.getStateById(parent, expected.getAttribute("id"));
+			assertEquals(expected.getAttribute("id"), state.getId());
+			assertTrue(STATE_TYPES.get(expected.getLocalName()).isInstance(state));
+			assertEquals(state, cache.getStateById(parent, expected.getAttribute("id")));
+		}
+		assertNull(cache.getStateById(parent, "noSuchState"));
+		assertNull(cache.getStateById(parent, null));
+		assertNull(cache.getStateById(null, "enter"));
+	}
+
+	@Test
+	public void testChangedFlowIsSeenByNextBuild() throws Exception {
+		WebflowValidationModelCache cache = newBuild();
+		assertEquals("parent-flow", cache.getParent(child));
+		assertFalse(cache.isVersion1(child.getElementResource()));
+		assertNull(cache.getStateById(parent, "review"));
+
+		((IFile) child.getElementResource()).setContents(flow(FLOW_1, "other-flow", "<end-state id=\"done\"/>"),
+				true, false, null);
+		((IFile) parent.getElementResource()).setContents(flow(FLOW_2, null, "<view-state id=\"review\"/>"), true,
+				false, null);
+
+		WebflowValidationModelCache next = newBuild();
+		assertNotSame(cache, next);
+		assertEquals(readRoot(child).getAttribute("parent"), next.getParent(child));
+		assertEquals("other-flow", next.getParent(child));
+		assertTrue(next.isVersion1(child.getElementResource()));
+		assertEquals("review", next.getStateById(parent, "review").getId());
+		assertNull(next.getStateById(parent, "enter"));
+	}
+
+	/**
+	 * Returns the cache that the web flow validator holds for a new build.
+	 */
+	private WebflowValidationModelCache newBuild() {
+		IProjectContributorState state = new DefaultProjectContributorState();
+		new WebflowValidator().setProjectContributorState(state);
+		return state.get(WebflowValidationModelCache.class);
+	}
+
+	private IWebflowConfig config(String name, InputStream content) throws Exception {
+		IFile file = project.getFile(name);
+		file.create(content, true, null);
+		WebflowConfig config = new WebflowConfig(new WebflowProject(project, Activator.getModel()));
+		config.setResource(file);
+		return config;
+	}
+
+	/**
+	 * Reads the flow's root element without going through the structured model, the way no cache can interfere.
+	 */
+	private static Element readRoot(IWebflowConfig config) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		InputStream contents = ((IFile) config.getElementResource()).getContents();
+		try {
+			return factory.newDocumentBuilder().parse(contents).getDocumentElement();
+		}
+		finally {
+			contents.close();
+		}
+	}
+
+	private static List<Element> readStates(IWebflowConfig config) throws Exception {
+		List<Element> states = new ArrayList<Element>();
+		NodeList children = readRoot(config).getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			Node node = children.item(i);
+			if (node instanceof Element && node.getLocalName().endsWith("-state")) {
+				states.add((Element) node);
+			}
+		}
+		return states;
+	}
+
+	private static InputStream flow(String schema, String parentFlow, String states) {
+		String flow = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<flow xmlns=\"http://www.springframework.org/schema/webflow\""
+				+ " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+				+ " xsi:schemaLocation=\"http://www.springframework.org/schema/webflow " + schema + "\""
+				+ (parentFlow != null ? " parent=\"" + parentFlow + "\"" : "") + ">" + states + "</flow>";
+		return new ByteArrayInputStream(flow.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
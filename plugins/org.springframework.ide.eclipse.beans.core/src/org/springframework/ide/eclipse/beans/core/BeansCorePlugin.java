@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 Spring IDE Developers
+ * Copyright (c) 2004, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,7 +20,6 @@ import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -46,6 +45,8 @@ import org.osgi.service.url.URLConstants;
 import org.osgi.service.url.URLStreamHandlerService;
 import org.springframework.beans.factory.xml.NamespaceHandlerResolver;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.ConfigLoadingScheduler;
+import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ClasspathSchemaMappings;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.NamespaceManager;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ProjectClasspathNamespaceDefinitionResolverCache;
 import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
@@ -110,8 +111,9 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 	
 	private ServiceRegistration<?> projectAwareUrlService = null;
 
-	/** Internal executor service */
-	private ExecutorService executorService;
+	/** Internal scheduler for loading configs */
+	private ConfigLoadingScheduler configLoadingScheduler;
+	private static final int CONFIG_LOADING_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
 	private AtomicInteger threadCount = new AtomicInteger(0);
 	private static final String THREAD_NAME_TEMPLATE = "Background Thread-%s (%s/%s.%s.%s)";
 
@@ -120,6 +122,13 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 	 */
 	public static final String DISABLE_AUTO_DETECTION = BeansCorePlugin.class.getName()+".DISABLE_AUTO_DETECTION";
 
+	/**
+	 * Preference ID to defer the beans auto detection scanning of a project
+	 * until its configs are requested for the first time.
+	 * @since 3.9.7
+	 */
+	public static final String LAZY_AUTO_DETECTION = BeansCorePlugin.class.getName()+".LAZY_AUTO_DETECTION";
+
 	/** Resource bundle */
 	private ResourceBundle resourceBundle;
 
@@ -165,7 +174,7 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 				URLStreamHandlerService.class.getName(),
 				new ProjectAwareUrlStreamHandlerService(), properties);
 		
-		executorService = Executors.newCachedThreadPool(new ThreadFactory() {
+		configLoadingScheduler = new ConfigLoadingScheduler(CONFIG_LOADING_THREADS, new ThreadFactory() {
 			
 			public Thread newThread(Runnable runnable) {
 				Version version = Version.parseVersion(getPluginVersion());
@@ -211,6 +220,8 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 			isClosed = true;
 		}
 		model.stop();
+		configLoadingScheduler.shutdown();
+		ClasspathSchemaMappings.getDefault().save();
 		if (projectAwareUrlService != null) {
 			projectAwareUrlService.unregister();
 		}
@@ -253,8 +264,21 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 		return getDefault().nsManager.getNamespacePlugins();
 	}
 
+	/**
+	 * Returns the executor for background work of the beans model; tasks run
+	 * on the threads that load configs, with the lowest priority.
+	 * @see #getConfigLoadingScheduler()
+	 */
 	public static ExecutorService getExecutorService() {
-		return getDefault().executorService;
+		return getDefault().configLoadingScheduler.getExecutorService();
+	}
+
+	/**
+	 * Returns the scheduler that loads beans configs.
+	 * @since 3.9.7
+	 */
+	public static ConfigLoadingScheduler getConfigLoadingScheduler() {
+		return getDefault().configLoadingScheduler;
 	}
 
 	public static void notifyNamespaceDefinitionListeners(IProject project) {
@@ -490,4 +514,11 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 	public boolean isAutoDetectionEnabled() {
 		return !getPreferenceStore().getBoolean(DISABLE_AUTO_DETECTION);
 	}
+
+	/**
+	 * @since 3.9.7
+	 */
+	public boolean isLazyAutoDetectionEnabled() {
+		return getPreferenceStore().getBoolean(LAZY_AUTO_DETECTION);
+	}
 }
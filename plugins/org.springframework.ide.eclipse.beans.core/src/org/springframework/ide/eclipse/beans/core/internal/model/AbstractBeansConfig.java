@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2013 Spring IDE Developers
+ * Copyright (c) 2008, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -105,6 +105,9 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 
 	protected volatile Set<IBeansConfigEventListener> eventListeners = new LinkedHashSet<IBeansConfigEventListener>();
 
+	/** Beans by name as they were before the config was reloaded; <code>null</code> if not loaded before */
+	private volatile Map<String, IBean> beansBeforeReload;
+
 	public AbstractBeansConfig(IBeansModelElement project, String name, Type type) {
 		super(project, name);
 		this.type = type;
@@ -572,6 +575,32 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		return file instanceof ExternalFile;
 	}
 
+	/**
+	 * Returns the beans added, removed or changed since this config was loaded before its last reload, or
+	 * <code>null</code> if this config wasn't loaded before the reload. Loads this config if required.
+	 * <p>
+	 * The beans from before the reload are only kept until this method is called.
+	 * @since 3.9.7
+	 */
+	public BeansConfigDelta getReloadDelta() {
+		Map<String, IBean> oldBeans = beansBeforeReload;
+		if (oldBeans == null) {
+			return null;
+		}
+		beansBeforeReload = null;
+		return new BeansConfigDelta(this, oldBeans, BeansConfigDelta.getBeansByName(getBeans(), getComponents()));
+	}
+
+	/**
+	 * Remembers the beans of this config before they are discarded by a reload. Subsequent reloads before this config
+	 * is loaded again keep the beans of the first reload. This has to be called in a write-guarded block.
+	 */
+	protected void rememberBeansBeforeReload() {
+		if (isModelPopulated) {
+			beansBeforeReload = BeansConfigDelta.getBeansByName(beans.values(), components);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 Spring IDE Developers and others
+ * Copyright (c) 2004, 2018 Spring IDE Developers and others
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -50,6 +50,10 @@ import org.springframework.util.ObjectUtils;
 
 /**
  * This class holds the data for a Spring bean.
+ * <p>
+ * To keep the model small for large workspaces the bean name, aliases, class name and parent name are pooled in
+ * {@link BeansModelStringPool}, and beans without constructor arguments, properties or method overrides share the
+ * empty collections.
  * @author Torsten Juergeleit
  * @author Christian Dupuis
  * @author Martin Lippert
@@ -66,7 +70,9 @@ public class Bean extends AbstractBeansModelElement implements IBean {
 
 	private Map<String, IBeanProperty> properties;
 
-	private Integer hashCode = null;
+	private int hashCode;
+
+	private boolean hashCodeComputed = false;
 
 	private Boolean isFactory = null;
 
@@ -74,15 +80,33 @@ public class Bean extends AbstractBeansModelElement implements IBean {
 		this(parent, bdHolder.getBeanName(), bdHolder.getAliases(), bdHolder.getBeanDefinition());
 	}
 
+	/**
+	 * Creates a bean for the given definition.
+	 * <p>
+	 * The bean takes ownership of the given aliases and definition: the
+	 * aliases and the definition's bean class name and parent name are
+	 * replaced with their equal pooled instances. Their values don't change.
+	 */
 	public Bean(IModelElement parent, String name, String[] aliases, BeanDefinition definition) {
-		super(parent, name, definition);
+		super(parent, BeansModelStringPool.intern(name), definition);
 		if (definition instanceof ScannedGenericBeanDefinition) {
 			this.definition = new InternalScannedGenericBeanDefinition((ScannedGenericBeanDefinition) definition);
 		}
 		else {
 			this.definition = definition;
 		}
-		this.aliases = aliases;
+		this.aliases = BeansModelStringPool.intern(aliases);
+
+		// Share the names of classes and parent beans between all beans
+		if (this.definition instanceof AbstractBeanDefinition) {
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) this.definition;
+			if (!bd.hasBeanClass() && bd.getBeanClassName() != null) {
+				bd.setBeanClassName(BeansModelStringPool.intern(bd.getBeanClassName()));
+			}
+		}
+		if (this.definition.getParentName() != null) {
+			this.definition.setParentName(BeansModelStringPool.intern(this.definition.getParentName()));
+		}
 		
 		// Clean out references to resource resolvers
 		ConstructorArgumentValues cargValues = definition.getConstructorArgumentValues();
@@ -313,11 +337,12 @@ public class Bean extends AbstractBeansModelElement implements IBean {
 	public int hashCode() {
 		// need to cache hashCode as the value could change over time due to the mutable nature of
 		// hashCode of source location
-		if (hashCode == null) {
+		if (!hashCodeComputed) {
 			hashCode = ObjectUtils.nullSafeHashCode(definition);
 			hashCode = getElementType() * hashCode + ObjectUtils.nullSafeHashCode(aliases);
 //			hashCode = getElementType() * hashCode + ObjectUtils.nullSafeHashCode(getElementParent());
 			hashCode = getElementType() * super.hashCode();
+			hashCodeComputed = true;
 		}
 		return hashCode;
 	}
@@ -345,7 +370,7 @@ public class Bean extends AbstractBeansModelElement implements IBean {
 		synchronized(this) {
 
 			// Retrieve this bean's constructor arguments
-			constructorArguments = new LinkedHashSet<IBeanConstructorArgument>();
+			Set<IBeanConstructorArgument> constructorArguments = new LinkedHashSet<IBeanConstructorArgument>();
 			ConstructorArgumentValues cargValues = definition.getConstructorArgumentValues();
 			for (Object cargValue : cargValues.getGenericArgumentValues()) {
 				IBeanConstructorArgument carg = new BeanConstructorArgument(this, (ValueHolder) cargValue);
@@ -357,17 +382,20 @@ public class Bean extends AbstractBeansModelElement implements IBean {
 				IBeanConstructorArgument carg = new BeanConstructorArgument(this, ((Integer) key).intValue(), vHolder);
 				constructorArguments.add(carg);
 			}
+			this.constructorArguments = (constructorArguments.isEmpty() ? Collections
+					.<IBeanConstructorArgument> emptySet() : constructorArguments);
 	
 			// Retrieve this bean's properties
-			properties = new LinkedHashMap<String, IBeanProperty>();
+			Map<String, IBeanProperty> properties = new LinkedHashMap<String, IBeanProperty>();
 			for (PropertyValue propValue : definition.getPropertyValues().getPropertyValues()) {
 				IBeanProperty property = new BeanProperty(this, propValue);
 				properties.put(property.getElementName(), property);
 			}
+			this.properties = (properties.isEmpty() ? Collections.<String, IBeanProperty> emptyMap() : properties);
 	
 			// Retrieve this bean's method overrides
 			if (definition instanceof AbstractBeanDefinition) {
-				methodOverrides = new LinkedHashSet<IBeanMethodOverride>();
+				Set<IBeanMethodOverride> methodOverrides = new LinkedHashSet<IBeanMethodOverride>();
 				MethodOverrides mos = ((AbstractBeanDefinition) definition).getMethodOverrides();
 				if (mos != null) {
 					for (Object mo : mos.getOverrides()) {
@@ -379,6 +407,8 @@ public class Bean extends AbstractBeansModelElement implements IBean {
 						}
 					}
 				}
+				this.methodOverrides = (methodOverrides.isEmpty() ? Collections.<IBeanMethodOverride> emptySet()
+						: methodOverrides);
 			}
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2010 Spring IDE Developers
+ * Copyright (c) 2004, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -47,10 +47,10 @@ public class BeanConstructorArgument extends AbstractBeansValueHolder
 
 	public BeanConstructorArgument(IBean bean, int index,
 			ValueHolder vHolder) {
-		super(bean, createName(index, vHolder), vHolder.getValue(), vHolder);
+		super(bean, BeansModelStringPool.intern(createName(index, vHolder)), vHolder.getValue(), vHolder);
 		this.index = index;
-		this.type = vHolder.getType();
-		this.name = vHolder.getName();
+		this.type = BeansModelStringPool.intern(vHolder.getType());
+		this.name = BeansModelStringPool.intern(vHolder.getName());
 	}
 
 	public BeanConstructorArgument(IBean bean, ValueHolder vHolder) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2007 Spring IDE Developers
+ * Copyright (c) 2004, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,7 +24,7 @@ public class BeanProperty extends AbstractBeansValueHolder implements
 		IBeanProperty {
 
 	public BeanProperty(IBean bean, PropertyValue propValue) {
-		super(bean, propValue.getName(), propValue.getValue(), propValue);
+		super(bean, BeansModelStringPool.intern(propValue.getName()), propValue.getValue(), propValue);
 	}
 
 	public int getElementType() {
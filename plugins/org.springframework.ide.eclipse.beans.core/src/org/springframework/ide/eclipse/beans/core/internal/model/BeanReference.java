@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,7 +29,7 @@ public class BeanReference extends AbstractBeansModelElement implements
 	public BeanReference(ISourceModelElement parent,
 			org.springframework.beans.factory.config.BeanReference beanRef) {
 		super(parent, "(bean reference)", beanRef);
-		beanName = beanRef.getBeanName();
+		beanName = BeansModelStringPool.intern(beanRef.getBeanName());
 	}
 
 	public int getElementType() {
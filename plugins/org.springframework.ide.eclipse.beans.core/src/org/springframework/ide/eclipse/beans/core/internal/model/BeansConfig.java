@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 Spring IDE Developers
+ * Copyright (c) 2004, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,7 +24,6 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -220,6 +219,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 			try {
 				w.lock();
 				// System.out.println(String.format("++- resetting config '%s'", file.getFullPath().toString()));
+				rememberBeansBeforeReload();
 				isModelPopulated = false;
 				modificationTimestamp = IResource.NULL_STAMP;
 				defaults = null;
@@ -387,6 +387,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 								currentEncodedResource = encodedResource;
 							}
 
+							// Stop processing further imported resources once loading this config timed out
+							ConfigLoadingScheduler.checkCanceled();
+
 							try {
 								// Delegate actual processing to XmlBeanDefinitionReader
 								int loadedBeans = 0;
@@ -426,7 +429,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						}
 					};
 
-					reader.setDocumentLoader(new XercesDocumentLoader());
+					reader.setDocumentLoader(new XercesDocumentLoader(file.getProject(), namespaceResolvingClassloader));
 					reader.setResourceLoader(resourceLoader);
 
 					reader.setEntityResolver(resolver);
@@ -453,6 +456,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 									int count = reader.loadBeanDefinitions(resource);
 
 									// Finally register post processed beans and components
+									ConfigLoadingScheduler.checkCanceled();
 									eventListener.registerComponents();
 
 									// Post process beans config if required
@@ -474,9 +478,8 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						};
 
 						try {
-							FutureTask<Integer> task = new FutureTask<Integer>(loadBeanDefinitionOperation);
-							BeansCorePlugin.getExecutorService().submit(task);
-							count = task.get(BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
+							count = BeansCorePlugin.getConfigLoadingScheduler().load(loadBeanDefinitionOperation,
+									BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
 									TimeUnit.SECONDS);
 
 							// if we recored an exception use this instead of stupid concurrent exception
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansComponent;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * The beans that were added, removed or changed by reloading an {@link IBeansConfig}.
+ * <p>
+ * Beans are matched by name; the beans of components are included. A bean is considered changed if its bean
+ * definition, its aliases or its position in the config file changed, as the latter changes the bean's element id.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ * @see AbstractBeansConfig#getReloadDelta()
+ */
+public class BeansConfigDelta {
+
+	private final IBeansConfig config;
+
+	private final Set<IBean> addedBeans;
+
+	private final Set<IBean> removedBeans;
+
+	private final Set<IBean> changedBeans;
+
+	public BeansConfigDelta(IBeansConfig config, Map<String, IBean> oldBeans, Map<String, IBean> newBeans) {
+		this.config = config;
+
+		Set<IBean> addedBeans = new LinkedHashSet<IBean>();
+		Set<IBean> changedBeans = new LinkedHashSet<IBean>();
+		for (Map.Entry<String, IBean> entry : newBeans.entrySet()) {
+			IBean oldBean = oldBeans.get(entry.getKey());
+			if (oldBean == null) {
+				addedBeans.add(entry.getValue());
+			}
+			else if (isChanged(oldBean, entry.getValue())) {
+				changedBeans.add(entry.getValue());
+			}
+		}
+
+		Set<IBean> removedBeans = new LinkedHashSet<IBean>();
+		for (Map.Entry<String, IBean> entry : oldBeans.entrySet()) {
+			if (!newBeans.containsKey(entry.getKey())) {
+				removedBeans.add(entry.getValue());
+			}
+		}
+
+		this.addedBeans = Collections.unmodifiableSet(addedBeans);
+		this.removedBeans = Collections.unmodifiableSet(removedBeans);
+		this.changedBeans = Collections.unmodifiableSet(changedBeans);
+	}
+
+	/**
+	 * Returns the reloaded config.
+	 */
+	public IBeansConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Returns the beans of the reloaded config that did not exist before.
+	 */
+	public Set<IBean> getAddedBeans() {
+		return addedBeans;
+	}
+
+	/**
+	 * Returns the beans that existed before the reload but no longer exist; these are the old instances.
+	 */
+	public Set<IBean> getRemovedBeans() {
+		return removedBeans;
+	}
+
+	/**
+	 * Returns the new instances of beans that changed.
+	 */
+	public Set<IBean> getChangedBeans() {
+		return changedBeans;
+	}
+
+	/**
+	 * Returns <code>true</code> if the reload did not add, remove or change any bean.
+	 */
+	public boolean isEmpty() {
+		return addedBeans.isEmpty() && removedBeans.isEmpty() && changedBeans.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer text = new StringBuffer("Delta of ");
+		text.append(config.getElementName());
+		text.append(": added=").append(addedBeans.size());
+		text.append(", removed=").append(removedBeans.size());
+		text.append(", changed=").append(changedBeans.size());
+		return text.toString();
+	}
+
+	/**
+	 * Returns the given beans and the beans of the given components (including nested components) keyed by bean name.
+	 */
+	public static Map<String, IBean> getBeansByName(Collection<IBean> beans, Collection<IBeansComponent> components) {
+		Map<String, IBean> beansByName = new LinkedHashMap<String, IBean>();
+		for (IBean bean : beans) {
+			beansByName.put(bean.getElementName(), bean);
+		}
+		addComponentBeans(components, beansByName);
+		return beansByName;
+	}
+
+	private static void addComponentBeans(Collection<IBeansComponent> components, Map<String, IBean> beansByName) {
+		for (IBeansComponent component : components) {
+			for (IBean bean : component.getBeans()) {
+				beansByName.put(bean.getElementName(), bean);
+			}
+			addComponentBeans(component.getComponents(), beansByName);
+		}
+	}
+
+	private static boolean isChanged(IBean oldBean, IBean newBean) {
+		if (oldBean.getElementStartLine() != newBean.getElementStartLine()
+				|| oldBean.getElementEndLine() != newBean.getElementEndLine()) {
+			return true;
+		}
+		if (!Arrays.equals(oldBean.getAliases(), newBean.getAliases())) {
+			return true;
+		}
+		if (oldBean instanceof Bean && newBean instanceof Bean) {
+			return !ObjectUtils.nullSafeEquals(((Bean) oldBean).getBeanDefinition(),
+					((Bean) newBean).getBeanDefinition());
+		}
+		// Without bean definitions to compare the bean has to be treated as changed
+		return true;
+	}
+
+}
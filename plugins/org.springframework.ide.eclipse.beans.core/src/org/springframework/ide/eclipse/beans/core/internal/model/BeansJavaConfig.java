@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,7 +19,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -61,6 +60,7 @@ import org.springframework.context.annotation.AnnotationConfigUtils;
 import org.springframework.context.annotation.ConfigurationClassPostProcessor;
 import org.springframework.context.annotation.ScannedGenericBeanDefinition;
 import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfig.InternalScannedGenericBeanDefinition;
 import org.springframework.ide.eclipse.beans.core.internal.model.process.BeansConfigPostProcessorFactory;
@@ -77,7 +77,7 @@ import org.springframework.ide.eclipse.beans.core.namespaces.NamespaceUtils;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.io.ExternalFile;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
-import org.springframework.ide.eclipse.core.java.classreading.CachingJdtMetadataReaderFactory;
+import org.springframework.ide.eclipse.core.java.classreading.ProjectMetadataReaderCache;
 import org.springframework.ide.eclipse.core.model.ILazyInitializedModelElement;
 import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.core.model.ISourceModelElement;
@@ -230,6 +230,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 
 							IBeansConfigPostProcessor[] postProcessors = BeansConfigPostProcessorFactory.createPostProcessor(ConfigurationClassPostProcessor.class.getName());
 							for (IBeansConfigPostProcessor postProcessor : postProcessors) {
+								ConfigLoadingScheduler.checkCanceled();
 								executePostProcessor(postProcessor, eventListener);
 							}
 						}
@@ -242,9 +243,8 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 					}
 				};
 
-				FutureTask<Integer> task = new FutureTask<Integer>(loadBeanDefinitionOperation);
-				BeansCorePlugin.getExecutorService().submit(task);
-				task.get(BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
+				BeansCorePlugin.getConfigLoadingScheduler().load(loadBeanDefinitionOperation,
+						BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
 						TimeUnit.SECONDS);
 			}
 			catch (TimeoutException e) {
@@ -289,6 +289,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 			try {
 				w.lock();
 				// System.out.println(String.format("++- resetting config '%s'", file.getFullPath().toString()));
+				rememberBeansBeforeReload();
 				isModelPopulated = false;
 				modificationTimestamp = IResource.NULL_STAMP;
 				defaults = null;
@@ -364,7 +365,8 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 			return;
 		}
 
-		CachingJdtMetadataReaderFactory metadataReaderFactory = new CachingJdtMetadataReaderFactory(project, classloader);
+		MetadataReaderFactory metadataReaderFactory = ProjectMetadataReaderCache.getDefault().getMetadataReaderFactory(
+				project, classloader);
 		MetadataReader metadataReader = metadataReaderFactory.getMetadataReader(this.configClass.getFullyQualifiedName());
 
 		AnnotatedGenericBeanDefinition abd = new AnnotatedGenericBeanDefinition(metadataReader.getAnnotationMetadata());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 Spring IDE Developers
+ * Copyright (c) 2004, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,9 +16,6 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -64,6 +61,9 @@ import org.springframework.util.ObjectUtils;
  * {@link IResourceChangeEvent}s for workspaces changes.
  * <p>
  * The single instance of {@link IBeansModel} is available from the static method {@link BeansCorePlugin#getModel()}.
+ * <p>
+ * The table of projects is copy-on-write: readers use the currently published immutable table without locking, while
+ * writers serialize on a lock, copy the table, change the copy and publish it.
  * @author Torsten Juergeleit
  * @author Christian Dupuis
  * @author Martin Lippert
@@ -74,18 +74,15 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	public static final boolean DEBUG = SpringCore.isDebug(DEBUG_OPTION);
 
-	private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-
-	private final Lock r = rwl.readLock();
+	/** Serializes the writers of {@link #projects} */
+	private final Object projectsLock = new Object();
 
-	private final Lock w = rwl.writeLock();
-	
 	protected volatile boolean modelPopulated = false;
 
 	/**
-	 * The table of Spring Beans projects
+	 * The table of Spring Beans projects; an immutable snapshot that is replaced as a whole
 	 */
-	private volatile Map<IProject, IBeansProject> projects = new HashMap<IProject, IBeansProject>();
+	private volatile Map<IProject, IBeansProject> projects = Collections.emptyMap();
 
 	private IResourceChangeListener workspaceListener;
 
@@ -93,7 +90,6 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	public BeansModel() {
 		super(null, IBeansModel.ELEMENT_NAME);
-		projects = new ConcurrentHashMap<IProject, IBeansProject>();
 		BeansCorePlugin.getDefault().getPreferenceStore().addPropertyChangeListener(new IPropertyChangeListener() {
 
 			public void propertyChange(PropertyChangeEvent event) {
@@ -121,18 +117,12 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	@Override
 	public void accept(IModelElementVisitor visitor, IProgressMonitor monitor) {
 		// Ask this model's projects
-		try {
-			r.lock();
-			for (IBeansProject project : projects.values()) {
-				project.accept(visitor, monitor);
-				if (monitor.isCanceled()) {
-					return;
-				}
+		for (IBeansProject project : projects.values()) {
+			project.accept(visitor, monitor);
+			if (monitor.isCanceled()) {
+				return;
 			}
 		}
-		finally {
-			r.unlock();
-		}
 	}
 
 	public void start() {
@@ -140,28 +130,33 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			System.out.println("Beans Model startup");
 		}
 		try {
-			w.lock();
-			projects.clear();
+			Map<IProject, IBeansProject> newProjects = new HashMap<IProject, IBeansProject>();
 			for (IProject project : SpringCoreUtils.getSpringProjects()) {
-				BeansProject beansProject = new BeansProject(BeansModel.this, project);
-				addProject(beansProject);
+				newProjects.put(project, new BeansProject(BeansModel.this, project));
 			}
-			
-			// Eagerly populate the internal structure of the beans projects
-			for (IBeansProject beanProject : projects.values()) {
-				beanProject.accept(new IModelElementVisitor() {
-					public boolean visit(IModelElement element, IProgressMonitor monitor) {
-						return element instanceof IBeansProject;
-					}
-				}, new NullProgressMonitor());
+			synchronized (projectsLock) {
+				projects = Collections.unmodifiableMap(newProjects);
+			}
+
+			// Eagerly populate the internal structure of the beans projects,
+			// unless they are populated on first access. The projects are
+			// already published and populate themselves if accessed
+			// concurrently.
+			if (!BeansCorePlugin.getDefault().isLazyAutoDetectionEnabled()) {
+				for (IBeansProject beanProject : newProjects.values()) {
+					beanProject.accept(new IModelElementVisitor() {
+						public boolean visit(IModelElement element, IProgressMonitor monitor) {
+							return element instanceof IBeansProject;
+						}
+					}, new NullProgressMonitor());
+				}
 			}
 
 			// Check for update actions
-			BeansModelUpdater.updateModel(projects.values());
+			BeansModelUpdater.updateModel(newProjects.values());
 		}
 		finally {
 			modelPopulated = true;
-			w.unlock();
 		}
 
 		// Add a ResourceChangeListener to the Eclipse Workspace
@@ -176,7 +171,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	}
 
 	public void addProject(IBeansProject project) {
-		projects.put(project.getProject(), project);
+		putProject(project);
 	}
 
 	public void stop() {
@@ -192,24 +187,14 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		FacetedProjectFramework.removeListener(facetedProjectListener);
 		facetedProjectListener = null;
 
-		try {
-			w.lock();
-			// Remove all projects
-			projects.clear();
-		}
-		finally {
-			w.unlock();
+		// Remove all projects
+		synchronized (projectsLock) {
+			projects = Collections.emptyMap();
 		}
 	}
 
 	public IBeansProject getProject(IProject project) {
-		try {
-			r.lock();
-			return projects.get(project);
-		}
-		finally {
-			r.unlock();
-		}
+		return projects.get(project);
 	}
 
 	public IBeansProject getProject(String name) {
@@ -233,13 +218,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 * Returns a collection of all projects defined in this model.
 	 */
 	public Set<IBeansProject> getProjects() {
-		try {
-			r.lock();
-			return Collections.unmodifiableSet(new HashSet<IBeansProject>(projects.values()));
-		}
-		finally {
-			r.unlock();
-		}
+		return Collections.unmodifiableSet(new HashSet<IBeansProject>(projects.values()));
 	}
 
 	public IBeansConfig getConfig(IFile configFile) {
@@ -340,19 +319,13 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 */
 	public Set<IBeansConfig> getConfigs(String className) {
 		Set<IBeansConfig> configs = new LinkedHashSet<IBeansConfig>();
-		try {
-			r.lock();
-			for (IBeansProject project : projects.values()) {
-				for (IBeansConfig config : project.getConfigs()) {
-					if (config.isBeanClass(className)) {
-						configs.add(config);
-					}
+		for (IBeansProject project : projects.values()) {
+			for (IBeansConfig config : project.getConfigs()) {
+				if (config.isBeanClass(className)) {
+					configs.add(config);
 				}
 			}
 		}
-		finally {
-			r.unlock();
-		}
 		return configs;
 	}
 
@@ -364,15 +337,9 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		if (!(other instanceof BeansModel)) {
 			return false;
 		}
-		try {
-			r.lock();
-			BeansModel that = (BeansModel) other;
-			if (!ObjectUtils.nullSafeEquals(this.projects, that.projects))
-				return false;
-		}
-		finally {
-			r.unlock();
-		}
+		BeansModel that = (BeansModel) other;
+		if (!ObjectUtils.nullSafeEquals(this.projects, that.projects))
+			return false;
 		return super.equals(other);
 	}
 
@@ -385,34 +352,28 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	@Override
 	public String toString() {
 		StringBuffer text = new StringBuffer("Beans model:\n");
-		try {
-			r.lock();
-			for (IBeansProject project : projects.values()) {
-				text.append(" Configs of project '");
-				text.append(project.getElementName());
-				text.append("':\n");
-				for (IBeansConfig config : project.getConfigs()) {
-					text.append("  ");
-					text.append(config);
-					text.append('\n');
-					for (IBean bean : config.getBeans()) {
-						text.append("   ");
-						text.append(bean);
-						text.append('\n');
-					}
-				}
-				text.append(" Config sets of project '");
-				text.append(project.getElementName());
-				text.append("':\n");
-				for (IBeansConfigSet configSet : project.getConfigSets()) {
-					text.append("  ");
-					text.append(configSet);
+		for (IBeansProject project : projects.values()) {
+			text.append(" Configs of project '");
+			text.append(project.getElementName());
+			text.append("':\n");
+			for (IBeansConfig config : project.getConfigs()) {
+				text.append("  ");
+				text.append(config);
+				text.append('\n');
+				for (IBean bean : config.getBeans()) {
+					text.append("   ");
+					text.append(bean);
 					text.append('\n');
 				}
 			}
-		}
-		finally {
-			r.unlock();
+			text.append(" Config sets of project '");
+			text.append(project.getElementName());
+			text.append("':\n");
+			for (IBeansConfigSet configSet : project.getConfigSets()) {
+				text.append("  ");
+				text.append(configSet);
+				text.append('\n');
+			}
 		}
 		return text.toString();
 	}
@@ -421,24 +382,11 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 * {@inheritDoc}
 	 */
 	public boolean isInitialized() {
-		try {
-			r.lock();
-			return modelPopulated;
-		}
-		finally {
-			r.unlock();
-		}
+		return modelPopulated;
 	}
 
 	private void buildProject(IResource resource, boolean build) {
-		BeansProject project = null;
-		try {
-			r.lock();
-			project = (BeansProject) projects.get(resource.getProject());
-		}
-		finally {
-			r.unlock();
-		}
+		BeansProject project = (BeansProject) projects.get(resource.getProject());
 		// project can be null if the model has not been populated
 		// correctly before updating the project description
 		if (project != null) {
@@ -451,6 +399,33 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		}
 	}
 
+	/**
+	 * Publishes a copy of the table of projects that contains the given project.
+	 */
+	private void putProject(IBeansProject project) {
+		synchronized (projectsLock) {
+			Map<IProject, IBeansProject> newProjects = new HashMap<IProject, IBeansProject>(projects);
+			newProjects.put(project.getProject(), project);
+			projects = Collections.unmodifiableMap(newProjects);
+		}
+	}
+
+	/**
+	 * Publishes a copy of the table of projects without the given project.
+	 * @return the removed beans project or <code>null</code> if there was none
+	 */
+	private IBeansProject removeProject(IProject project) {
+		synchronized (projectsLock) {
+			if (!projects.containsKey(project)) {
+				return null;
+			}
+			Map<IProject, IBeansProject> newProjects = new HashMap<IProject, IBeansProject>(projects);
+			IBeansProject proj = newProjects.remove(project);
+			projects = Collections.unmodifiableMap(newProjects);
+			return proj;
+		}
+	}
+
 	/**
 	 * Internal resource change event handler.
 	 */
@@ -466,13 +441,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 					System.out.println("Spring beans nature added to project '" + project.getName() + "'");
 				}
 				BeansProject proj = new BeansProject(BeansModel.this, project);
-				try {
-					w.lock();
-					projects.put(project, proj);
-				}
-				finally {
-					w.unlock();
-				}
+				putProject(proj);
 				notifyListeners(proj, Type.CHANGED);
 
 				// Nature added -> run builder and validations on this event
@@ -485,14 +454,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Spring beans nature removed from project '" + project.getName() + "'");
 				}
-				IBeansProject proj = null;
-				try {
-					w.lock();
-					proj = projects.remove(project);
-				}
-				finally {
-					w.unlock();
-				}
+				IBeansProject proj = removeProject(project);
 				if (proj != null) {
 					notifyListeners(proj, Type.CHANGED);
 				}
@@ -505,14 +467,8 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 					System.out.println("Project '" + project.getName() + "' added");
 				}
 				BeansProject proj = new BeansProject(BeansModel.this, project);
-				try {
-					w.lock();
-					projects.put(project, proj);
-					BeansModelUpdater.updateProject(proj);
-				}
-				finally {
-					w.unlock();
-				}
+				putProject(proj);
+				BeansModelUpdater.updateProject(proj);
 				notifyListeners(proj, Type.ADDED);
 			}
 		}
@@ -523,14 +479,8 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 					System.out.println("Project '" + project.getName() + "' opened");
 				}
 				BeansProject proj = new BeansProject(BeansModel.this, project);
-				try {
-					w.lock();
-					projects.put(project, proj);
-					BeansModelUpdater.updateProject(proj);
-				}
-				finally {
-					w.unlock();
-				}
+				putProject(proj);
+				BeansModelUpdater.updateProject(proj);
 				notifyListeners(proj, Type.ADDED);
 			}
 		}
@@ -539,14 +489,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			if (DEBUG) {
 				System.out.println("Project '" + project.getName() + "' closed");
 			}
-			IBeansProject proj = null;
-			try {
-				w.lock();
-				proj = projects.remove(project);
-			}
-			finally {
-				w.unlock();
-			}
+			IBeansProject proj = removeProject(project);
 			if (proj != null) {
 				notifyListeners(proj, Type.REMOVED);
 			}
@@ -556,14 +499,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			if (DEBUG) {
 				System.out.println("Project '" + project.getName() + "' deleted");
 			}
-			IBeansProject proj = null;
-			try {
-				w.lock();
-				proj = projects.remove(project);
-			}
-			finally {
-				w.unlock();
-			}
+			IBeansProject proj = removeProject(project);
 			if (proj != null) {
 				notifyListeners(proj, Type.REMOVED);
 			}
@@ -590,14 +526,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Config '" + file.getFullPath() + "' added");
 				}
-				BeansProject project = null;
-				try {
-					r.lock();
-					project = (BeansProject) projects.get(file.getProject());
-				}
-				finally {
-					r.unlock();
-				}
+				BeansProject project = (BeansProject) projects.get(file.getProject());
 				
 				if (!BeansConfigFactory.isJavaConfigFile(file) && project.addConfig(file, type)) {
 					// In case this is a auto detected config make sure to refresh the
@@ -621,20 +550,14 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 		public void configChanged(IFile file, int eventType) {
 			Set<IReloadableBeansConfig> configs = new LinkedHashSet<IReloadableBeansConfig>();
-			try {
-				r.lock();
-				Set<IBeansConfig> bcs = getConfigs(file, true);
-				for (IBeansConfig bc : bcs) {
-					if (bc instanceof IImportedBeansConfig) {
-						configs.add(BeansModelUtils.getParentOfClass(bc, IReloadableBeansConfig.class));
-					}
-					else if (bc instanceof IReloadableBeansConfig) {
-						configs.add((IReloadableBeansConfig) bc);
-					}
+			Set<IBeansConfig> bcs = getConfigs(file, true);
+			for (IBeansConfig bc : bcs) {
+				if (bc instanceof IImportedBeansConfig) {
+					configs.add(BeansModelUtils.getParentOfClass(bc, IReloadableBeansConfig.class));
+				}
+				else if (bc instanceof IReloadableBeansConfig) {
+					configs.add((IReloadableBeansConfig) bc);
 				}
-			}
-			finally {
-				r.unlock();
 			}
 			if (eventType == IResourceChangeEvent.POST_BUILD) {
 				if (DEBUG) {
@@ -658,14 +581,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Config '" + file.getFullPath() + "' removed");
 				}
-				BeansProject project = null;
-				try {
-					r.lock();
-					project = (BeansProject) projects.get(file.getProject());
-				}
-				finally {
-					r.unlock();
-				}
+				BeansProject project = (BeansProject) projects.get(file.getProject());
 
 				if (project == null) {
 					return;
@@ -680,17 +596,11 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 				// Remove config from config sets where referenced as external
 				// config
-				try {
-					r.lock();
-					for (IBeansProject proj : projects.values()) {
-						if (((BeansProject) proj).removeConfig(file)) {
-							((BeansProject) proj).saveDescription();
-						}
+				for (IBeansProject proj : projects.values()) {
+					if (((BeansProject) proj).removeConfig(file)) {
+						((BeansProject) proj).saveDescription();
 					}
 				}
-				finally {
-					r.unlock();
-				}
 				if (config != null) {
 					notifyListeners(config, Type.REMOVED);
 				}
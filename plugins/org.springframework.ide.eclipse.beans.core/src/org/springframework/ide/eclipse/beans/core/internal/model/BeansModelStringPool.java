@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+/**
+ * Pool of the names held by the elements of the beans model, e.g. bean class names, bean names and property names.
+ * <p>
+ * The same names occur in many beans of a workspace; pooling them keeps a single instance of every name in memory.
+ * The names are pooled in the JVM's string table, so configs loaded concurrently don't contend on a lock of the pool,
+ * and names that are no longer used by any model element are garbage collected.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+final class BeansModelStringPool {
+
+	private BeansModelStringPool() {
+	}
+
+	/**
+	 * Returns the pooled instance of the given string.
+	 * @return a string equal to the given one or <code>null</code> if <code>null</code> is given
+	 */
+	static String intern(String value) {
+		return (value != null ? value.intern() : null);
+	}
+
+	/**
+	 * Replaces the elements of the given array with their pooled instances.
+	 * @return the given array
+	 */
+	static String[] intern(String[] values) {
+		if (values != null) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = intern(values[i]);
+			}
+		}
+		return values;
+	}
+
+}
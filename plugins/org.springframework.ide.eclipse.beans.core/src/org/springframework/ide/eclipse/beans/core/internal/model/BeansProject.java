@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2016 Spring IDE Developers
+ * Copyright (c) 2004, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -19,10 +20,9 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -36,9 +36,13 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.PlatformUI;
 import org.osgi.framework.Bundle;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.BeansCoreUtils;
@@ -76,6 +80,10 @@ import org.springframework.util.ObjectUtils;
  * <p>
  * The information can be persisted by calling the method
  * {@link #saveDescription()}.
+ * <p>
+ * Writers are serialized by a lock and publish an immutable snapshot of the
+ * configs and config sets once they are done. Readers only use the latest
+ * published snapshot and never block on writers.
  * 
  * @author Torsten Juergeleit
  * @author Dave Watkins
@@ -88,14 +96,14 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	private static final int AUTO_CONFIG_RESCHEDULE_SLEEP_TIME_MILLIS = 3000;
 	private static final int AUTO_CONFIG_RESCHEDULE_MAX_COUNT = 10;
 
-	private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-
-	private final Lock r = rwl.readLock();
-
-	private final Lock w = rwl.writeLock();
+	/** Serializes the writers; readers use the published {@link #snapshot} */
+	private final ReentrantLock w = new ReentrantLock();
 
 	protected volatile boolean modelPopulated = false;
 
+	/** <code>true</code> while the thread holding the write lock populates the model */
+	private boolean populating = false;
+
 	private final IProject project;
 
 	protected volatile Set<String> configSuffixes = new LinkedHashSet<String>();
@@ -108,7 +116,6 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	protected volatile Map<String, IBeansConfig> configs = new LinkedHashMap<String, IBeansConfig>();
 	protected volatile Map<String, IBeansConfig> autoDetectedConfigs = new LinkedHashMap<String, IBeansConfig>();
-	protected volatile Set<IBeansConfig> allConfigs = Collections.unmodifiableSet(new CopyOnWriteArraySet<IBeansConfig>());
 
 	protected volatile Map<String, Set<String>> autoDetectedConfigsByLocator = new LinkedHashMap<String, Set<String>>();
 
@@ -122,8 +129,25 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	protected volatile IBeansConfigEventListener eventListener;
 
+	/** The configs and config sets as last published by a writer */
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	/** Views of the live configs and config sets for the thread holding the write lock; guarded by the write lock */
+	private Snapshot writerView;
+
 	private boolean isAutoConfigStatePersisted = false;
 
+	/** <code>true</code> while the auto detection of configs waits for the configs to be requested */
+	private volatile boolean autoDetectionDeferred = false;
+
+	/** Guards scheduling the deferred auto detection, so that it is scheduled only once */
+	private final Object autoDetectionLock = new Object();
+
+	/** The job running the deferred auto detection once the configs have been requested */
+	private volatile Job deferredAutoDetectionJob;
+
+	private volatile Map<IBeansConfigSet, Set<String>> deferredRemovedConfigsFromSets;
+
 	public BeansProject(IBeansModel model, IProject project) {
 		super(model, project.getName());
 		this.project = project;
@@ -215,6 +239,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			configSuffixes.clear();
 			configSuffixes.addAll(suffixes);
 		} finally {
+			updateAllConfigsCache();
 			w.unlock();
 		}
 	}
@@ -231,6 +256,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 					return true;
 				}
 			} finally {
+				updateAllConfigsCache();
 				w.unlock();
 			}
 		}
@@ -242,12 +268,11 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return Collections.unmodifiableSet(configSuffixes);
-		} finally {
-			r.unlock();
+		if (w.isHeldByCurrentThread()) {
+			// Callers may pass the suffixes back in, so the writer doesn't hand out the live set
+			return new LinkedHashSet<String>(configSuffixes);
 		}
+		return snapshot.configSuffixes;
 	}
 
 	/**
@@ -261,12 +286,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	@Override
 	public boolean hasConfigSuffix(String suffix) {
-		try {
-			r.lock();
-			return getConfigSuffixes().contains(suffix);
-		} finally {
-			r.unlock();
-		}
+		return getConfigSuffixes().contains(suffix);
 	}
 
 	/**
@@ -292,6 +312,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
+		populateDeferredAutoDetectedConfigs();
 		List<IResource> deleteMarkersFrom = new ArrayList<IResource>();
 		try {
 			w.lock();
@@ -355,6 +376,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
+		populateDeferredAutoDetectedConfigs();
 		try {
 			w.lock();
 			if (configName.length() > 0 && !configs.containsKey(configName)) {
@@ -471,12 +493,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return (configs.containsKey(configName) || autoDetectedConfigs.containsKey(configName));
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		Snapshot snapshot = getSnapshot();
+		return (snapshot.configs.containsKey(configName) || snapshot.autoDetectedConfigs.containsKey(configName));
 	}
 
 	@Override
@@ -492,15 +511,10 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		}
 
 		if (isImportsEnabled() && includeImported) {
-			try {
-				r.lock();
-				for (IBeansConfig bc : getConfigs()) {
-					if (hasImportedBeansConfig(configFile, bc)) {
-						return true;
-					}
+			for (IBeansConfig bc : getConfigs()) {
+				if (hasImportedBeansConfig(configFile, bc)) {
+					return true;
 				}
-			} finally {
-				r.unlock();
 			}
 		}
 		return false;
@@ -545,15 +559,10 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		// configuration files don't
 		// need to get loaded.
 		if ((isImportsEnabled() && includeImported)) {
-			try {
-				r.lock();
-				if (ownConfigs != null) {
-					for (IBeansConfig bc : ownConfigs) {
-						checkForImportedBeansConfig(file, bc, beansConfigs);
-					}
+			if (ownConfigs != null) {
+				for (IBeansConfig bc : ownConfigs) {
+					checkForImportedBeansConfig(file, bc, beansConfigs);
 				}
-			} finally {
-				r.unlock();
 			}
 		}
 		return beansConfigs;
@@ -596,15 +605,10 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			if (!this.modelPopulated) {
 				populateModel();
 			}
-			try {
-				r.lock();
-				for (IBeansConfig beansConfig : configs.values()) {
-					if (beansConfig.getElementResource() != null && beansConfig.getElementResource().equals(file)) {
-						return beansConfig;
-					}
+			for (IBeansConfig beansConfig : getSnapshot().configs.values()) {
+				if (beansConfig.getElementResource() != null && beansConfig.getElementResource().equals(file)) {
+					return beansConfig;
 				}
-			} finally {
-				r.unlock();
 			}
 
 		}
@@ -622,79 +626,55 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			if (configs.containsKey(configName)) {
-				return configs.get(configName);
-			} else if (autoDetectedConfigs.containsKey(configName)) {
-				return autoDetectedConfigs.get(configName);
-			}
-			return null;
-		} finally {
-			r.unlock();
+		populateDeferredAutoDetectedConfigs();
+		Snapshot snapshot = getSnapshot();
+		if (snapshot.configs.containsKey(configName)) {
+			return snapshot.configs.get(configName);
+		} else if (snapshot.autoDetectedConfigs.containsKey(configName)) {
+			return snapshot.autoDetectedConfigs.get(configName);
 		}
+		return null;
 	}
 
 	public Set<String> getConfigNames() {
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			Set<String> configNames = new LinkedHashSet<String>(configs.keySet());
-			configNames.addAll(autoDetectedConfigs.keySet());
-			return configNames;
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		Snapshot snapshot = getSnapshot();
+		Set<String> configNames = new LinkedHashSet<String>(snapshot.configs.keySet());
+		configNames.addAll(snapshot.autoDetectedConfigs.keySet());
+		return configNames;
 	}
 
 	public Set<String> getManualConfigNames() {
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(configs.keySet());
-		} finally {
-			r.unlock();
-		}
+		return new LinkedHashSet<String>(getSnapshot().configs.keySet());
 	}
 
 	public Set<String> getAutoConfigNames() {
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(autoDetectedConfigs.keySet());
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		return new LinkedHashSet<String>(getSnapshot().autoDetectedConfigs.keySet());
 	}
 
 	public Set<String> getManualConfigSetNames() {
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(configSets.keySet());
-		} finally {
-			r.unlock();
-		}
+		return new LinkedHashSet<String>(getSnapshot().configSets.keySet());
 	}
 
 	public Set<String> getAutoConfigSetNames() {
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(autoDetectedConfigSets.keySet());
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		return new LinkedHashSet<String>(getSnapshot().autoDetectedConfigSets.keySet());
 	}
 
 	/**
@@ -705,16 +685,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return allConfigs;
-			// Set<IBeansConfig> beansConfigs = new
-			// LinkedHashSet<IBeansConfig>(configs.values());
-			// beansConfigs.addAll(autoDetectedConfigs.values());
-			// return beansConfigs;
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		return getSnapshot().allConfigs;
 	}
 
 	/**
@@ -730,6 +702,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
+		populateDeferredAutoDetectedConfigs();
 		try {
 			w.lock();
 			this.configSets.clear();
@@ -737,6 +710,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				this.configSets.put(configSet.getElementName(), configSet);
 			}
 		} finally {
+			updateAllConfigsCache();
 			w.unlock();
 		}
 	}
@@ -745,8 +719,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
+		populateDeferredAutoDetectedConfigs();
 		try {
-			r.lock();
+			w.lock();
 			if (!configSets.values().contains(configSet)) {
 				configSets.put(configSet.getElementName(), configSet);
 
@@ -758,16 +733,21 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				return true;
 			}
 		} finally {
-			r.unlock();
+			updateAllConfigsCache();
+			w.unlock();
 		}
 		return false;
 	}
 
 	public void removeConfigSet(String configSetName) {
+		if (!this.modelPopulated) {
+			populateModel();
+		}
 		try {
 			w.lock();
 			configSets.remove(configSetName);
 		} finally {
+			updateAllConfigsCache();
 			w.unlock();
 		}
 	}
@@ -780,12 +760,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			return configSets.containsKey(configSetName);
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		return getSnapshot().configSets.containsKey(configSetName);
 	}
 
 	/**
@@ -796,16 +772,13 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			IBeansConfigSet set = configSets.get(configSetName);
-			if (set != null) {
-				return set;
-			}
-			return autoDetectedConfigSets.get(configSetName);
-		} finally {
-			r.unlock();
+		populateDeferredAutoDetectedConfigs();
+		Snapshot snapshot = getSnapshot();
+		IBeansConfigSet set = snapshot.configSets.get(configSetName);
+		if (set != null) {
+			return set;
 		}
+		return snapshot.autoDetectedConfigSets.get(configSetName);
 	}
 
 	/**
@@ -816,14 +789,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
-		try {
-			r.lock();
-			Set<IBeansConfigSet> configSets = new LinkedHashSet<IBeansConfigSet>(this.configSets.values());
-			configSets.addAll(autoDetectedConfigSets.values());
-			return configSets;
-		} finally {
-			r.unlock();
-		}
+		populateDeferredAutoDetectedConfigs();
+		return getSnapshot().allConfigSets;
 	}
 
 	/**
@@ -886,6 +853,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		try {
 			w.lock();
 			this.modelPopulated = false;
+			this.autoDetectionDeferred = false;
+			this.deferredAutoDetectionJob = null;
+			this.deferredRemovedConfigsFromSets = null;
 			configSuffixes.clear();
 			configs.clear();
 			configSets.clear();
@@ -931,13 +901,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public String toString() {
-		try {
-			r.lock();
-			return "Project=" + getElementName() + ", ConfigExtensions=" + configSuffixes + ", Configs=" + configs.values() + ", ConfigsSets="
-					+ configSets;
-		} finally {
-			r.unlock();
-		}
+		Snapshot snapshot = this.snapshot;
+		return "Project=" + getElementName() + ", ConfigExtensions=" + snapshot.configSuffixes + ", Configs="
+				+ snapshot.configs.values() + ", ConfigsSets=" + snapshot.configSets;
 	}
 
 	/**
@@ -970,6 +936,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	}
 
 	public void removeAutoDetectedConfigs(String locatorId) {
+		if (!this.modelPopulated) {
+			populateModel();
+		}
 		try {
 			w.lock();
 			Set<String> configs = autoDetectedConfigsByLocator.get(locatorId);
@@ -1010,23 +979,13 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			populateModel();
 		}
+		populateDeferredAutoDetectedConfigs();
 		boolean hasRemoved = false;
-		try {
-			r.lock();
-			for (IBeansConfigSet configSet : configSets.values()) {
-				if (configSet.hasConfig(configName)) {
-					((BeansConfigSet) configSet).removeConfig(configName);
-					hasRemoved = true;
-				}
-			}
-			for (IBeansConfigSet configSet : autoDetectedConfigSets.values()) {
-				if (configSet.hasConfig(configName)) {
-					((BeansConfigSet) configSet).removeConfig(configName);
-					hasRemoved = true;
-				}
+		for (IBeansConfigSet configSet : getSnapshot().allConfigSets) {
+			if (configSet.hasConfig(configName)) {
+				((BeansConfigSet) configSet).removeConfig(configName);
+				hasRemoved = true;
 			}
-		} finally {
-			r.unlock();
 		}
 		return hasRemoved;
 	}
@@ -1044,15 +1003,21 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 * Populate the project's model with the information read from project
 	 * description (an XML file defined in
 	 * {@link ISpringProject.DESCRIPTION_FILE}).
+	 * <p>
+	 * Writers call this before they take the write lock. The only nested
+	 * calls are those made by the population itself, e.g. when the
+	 * description reader adds configs; they return immediately.
 	 */
 	private void populateModel() {
+		boolean populatedByThisCall = false;
 		try {
 			w.lock();
-			if (this.modelPopulated) {
+			if (this.modelPopulated || this.populating) {
 				return;
 			}
+			this.populating = true;
+			populatedByThisCall = true;
 			this.eventListener = new DefaultBeansConfigEventListener();
-			this.modelPopulated = true;
 
 			BeansProjectDescriptionReader.read(this);
 
@@ -1082,14 +1047,27 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				}
 			}
 
-			// Add auto detected configs and config sets
-			populateAutoDetectedConfigsAndConfigSets(removedConfigsFromSets);
+			// Add auto detected configs and config sets; in lazy mode once the configs are requested
+			if (BeansCorePlugin.getDefault().isLazyAutoDetectionEnabled()
+					&& BeansCorePlugin.getDefault().isAutoDetectionEnabled()) {
+				deferredRemovedConfigsFromSets = removedConfigsFromSets;
+				autoDetectionDeferred = true;
+			}
+			else {
+				populateAutoDetectedConfigsAndConfigSets(removedConfigsFromSets);
+			}
 
 			for (IBeansConfig config : configs.values()) {
 				config.registerEventListener(eventListener);
 			}
 		} finally {
-			updateAllConfigsCache();
+			if (populatedByThisCall) {
+				// Other threads only see a populated model once its snapshot
+				// is published
+				this.populating = false;
+				updateAllConfigsCache();
+				this.modelPopulated = true;
+			}
 			w.unlock();
 		}
 	}
@@ -1104,46 +1082,123 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	protected void populateAutoDetectedConfigsAndConfigSets(final Map<IBeansConfigSet, Set<String>> removedConfigsFromSets) {
 		if (BeansCorePlugin.getDefault().isAutoDetectionEnabled()) {
-			Job job = new Job("populate auto detected configs") {
-				
-				private int rescheduleCount = 0;
-				
-				@Override
-				protected IStatus run(IProgressMonitor monitor) {
-					
-					try {
-						boolean reschedule = populateAutoDetectedConfigsAndConfigSetsInternally();
-						if (reschedule) {
-							rescheduleCount++;
+			createAutoDetectionJob(removedConfigsFromSets, false).schedule();
+		}
+	}
 
-							if (rescheduleCount < AUTO_CONFIG_RESCHEDULE_MAX_COUNT) {
-								schedule(AUTO_CONFIG_RESCHEDULE_SLEEP_TIME_MILLIS);
-							}
-						}
+	/**
+	 * Creates the job that runs the registered detectors. A job for the
+	 * deferred detection doesn't retry locators that are not ready yet
+	 * itself, as threads waiting for it would have to wait for all retries;
+	 * it hands the retries over to a new job instead.
+	 */
+	private Job createAutoDetectionJob(final Map<IBeansConfigSet, Set<String>> removedConfigsFromSets,
+			final boolean deferred) {
+		Job job = new Job("populate auto detected configs") {
+
+			private int rescheduleCount = 0;
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+
+				boolean reschedule = populateAutoDetectedConfigsAndConfigSetsInternally();
+				if (reschedule && !deferred) {
+					rescheduleCount++;
 
-						w.lock();
-						restoreConfigSetState(removedConfigsFromSets);
-					} finally {
-						updateAllConfigsCache();
-						w.unlock();
+					if (rescheduleCount < AUTO_CONFIG_RESCHEDULE_MAX_COUNT) {
+						schedule(AUTO_CONFIG_RESCHEDULE_SLEEP_TIME_MILLIS);
 					}
-					
-					((AbstractModel) (BeansCorePlugin.getModel())).notifyListeners(BeansProject.this, ModelChangeEvent.Type.CHANGED);
-					
-					return Status.OK_STATUS;
 				}
-	
-				@Override
-				public boolean belongsTo(Object family) {
-					return family.equals("populateAutoConfigsJobFamily");
+
+				try {
+					w.lock();
+					restoreConfigSetState(removedConfigsFromSets);
+					// A reset in the meantime may have deferred the detection again
+					if (deferred && deferredAutoDetectionJob == this) {
+						deferredRemovedConfigsFromSets = null;
+						autoDetectionDeferred = false;
+						deferredAutoDetectionJob = null;
+					}
+				} finally {
+					updateAllConfigsCache();
+					w.unlock();
 				}
-				
-			};
-	
-			job.setPriority(Job.BUILD);
-			job.setRule(MultiRule.combine(ResourcesPlugin.getWorkspace().getRoot(), BeansCoreUtils.BEANS_MODEL_INIT_RULE));
-			job.schedule();
+
+				if (reschedule && deferred) {
+					// Locators are not ready yet, keep on trying in the background
+					populateAutoDetectedConfigsAndConfigSets(null);
+				}
+
+				((AbstractModel) (BeansCorePlugin.getModel())).notifyListeners(BeansProject.this, ModelChangeEvent.Type.CHANGED);
+
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return family.equals("populateAutoConfigsJobFamily");
+			}
+
+		};
+
+		job.setPriority(Job.BUILD);
+		job.setRule(MultiRule.combine(ResourcesPlugin.getWorkspace().getRoot(), BeansCoreUtils.BEANS_MODEL_INIT_RULE));
+		return job;
+	}
+
+	/**
+	 * Starts the auto detection of configs if it has been deferred until the
+	 * configs of this project are requested for the first time. The
+	 * detection runs in the same kind of job as the eager detection, so
+	 * callers get the configs detected so far. Only callers that can block
+	 * safely wait for the job to finish first (see
+	 * {@link #canWaitForAutoDetection(Job)}).
+	 * 
+	 * @see BeansCorePlugin#isLazyAutoDetectionEnabled()
+	 */
+	private void populateDeferredAutoDetectedConfigs() {
+		if (!autoDetectionDeferred) {
+			return;
+		}
+		Job job;
+		synchronized (autoDetectionLock) {
+			job = deferredAutoDetectionJob;
+			if (job == null && autoDetectionDeferred) {
+				job = createAutoDetectionJob(deferredRemovedConfigsFromSets, true);
+				deferredAutoDetectionJob = job;
+				job.schedule();
+			}
+		}
+		if (job != null && canWaitForAutoDetection(job)) {
+			try {
+				job.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the calling thread may wait for the given
+	 * auto detection job. It must not be the UI thread or the job itself,
+	 * must not hold the write lock the job needs and must not hold a
+	 * scheduling rule that conflicts with the job's rule.
+	 */
+	private boolean canWaitForAutoDetection(Job job) {
+		if (w.isHeldByCurrentThread()) {
+			return false;
+		}
+		// SWT is only touched if there is a UI thread at all
+		if (PlatformUI.isWorkbenchRunning() && Display.getCurrent() != null) {
+			return false;
+		}
+		IJobManager jobManager = Job.getJobManager();
+		if (jobManager.currentJob() == job) {
+			return false;
 		}
+		ISchedulingRule rule = jobManager.currentRule();
+		return rule == null || !job.getRule().isConflicting(rule);
 	}
 
 	protected boolean populateAutoDetectedConfigsAndConfigSetsInternally() {
@@ -1233,7 +1288,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	protected void setAutoDetectedConfigs(Map<BeansConfigLocatorDefinition, Map<String, IBeansConfig>> newAutoConfigs,
 			Map<BeansConfigLocatorDefinition, String> newConfigSetNames) {
-
+		if (!this.modelPopulated) {
+			populateModel();
+		}
 		try {
 
 			w.lock();
@@ -1288,6 +1345,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			}
 
 		} finally {
+			updateAllConfigsCache();
 			w.unlock();
 			
 			//The commented line below was a fix for 'STS-3541: added additional project build after asynchronous beans config scanning'
@@ -1311,14 +1369,192 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	}
 
 	/**
-	 * Update the internal cache for all configs in case something changed to
-	 * this.configs or this.autoDetectedConfigs. This has to be called in a
-	 * write-guarded block.
+	 * Publishes a new snapshot of the configs and config sets to readers in
+	 * case something changed to this.configs, this.autoDetectedConfigs,
+	 * this.configSets, this.autoDetectedConfigSets or this.configSuffixes.
+	 * This has to be called at the end of a write-guarded block.
 	 */
 	protected void updateAllConfigsCache() {
-		CopyOnWriteArraySet<IBeansConfig> newAllConfigs = new CopyOnWriteArraySet<IBeansConfig>(configs.values());
-		newAllConfigs.addAll(autoDetectedConfigs.values());
-		this.allConfigs = Collections.unmodifiableSet(newAllConfigs);
+		this.snapshot = Snapshot.copyOf(this);
+		// Subclasses may have replaced the maps before publishing
+		this.writerView = null;
+	}
+
+	/**
+	 * Returns the snapshot to read the configs and config sets from. The
+	 * thread holding the write lock reads views of the live maps, so it sees
+	 * its own changes that have not been published yet without copying them.
+	 * The views are created once and reused by all reads until the next
+	 * publication.
+	 */
+	private Snapshot getSnapshot() {
+		if (w.isHeldByCurrentThread()) {
+			if (writerView == null) {
+				writerView = Snapshot.viewOf(this);
+			}
+			return writerView;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Read-only state of the configs and config sets of a
+	 * {@link BeansProject}. Published snapshots are immutable copies, while
+	 * the writer reads through views of the live maps and suffixes.
+	 */
+	private static final class Snapshot {
+
+		private static final Snapshot EMPTY = new Snapshot(Collections.<String> emptySet(),
+				Collections.<String, IBeansConfig> emptyMap(), Collections.<String, IBeansConfig> emptyMap(),
+				Collections.<String, IBeansConfigSet> emptyMap(), Collections.<String, IBeansConfigSet> emptyMap());
+
+		private final Set<String> configSuffixes;
+
+		private final Map<String, IBeansConfig> configs;
+
+		private final Map<String, IBeansConfig> autoDetectedConfigs;
+
+		private final Set<IBeansConfig> allConfigs;
+
+		private final Map<String, IBeansConfigSet> configSets;
+
+		private final Map<String, IBeansConfigSet> autoDetectedConfigSets;
+
+		private final Set<IBeansConfigSet> allConfigSets;
+
+		private Snapshot(Set<String> configSuffixes, Map<String, IBeansConfig> configs,
+				Map<String, IBeansConfig> autoDetectedConfigs, Map<String, IBeansConfigSet> configSets,
+				Map<String, IBeansConfigSet> autoDetectedConfigSets) {
+			this(configSuffixes, configs, autoDetectedConfigs, union(configs, autoDetectedConfigs), configSets,
+					autoDetectedConfigSets, union(configSets, autoDetectedConfigSets));
+		}
+
+		private Snapshot(Set<String> configSuffixes, Map<String, IBeansConfig> configs,
+				Map<String, IBeansConfig> autoDetectedConfigs, Set<IBeansConfig> allConfigs,
+				Map<String, IBeansConfigSet> configSets, Map<String, IBeansConfigSet> autoDetectedConfigSets,
+				Set<IBeansConfigSet> allConfigSets) {
+			this.configSuffixes = Collections.unmodifiableSet(configSuffixes);
+			this.configs = Collections.unmodifiableMap(configs);
+			this.autoDetectedConfigs = Collections.unmodifiableMap(autoDetectedConfigs);
+			this.allConfigs = Collections.unmodifiableSet(allConfigs);
+			this.configSets = Collections.unmodifiableMap(configSets);
+			this.autoDetectedConfigSets = Collections.unmodifiableMap(autoDetectedConfigSets);
+			this.allConfigSets = Collections.unmodifiableSet(allConfigSets);
+		}
+
+		private static <T> Set<T> union(Map<String, T> elements, Map<String, T> autoDetectedElements) {
+			Set<T> union = new LinkedHashSet<T>(elements.values());
+			union.addAll(autoDetectedElements.values());
+			return union;
+		}
+
+		/**
+		 * Copies the current state of the given project, to be published to
+		 * readers.
+		 */
+		private static Snapshot copyOf(BeansProject project) {
+			return new Snapshot(new LinkedHashSet<String>(project.configSuffixes),
+					new LinkedHashMap<String, IBeansConfig>(project.configs),
+					new LinkedHashMap<String, IBeansConfig>(project.autoDetectedConfigs),
+					new LinkedHashMap<String, IBeansConfigSet>(project.configSets),
+					new LinkedHashMap<String, IBeansConfigSet>(project.autoDetectedConfigSets));
+		}
+
+		/**
+		 * Wraps the live maps of the given project without copying them.
+		 * Must only be used by the thread holding the write lock.
+		 */
+		private static Snapshot viewOf(BeansProject project) {
+			return new Snapshot(project.configSuffixes, project.configs, project.autoDetectedConfigs,
+					new UnionView<IBeansConfig>(project.configs, project.autoDetectedConfigs), project.configSets,
+					project.autoDetectedConfigSets, new UnionView<IBeansConfigSet>(project.configSets,
+							project.autoDetectedConfigSets));
+		}
+	}
+
+	/**
+	 * Live view of the elements of two maps. Elements of the second map are
+	 * skipped if the first map has an element with the same name, like the
+	 * copies made for published snapshots do for equal elements.
+	 */
+	private static final class UnionView<T> extends AbstractSet<T> {
+
+		private final Map<String, T> first;
+
+		private final Map<String, T> second;
+
+		private UnionView(Map<String, T> first, Map<String, T> second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (first.containsValue(o)) {
+				return true;
+			}
+			for (Map.Entry<String, T> entry : second.entrySet()) {
+				if (ObjectUtils.nullSafeEquals(o, entry.getValue()) && !first.containsKey(entry.getKey())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			int size = first.size();
+			for (String name : second.keySet()) {
+				if (!first.containsKey(name)) {
+					size++;
+				}
+			}
+			return size;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			final Iterator<T> firstElements = first.values().iterator();
+			final Iterator<Map.Entry<String, T>> secondEntries = second.entrySet().iterator();
+			return new Iterator<T>() {
+
+				private T next;
+
+				private boolean hasNext;
+
+				public boolean hasNext() {
+					if (hasNext) {
+						return true;
+					}
+					if (firstElements.hasNext()) {
+						next = firstElements.next();
+						hasNext = true;
+						return true;
+					}
+					while (secondEntries.hasNext()) {
+						Map.Entry<String, T> entry = secondEntries.next();
+						if (!first.containsKey(entry.getKey())) {
+							next = entry.getValue();
+							hasNext = true;
+							return true;
+						}
+					}
+					return false;
+				}
+
+				public T next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					hasNext = false;
+					return next;
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
 	}
 
 	/**
@@ -1403,22 +1639,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			return false;
 		}
-		try {
-			r.lock();
-			for (IBeansConfig config : configs.values()) {
-				if (!((ILazyInitializedModelElement) config).isInitialized()) {
-					return false;
-				}
+		for (IBeansConfig config : snapshot.allConfigs) {
+			if (!((ILazyInitializedModelElement) config).isInitialized()) {
+				return false;
 			}
-			for (IBeansConfig config : autoDetectedConfigs.values()) {
-				if (!((ILazyInitializedModelElement) config).isInitialized()) {
-					return false;
-				}
-			}
-			return true;
-		} finally {
-			r.unlock();
 		}
+		return true;
 	}
 
 	@Override
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+
+/**
+ * A {@link ModelChangeEvent} of type {@link ModelChangeEvent.Type#CHANGED} for a project whose configs were reloaded
+ * by an incremental build, that carries the beans added, removed or changed in every reloaded config.
+ * <p>
+ * Listeners that don't know about this event see a single change of the project; listeners that do can restrict
+ * their work to the reloaded configs of the {@link #getDeltas() deltas}. A reloaded config has a delta even if none
+ * of its beans changed, as the Java types used by the beans may have changed.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansProjectChangeEvent extends ModelChangeEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient List<BeansConfigDelta> deltas;
+
+	public BeansProjectChangeEvent(IBeansProject project, List<BeansConfigDelta> deltas) {
+		super(project, Type.CHANGED);
+		this.deltas = Collections.unmodifiableList(deltas);
+	}
+
+	/**
+	 * Returns the beans added, removed or changed by the reload of each reloaded config.
+	 */
+	public List<BeansConfigDelta> getDeltas() {
+		return deltas;
+	}
+
+	/**
+	 * Returns the beans added, removed or changed by the reload of the given config, or <code>null</code> if the
+	 * config wasn't reloaded.
+	 */
+	public BeansConfigDelta getDelta(IBeansConfig config) {
+		for (BeansConfigDelta delta : deltas) {
+			if (delta.getConfig().equals(config)) {
+				return delta;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " " + deltas;
+	}
+
+}
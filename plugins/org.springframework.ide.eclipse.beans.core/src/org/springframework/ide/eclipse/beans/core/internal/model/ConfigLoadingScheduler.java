@@ -0,0 +1,416 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Runs the loading of {@link BeansConfig}s and {@link BeansJavaConfig}s on a bounded number of threads.
+ * <p>
+ * Pending loads are ordered by {@link Priority}, so that a config requested by an editor or the UI is loaded before
+ * the configs a build is waiting for. A load that times out is cancelled: it is removed from the queue or, if it is
+ * already running, {@link #checkCanceled()} makes it stop at the next check point. Running loads are not interrupted,
+ * as the interrupt would hit whatever the loading thread is doing at that time, e.g. reading from a file channel
+ * that is shared with other threads and closed by the interrupt.
+ * <p>
+ * A cancelled load keeps its worker thread until it reaches a check point. The scheduler adds a thread for each such
+ * overrunning load, so that loads which hang don't use up the worker threads, and removes it again once the load
+ * returns.
+ * <p>
+ * Loads are never shared between requests, as each load collects the beans and problems of its own request.
+ * <p>
+ * With the <code>model/loading/debug</code> option the queue depth, latencies and counts of the scheduler are
+ * printed after each load.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ConfigLoadingScheduler {
+
+	/**
+	 * Priority of a load; constants are declared in the order they are served.
+	 */
+	public enum Priority {
+
+		/** Requested by the UI thread, an editor or a short user-facing job */
+		INTERACTIVE,
+
+		/** Requested by a build */
+		BUILD,
+
+		/** Requested by any other background job */
+		BACKGROUND
+	}
+
+	private static final String DEBUG_OPTION = BeansCorePlugin.PLUGIN_ID + "/model/loading/debug";
+
+	private static final boolean DEBUG = SpringCore.isDebug(DEBUG_OPTION);
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	/** The load running in the current thread */
+	private static final ThreadLocal<LoadTask<?>> CURRENT = new ThreadLocal<LoadTask<?>>();
+
+	private final int threads;
+
+	private final ThreadPoolExecutor executor;
+
+	/** Number of cancelled loads that still run; guarded by this scheduler */
+	private int overrunCount;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final AtomicLong submittedCount = new AtomicLong();
+
+	private final AtomicLong startedCount = new AtomicLong();
+
+	private final AtomicLong completedCount = new AtomicLong();
+
+	private final AtomicLong cancelledCount = new AtomicLong();
+
+	private final AtomicLong timedOutCount = new AtomicLong();
+
+	private final AtomicLong executedCount = new AtomicLong();
+
+	private final AtomicLong totalQueueLatency = new AtomicLong();
+
+	private final AtomicLong maxQueueLatency = new AtomicLong();
+
+	private final AtomicLong totalExecutionTime = new AtomicLong();
+
+	public ConfigLoadingScheduler(int threads, ThreadFactory threadFactory) {
+		this.threads = threads;
+		this.executor = new LoadingExecutor(threads, threadFactory);
+	}
+
+	/**
+	 * Returns the priority for loads requested by the current thread: threads outside of jobs (e.g. the UI thread or
+	 * an editor's reconciler) and interactive jobs are served first, then builds and then any other job.
+	 */
+	public static Priority getCurrentPriority() {
+		Job job = Job.getJobManager().currentJob();
+		if (job == null) {
+			return Priority.INTERACTIVE;
+		}
+		switch (job.getPriority()) {
+		case Job.INTERACTIVE:
+		case Job.SHORT:
+			return Priority.INTERACTIVE;
+		case Job.BUILD:
+			return Priority.BUILD;
+		default:
+			return Priority.BACKGROUND;
+		}
+	}
+
+	/**
+	 * Throws an {@link OperationCanceledException} if the load running in the current thread has been cancelled.
+	 * Long running loads should call this between their steps.
+	 */
+	public static void checkCanceled() {
+		LoadTask<?> task = CURRENT.get();
+		if (task != null && task.isCancelled()) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	/**
+	 * Loads with the {@link #getCurrentPriority() priority of the current thread} and waits at most the given time
+	 * for the result. If the load doesn't finish in time it is cancelled.
+	 * <p>
+	 * A load requested from within a running load is run in the current thread, as it would otherwise wait for a
+	 * worker thread that the running load might hold.
+	 */
+	public <T> T load(Callable<T> operation, long timeout, TimeUnit unit) throws InterruptedException,
+			ExecutionException, TimeoutException {
+		if (CURRENT.get() != null) {
+			try {
+				return operation.call();
+			}
+			catch (Exception e) {
+				throw new ExecutionException(e);
+			}
+		}
+
+		LoadTask<T> task = submit(getCurrentPriority(), operation);
+		boolean finished = false;
+		try {
+			T result = task.get(timeout, unit);
+			finished = true;
+			return result;
+		}
+		catch (ExecutionException e) {
+			finished = true;
+			throw e;
+		}
+		catch (TimeoutException e) {
+			timedOutCount.incrementAndGet();
+			throw e;
+		}
+		finally {
+			if (!finished) {
+				task.cancel();
+			}
+			if (DEBUG) {
+				System.out.println(String.format("> loading scheduler after load: %s", this));
+			}
+		}
+	}
+
+	/**
+	 * Schedules the given operation with the given priority.
+	 */
+	public <T> Future<T> schedule(Priority priority, Callable<T> operation) {
+		return submit(priority, operation);
+	}
+
+	private <T> LoadTask<T> submit(Priority priority, Callable<T> operation) {
+		LoadTask<T> task = new LoadTask<T>(priority, operation);
+		executor.execute(task);
+		return task;
+	}
+
+	/**
+	 * Adds a worker thread for a cancelled load that is still running, or removes it once the load returned.
+	 */
+	private synchronized void adjustOverrunCapacity(int delta) {
+		overrunCount += delta;
+		int size = threads + overrunCount;
+		if (size > executor.getMaximumPoolSize()) {
+			executor.setMaximumPoolSize(size);
+			executor.setCorePoolSize(size);
+		}
+		else {
+			executor.setCorePoolSize(size);
+			executor.setMaximumPoolSize(size);
+		}
+	}
+
+	/**
+	 * Returns an {@link ExecutorService} for other background work; tasks submitted to it run with
+	 * {@link Priority#BACKGROUND} priority.
+	 */
+	public ExecutorService getExecutorService() {
+		return executor;
+	}
+
+	/**
+	 * Cancels all pending loads and stops the worker threads.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the number of loads waiting for a worker thread.
+	 */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Returns the number of loads currently running.
+	 */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	public long getSubmittedCount() {
+		return submittedCount.get();
+	}
+
+	public long getCompletedCount() {
+		return completedCount.get();
+	}
+
+	public long getCancelledCount() {
+		return cancelledCount.get();
+	}
+
+	public long getTimedOutCount() {
+		return timedOutCount.get();
+	}
+
+	/**
+	 * Returns the number of cancelled loads that still hold a worker thread.
+	 */
+	public synchronized int getOverrunCount() {
+		return overrunCount;
+	}
+
+	/**
+	 * Returns the average time loads waited for a worker thread.
+	 */
+	public long getAverageQueueLatency(TimeUnit unit) {
+		long started = startedCount.get();
+		return started > 0 ? unit.convert(totalQueueLatency.get() / started, TimeUnit.NANOSECONDS) : 0;
+	}
+
+	/**
+	 * Returns the longest time a load waited for a worker thread.
+	 */
+	public long getMaxQueueLatency(TimeUnit unit) {
+		return unit.convert(maxQueueLatency.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the average time between the start and the end of a load, including cancelled loads that were started.
+	 */
+	public long getAverageExecutionTime(TimeUnit unit) {
+		long finished = executedCount.get();
+		return finished > 0 ? unit.convert(totalExecutionTime.get() / finished, TimeUnit.NANOSECONDS) : 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"queued=%d, active=%d, overrun=%d, submitted=%d, completed=%d, cancelled=%d, timed out=%d, "
+						+ "avg latency=%dms, max latency=%dms, avg execution=%dms", getQueueSize(), getActiveCount(),
+				getOverrunCount(), getSubmittedCount(), getCompletedCount(), getCancelledCount(), getTimedOutCount(),
+				getAverageQueueLatency(TimeUnit.MILLISECONDS), getMaxQueueLatency(TimeUnit.MILLISECONDS),
+				getAverageExecutionTime(TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * A single load; ordered by priority and then by submission.
+	 */
+	private class LoadTask<T> extends FutureTask<T> implements Comparable<LoadTask<?>> {
+
+		private final long order = sequence.incrementAndGet();
+
+		private final long submitTime = System.nanoTime();
+
+		private final Priority priority;
+
+		private volatile long startTime;
+
+		/** Whether the operation of this load is running; guarded by this task */
+		private boolean running;
+
+		/** Whether this load has been cancelled while running and got a worker thread added for it */
+		private boolean overrun;
+
+		public LoadTask(Priority priority, Callable<T> operation) {
+			super(operation);
+			this.priority = priority;
+			submittedCount.incrementAndGet();
+		}
+
+		/**
+		 * Cancels this load without interrupting it. If the load is already running, a worker thread is added until
+		 * its operation returns.
+		 */
+		public synchronized void cancel() {
+			if (cancel(false) && running) {
+				overrun = true;
+				adjustOverrunCapacity(1);
+			}
+		}
+
+		@Override
+		public void run() {
+			synchronized (this) {
+				if (isDone()) {
+					return;
+				}
+				running = true;
+			}
+			startTime = System.nanoTime();
+			long latency = startTime - submitTime;
+			startedCount.incrementAndGet();
+			totalQueueLatency.addAndGet(latency);
+			long max;
+			do {
+				max = maxQueueLatency.get();
+			}
+			while (latency > max && !maxQueueLatency.compareAndSet(max, latency));
+
+			CURRENT.set(this);
+			try {
+				super.run();
+			}
+			finally {
+				CURRENT.remove();
+				executedCount.incrementAndGet();
+				totalExecutionTime.addAndGet(System.nanoTime() - startTime);
+				synchronized (this) {
+					running = false;
+					if (overrun) {
+						adjustOverrunCapacity(-1);
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled()) {
+				cancelledCount.incrementAndGet();
+				executor.remove(this);
+			}
+			else {
+				completedCount.incrementAndGet();
+			}
+		}
+
+		public int compareTo(LoadTask<?> other) {
+			int result = priority.compareTo(other.priority);
+			if (result == 0) {
+				result = (order < other.order ? -1 : (order == other.order ? 0 : 1));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Pool of worker threads that serves its queue by priority.
+	 */
+	private class LoadingExecutor extends ThreadPoolExecutor {
+
+		public LoadingExecutor(int threads, ThreadFactory threadFactory) {
+			super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(),
+					threadFactory);
+			allowCoreThreadTimeOut(true);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			super.execute(command instanceof LoadTask ? command : newTaskFor(command, null));
+		}
+
+		@Override
+		protected <V> RunnableFuture<V> newTaskFor(Callable<V> callable) {
+			return new LoadTask<V>(Priority.BACKGROUND, callable);
+		}
+
+		@Override
+		protected <V> RunnableFuture<V> newTaskFor(Runnable runnable, V value) {
+			return new LoadTask<V>(Priority.BACKGROUND, Executors.callable(runnable, value));
+		}
+	}
+
+}
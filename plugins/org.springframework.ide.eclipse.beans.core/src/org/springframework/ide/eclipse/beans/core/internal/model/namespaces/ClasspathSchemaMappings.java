@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Shared cache of the schema mappings declared in <code>META-INF/spring.schemas</code> files and of the target
+ * namespaces of the mapped XSDs.
+ * <p>
+ * The mappings contributed by the jars of a classpath are loaded once and shared by all projects that have the same
+ * jars in the same order; a jar is identified by its path, size and last modification, so replacing a jar leads to
+ * a different classpath. Mappings from output folders are read on every request.
+ * <p>
+ * Target namespaces of XSDs inside jars are remembered by jar identity and entry name and are persisted in the state
+ * location of the plugin, so that XSDs are not scanned again after a restart.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ClasspathSchemaMappings {
+
+	private static final String STATE_FILE = "target-namespaces.properties";
+
+	private static final int CACHE_SIZE = 16;
+
+	private static final String ENTRY_SEPARATOR = "!/";
+
+	private static final ClasspathSchemaMappings INSTANCE = new ClasspathSchemaMappings(null);
+
+	public static ClasspathSchemaMappings getDefault() {
+		return INSTANCE;
+	}
+
+	/** File the target namespaces are persisted in; <code>null</code> for the default file in the state location */
+	private final File stateFile;
+
+	/** Schema mappings of the jars of a classpath, keyed by the identities of these jars */
+	private final Map<String, Map<String, String>> jarMappings = new LinkedHashMap<String, Map<String, String>>(
+			CACHE_SIZE, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Map<String, String>> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/** Target namespaces keyed by jar identity and entry name */
+	private final ConcurrentMap<String, String> targetNamespaces = new ConcurrentHashMap<String, String>();
+
+	private volatile boolean targetNamespacesLoaded;
+
+	private volatile boolean targetNamespacesChanged;
+
+	ClasspathSchemaMappings(File stateFile) {
+		this.stateFile = stateFile;
+	}
+
+	/**
+	 * Returns the mappings of all <code>spring.schemas</code> files on the classpath of the given project, in the same
+	 * order of precedence as {@link PropertiesLoaderUtils#loadAllProperties(String, ClassLoader)} would.
+	 * @param classLoader the class loader of the project as returned by
+	 * {@link org.springframework.ide.eclipse.core.java.JdtUtils#getClassLoader(IProject, ClassLoader)}
+	 */
+	public Map<String, String> getSchemaMappings(IProject project, ClassLoader classLoader) {
+		Map<String, String> mappings = new ConcurrentHashMap<String, String>();
+
+		// The parent of a project class loader loads from the jars on the classpath
+		ClassLoader jarClassLoader = classLoader.getParent();
+		if (jarClassLoader != null) {
+			mappings.putAll(getJarSchemaMappings(project, jarClassLoader));
+		}
+
+		// Output folders come after the jars
+		try {
+			Enumeration<URL> urls = classLoader.getResources(
+					ProjectClasspathNamespaceDefinitionResolver.DEFAULT_SCHEMA_MAPPINGS_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				if ("file".equals(url.getProtocol())) {
+					Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
+					CollectionUtils.mergePropertiesIntoMap(properties, mappings);
+				}
+			}
+		}
+		catch (IOException e) {
+			// We can ignore this as we simply don't find the xsd file then.
+		}
+		return mappings;
+	}
+
+	/**
+	 * Returns the target namespace URI of the XSD identified by the given <code>url</code>.
+	 */
+	public String getTargetNamespace(URL url) {
+		if (url == null) {
+			return null;
+		}
+
+		String key = getJarEntryKey(url);
+		if (key == null) {
+			return TargetNamespaceScanner.getTargetNamespace(url);
+		}
+
+		loadTargetNamespacesIfRequired();
+		String namespaceUri = targetNamespaces.get(key);
+		if (namespaceUri == null) {
+			namespaceUri = TargetNamespaceScanner.getTargetNamespace(url);
+			// null if the XSD can't be read
+			if (namespaceUri != null) {
+				targetNamespaces.put(key, namespaceUri);
+				targetNamespacesChanged = true;
+			}
+		}
+		return namespaceUri;
+	}
+
+	/**
+	 * Persists the target namespaces of XSDs inside jars that still exist unchanged.
+	 */
+	public void save() {
+		if (!targetNamespacesChanged) {
+			return;
+		}
+		targetNamespacesChanged = false;
+
+		Properties properties = new Properties();
+		Map<String, Boolean> validJars = new HashMap<String, Boolean>();
+		for (Map.Entry<String, String> entry : targetNamespaces.entrySet()) {
+			String key = entry.getKey();
+			String jarIdentity = key.substring(0, key.indexOf(ENTRY_SEPARATOR));
+			Boolean valid = validJars.get(jarIdentity);
+			if (valid == null) {
+				String path = jarIdentity.substring(0, jarIdentity.lastIndexOf('|', jarIdentity.lastIndexOf('|') - 1));
+				valid = jarIdentity.equals(getIdentity(new File(path)));
+				validJars.put(jarIdentity, valid);
+			}
+			if (valid) {
+				properties.setProperty(key, entry.getValue());
+			}
+		}
+
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(getStateFile());
+			properties.store(out, null);
+		}
+		catch (IOException e) {
+			BeansCorePlugin.log("Error saving target namespaces of XML schemas", e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	/**
+	 * Discards the cached schema mappings and target namespaces.
+	 */
+	public void clear() {
+		synchronized (jarMappings) {
+			jarMappings.clear();
+		}
+		targetNamespaces.clear();
+		targetNamespacesChanged = true;
+	}
+
+	private Map<String, String> getJarSchemaMappings(IProject project, ClassLoader jarClassLoader) {
+		String key = getJarsKey(project);
+		synchronized (jarMappings) {
+			Map<String, String> mappings = jarMappings.get(key);
+			if (mappings != null) {
+				return mappings;
+			}
+		}
+
+		Map<String, String> mappings = new LinkedHashMap<String, String>();
+		try {
+			Properties properties = PropertiesLoaderUtils.loadAllProperties(
+					ProjectClasspathNamespaceDefinitionResolver.DEFAULT_SCHEMA_MAPPINGS_LOCATION, jarClassLoader);
+			CollectionUtils.mergePropertiesIntoMap(properties, mappings);
+		}
+		catch (IOException e) {
+			// We can ignore this as we simply don't find the xsd file then.
+		}
+		mappings = Collections.unmodifiableMap(mappings);
+		synchronized (jarMappings) {
+			jarMappings.put(key, mappings);
+		}
+		return mappings;
+	}
+
+	/**
+	 * Returns a key identifying the jars on the classpath of the given project.
+	 */
+	private String getJarsKey(IProject project) {
+		StringBuilder key = new StringBuilder();
+		for (URL url : ProjectClassLoaderCache.getClassPathUrls(project, null)) {
+			String path = url.getPath();
+			if (path.endsWith(".jar") || path.endsWith(".zip")) {
+				key.append(getIdentity(toFile(url))).append('\n');
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns a key of the form <code>&lt;jar identity&gt;!/&lt;entry&gt;</code> for URLs of jar entries, otherwise
+	 * <code>null</code>.
+	 */
+	private String getJarEntryKey(URL url) {
+		if (!"jar".equals(url.getProtocol())) {
+			return null;
+		}
+		String path = url.getPath();
+		int ix = path.indexOf(ENTRY_SEPARATOR);
+		if (ix < 0) {
+			return null;
+		}
+		try {
+			File jar = toFile(new URL(path.substring(0, ix)));
+			if (!jar.isFile()) {
+				return null;
+			}
+			return getIdentity(jar) + path.substring(ix);
+		}
+		catch (MalformedURLException e) {
+			return null;
+		}
+	}
+
+	private synchronized void loadTargetNamespacesIfRequired() {
+		if (targetNamespacesLoaded) {
+			return;
+		}
+		targetNamespacesLoaded = true;
+
+		File file = getStateFile();
+		if (!file.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			properties.load(in);
+			for (String key : properties.stringPropertyNames()) {
+				if (key.contains(ENTRY_SEPARATOR)) {
+					targetNamespaces.putIfAbsent(key, properties.getProperty(key));
+				}
+			}
+		}
+		catch (IOException e) {
+			BeansCorePlugin.log("Error loading target namespaces of XML schemas", e);
+		}
+		finally {
+			close(in);
+		}
+	}
+
+	private File getStateFile() {
+		if (stateFile != null) {
+			return stateFile;
+		}
+		return BeansCorePlugin.getDefault().getStateLocation().append(STATE_FILE).toFile();
+	}
+
+	private static String getIdentity(File file) {
+		return file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+	}
+
+	private static File toFile(URL url) {
+		try {
+			return new File(url.toURI());
+		}
+		catch (URISyntaxException e) {
+			return new File(url.getPath());
+		}
+		catch (IllegalArgumentException e) {
+			return new File(url.getPath());
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2011 Spring IDE Developers
+ * Copyright (c) 2010, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -118,7 +118,7 @@ public class ProjectClasspathNamespaceDefinitionResolver implements INamespaceDe
 			try {
 				Properties mappings = PropertiesLoaderUtils.loadAllProperties(DEFAULT_HANDLER_MAPPINGS_LOCATION, cls);
 				CollectionUtils.mergePropertiesIntoMap(mappings, handlerMappings);
-				schemaMappings = PropertiesLoaderUtils.loadAllProperties(DEFAULT_SCHEMA_MAPPINGS_LOCATION, cls);
+				schemaMappings.putAll(ClasspathSchemaMappings.getDefault().getSchemaMappings(project, cls));
 				mappings = PropertiesLoaderUtils.loadAllProperties(DEFAULT_TOOLING_MAPPINGS_LOCATION, cls);
 				CollectionUtils.mergePropertiesIntoMap(mappings, toolingMappings);
 			}
@@ -141,7 +141,7 @@ public class ProjectClasspathNamespaceDefinitionResolver implements INamespaceDe
 					continue;
 				}
 
-				String namespaceUri = TargetNamespaceScanner.getTargetNamespace(url);
+				String namespaceUri = ClasspathSchemaMappings.getDefault().getTargetNamespace(url);
 				
 				if (StringUtils.hasText(namespaceUri)) {
 				
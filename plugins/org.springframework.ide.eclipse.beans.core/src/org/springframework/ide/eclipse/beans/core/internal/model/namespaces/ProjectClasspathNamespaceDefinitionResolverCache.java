@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 Spring IDE Developers
+ * Copyright (c) 2010, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,9 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.ElementChangedEvent;
@@ -23,140 +24,70 @@ import org.springframework.ide.eclipse.beans.core.model.INamespaceDefinitionReso
 import org.springframework.ide.eclipse.core.java.JdtUtils;
 
 /**
+ * Cache of the {@link ProjectClasspathNamespaceDefinitionResolver}s of projects.
+ * <p>
+ * A resolver is discarded when the classpath of its project or of a project on its classpath changes, or when its
+ * project is closed or removed. The schema mappings of the resolvers are shared through
+ * {@link ClasspathSchemaMappings}.
  * @author Christian Dupuis
  */
 public class ProjectClasspathNamespaceDefinitionResolverCache {
 
-	private static final int CACHE_SIZE = 12;
+	private static final int CLASSPATH_CHANGED = IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_CLOSED;
 
-	private static List<ResolvlerCacheEntry> RESOLVER_CACHE = new ArrayList<ResolvlerCacheEntry>(CACHE_SIZE);
+	private static final ConcurrentMap<IProject, ProjectClasspathNamespaceDefinitionResolver> RESOLVER_CACHE = new ConcurrentHashMap<IProject, ProjectClasspathNamespaceDefinitionResolver>();
 
-	private static INamespaceDefinitionResolver addResolverToCache(IProject project) {
-		synchronized (RESOLVER_CACHE) {
-			int nEntries = RESOLVER_CACHE.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				ResolvlerCacheEntry oldest = null;
-				List<ResolvlerCacheEntry> obsoleteClassLoaders = new ArrayList<ResolvlerCacheEntry>(CACHE_SIZE);
-				for (int i = 0; i < nEntries; i++) {
-					ResolvlerCacheEntry entry = RESOLVER_CACHE.get(i);
-					IProject curr = entry.getProject();
-					if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-						obsoleteClassLoaders.add(entry);
-					}
-					else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest = entry;
-						}
-					}
-				}
-				if (!obsoleteClassLoaders.isEmpty()) {
-					for (int i = 0; i < obsoleteClassLoaders.size(); i++) {
-						removeResolverEntryFromCache(obsoleteClassLoaders.get(i));
-					}
-				}
-				else if (oldest != null) {
-					removeResolverEntryFromCache(oldest);
-				}
-			}
-			ResolvlerCacheEntry newEntry = new ResolvlerCacheEntry(project);
-			RESOLVER_CACHE.add(newEntry);
-			return newEntry.getResolver();
-		}
-	}
+	private static IElementChangedListener changeListener;
 
-	private static INamespaceDefinitionResolver findResolverInCache(IProject project) {
-		synchronized (RESOLVER_CACHE) {
-			for (int i = RESOLVER_CACHE.size() - 1; i >= 0; i--) {
-				ResolvlerCacheEntry entry = RESOLVER_CACHE.get(i);
-				IProject curr = entry.getProject();
-				if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-					removeResolverEntryFromCache(entry);
-				}
-				else {
-					if (entry.matches(project)) {
-						entry.markAsAccessed();
-						return entry.getResolver();
-					}
-				}
-			}
+	public synchronized static INamespaceDefinitionResolver getResolver(IProject project) {
+		registerListenerIfRequired();
+
+		ProjectClasspathNamespaceDefinitionResolver resolver = RESOLVER_CACHE.get(project);
+		if (resolver == null) {
+			resolver = new ProjectClasspathNamespaceDefinitionResolver(project);
+			RESOLVER_CACHE.put(project, resolver);
 		}
-		return null;
+		return resolver;
 	}
 
-	private static void removeResolverEntryFromCache(ResolvlerCacheEntry entry) {
-		synchronized (RESOLVER_CACHE) {
-			entry.dispose();
-			RESOLVER_CACHE.remove(entry);
+	private static void registerListenerIfRequired() {
+		if (changeListener == null) {
+			changeListener = new ClasspathChangeListener();
+			JavaCore.addElementChangedListener(changeListener, ElementChangedEvent.POST_CHANGE);
 		}
 	}
 
-	public synchronized static INamespaceDefinitionResolver getResolver(IProject project) {
-		INamespaceDefinitionResolver resolver = findResolverInCache(project);
-		if (resolver == null) {
-			resolver = addResolverToCache(project);
+	private static void removeResolverFromCache(IProject project) {
+		ProjectClasspathNamespaceDefinitionResolver resolver = RESOLVER_CACHE.remove(project);
+		if (resolver != null) {
+			resolver.dispose();
 		}
-		return resolver;
 	}
 
 	/**
-	 * Internal cache entry
+	 * Discards the resolvers of projects whose classpath changed.
 	 */
-	private static class ResolvlerCacheEntry implements IElementChangedListener {
-
-		private long lastAccess;
-
-		private IProject project;
-		
-		private ProjectClasspathNamespaceDefinitionResolver resolver;
-
-		public ResolvlerCacheEntry(IProject project) {
-			this.project = project;
-			this.resolver = new ProjectClasspathNamespaceDefinitionResolver(project);
-			markAsAccessed();
-			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
-		}
-
-		public void dispose() {
-			JavaCore.removeElementChangedListener(this);
-			resolver.dispose();
-			resolver = null;
-		}
+	private static class ClasspathChangeListener implements IElementChangedListener {
 
 		public void elementChanged(ElementChangedEvent event) {
-			IJavaProject javaProject = JdtUtils.getJavaProject(project);
-			if (javaProject != null) {
-				for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
-					if ((delta.getFlags() & IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED) != 0
-							|| (delta.getFlags() & IJavaElementDelta.F_CLASSPATH_CHANGED) != 0) {
-						if (javaProject.equals(delta.getElement()) || javaProject.isOnClasspath(delta.getElement())) {
-							removeResolverEntryFromCache(this);
+			if (RESOLVER_CACHE.isEmpty()) {
+				return;
+			}
+			for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
+				if ((delta.getFlags() & CLASSPATH_CHANGED) != 0 || delta.getKind() == IJavaElementDelta.REMOVED) {
+					for (Map.Entry<IProject, ProjectClasspathNamespaceDefinitionResolver> entry : RESOLVER_CACHE
+							.entrySet()) {
+						IProject project = entry.getKey();
+						IJavaProject javaProject = JdtUtils.getJavaProject(project);
+						if (!project.isAccessible() || javaProject == null || javaProject.equals(delta.getElement())
+								|| javaProject.isOnClasspath(delta.getElement())) {
+							removeResolverFromCache(project);
 						}
 					}
 				}
 			}
 		}
-		
-		public INamespaceDefinitionResolver getResolver() {
-			return resolver;
-		}
-		
-		public long getLastAccess() {
-			return lastAccess;
-		}
-
-		public IProject getProject() {
-			return this.project;
-		}
-
-		public void markAsAccessed() {
-			lastAccess = System.currentTimeMillis();
-		}
-
-		public boolean matches(IProject project) {
-			return this.project.equals(project);
-		}
-
 	}
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Spring IDE Developers
+ * Copyright (c) 2011, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,22 +10,14 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IProject;
-import org.springframework.core.io.support.PropertiesLoaderUtils;
-import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
-import org.springframework.ide.eclipse.beans.core.ProjectAwareUrlStreamHandlerService;
 import org.springframework.ide.eclipse.beans.core.namespaces.NamespaceUtils;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
-import org.springframework.util.CollectionUtils;
 
 /**
  * resolves URIs on the project classpath using the protocol established by
@@ -108,7 +100,8 @@ public class ProjectClasspathUriResolver {
 					typeUri.put(key, resolvedPath);
 
 					// collect base information to later extract the default uri
-					String namespaceUri = getTargetNamespace(resolvedPath);
+					String namespaceUri = getTargetNamespace(resolvedPath,
+							classLoader);
 
 					if (namespaceDefinitionRegistry.containsKey(namespaceUri)) {
 						namespaceDefinitionRegistry.get(namespaceUri)
@@ -147,22 +140,12 @@ public class ProjectClasspathUriResolver {
 	 * Returns the target namespace URI of the XSD identified by the given
 	 * <code>resolvedPath</code>.
 	 */
-	private String getTargetNamespace(String resolvedPath) {
+	private String getTargetNamespace(String resolvedPath, ClassLoader cls) {
 		if (resolvedPath == null) {
 			return null;
 		}
-
-		try {
-			URL url = new URI(
-					ProjectAwareUrlStreamHandlerService.createProjectAwareUrl(
-							project.getName(), resolvedPath)).toURL();
-			return TargetNamespaceScanner.getTargetNamespace(url);
-		} catch (IOException e) {
-			BeansCorePlugin.log(e);
-		} catch (URISyntaxException e) {
-			BeansCorePlugin.log(e);
-		}
-		return null;
+		return ClasspathSchemaMappings.getDefault().getTargetNamespace(
+				cls.getResource(resolvedPath));
 	}
 
 	/**
@@ -171,19 +154,11 @@ public class ProjectClasspathUriResolver {
 	 * 
 	 * @param classLoader
 	 *            The classloader that is used to load the properties
+	 * @see ClasspathSchemaMappings
 	 */
 	private Map<String, String> getSchemaMappings(ClassLoader classLoader) {
-		Map<String, String> handlerMappings = new ConcurrentHashMap<String, String>();
-		try {
-			Properties mappings = PropertiesLoaderUtils
-					.loadAllProperties(
-							ProjectClasspathNamespaceDefinitionResolver.DEFAULT_SCHEMA_MAPPINGS_LOCATION,
-							classLoader);
-			CollectionUtils.mergePropertiesIntoMap(mappings, handlerMappings);
-		} catch (IOException ex) {
-			// We can ignore this as we simply don't find the xsd file then.
-		}
-		return handlerMappings;
+		return ClasspathSchemaMappings.getDefault().getSchemaMappings(project,
+				classLoader);
 	}
 
 	private String resolveXsdPathOnClasspath(String xsdPath, ClassLoader cls) {
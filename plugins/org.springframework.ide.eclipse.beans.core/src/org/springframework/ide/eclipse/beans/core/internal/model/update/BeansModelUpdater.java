@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2011 Spring IDE Developers
+ * Copyright (c) 2008, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -53,8 +53,9 @@ public abstract class BeansModelUpdater {
 	 */
 	public static void updateProject(IBeansProject project) {
 		for (IBeansModelUpdate update : UPDATES) {
-			// Do dummy access to the model object to load the model
-			project.getConfigs();
+			// Do dummy access to the model object to load the model without
+			// running the auto detection of configs
+			project.getConfigSuffixes();
 			if (update.requiresUpdate(project)) {
 				UpdateJob job = new UpdateJob(project, update);
 				job.setPriority(Job.BUILD);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 Spring IDE Developers
+ * Copyright (c) 2009, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model.validation;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -28,8 +29,11 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.BeansCoreUtils;
+import org.springframework.ide.eclipse.beans.core.internal.model.AbstractBeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDelta;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProjectChangeEvent;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
 import org.springframework.ide.eclipse.beans.core.model.IBeansImport;
@@ -50,6 +54,11 @@ import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
 /**
  * {@link IProjectContributionEventListener} implementation that handles resetting of {@link IBeansConfig}s based on
  * changes to the resource tree.
+ * <p>
+ * After an incremental build that reloaded XML or Java configs a single {@link BeansProjectChangeEvent} is sent, which
+ * carries the beans added, removed or changed in every reloaded config. A plain change of the project is sent instead
+ * after a full build, after Java types with structural changes reloaded the configs that scan for components, and if
+ * a reloaded config had not been loaded before, as no changes can be computed then.
  * @author Christian Dupuis
  * @author Martin Lippert
  * @since 2.2.5
@@ -61,6 +70,9 @@ public class BeansConfigReloadingProjectContributionEventListener extends Projec
 	/** Internal cache of {@link IBeansConfig} instances that should be reloaded */
 	private final Set<IBeansConfig> configs = new HashSet<IBeansConfig>();
 
+	/** <code>true</code> if Java types with structural changes caused configs to be reloaded */
+	private boolean structuralChanges = false;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -121,16 +133,37 @@ public class BeansConfigReloadingProjectContributionEventListener extends Projec
 	@Override
 	public void finish(int kind, IResourceDelta delta, List<ProjectBuilderDefinition> builderDefinitions,
 			List<ValidatorDefinition> validatorDefinitions, IProjectContributorState state, IProject project) {
-		// Send update event
+		// Send update events
 		if (configs.size() > 0) {
 			IBeansProject beansProject = BeansCorePlugin.getModel().getProject(project);
 			if (beansProject != null) {
-				((BeansModel) BeansCorePlugin.getModel()).notifyListeners(beansProject, Type.CHANGED);
+				BeansModel model = (BeansModel) BeansCorePlugin.getModel();
+				boolean projectChanged = (kind == IncrementalProjectBuilder.FULL_BUILD || structuralChanges);
+				List<BeansConfigDelta> deltas = new ArrayList<BeansConfigDelta>();
+				for (IBeansConfig config : configs) {
+					// Always ask for the delta to release the beans from before the reload
+					BeansConfigDelta delta = (config instanceof AbstractBeansConfig ? ((AbstractBeansConfig) config)
+							.getReloadDelta() : null);
+					if (delta == null) {
+						projectChanged = true;
+					}
+					else {
+						deltas.add(delta);
+					}
+				}
+
+				if (projectChanged) {
+					model.notifyListeners(beansProject, Type.CHANGED);
+				}
+				else {
+					model.notifyListeners(new BeansProjectChangeEvent(beansProject, deltas));
+				}
 			}
 		}
 		
 		// Make sure to clear out the cache for next invocation
 		configs.clear();
+		structuralChanges = false;
 	}
 
 	/**
@@ -151,6 +184,7 @@ public class BeansConfigReloadingProjectContributionEventListener extends Projec
 					for (IBeansConfig config : beansProject.getConfigs()) {
 						if (config.doesAnnotationScanning()) {
 							propagateToConfigsFromConfigSet(config, false);
+							structuralChanges = true;
 						}
 					}
 				}
@@ -15,6 +15,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
@@ -88,6 +89,14 @@ public class BeansConfigValidator extends AbstractValidator {
 		MarkerUtils.deleteAllMarkers(resource, getMarkerId());
 	}
 
+	@Override
+	protected IMarker[] findExistingMarkers(IResource resource) throws CoreException {
+		if (resource == null || !resource.isAccessible()) {
+			return null;
+		}
+		return MarkerUtils.findAllMarkers(resource, getMarkerId());
+	}
+
 	public Set<IResource> getAffectedResources(IResource resource, int kind, int deltaKind) throws CoreException {
 		Set<IResource> resources = new LinkedHashSet<IResource>();
 		if (resource instanceof IFile) {
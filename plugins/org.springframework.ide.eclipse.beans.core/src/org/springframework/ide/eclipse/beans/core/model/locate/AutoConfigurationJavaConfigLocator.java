@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2013, 2015 Pivotal Software, Inc.
+ *  Copyright (c) 2013, 2018 Pivotal Software, Inc.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -15,13 +15,9 @@ import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.search.IJavaSearchConstants;
-import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
-import org.eclipse.jdt.core.search.SearchPattern;
+import org.springframework.ide.eclipse.core.java.annotation.AnnotationIndex;
 import org.springsource.ide.eclipse.commons.core.JdtUtils;
 
 /**
@@ -36,23 +32,10 @@ public class AutoConfigurationJavaConfigLocator extends AbstractJavaConfigLocato
 		Set<IType> types = new HashSet<IType>();
 		IJavaProject javaProj = JdtUtils.getJavaProject(project);
 		if (javaProj != null) {
-			IJavaSearchScope sources = SearchEngine.createJavaSearchScope(new IJavaElement[] { javaProj }, 
-					IJavaSearchScope.SOURCES);
-			
-			SearchPattern enableAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.EnableAutoConfiguration",
-					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-			SearchPattern bootAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.SpringBootApplication",
-					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-			SearchPattern cloudConfigPattern = SearchPattern.createPattern("org.springframework.cloud.client.SpringCloudApplication",
-					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-
-			SearchPattern pattern = SearchPattern.createOrPattern(enableAutoConfigPattern, bootAutoConfigPattern);
-			pattern = SearchPattern.createOrPattern(pattern, cloudConfigPattern);
-
-			Set<IType> candidates = org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(pattern, sources);
+			Set<IType> candidates = AnnotationIndex.getDefault().getAnnotatedTypes(javaProj,
+					"org.springframework.boot.autoconfigure.EnableAutoConfiguration",
+					"org.springframework.boot.autoconfigure.SpringBootApplication",
+					"org.springframework.cloud.client.SpringCloudApplication");
 			for (IType candidate : candidates) {
 				if (!candidate.getElementName().contains("Test")) {
 					types.add(candidate);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2013 GoPivotal, Inc.
+ *  Copyright (c) 2013, 2018 GoPivotal, Inc.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -15,11 +15,8 @@ import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
 import org.springsource.ide.eclipse.commons.core.JdtUtils;
 
 /**
@@ -32,9 +29,7 @@ public class ProjectScanningJavaConfigLocator extends AbstractJavaConfigLocator
 		Set<IType> types = new HashSet<IType>();
 		IJavaProject javaProj = JdtUtils.getJavaProject(project);
 		if (javaProj != null) {
-			IJavaSearchScope sources = SearchEngine.createJavaSearchScope(new IJavaElement[] { javaProj },
-					IJavaSearchScope.SOURCES);
-			Set<IType> candidates = org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(sources);
+			Set<IType> candidates = org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(javaProj);
 			for (IType candidate : candidates) {
 				if (!candidate.getElementName().contains("Test")) {
 					types.add(candidate);
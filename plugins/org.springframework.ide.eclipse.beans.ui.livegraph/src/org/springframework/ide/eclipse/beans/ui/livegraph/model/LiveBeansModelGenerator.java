@@ -48,6 +48,25 @@ import org.springsource.ide.eclipse.commons.core.StatusHandler;
  */
 public class LiveBeansModelGenerator {
 
+	/**
+	 * Strategy used to open the {@link JMXConnector}s for service urls. Callers
+	 * always close the returned connector when they are done with it.
+	 */
+	public interface ConnectorFactory {
+		JMXConnector connect(JMXServiceURL serviceUrl, Map<String, ?> environment) throws IOException;
+	}
+
+	private static ConnectorFactory connectorFactory = JMXConnectorFactory::connect;
+
+	/**
+	 * Replace the strategy used to open {@link JMXConnector}s. This allows
+	 * other plugins to share connections to processes they are already
+	 * connected to.
+	 */
+	public static void setConnectorFactory(ConnectorFactory factory) {
+		connectorFactory = factory==null ? JMXConnectorFactory::connect : factory;
+	}
+
 	/**
 	 * This method will not attempt to close the given {@link JMXConnector}. If
 	 * the connection has failed, clients may capture the thrown
@@ -234,7 +253,7 @@ public class LiveBeansModelGenerator {
 					String[] creds = new String[] { username, password };
 					env.put(JMXConnector.CREDENTIALS, creds);
 				}
-				return JMXConnectorFactory.connect(new JMXServiceURL(serviceUrl), env);
+				return connectorFactory.connect(new JMXServiceURL(serviceUrl), env);
 			}
 		}
 		catch (MalformedURLException e) {
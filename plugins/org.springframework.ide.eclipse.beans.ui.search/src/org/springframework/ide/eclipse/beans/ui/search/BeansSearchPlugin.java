@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 Spring IDE Developers
+ * Copyright (c) 2006, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,8 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchIndex;
 
 /**
  * Central access point for the Spring Framework Search UI plug-in
@@ -61,6 +63,12 @@ public class BeansSearchPlugin extends AbstractUIPlugin {
 		}
 	}
 
+	@Override
+	public void stop(BundleContext context) throws Exception {
+		BeansSearchIndex.dispose();
+		super.stop(context);
+	}
+
 	public static BeansSearchPlugin getDefault() {
 		return plugin;
 	}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.search.internal;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDelta;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProjectChangeEvent;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.beans.core.model.IBeansModel;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.IModelElementVisitor;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+
+/**
+ * Index of the search keys (bean names, class names, property names, reference targets etc.) of the elements of
+ * every {@link IBeansConfig}, so that a beans search doesn't need to walk the whole beans model.
+ * <p>
+ * There is one index per config and kind of key (see {@link KeyProvider}). It is built on first use by visiting the
+ * config once and is dropped whenever the beans model reports a change of the config, its project or the model. If the
+ * change of a project names the configs reloaded by a build, only the indexes of these configs are dropped.
+ * Literal patterns are answered with a single key lookup, patterns with a literal prefix followed by a wildcard with
+ * a range lookup. All other patterns are matched against the distinct keys of the index only.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class BeansSearchIndex {
+
+	/**
+	 * Provides the search keys of a model element. An element matches a search pattern if one of its keys does.
+	 */
+	public interface KeyProvider {
+
+		void collectKeys(IModelElement element, Collection<String> keys);
+	}
+
+	private static BeansSearchIndex instance;
+
+	public static synchronized BeansSearchIndex getDefault() {
+		if (instance == null) {
+			instance = new BeansSearchIndex();
+			BeansCorePlugin.getModel().addChangeListener(instance.listener);
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance != null) {
+			BeansCorePlugin.getModel().removeChangeListener(instance.listener);
+			instance = null;
+		}
+	}
+
+	private final ConcurrentMap<IBeansConfig, ConcurrentMap<Class<?>, ConfigIndex>> indexes = new ConcurrentHashMap<IBeansConfig, ConcurrentMap<Class<?>, ConfigIndex>>();
+
+	private final IModelChangeListener listener = new IModelChangeListener() {
+		public void elementChanged(ModelChangeEvent event) {
+			IModelElement element = event.getElement();
+			if (event instanceof BeansProjectChangeEvent) {
+				// only the reloaded configs have new elements
+				for (BeansConfigDelta delta : ((BeansProjectChangeEvent) event).getDeltas()) {
+					indexes.remove(delta.getConfig());
+				}
+			}
+			else if (element instanceof IBeansConfig) {
+				indexes.remove(element);
+			}
+			else if (element instanceof IBeansProject) {
+				Iterator<IBeansConfig> configs = indexes.keySet().iterator();
+				while (configs.hasNext()) {
+					IBeansConfig config = configs.next();
+					if (config.getElementResource() == null
+							|| config.getElementResource().getProject().equals(((IBeansProject) element).getProject())) {
+						configs.remove();
+					}
+				}
+			}
+			else {
+				indexes.clear();
+			}
+		}
+	};
+
+	private BeansSearchIndex() {
+	}
+
+	/**
+	 * Returns the configs whose elements make up the given scope element, or <code>null</code> if the scope element
+	 * can't be answered from the index (e.g. a single bean).
+	 */
+	public Set<IBeansConfig> getConfigs(IModelElement scopeElement) {
+		Set<IBeansConfig> configs = new LinkedHashSet<IBeansConfig>();
+		if (scopeElement instanceof IBeansModel) {
+			for (IBeansProject project : ((IBeansModel) scopeElement).getProjects()) {
+				configs.addAll(project.getConfigs());
+			}
+		}
+		else if (scopeElement instanceof IBeansProject) {
+			configs.addAll(((IBeansProject) scopeElement).getConfigs());
+		}
+		else if (scopeElement instanceof IBeansConfig) {
+			configs.add((IBeansConfig) scopeElement);
+		}
+		else if (!(scopeElement instanceof IBeansConfigSet)) {
+			// config sets don't visit their configs, so they never contain any matches
+			return null;
+		}
+		return configs;
+	}
+
+	/**
+	 * Returns all elements of the given config with a key matching the given pattern, in the order they are visited
+	 * in the model.
+	 * @param literal the pattern string if it matches nothing but itself, otherwise <code>null</code>
+	 * @param prefix the literal prefix of the pattern string if the pattern matches every string starting with it,
+	 * otherwise <code>null</code>
+	 */
+	public List<IModelElement> find(IBeansConfig config, KeyProvider keyProvider, Pattern pattern, String literal,
+			String prefix) {
+		return getIndex(config, keyProvider).find(pattern, literal, prefix);
+	}
+
+	private ConfigIndex getIndex(IBeansConfig config, KeyProvider keyProvider) {
+		ConcurrentMap<Class<?>, ConfigIndex> configIndexes = indexes.get(config);
+		if (configIndexes == null) {
+			ConcurrentMap<Class<?>, ConfigIndex> newIndexes = new ConcurrentHashMap<Class<?>, ConfigIndex>();
+			configIndexes = indexes.putIfAbsent(config, newIndexes);
+			if (configIndexes == null) {
+				configIndexes = newIndexes;
+			}
+		}
+		ConfigIndex index = configIndexes.get(keyProvider.getClass());
+		if (index == null || index.config != config) {
+			index = new ConfigIndex(config, keyProvider);
+			configIndexes.put(keyProvider.getClass(), index);
+		}
+		return index;
+	}
+
+	/**
+	 * The keys of the elements of a single config.
+	 */
+	private static class ConfigIndex {
+
+		private final IBeansConfig config;
+
+		/** All elements with at least one key, in visiting order */
+		private final List<IModelElement> elements = new ArrayList<IModelElement>();
+
+		/** Maps each key to the (ascending) positions of its elements in {@link #elements} */
+		private final TreeMap<String, int[]> keys = new TreeMap<String, int[]>();
+
+		public ConfigIndex(IBeansConfig config, final KeyProvider keyProvider) {
+			this.config = config;
+			final Map<String, List<Integer>> positions = new TreeMap<String, List<Integer>>();
+			final Set<String> elementKeys = new LinkedHashSet<String>();
+			config.accept(new IModelElementVisitor() {
+				public boolean visit(IModelElement element, IProgressMonitor monitor) {
+					elementKeys.clear();
+					keyProvider.collectKeys(element, elementKeys);
+					if (!elementKeys.isEmpty()) {
+						int position = elements.size();
+						elements.add(element);
+						for (String key : elementKeys) {
+							if (key == null) {
+								continue;
+							}
+							List<Integer> keyPositions = positions.get(key);
+							if (keyPositions == null) {
+								keyPositions = new ArrayList<Integer>(1);
+								positions.put(key, keyPositions);
+							}
+							keyPositions.add(position);
+						}
+					}
+					return true;
+				}
+			}, new NullProgressMonitor());
+			for (Entry<String, List<Integer>> entry : positions.entrySet()) {
+				List<Integer> keyPositions = entry.getValue();
+				int[] array = new int[keyPositions.size()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = keyPositions.get(i);
+				}
+				keys.put(entry.getKey(), array);
+			}
+		}
+
+		public List<IModelElement> find(Pattern pattern, String literal, String prefix) {
+			BitSet matches = new BitSet(elements.size());
+			if (literal != null) {
+				addAll(matches, keys.get(literal));
+			}
+			else if (prefix != null) {
+				SortedMap<String, int[]> range = prefix.length() > 0 ? keys.subMap(prefix, prefix + Character.MAX_VALUE)
+						: keys;
+				for (int[] positions : range.values()) {
+					addAll(matches, positions);
+				}
+			}
+			else {
+				for (Entry<String, int[]> entry : keys.entrySet()) {
+					if (pattern.matcher(entry.getKey()).matches()) {
+						addAll(matches, entry.getValue());
+					}
+				}
+			}
+			List<IModelElement> result = new ArrayList<IModelElement>(matches.cardinality());
+			for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+				result.add(elements.get(i));
+			}
+			return result;
+		}
+
+		private void addAll(BitSet matches, int[] positions) {
+			if (positions != null) {
+				for (int position : positions) {
+					matches.set(position);
+				}
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2016 Spring IDE Developers
+ * Copyright (c) 2006, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.Assert;
@@ -20,7 +24,9 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.text.Match;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.ui.search.BeansSearchPlugin;
+import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchIndex;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchMessages;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchResult;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchScope;
@@ -31,14 +37,23 @@ import org.springframework.ide.eclipse.core.model.ISourceModelElement;
 import org.springsource.ide.eclipse.commons.core.PatternUtils;
 
 /**
+ * Base class for searches in the beans model. The matching elements are looked up in the {@link BeansSearchIndex}
+ * with the keys provided by {@link #collectKeys(IModelElement, Collection)}; only scope elements not covered by the
+ * index are searched by visiting them.
  * @author Torsten Juergeleit
  * @author Christian Dupuis
  */
-public abstract class AbstractBeansQuery implements ISearchQuery {
+public abstract class AbstractBeansQuery implements ISearchQuery, BeansSearchIndex.KeyProvider {
+
+	private static final String REGEX_META_CHARS = "\\[](){}.*+?^$|";
+
+	private static final String WILDCARD_CHARS = "*?\\";
 
 	private BeansSearchScope scope;
 	private String pattern;
 	private Pattern compiledPattern;
+	private String literal;
+	private String prefix;
 	private ISearchResult result;
 
 	public AbstractBeansQuery(BeansSearchScope scope, String pattern,
@@ -48,6 +63,24 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 		this.pattern = pattern;
 		this.compiledPattern = PatternUtils.createPattern(pattern,
 				isCaseSensitive, isRegexSearch);
+		if (pattern != null && pattern.length() > 0 && isCaseSensitive) {
+			if (!containsAny(pattern, isRegexSearch ? REGEX_META_CHARS : WILDCARD_CHARS)) {
+				this.literal = pattern;
+			}
+			else if (!isRegexSearch && pattern.indexOf('*') == pattern.length() - 1
+					&& !containsAny(pattern.substring(0, pattern.length() - 1), WILDCARD_CHARS)) {
+				this.prefix = pattern.substring(0, pattern.length() - 1);
+			}
+		}
+	}
+
+	private static boolean containsAny(String pattern, String chars) {
+		for (int i = 0; i < pattern.length(); i++) {
+			if (chars.indexOf(pattern.charAt(i)) >= 0) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public BeansSearchScope getScope() {
@@ -76,34 +109,34 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 	public final IStatus run(IProgressMonitor monitor) {
 		final BeansSearchResult result = (BeansSearchResult) getSearchResult();
 		result.removeAll();
+		BeansSearchIndex index = BeansSearchIndex.getDefault();
 		for (IModelElement element : scope.getModelElements()) {
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
-			IModelElementVisitor visitor = new IModelElementVisitor() {
-				public boolean visit(IModelElement element,
-						IProgressMonitor monitor) {
-					if (doesMatch(element, compiledPattern, monitor)) {
-						int startLine;
-						int lines;
-						if (element instanceof ISourceModelElement) {
-							ISourceModelElement sourceElement =
-								(ISourceModelElement) element;
-							startLine = sourceElement.getElementStartLine();
-							lines = sourceElement.getElementEndLine()
-									- startLine + 1;
-						} else {
-							startLine = -1;
-							lines = -1;
-						}
-						Match match = new Match(element, Match.UNIT_LINE,
-								startLine, lines);
-						result.addMatch(match);
+			Set<IBeansConfig> configs = index.getConfigs(element);
+			if (configs != null) {
+				for (IBeansConfig config : configs) {
+					if (monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					for (IModelElement match : index.find(config, this, compiledPattern, literal, prefix)) {
+						addMatch(result, match);
 					}
-					return true;
 				}
-			};
-			element.accept(visitor, monitor);
+			}
+			else {
+				IModelElementVisitor visitor = new IModelElementVisitor() {
+					public boolean visit(IModelElement element,
+							IProgressMonitor monitor) {
+						if (doesMatch(element, compiledPattern, monitor)) {
+							addMatch(result, element);
+						}
+						return true;
+					}
+				};
+				element.accept(visitor, monitor);
+			}
 		}
 		Object[] args = new Object[] { new Integer(result.getMatchCount()) };
 		String message = MessageUtils.format(
@@ -112,10 +145,45 @@ public abstract class AbstractBeansQuery implements ISearchQuery {
 				null);
 	}
 
+	private void addMatch(BeansSearchResult result, IModelElement element) {
+		int startLine;
+		int lines;
+		if (element instanceof ISourceModelElement) {
+			ISourceModelElement sourceElement =
+				(ISourceModelElement) element;
+			startLine = sourceElement.getElementStartLine();
+			lines = sourceElement.getElementEndLine()
+					- startLine + 1;
+		} else {
+			startLine = -1;
+			lines = -1;
+		}
+		Match match = new Match(element, Match.UNIT_LINE,
+				startLine, lines);
+		result.addMatch(match);
+	}
+
 	/**
 	 * Returns <code>true</code> if given {@link IModelElement} matches
-	 * this query. 
+	 * this query, i.e. one of its keys matches the given pattern.
+	 */
+	protected boolean doesMatch(IModelElement element,
+			Pattern pattern, IProgressMonitor monitor) {
+		List<String> keys = new ArrayList<String>();
+		collectKeys(element, keys);
+		for (String key : keys) {
+			if (key != null && pattern.matcher(key).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the strings of the given {@link IModelElement} which are
+	 * compared with the search pattern by this query. Must only depend on
+	 * the element, as the keys are indexed per query class.
 	 */
-	protected abstract boolean doesMatch(IModelElement element,
-			Pattern pattern, IProgressMonitor monitor);
+	public abstract void collectKeys(IModelElement element,
+			Collection<String> keys);
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 Spring IDE Developers
+ * Copyright (c) 2006, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,8 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.search.internal.queries;
 
-import java.util.regex.Pattern;
+import java.util.Collection;
 
-import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeanProperty;
 import org.springframework.ide.eclipse.beans.ui.search.internal.BeansSearchMessages;
@@ -41,17 +40,13 @@ public class BeanPropertyQuery extends AbstractBeansQuery {
 	}
 
 	@Override
-	protected boolean doesMatch(IModelElement element, Pattern pattern,
-			IProgressMonitor monitor) {
+	public void collectKeys(IModelElement element, Collection<String> keys) {
 		if (element instanceof IBean) {
 			for (IBeanProperty property : ((IBean) element).getProperties()) {
 
 				// Compare given property name with bean's one
-				if (pattern.matcher(property.getElementName()).matches()) {
-					return true;
-				}
+				keys.add(property.getElementName());
 			}
 		}
-		return false;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,9 @@
 package org.springframework.ide.eclipse.beans.ui.search.jdt;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IField;
@@ -77,7 +79,9 @@ public class BeansJavaSearchParticipant implements IQueryParticipant, IMatchPres
 		}
 
 		String search = null;
-		List<String> requiredTypeNames = new ArrayList<String>();
+		// type hierarchy of the declaring type; only computed if there are matching beans to check
+		IType hierarchyBaseType = null;
+		Set<String> requiredTypeNames = null;
 		IJavaProject project = null;
 
 		if (querySpecification instanceof ElementQuerySpecification) {
@@ -89,7 +93,7 @@ public class BeansJavaSearchParticipant implements IQueryParticipant, IMatchPres
 			else if (elementQuerySpecification.getElement() instanceof IField) {
 				IField field = ((IField) elementQuerySpecification.getElement());
 				search = field.getElementName();
-				getTypeHierachy(monitor, requiredTypeNames, field.getDeclaringType());
+				hierarchyBaseType = field.getDeclaringType();
 				project = field.getJavaProject();
 			}
 			else if (elementQuerySpecification.getElement() instanceof IMethod) {
@@ -99,7 +103,7 @@ public class BeansJavaSearchParticipant implements IQueryParticipant, IMatchPres
 				if (search.startsWith("set")) {
 					search = StringUtils.uncapitalize(search.substring(3));
 				}
-				getTypeHierachy(monitor, requiredTypeNames, method.getDeclaringType());
+				hierarchyBaseType = method.getDeclaringType();
 				project = method.getJavaProject();
 			}
 			else {
@@ -145,6 +149,12 @@ public class BeansJavaSearchParticipant implements IQueryParticipant, IMatchPres
 								if (searchFor == SEARCH_FOR_FIELDS) {
 									// check if the match fits to the selected class
 									String beanClass = BeansModelUtils.getBeanClass(bean, null);
+									if (requiredTypeNames == null) {
+										requiredTypeNames = new HashSet<String>();
+										if (hierarchyBaseType != null) {
+											getTypeHierachy(monitor, requiredTypeNames, hierarchyBaseType);
+										}
+									}
 									if (requiredTypeNames.contains(beanClass)) {
 										requestor.reportMatch(match);
 									}
@@ -163,7 +173,7 @@ public class BeansJavaSearchParticipant implements IQueryParticipant, IMatchPres
 		}
 	}
 
-	private void getTypeHierachy(IProgressMonitor monitor, List<String> requiredTypeNames, IType baseType) {
+	private void getTypeHierachy(IProgressMonitor monitor, Set<String> requiredTypeNames, IType baseType) {
 		try {
 			IType[] types = baseType.newTypeHierarchy(monitor).getAllSubtypes(baseType);
 			requiredTypeNames.add(baseType.getFullyQualifiedName());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -44,6 +44,8 @@ public class BeansPreferencePage extends PreferencePage implements IWorkbenchPre
 	
 	private BooleanFieldEditor disableAutoDetection;
 
+	private BooleanFieldEditor lazyAutoDetection;
+
 	private FieldEditor graphEditorInfrastructureBeans;
 
 	private IntegerFieldEditor configTimeout;
@@ -149,6 +151,12 @@ public class BeansPreferencePage extends PreferencePage implements IWorkbenchPre
 		disableAutoDetection.setPreferenceStore(BeansCorePlugin.getDefault().getPreferenceStore());
 		disableAutoDetection.load();
 
+		lazyAutoDetection = new BooleanFieldEditor(BeansCorePlugin.LAZY_AUTO_DETECTION,
+				"Detect Auto Configs on first access to a project (requires restart)", entryTable);
+		lazyAutoDetection.setPage(this);
+		lazyAutoDetection.setPreferenceStore(BeansCorePlugin.getDefault().getPreferenceStore());
+		lazyAutoDetection.load();
+
 		return entryTable;
 	}
 
@@ -163,6 +171,7 @@ public class BeansPreferencePage extends PreferencePage implements IWorkbenchPre
 		graphEditorInfrastructureBeans.loadDefault();
 		configTimeout.loadDefault();
 		disableAutoDetection.loadDefault();
+		lazyAutoDetection.loadDefault();
 	}
 
 	public boolean performOk() {
@@ -172,6 +181,7 @@ public class BeansPreferencePage extends PreferencePage implements IWorkbenchPre
 		graphEditorInfrastructureBeans.store();
 		graphEditorExtendedContent.store();
 		disableAutoDetection.store();
+		lazyAutoDetection.store();
 		return super.performOk();
 	}
 
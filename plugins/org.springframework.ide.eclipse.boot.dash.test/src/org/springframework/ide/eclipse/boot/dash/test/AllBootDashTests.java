@@ -20,6 +20,7 @@ import org.springframework.ide.eclipse.boot.dash.test.yaml.CFRouteTests;
 import org.springframework.ide.eclipse.boot.dash.test.yaml.DeploymentProperties2YamlTest;
 import org.springframework.ide.eclipse.boot.dash.test.yaml.ManifestCompareMergeTests;
 import org.springframework.ide.eclipse.boot.dash.test.yaml.Yaml2DeploymentPropertiesTest;
+import org.springframework.ide.eclipse.boot.dash.views.sections.FilterMatchCacheTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
@@ -40,6 +41,8 @@ import org.springframework.ide.eclipse.boot.dash.test.yaml.Yaml2DeploymentProper
 	//Really short (less than 2 seconds per suite):
 	JLRMethodParserTest.class,
 	OrderBasedComparatorTest.class,
+	PollingSchedulerTest.class,
+	FilterMatchCacheTest.class,
 	ManifestCompareMergeTests.class,
 	ManifestYmlSchemaTest.class,
 	ManifestYamlEditorTest.class,
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.dash.util.PollingScheduler;
+import org.springframework.ide.eclipse.boot.dash.util.PollingScheduler.PollingTask;
+import org.springsource.ide.eclipse.commons.frameworks.test.util.ACondition;
+
+public class PollingSchedulerTest {
+
+	private PollingScheduler scheduler = new PollingScheduler("Test poller");
+
+	@Test
+	public void pollsUntilStopped() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		scheduler.schedule(() -> count.incrementAndGet() < 3 ? 10 : PollingScheduler.STOP, 0);
+		ACondition.waitFor("polled 3 times", 2000, () -> {
+			assertEquals(3, count.get());
+			assertEquals(0, scheduler.size());
+		});
+		Thread.sleep(100);
+		assertEquals(3, count.get());
+	}
+
+	@Test
+	public void manyTasksShareOneScheduler() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		for (int i = 0; i < 30; i++) {
+			scheduler.schedule(() -> {
+				count.incrementAndGet();
+				return PollingScheduler.STOP;
+			}, i);
+		}
+		ACondition.waitFor("all tasks polled", 2000, () -> {
+			assertEquals(30, count.get());
+			assertEquals(0, scheduler.size());
+		});
+	}
+
+	@Test
+	public void cancelledTaskIsNotPolled() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		PollingTask task = () -> {
+			count.incrementAndGet();
+			return 10;
+		};
+		scheduler.schedule(task, 200);
+		scheduler.cancel(task);
+		Thread.sleep(400);
+		assertEquals(0, count.get());
+		assertEquals(0, scheduler.size());
+	}
+
+	@Test
+	public void earlierScheduleWins() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		PollingTask task = () -> {
+			count.incrementAndGet();
+			return PollingScheduler.STOP;
+		};
+		scheduler.schedule(task, 60_000);
+		scheduler.schedule(task, 0);
+		ACondition.waitFor("polled", 2000, () -> {
+			assertEquals(1, count.get());
+		});
+	}
+
+	@Test
+	public void hungPollDoesNotBlockOtherTasks() throws Exception {
+		CountDownLatch hang = new CountDownLatch(1);
+		try {
+			scheduler.schedule(() -> {
+				try {
+					hang.await();
+				} catch (InterruptedException e) {
+				}
+				return PollingScheduler.STOP;
+			}, 0);
+			AtomicInteger count = new AtomicInteger();
+			scheduler.schedule(() -> count.incrementAndGet() < 3 ? 10 : PollingScheduler.STOP, 50);
+			ACondition.waitFor("polled 3 times", 2000, () -> {
+				assertEquals(3, count.get());
+			});
+		} finally {
+			hang.countDown();
+		}
+	}
+
+	@Test
+	public void timedOutPollIsAbortedAndRetried() throws Exception {
+		PollingScheduler scheduler = new PollingScheduler("Test poller", 200);
+		AtomicInteger count = new AtomicInteger();
+		AtomicInteger interrupted = new AtomicInteger();
+		scheduler.schedule(() -> {
+			if (count.incrementAndGet()==1) {
+				try {
+					Thread.sleep(60_000);
+				} catch (InterruptedException e) {
+					interrupted.incrementAndGet();
+				}
+				//Result of the aborted poll is ignored
+				return 0;
+			}
+			return PollingScheduler.STOP;
+		}, 0);
+		ACondition.waitFor("retried after timeout", 3000, () -> {
+			assertEquals(2, count.get());
+			assertEquals(1, interrupted.get());
+			assertEquals(0, scheduler.size());
+		});
+		Thread.sleep(500);
+		assertTrue(count.get()==2);
+	}
+
+	@Test
+	public void pollIgnoringInterruptIsNotPolledAgainBeforeItReturns() throws Exception {
+		PollingScheduler scheduler = new PollingScheduler("Test poller", 100);
+		CountDownLatch hang = new CountDownLatch(1);
+		AtomicInteger count = new AtomicInteger();
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		scheduler.schedule(() -> {
+			if (running.incrementAndGet()>1) {
+				overlaps.incrementAndGet();
+			}
+			try {
+				if (count.incrementAndGet()==1) {
+					//Like a JMX connect, doesn't give up when interrupted
+					while (true) {
+						try {
+							hang.await();
+							break;
+						} catch (InterruptedException e) {
+						}
+					}
+				}
+				return PollingScheduler.STOP;
+			} finally {
+				running.decrementAndGet();
+			}
+		}, 0);
+		Thread.sleep(600);
+		assertEquals(1, count.get());
+		hang.countDown();
+		ACondition.waitFor("retried after the hung poll returned", 3000, () -> {
+			assertEquals(2, count.get());
+			assertEquals(0, scheduler.size());
+		});
+		assertEquals(0, overlaps.get());
+	}
+
+	@Test
+	public void rescheduledTaskWaitsForCancelledPoll() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch hang = new CountDownLatch(1);
+		AtomicInteger count = new AtomicInteger();
+		PollingTask task = () -> {
+			if (count.incrementAndGet()==1) {
+				started.countDown();
+				try {
+					hang.await();
+				} catch (InterruptedException e) {
+				}
+				//Result of the cancelled poll is ignored
+				return 0;
+			}
+			return PollingScheduler.STOP;
+		};
+		try {
+			scheduler.schedule(task, 0);
+			assertTrue(started.await(2, TimeUnit.SECONDS));
+			scheduler.cancel(task);
+			scheduler.schedule(task, 0);
+			Thread.sleep(200);
+			assertEquals(1, count.get());
+		} finally {
+			hang.countDown();
+		}
+		ACondition.waitFor("polled again", 2000, () -> {
+			assertEquals(2, count.get());
+			assertEquals(0, scheduler.size());
+		});
+		Thread.sleep(200);
+		assertEquals(2, count.get());
+	}
+
+	@Test
+	public void pollsRunOnBoundedWorkers() throws Exception {
+		PollingScheduler scheduler = new PollingScheduler("Test poller", 60_000, 2);
+		CountDownLatch hang = new CountDownLatch(1);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		AtomicInteger count = new AtomicInteger();
+		try {
+			for (int i = 0; i < 5; i++) {
+				scheduler.schedule(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					count.incrementAndGet();
+					try {
+						hang.await();
+					} catch (InterruptedException e) {
+					}
+					running.decrementAndGet();
+					return PollingScheduler.STOP;
+				}, 0);
+			}
+			ACondition.waitFor("workers busy", 2000, () -> {
+				assertEquals(2, count.get());
+			});
+			Thread.sleep(200);
+			assertEquals(2, count.get());
+		} finally {
+			hang.countDown();
+		}
+		ACondition.waitFor("all tasks polled", 2000, () -> {
+			assertEquals(5, count.get());
+		});
+		assertEquals(2, maxRunning.get());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Pivotal, Inc.
+ * Copyright (c) 2017, 2018 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,19 +13,36 @@ package org.springframework.ide.eclipse.boot.dash.test.actuator;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.json.JSONObject;
 import org.junit.Test;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBean;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansContext;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
 import org.springframework.ide.eclipse.beans.ui.live.model.TypeLookup;
 import org.springframework.ide.eclipse.boot.dash.model.actuator.ActuatorClient;
+import org.springframework.ide.eclipse.boot.dash.model.actuator.Boot2RequestMappingsParser;
+import org.springframework.ide.eclipse.boot.dash.model.actuator.Boot2RequestMappingsStreamingParser;
+import org.springframework.ide.eclipse.boot.dash.model.actuator.CachingTypeLookup;
 import org.springframework.ide.eclipse.boot.dash.model.actuator.RequestMapping;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 /**
@@ -197,4 +214,73 @@ public class ActuatorDataTest {
 				.collect(Collectors.toSet())
 		);
 	}
+
+	@Test public void testRequestMappingsCachedWhenUnchanged() throws Exception {
+		TestActuatorClient client = new TestActuatorClient(null).version("2").requestMappingJson(ActuatorClientTest.getContents("requestmappings-sample-boot2.json"));
+		List<RequestMapping> mappings = client.getRequestMappings();
+		assertSame(mappings, client.getRequestMappings());
+
+		client.requestMappingJson(ActuatorClientTest.getContents("requestmappings-boot2-webflux.json"));
+		List<RequestMapping> changed = client.getRequestMappings();
+		assertNotSame(mappings, changed);
+		assertNotEquals(mappings, changed);
+	}
+
+	@Test public void testStreamingParserBoot2() throws Exception {
+		for (String resource : new String[] {
+				"requestmappings-sample-boot2.json",
+				"requestmappings-boot2-webflux.json",
+				"requestmappings-boot2-webflux-functional.json"
+		}) {
+			String json = ActuatorClientTest.getContents(resource);
+			List<RequestMapping> expected = new Boot2RequestMappingsParser().parse(new JSONObject(json), null);
+			List<RequestMapping> actual = new Boot2RequestMappingsStreamingParser().parse(json, null);
+			assertEquals(resource, ImmutableSet.copyOf(expected), ImmutableSet.copyOf(actual));
+			assertEquals(resource, expected.size(), actual.size());
+		}
+	}
+
+	@Test public void testCachingTypeLookupDoesntCacheMisses() throws Exception {
+		TypeLookup delegate = mock(TypeLookup.class);
+		IType type = mock(IType.class);
+		when(delegate.findType("com.example.demo.MyController")).thenReturn(null, type);
+		CachingTypeLookup lookup = new CachingTypeLookup(delegate);
+
+		assertNull(lookup.findType("com.example.demo.MyController"));
+		assertSame(type, lookup.findType("com.example.demo.MyController"));
+		assertSame(type, lookup.findType("com.example.demo.MyController"));
+		verify(delegate, times(2)).findType("com.example.demo.MyController");
+	}
+
+	@Test public void testRequestMappingsInDisplayOrder() throws Exception {
+		TypeLookup types = mock(TypeLookup.class);
+		TestActuatorClient client = new TestActuatorClient(types).version("2").requestMappingJson(ActuatorClientTest.getContents("requestmappings-sample-boot2.json"));
+		List<RequestMapping> mappings = client.getRequestMappings();
+		List<String> sortedPaths = new ArrayList<>(paths(mappings));
+		sortedPaths.sort(null);
+		assertEquals(sortedPaths, paths(mappings));
+		assertSame(mappings, client.getRequestMappings());
+
+		//Once the controller is found in a source folder, its mappings move to the top
+		IType controller = sourceType();
+		when(types.findType("com.example.demo.MyController")).thenReturn(controller);
+		List<RequestMapping> resolved = client.getRequestMappings();
+		assertNotSame(mappings, resolved);
+		assertEquals(ImmutableList.of("/greeting", "/hello"), paths(resolved).subList(0, 2));
+		assertTrue(resolved.get(0).isUserDefined());
+		assertTrue(resolved.get(1).isUserDefined());
+		assertSame(resolved, client.getRequestMappings());
+	}
+
+	private static List<String> paths(List<RequestMapping> mappings) {
+		return mappings.stream().map(RequestMapping::getPath).collect(Collectors.toList());
+	}
+
+	private static IType sourceType() throws Exception {
+		IPackageFragmentRoot root = mock(IPackageFragmentRoot.class);
+		when(root.getKind()).thenReturn(IPackageFragmentRoot.K_SOURCE);
+		IType type = mock(IType.class);
+		when(type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT)).thenReturn(root);
+		return type;
+	}
 }
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.views.sections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.dash.model.BootDashElement;
+import org.springframework.ide.eclipse.boot.dash.model.BootDashModel;
+import org.springframework.ide.eclipse.boot.dash.model.BootDashViewModel;
+import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
+import org.springsource.ide.eclipse.commons.livexp.core.ObservableSet;
+import org.springsource.ide.eclipse.commons.livexp.util.Filter;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests the filter results and sort keys that the boot dash tree precomputes.
+ */
+public class FilterMatchCacheTest {
+
+	private FilterMatchCache cache = new FilterMatchCache();
+
+	/**
+	 * Filter that accepts the elements in a mutable set and counts its evaluations.
+	 */
+	private static class TestFilter implements Filter<BootDashElement> {
+		final Set<BootDashElement> accepted = new HashSet<>();
+		final Map<BootDashElement, Integer> evaluations = new HashMap<>();
+		public boolean accept(BootDashElement e) {
+			evaluations.put(e, evaluations.getOrDefault(e, 0) + 1);
+			return accepted.contains(e);
+		}
+	}
+
+	@Test
+	public void cachesResultUntilInvalidated() throws Exception {
+		BootDashElement e = element();
+		TestFilter filter = new TestFilter();
+
+		assertFalse(cache.accept(filter, e));
+		filter.accepted.add(e);
+		assertFalse(cache.accept(filter, e));
+		assertEquals(1, (int) filter.evaluations.get(e));
+
+		cache.invalidate(e);
+		assertTrue(cache.accept(filter, e));
+		assertEquals(2, (int) filter.evaluations.get(e));
+	}
+
+	@Test
+	public void newFilterDiscardsResults() throws Exception {
+		BootDashElement e = element();
+		TestFilter filter = new TestFilter();
+		TestFilter other = new TestFilter();
+		other.accepted.add(e);
+
+		assertFalse(cache.accept(filter, e));
+		assertTrue(cache.accept(other, e));
+	}
+
+	@Test
+	public void precomputedResultsAreUsed() throws Exception {
+		BootDashElement e1 = element();
+		BootDashElement e2 = element();
+		TestFilter filter = new TestFilter();
+		filter.accepted.add(e1);
+
+		cache.precompute(filter, viewModel(e1, e2));
+		assertTrue(cache.accept(filter, e1));
+		assertFalse(cache.accept(filter, e2));
+		assertEquals(1, (int) filter.evaluations.get(e1));
+		assertEquals(1, (int) filter.evaluations.get(e2));
+	}
+
+	@Test
+	public void invalidationDuringPrecomputeIsNotOverwritten() throws Exception {
+		BootDashElement e1 = element();
+		BootDashElement e2 = element();
+		TestFilter filter = new TestFilter() {
+			@Override
+			public boolean accept(BootDashElement e) {
+				boolean result = super.accept(e);
+				if (e==e1 && evaluations.get(e)==1) {
+					//e1 changes state right after the background job evaluated it
+					accepted.add(e1);
+					cache.invalidate(e1);
+				}
+				return result;
+			}
+		};
+
+		assertNull(cache.precompute(filter, viewModel(e1, e2)));
+		assertTrue(cache.accept(filter, e1));
+		assertEquals(2, (int) filter.evaluations.get(e1));
+	}
+
+	@Test
+	public void precomputeReportsElementsAcceptedDifferently() throws Exception {
+		BootDashElement e1 = element();
+		BootDashElement e2 = element();
+		BootDashElement e3 = element();
+		BootDashViewModel viewModel = viewModel(e1, e2, e3);
+		TestFilter filter = new TestFilter();
+		filter.accepted.add(e1);
+		filter.accepted.add(e2);
+		TestFilter narrower = new TestFilter();
+		narrower.accepted.add(e1);
+
+		//Without a filter everything was accepted
+		assertEquals(ImmutableMap.of(e3, false), cache.precompute(filter, viewModel));
+		assertEquals(ImmutableMap.of(e2, false), cache.precompute(narrower, viewModel));
+		assertEquals(ImmutableMap.of(), cache.precompute(narrower, viewModel));
+		assertEquals(ImmutableMap.of(e2, true, e3, true), cache.precompute(null, viewModel));
+	}
+
+	@Test
+	public void sortKeysAreNamesUntilInvalidated() throws Exception {
+		BootDashElement e = element();
+		when(e.getName()).thenReturn("beta");
+		assertEquals("beta", cache.getSortKey(e));
+
+		when(e.getName()).thenReturn("alpha");
+		assertEquals("beta", cache.getSortKey(e));
+		cache.invalidate(e);
+		assertEquals("alpha", cache.getSortKey(e));
+
+		when(e.getName()).thenReturn(null);
+		cache.precompute(null, viewModel(e));
+		assertEquals("", cache.getSortKey(e));
+	}
+
+	private BootDashViewModel viewModel(BootDashElement... elements) {
+		@SuppressWarnings("unchecked")
+		ObservableSet<BootDashElement> elementSet = mock(ObservableSet.class);
+		when(elementSet.getValue()).thenReturn(ImmutableSet.copyOf(elements));
+		BootDashModel section = mock(BootDashModel.class);
+		when(section.getElements()).thenReturn(elementSet);
+		BootDashViewModel viewModel = mock(BootDashViewModel.class);
+		when(viewModel.getSectionModels()).thenReturn(new LiveVariable<>(ImmutableSet.of(section)));
+		return viewModel;
+	}
+
+	private BootDashElement element() {
+		BootDashElement e = mock(BootDashElement.class);
+		when(e.getCurrentChildren()).thenReturn(ImmutableSet.of());
+		return e;
+	}
+
+}
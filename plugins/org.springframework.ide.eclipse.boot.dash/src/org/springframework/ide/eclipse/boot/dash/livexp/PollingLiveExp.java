@@ -11,13 +11,12 @@
 package org.springframework.ide.eclipse.boot.dash.livexp;
 
 import java.time.Duration;
+import java.util.Objects;
 
 import javax.inject.Provider;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.boot.dash.util.PollingScheduler;
+import org.springframework.ide.eclipse.boot.dash.util.PollingScheduler.PollingTask;
 import org.springsource.ide.eclipse.commons.livexp.core.LiveExpression;
 
 /**
@@ -25,6 +24,10 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveExpression;
  * <p>
  * The expression, when created, starts out in a 'sleeping' state. It will not start refreshing/computing
  * its value until methods like 'refreshOnce', 'refreshFor' or 'refreshForever' are called.
+ * <p>
+ * Refreshes are driven by the shared {@link PollingScheduler}. Optionally the expression can
+ * back off (see {@link #backOffWhenUnchanged(Duration)}) so that values which stay the same
+ * are recomputed less and less often.
  *
  * @author Kris De Volder
  */
@@ -32,13 +35,25 @@ public abstract class PollingLiveExp<T> extends LiveExpression<T> {
 
 	private static final Provider<Boolean> STOP_REFRESHING = () -> false;
 
-	private Job refreshJob = createRefreshJob();
+	private final PollingScheduler scheduler = PollingScheduler.getDefault();
+
+	private final PollingTask refreshTask = this::poll;
+
+	private boolean disposed = false;
 
 	/**
 	 * Time in ms to 'sleep' between refreshes.
 	 */
 	private long sleepBetweenRefreshes = 500;
 
+	/**
+	 * Upper bound in ms for the backed off sleep time. When this is not larger than
+	 * sleepBetweenRefreshes no backoff takes place.
+	 */
+	private long maxSleepBetweenRefreshes = 0;
+
+	private long currentSleep = sleepBetweenRefreshes;
+
 	private Provider<Boolean> continueRefreshing = STOP_REFRESHING;
 
 	/**
@@ -46,22 +61,41 @@ public abstract class PollingLiveExp<T> extends LiveExpression<T> {
 	 */
 	public PollingLiveExp<T> sleepBetweenRefreshes(Duration duration) {
 		this.sleepBetweenRefreshes = duration.toMillis();
+		this.currentSleep = sleepBetweenRefreshes;
 		return this;
 	}
 
-	private Job createRefreshJob() {
-		Job job = new Job("Refresh PollingLiveExp") {
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				refresh();
-				if (continueRefreshing.get()) {
-					this.schedule(sleepBetweenRefreshes);
+	/**
+	 * Progressively increase the time between refreshes (up to a given maximum) for
+	 * as long as refreshing does not change the value. As soon as the value changes,
+	 * or a new refresh is requested explicitly, the sleep time goes back to
+	 * 'sleepBetweenRefreshes'.
+	 */
+	public PollingLiveExp<T> backOffWhenUnchanged(Duration max) {
+		this.maxSleepBetweenRefreshes = max.toMillis();
+		return this;
+	}
+
+	private long poll() {
+		T oldValue = getValue();
+		refresh();
+		if (continueRefreshing.get()) {
+			long sleep = currentSleep;
+			if (maxSleepBetweenRefreshes > sleepBetweenRefreshes) {
+				if (Objects.equals(oldValue, getValue())) {
+					currentSleep = Math.min(maxSleepBetweenRefreshes, currentSleep * 2);
+				} else {
+					currentSleep = sleep = sleepBetweenRefreshes;
 				}
-				return Status.OK_STATUS;
 			}
-		};
-		job.setSystem(true);
-		return job;
+			return sleep;
+		}
+		return PollingScheduler.STOP;
+	}
+
+	private void startRefreshing() {
+		currentSleep = sleepBetweenRefreshes;
+		scheduler.schedule(refreshTask, 0);
 	}
 
 	@Override
@@ -73,7 +107,8 @@ public abstract class PollingLiveExp<T> extends LiveExpression<T> {
 
 	@Override
 	public void dispose() {
-		refreshJob = null;
+		disposed = true;
+		scheduler.cancel(refreshTask);
 		continueRefreshing = STOP_REFRESHING;
 		super.dispose();
 	}
@@ -82,11 +117,10 @@ public abstract class PollingLiveExp<T> extends LiveExpression<T> {
 	 * Start refreshing now, and continue until given duration expires.
 	 */
 	public void refreshFor(Duration duration) {
-		Job job = refreshJob;
-		if (job!=null) {
+		if (!disposed) {
 			long stopRefrestingAfter = System.currentTimeMillis() + duration.toMillis();
 			this.continueRefreshing = () -> System.currentTimeMillis() <= stopRefrestingAfter;
-			job.schedule();
+			startRefreshing();
 		}
 	}
 
@@ -94,17 +128,15 @@ public abstract class PollingLiveExp<T> extends LiveExpression<T> {
 	 * Start refreshing now, and continue forever (or until this expression is disposed).
 	 */
 	public PollingLiveExp<T> refreshForever() {
-		Job job = refreshJob;
-		if (job!=null) {
+		if (!disposed) {
 			continueRefreshing = () -> true;
-			job.schedule();
+			startRefreshing();
 		}
 		return this;
 	}
 
 	public PollingLiveExp<T> refreshOnce() {
-		Job job = refreshJob;
-		if (job!=null) {
+		if (!disposed) {
 			continueRefreshing = new Provider<Boolean>() {
 
 				boolean firstTime = true;
@@ -118,7 +150,7 @@ public abstract class PollingLiveExp<T> extends LiveExpression<T> {
 					}
 				}
 			};
-			job.schedule();
+			startRefreshing();
 		}
 		return this;
 	}
@@ -88,6 +88,7 @@ public abstract class AbstractLaunchConfigurationsDashElement<T> extends Wrappin
 	public static final EnumSet<RunState> READY_STATES = EnumSet.of(RunState.RUNNING, RunState.DEBUGGING);
 
 	private static final Duration LIVE_DATA_REFRESH_TIMEOUT = Duration.ofMinutes(2);
+	private static final Duration LIVE_DATA_MAX_REFRESH_INTERVAL = Duration.ofSeconds(10);
 
 	private LiveExpression<RunState> runState;
 	private LiveExpression<Integer> livePort;
@@ -206,6 +207,26 @@ public abstract class AbstractLaunchConfigurationsDashElement<T> extends Wrappin
 	 */
 	public abstract ImmutableSet<ILaunch> getLaunches();
 
+	/**
+	 * @return The measured startup times of the active launches of this element, in a format suitable to display
+	 *         to the user, or null if none of the launches has finished starting yet.
+	 */
+	public String getStartupTime() {
+		StringBuilder times = new StringBuilder();
+		for (ILaunch l : getLaunches()) {
+			if (!l.isTerminated()) {
+				long time = BootLaunchConfigurationDelegate.getStartupTime(l);
+				if (time>=0) {
+					if (times.length()>0) {
+						times.append(", ");
+					}
+					times.append(String.format("%.1f s", time / 1000.0));
+				}
+			}
+		}
+		return times.length()>0 ? times.toString() : null;
+	}
+
 	@Override
 	public void restart(RunState runningOrDebugging, UserInteractions ui) throws Exception {
 		switch (runningOrDebugging) {
@@ -520,7 +541,8 @@ public abstract class AbstractLaunchConfigurationsDashElement<T> extends Wrappin
 		synchronized (this) {
 			if (liveRequestMappings==null) {
 				ActuatorClient client = getActuatorClient();
-				liveRequestMappings = PollingLiveExp.create(client::getRequestMappings);
+				liveRequestMappings = PollingLiveExp.create(client::getRequestMappings)
+						.backOffWhenUnchanged(LIVE_DATA_MAX_REFRESH_INTERVAL);
 				addElementState(liveRequestMappings);
 				addDisposableChild(liveRequestMappings);
 				runState.addListener((e, runstate) -> {
@@ -39,7 +39,7 @@ public class BootDashElementSearchFilter extends TagSearchFilter<BootDashElement
 		super(s);
 	}
 
-	private Map<IProject, Set<String>> getMapping() {
+	private synchronized Map<IProject, Set<String>> getMapping() {
 		if (mapping == null) {
 			mapping = new HashMap<>();
 			for (IWorkingSet ws : PlatformUI.getWorkbench().getWorkingSetManager().getAllWorkingSets()) {
@@ -37,6 +37,7 @@ import org.springframework.ide.eclipse.boot.dash.views.sections.BootDashColumn;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
 import org.springframework.ide.eclipse.boot.launch.cli.CloudCliServiceLaunchConfigurationDelegate;
 import org.springframework.ide.eclipse.boot.launch.util.BootLaunchUtils;
+import org.springframework.ide.eclipse.boot.launch.util.JMXConnectionPool;
 import org.springframework.ide.eclipse.boot.pstore.IPropertyStore;
 import org.springframework.ide.eclipse.boot.pstore.PropertyStores;
 import org.springframework.ide.eclipse.boot.util.Log;
@@ -187,8 +188,9 @@ public class LocalCloudServiceDashElement extends AbstractLaunchConfigurationsDa
 				if (!l.isTerminated()) {
 					String pid = l.getAttribute(BootLaunchConfigurationDelegate.PROCESS_ID);
 					if (pid != null && !pid.isEmpty()) {
-						JMXConnector jmxConnector = ProcessUtils.createJMXConnector(pid);
+						JMXConnector jmxConnector = null;
 						try {
+							jmxConnector = JMXConnectionPool.getDefault().connect(JMXConnectionPool.processKey(pid), () -> ProcessUtils.createJMXConnector(pid));
 							MBeanServerConnection connection = jmxConnector.getMBeanServerConnection();
 							// Just because lifecycle bean is ready does not mean that the port property has
 							// already been set.
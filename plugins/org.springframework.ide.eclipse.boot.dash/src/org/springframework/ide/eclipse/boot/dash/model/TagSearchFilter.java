@@ -35,6 +35,8 @@ public class  TagSearchFilter<T extends Taggable> implements Filter<T> {
 
 	private String[] searchTags;
 
+	private volatile List<Predicate<String>> patterns;
+
 	public TagSearchFilter() {
 		this(null, null);
 	}
@@ -65,11 +67,7 @@ public class  TagSearchFilter<T extends Taggable> implements Filter<T> {
 			return true;
 		}
 
-		List<Predicate<String>> patterns = new ArrayList<>(searchTags.length);
-		for (String searchTag : searchTags) {
-			patterns.add(toPattern(searchTag));
-		}
-		patterns.add(toPattern("*"+searchTerm+"*"));
+		List<Predicate<String>> patterns = getPatterns();
 
 		Set<String> elementTags = getTags(element);
 
@@ -78,6 +76,23 @@ public class  TagSearchFilter<T extends Taggable> implements Filter<T> {
 		);
 	}
 
+	/**
+	 * The compiled patterns are the same for every element, so compile them only once
+	 * rather than once per accepted element.
+	 */
+	private List<Predicate<String>> getPatterns() {
+		List<Predicate<String>> patterns = this.patterns;
+		if (patterns == null) {
+			patterns = new ArrayList<>(searchTags.length + 1);
+			for (String searchTag : searchTags) {
+				patterns.add(toPattern(searchTag));
+			}
+			patterns.add(toPattern("*"+searchTerm+"*"));
+			this.patterns = patterns;
+		}
+		return patterns;
+	}
+
 	private Predicate<String> toPattern(String wildcarded) {
 		Pattern pat = PatternUtils.createPattern(wildcarded, false, false);
 		return (s) -> pat.matcher(s).matches();
@@ -27,6 +27,12 @@ public abstract class AbstractRequestMapping implements RequestMapping {
 
 	protected final TypeLookup typeLookup;
 
+	/**
+	 * Whether the handler type was found in a source folder when it was last looked
+	 * up by {@link #updateUserDefined()}, or null if it wasn't looked up yet.
+	 */
+	private volatile Boolean userDefined;
+
 	public AbstractRequestMapping(TypeLookup typeLookup) {
 		this.typeLookup = typeLookup;
 	}
@@ -34,14 +40,41 @@ public abstract class AbstractRequestMapping implements RequestMapping {
 	@Override
 	public IType getType() {
 		String fqName = getFullyQualifiedClassName();
-		if (fqName!=null) {
+		if (fqName!=null && typeLookup!=null) {
 			return typeLookup.findType(fqName);
 		}
 		return null;
 	}
 
+	/**
+	 * Answers from the last {@link #updateUserDefined()} without going to JDT, unless
+	 * the handler type was never looked up.
+	 */
 	@Override
 	public boolean isUserDefined() {
+		Boolean userDefined = this.userDefined;
+		if (userDefined==null) {
+			updateUserDefined();
+			userDefined = this.userDefined;
+		}
+		return userDefined;
+	}
+
+	/**
+	 * Looks up the handler type and remembers whether it is user defined. This goes
+	 * to JDT, so it is meant to be called from the thread that fetched the mappings
+	 * rather than from the UI.
+	 *
+	 * @return true if the answer differs from the previous lookup.
+	 */
+	public boolean updateUserDefined() {
+		boolean userDefined = lookupUserDefined();
+		Boolean previous = this.userDefined;
+		this.userDefined = userDefined;
+		return previous==null || previous!=userDefined;
+	}
+
+	private boolean lookupUserDefined() {
 		try {
 			IType type = getType();
 			if (type!=null) {
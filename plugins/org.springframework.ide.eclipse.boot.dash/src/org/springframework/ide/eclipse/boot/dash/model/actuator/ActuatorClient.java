@@ -10,10 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.model.actuator;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.json.JSONException;
 import org.json.JSONObject;
 import org.osgi.framework.Version;
 import org.osgi.framework.VersionRange;
@@ -23,6 +25,9 @@ import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
 import org.springframework.ide.eclipse.beans.ui.live.model.TypeLookup;
 import org.springframework.ide.eclipse.boot.util.Log;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
 /**
  * Abstract implementation of a ActuatorClient. The actuar client connects
  * to an actuator endpoint retrieving some information from a running spring boot app.
@@ -30,6 +35,14 @@ import org.springframework.ide.eclipse.boot.util.Log;
  * This implementation is abstract because there is more than one way that we can
  * connect to an actuator endpoint and retrieve the data from it. The method
  * to retrieve the data is therefore an abstract method.
+ * <p>
+ * Parsed results are cached together with a hash of the payload they were parsed
+ * from, so polling an app whose data hasn't changed does not re-parse anything.
+ * <p>
+ * Request mappings are returned in the order they are shown in: mappings handled
+ * by user defined types first, each group ordered by path. Finding out which
+ * mappings are user defined takes JDT lookups, which are done here, on the
+ * polling thread, so that viewers neither sort nor label on JDT data.
  *
  * @author Kris De Volder
  */
@@ -37,14 +50,41 @@ public abstract class ActuatorClient {
 
 	private static final VersionRange BEANS_PARSER_VERSION_1_RANGE = new VersionRange("[1.0.0, 2.0.0)");
 
+	/**
+	 * Boot 2.x request mapping payloads larger than this (in characters) are parsed with
+	 * the streaming parser rather than being loaded into a json object first.
+	 */
+	private static final int STREAMING_THRESHOLD = 100_000;
+
+	private static final Comparator<RequestMapping> DISPLAY_ORDER = Comparator
+			.comparing((RequestMapping rm) -> rm.isUserDefined() ? 0 : 1)
+			.thenComparing(RequestMapping::getPath, Comparator.nullsLast(Comparator.naturalOrder()));
+
 	private final TypeLookup typeLookup;
 
+	/**
+	 * Hash of the last request mappings payload, and the result of parsing it.
+	 * When the payload has not changed we return the previous result as is.
+	 */
+	private HashCode requestMappingsHash;
+	private List<RequestMapping> requestMappings;
+
+	/**
+	 * Hash of the last beans payload, and the result of parsing it.
+	 */
+	private HashCode beansHash;
+	private LiveBeansModel beans;
+
 	public ActuatorClient(TypeLookup typeLookup) {
 		this.typeLookup = typeLookup;
 	}
 
-
-	private List<RequestMapping> parseRequestMappings(String json, String version) throws JSONException {
+	private List<RequestMapping> parseRequestMappings(String json, String version) throws Exception {
+		//Type lookups are cached per payload, so that each handler class is only resolved once
+		TypeLookup typeLookup = this.typeLookup!=null ? new CachingTypeLookup(this.typeLookup) : null;
+		if ("2".equals(version) && json.length() > STREAMING_THRESHOLD) {
+			return new Boot2RequestMappingsStreamingParser().parse(json, typeLookup);
+		}
  		JSONObject obj = new JSONObject(json);
  		RequestMappingsParser parser;
 		if ("2".equals(version)) {
@@ -57,13 +97,37 @@ public abstract class ActuatorClient {
 		return parser.parse(obj, typeLookup);
 	}
 
+	private static HashCode hash(String json, String version) {
+		return Hashing.murmur3_128().newHasher()
+				.putString(String.valueOf(version), StandardCharsets.UTF_8)
+				.putString(json, StandardCharsets.UTF_8)
+				.hash();
+	}
+
 	public List<RequestMapping> getRequestMappings() {
 		try {
 			ImmutablePair<String, String> data = getRequestMappingData();
 			if (data != null) {
 				String json = data.left;
 				if (json!=null) {
-					return parseRequestMappings(json, data.right);
+					HashCode hash = hash(json, data.right);
+					List<RequestMapping> previous = null;
+					synchronized (this) {
+						if (hash.equals(requestMappingsHash)) {
+							previous = requestMappings;
+						}
+					}
+					List<RequestMapping> mappings = previous!=null ? previous : parseRequestMappings(json, data.right);
+					//Handler types that weren't found before may be found now (e.g. once their project is built)
+					if (updateUserDefined(mappings) || mappings!=previous) {
+						mappings = new ArrayList<>(mappings);
+						mappings.sort(DISPLAY_ORDER);
+						synchronized (this) {
+							requestMappingsHash = hash;
+							requestMappings = mappings;
+						}
+					}
+					return mappings;
 				}
 			}
 		} catch (Exception e) {
@@ -72,6 +136,19 @@ public abstract class ActuatorClient {
 		return null;
 	}
 
+	/**
+	 * @return true if it changed for any of the mappings whether it is user defined.
+	 */
+	private static boolean updateUserDefined(List<RequestMapping> mappings) {
+		boolean changed = false;
+		for (RequestMapping rm : mappings) {
+			if (rm instanceof AbstractRequestMapping && ((AbstractRequestMapping) rm).updateUserDefined()) {
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
 	public LiveBeansModel getBeans() {
 		try {
 			ImmutablePair<String, String> data = getBeansData();
@@ -79,12 +156,18 @@ public abstract class ActuatorClient {
 				String json = data.left;
 				String version = data.right;
 				if (json != null) {
-					if (version != null) {
-						if (BEANS_PARSER_VERSION_1_RANGE.includes(Version.valueOf(version))) {
-							return new LiveBeansJsonParser(typeLookup, json).parse();
+					HashCode hash = hash(json, version);
+					synchronized (this) {
+						if (hash.equals(beansHash)) {
+							return beans;
 						}
 					}
-					return new LiveBeansJsonParser2(typeLookup, json).parse();
+					LiveBeansModel parsed = parseBeans(json, version);
+					synchronized (this) {
+						beansHash = hash;
+						beans = parsed;
+					}
+					return parsed;
 				}
 			}
 		} catch (Exception e) {
@@ -93,6 +176,15 @@ public abstract class ActuatorClient {
 		return null;
 	}
 
+	private LiveBeansModel parseBeans(String json, String version) throws Exception {
+		if (version != null) {
+			if (BEANS_PARSER_VERSION_1_RANGE.includes(Version.valueOf(version))) {
+				return new LiveBeansJsonParser(typeLookup, json).parse();
+			}
+		}
+		return new LiveBeansJsonParser2(typeLookup, json).parse();
+	}
+
 	protected abstract ImmutablePair<String, String> getRequestMappingData() throws Exception;
 
 	protected abstract ImmutablePair<String, String> getBeansData() throws Exception;
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.model.actuator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.ide.eclipse.beans.ui.live.model.TypeLookup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parses Boot 2.x request mappings directly from the json text using Jackson's
+ * streaming api. Only a single mapping entry is materialized as a tree at any time,
+ * which keeps memory use and parsing time down for apps with thousands of
+ * endpoints.
+ * <p>
+ * Produces the same result as {@link Boot2RequestMappingsParser}.
+ */
+public class Boot2RequestMappingsStreamingParser {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final ObjectMapper MAPPER = new ObjectMapper(JSON_FACTORY);
+
+	public List<RequestMapping> parse(String json, TypeLookup typeLookup) throws IOException {
+		List<RequestMapping> result = new ArrayList<>();
+		try (JsonParser p = JSON_FACTORY.createParser(json)) {
+			expect(p.nextToken(), JsonToken.START_OBJECT);
+			while (p.nextToken()==JsonToken.FIELD_NAME) {
+				String field = p.getCurrentName();
+				p.nextToken();
+				if ("contexts".equals(field)) {
+					parseContexts(p, typeLookup, result);
+				} else {
+					p.skipChildren();
+				}
+			}
+		}
+		return result;
+	}
+
+	private void parseContexts(JsonParser p, TypeLookup typeLookup, List<RequestMapping> result) throws IOException {
+		expect(p.getCurrentToken(), JsonToken.START_OBJECT);
+		while (p.nextToken()==JsonToken.FIELD_NAME) {
+			expect(p.nextToken(), JsonToken.START_OBJECT);
+			while (p.nextToken()==JsonToken.FIELD_NAME) {
+				String field = p.getCurrentName();
+				p.nextToken();
+				if ("mappings".equals(field)) {
+					parseMappings(p, typeLookup, result);
+				} else {
+					p.skipChildren();
+				}
+			}
+		}
+	}
+
+	private void parseMappings(JsonParser p, TypeLookup typeLookup, List<RequestMapping> result) throws IOException {
+		expect(p.getCurrentToken(), JsonToken.START_OBJECT);
+		List<RequestMapping> servletMappings = null;
+		List<RequestMapping> handlerMappings = null;
+		while (p.nextToken()==JsonToken.FIELD_NAME) {
+			String field = p.getCurrentName();
+			p.nextToken();
+			if ("dispatcherServlets".equals(field)) {
+				// Regular Web starter endpoints RMs JMX beans format
+				servletMappings = parseHandlers(p, "dispatcherServlet", typeLookup);
+			} else if ("dispatcherHandlers".equals(field)) {
+				// WebFlux endpoints RMs JMX bean format
+				handlerMappings = parseHandlers(p, "webHandler", typeLookup);
+			} else {
+				p.skipChildren();
+			}
+		}
+		if (servletMappings!=null) {
+			result.addAll(servletMappings);
+		} else if (handlerMappings!=null) {
+			result.addAll(handlerMappings);
+		}
+	}
+
+	private List<RequestMapping> parseHandlers(JsonParser p, String arrayName, TypeLookup typeLookup) throws IOException {
+		expect(p.getCurrentToken(), JsonToken.START_OBJECT);
+		List<RequestMapping> mappings = null;
+		while (p.nextToken()==JsonToken.FIELD_NAME) {
+			String field = p.getCurrentName();
+			JsonToken token = p.nextToken();
+			if (arrayName.equals(field) && token==JsonToken.START_ARRAY) {
+				mappings = new ArrayList<>();
+				while (p.nextToken()==JsonToken.START_OBJECT) {
+					JsonNode servlet = MAPPER.readTree(p);
+					addMappings(servlet, typeLookup, mappings);
+				}
+			} else {
+				p.skipChildren();
+			}
+		}
+		if (mappings==null) {
+			throw new IOException("Missing '"+arrayName+"' array");
+		}
+		return mappings;
+	}
+
+	private void addMappings(JsonNode servlet, TypeLookup typeLookup, List<RequestMapping> mappings) throws IOException {
+		String handler = servlet.path("handler").asText();
+		JsonNode details = servlet.get("details");
+		if (details==null || !details.isObject()) {
+			// Fall back to 1.x for missing "details" property, i.e. no method handler defined
+			mappings.addAll(RequestMapping1x.create(servlet.path("predicate").asText(), handler, typeLookup));
+		} else {
+			// Only the (small) details of a single entry are converted, the mapping itself is built by the shared factory
+			try {
+				mappings.addAll(RequestMapping2x.create(typeLookup, handler, new JSONObject(MAPPER.writeValueAsString(details))));
+			} catch (JSONException e) {
+				throw new IOException(e);
+			}
+		}
+	}
+
+	private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+		if (actual!=expected) {
+			throw new IOException("Unexpected json token: expected "+expected+" but found "+actual);
+		}
+	}
+
+}
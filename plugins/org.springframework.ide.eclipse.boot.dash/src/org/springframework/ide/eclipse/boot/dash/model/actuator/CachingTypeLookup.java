@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.model.actuator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IType;
+import org.springframework.ide.eclipse.beans.ui.live.model.TypeLookup;
+
+/**
+ * {@link TypeLookup} that remembers the types it found.
+ * <p>
+ * Many request mappings share the same handler class, so each class that exists
+ * is resolved through JDT only once. Types that weren't found are not remembered
+ * and are looked up again next time, since they may only be missing because their
+ * project isn't open or built yet.
+ */
+public class CachingTypeLookup implements TypeLookup {
+
+	private final TypeLookup delegate;
+	private final ConcurrentMap<String, IType> cache = new ConcurrentHashMap<>();
+
+	public CachingTypeLookup(TypeLookup delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public String getApplicationName() {
+		return delegate.getApplicationName();
+	}
+
+	@Override
+	public IProject getProject() {
+		return delegate.getProject();
+	}
+
+	@Override
+	public IType findType(String fqName) {
+		IType type = cache.get(fqName);
+		if (type==null) {
+			type = delegate.findType(fqName);
+			if (type!=null) {
+				cache.put(fqName, type);
+			}
+		}
+		return type;
+	}
+
+	@Override
+	public IProject[] relatedProjects() {
+		return delegate.relatedProjects();
+	}
+
+}
@@ -10,14 +10,20 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.model.actuator;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Provider;
 import javax.management.InstanceNotFoundException;
+import javax.management.ObjectName;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.springframework.ide.eclipse.beans.ui.live.model.TypeLookup;
 import org.springframework.ide.eclipse.boot.launch.util.JMXClient;
+import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
 import org.springsource.ide.eclipse.commons.livexp.util.ExceptionUtil;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,6 +32,10 @@ import com.google.common.collect.ImmutableSet;
 /**
  * Concretization of abstract {@link ActuatorClient} which uses JMX to connect
  * to actuator endpoint(s).
+ * <p>
+ * Connections are obtained through the shared
+ * {@link org.springframework.ide.eclipse.boot.launch.util.JMXConnectionPool}, so all actuator
+ * clients (and ready state monitors) for the same process use a single JMX connection.
  *
  * @author Kris De Volder
  */
@@ -54,6 +64,13 @@ public class JMXActuatorClient extends ActuatorClient {
 			new OperationInfo("org.springframework.boot:type=Endpoint,name=beansEndpoint", "getData", "1") //Boot 1.x
 	};
 
+	private static final OperationInfo[][] ALL_OPERATIONS = {
+			REQUEST_MAPPINGS_OPERATIONS,
+			BEANS_OPERATIONS
+	};
+
+	private static final String ENDPOINT_MBEANS_PATTERN = "org.springframework.boot:type=Endpoint,*";
+
 	private JMXClient client = null;
 	private Integer port = null;
 
@@ -62,19 +79,37 @@ public class JMXActuatorClient extends ActuatorClient {
 		this.portProvider = jmxPort;
 	}
 
+	/**
+	 * Remembers, for each kind of data, which of the candidate operations the
+	 * connected app actually supports. This avoids a failed round trip on every
+	 * refresh for apps that only support the 'legacy' mbean.
+	 */
+	private final Map<OperationInfo[], OperationInfo> resolvedOperations = new HashMap<>();
+
 	@Override
 	protected ImmutablePair<String, String> getRequestMappingData() throws Exception {
+		return getData(REQUEST_MAPPINGS_OPERATIONS);
+	}
+
+	@Override
+	protected ImmutablePair<String, String> getBeansData() throws Exception {
+		return getData(BEANS_OPERATIONS);
+	}
+
+	private ImmutablePair<String, String> getData(OperationInfo[] candidates) throws Exception {
 		try {
 			JMXClient client = getClient();
 			if (client!=null) {
-				for (OperationInfo op : REQUEST_MAPPINGS_OPERATIONS) {
+				OperationInfo op = resolveOperation(client, candidates);
+				if (op!=null) {
 					try {
 						Object obj = client.callOperation(op.objectName, op.operationName);
 						if (obj!=null) {
 							return ImmutablePair.of(new ObjectMapper().writeValueAsString(obj), op.version);
 						}
 					} catch (InstanceNotFoundException e) {
-						//Ignore and try other mbean
+						//Endpoint mbean went away? Resolve again next time.
+						forgetOperation(candidates);
 					}
 				}
 			}
@@ -87,29 +122,32 @@ public class JMXActuatorClient extends ActuatorClient {
 		return null;
 	}
 
-	@Override
-	protected ImmutablePair<String, String> getBeansData() throws Exception {
-		try {
-			JMXClient client = getClient();
-			if (client!=null) {
-				for (OperationInfo op : BEANS_OPERATIONS) {
-					try {
-						Object obj = client.callOperation(op.objectName, op.operationName);
-						if (obj!=null) {
-							return ImmutablePair.of(new ObjectMapper().writeValueAsString(obj), op.version);
-						}
-					} catch (InstanceNotFoundException e) {
-						//Ignore and try other mbean
+	/**
+	 * Determine which of the candidate operations is supported by the app. A single query
+	 * for all registered endpoint mbeans answers this for all kinds of data at once.
+	 */
+	private synchronized OperationInfo resolveOperation(JMXClient client, OperationInfo[] candidates) throws IOException {
+		OperationInfo op = resolvedOperations.get(candidates);
+		if (op==null) {
+			Set<String> endpoints = new HashSet<>();
+			for (ObjectName name : client.queryNames(ENDPOINT_MBEANS_PATTERN)) {
+				endpoints.add(name.getCanonicalName());
+			}
+			for (OperationInfo[] kind : ALL_OPERATIONS) {
+				for (OperationInfo candidate : kind) {
+					if (endpoints.contains(SpringApplicationLifecycleClient.toObjectName(candidate.objectName).getCanonicalName())) {
+						resolvedOperations.put(kind, candidate);
+						break;
 					}
 				}
 			}
-		} catch (Exception e) {
-			disposeClient(); //Client may be in broken state, do not reuse.
-			if (!isExpectedException(e)) {
-				throw e;
-			}
+			op = resolvedOperations.get(candidates);
 		}
-		return null;
+		return op;
+	}
+
+	private synchronized void forgetOperation(OperationInfo[] candidates) {
+		resolvedOperations.remove(candidates);
 	}
 
 	private static final Set<String> EXPECTED_EXCEPTIONS = ImmutableSet.of(
@@ -134,7 +172,8 @@ public class JMXActuatorClient extends ActuatorClient {
 		return client;
 	}
 
-	private void disposeClient() {
+	private synchronized void disposeClient() {
+		resolvedOperations.clear();
 		JMXClient client = this.client;
 		if (client!=null) {
 			this.client = null;
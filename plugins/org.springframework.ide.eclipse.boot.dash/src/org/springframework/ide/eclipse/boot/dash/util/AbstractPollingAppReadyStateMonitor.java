@@ -10,10 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.util;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.boot.dash.util.PollingScheduler.PollingTask;
 import org.springsource.ide.eclipse.commons.livexp.core.LiveExpression;
 import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
 
@@ -24,6 +21,14 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
  * repeatedly with a short delay between polls. This continues until either the
  * monitor object is disposed, or the application enters the 'ready' state.
  * <p>
+ * The delay between polls starts at {@link #POLLING_INTERVAL} and backs off
+ * gradually up to {@link #MAX_POLLING_INTERVAL}. Subclasses that can observe
+ * the application making progress (e.g. via JMX notifications) can call
+ * {@link #checkNow()} to trigger an immediate check and reset the backoff.
+ * <p>
+ * All monitors share a single {@link PollingScheduler} rather than
+ * scheduling a job each.
+ * <p>
  * When the application reaches ready state then its 'ready' LiveExp will change
  * value from false to true. Clients who wish to respond to this 'event' can
  * attach a listener to the livexp.
@@ -35,31 +40,48 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
 public abstract class AbstractPollingAppReadyStateMonitor implements ReadyStateMonitor {
 
 	public static final long POLLING_INTERVAL = 500/*ms*/;
+	public static final long MAX_POLLING_INTERVAL = 3000/*ms*/;
+	private static final double BACKOFF_FACTOR = 1.5;
 
-	private Job job;
+	private final PollingScheduler scheduler;
+	private final PollingTask pollingTask = this::poll;
+	private volatile long interval = POLLING_INTERVAL;
 	private LiveVariable<Boolean> ready = new LiveVariable<>(false);
 
+	protected AbstractPollingAppReadyStateMonitor() {
+		this(PollingScheduler.getDefault());
+	}
+
+	protected AbstractPollingAppReadyStateMonitor(PollingScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
 	final public void startPolling() {
-		initPollingJob();
+		scheduler.schedule(pollingTask, 0);
 	}
 
-	private void initPollingJob() {
-		this.job = new Job("Ready state poller") {
-			protected IStatus run(IProgressMonitor monitor) {
-				LiveVariable<Boolean> r = ready;
-				if (r!=null) { //null means disposed. Job may be lagging behind
-					r.setValue(checkReady());
-					if (!r.getValue()) {
-						this.schedule(POLLING_INTERVAL);
-					} else {
-						// don't reschedule
-					}
-				}
-				return Status.OK_STATUS;
+	/**
+	 * Request the ready state to be checked as soon as possible, and reset the
+	 * polling interval back to its initial value.
+	 */
+	protected final void checkNow() {
+		if (ready!=null) {
+			interval = POLLING_INTERVAL;
+			scheduler.schedule(pollingTask, 0);
+		}
+	}
+
+	private long poll() {
+		LiveVariable<Boolean> r = ready;
+		if (r!=null) { //null means disposed. Scheduler may be lagging behind
+			r.setValue(checkReady());
+			if (!r.getValue()) {
+				long delay = interval;
+				interval = Math.min(MAX_POLLING_INTERVAL, (long) (delay * BACKOFF_FACTOR));
+				return delay;
 			}
-		};
-		job.setSystem(true);
-		job.schedule();
+		}
+		return PollingScheduler.STOP;
 	}
 
 	final public LiveExpression<Boolean> getReady() {
@@ -67,10 +89,7 @@ public abstract class AbstractPollingAppReadyStateMonitor implements ReadyStateM
 	}
 
 	public void dispose() {
-		if (job!=null) {
-			job.cancel();
-			job = null;
-		}
+		scheduler.cancel(pollingTask);
 		ready = null;
 	}
 
@@ -25,6 +25,7 @@ import javax.management.remote.JMXConnector;
 
 import org.eclipse.debug.core.ILaunch;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
+import org.springframework.ide.eclipse.boot.launch.util.JMXConnectionPool;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
 import org.springsource.ide.eclipse.commons.core.util.ProcessUtils;
 
@@ -59,7 +60,11 @@ public class CloudCliServiceReadyStateMonitor extends AbstractPollingAppReadySta
 			if (Long.valueOf(pid) < 0) {
 				throw new IllegalStateException("Invalid PID");
 			} else {
-				return ProcessUtils.createJMXConnector(pid);
+				try {
+					return JMXConnectionPool.getDefault().connect(JMXConnectionPool.processKey(pid), () -> ProcessUtils.createJMXConnector(pid));
+				} catch (IOException e) {
+					return null;
+				}
 			}
 		}
 	}
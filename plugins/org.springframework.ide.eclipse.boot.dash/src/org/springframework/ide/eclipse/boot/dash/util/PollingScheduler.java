@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.boot.util.Log;
+
+/**
+ * Schedules any number of periodic polling tasks from a single background {@link Job}.
+ * <p>
+ * Rather than having each poller create and reschedule its own job, pollers
+ * register a {@link PollingTask} here. Each time a task is polled it returns the
+ * delay until it wants to be polled again, which lets tasks implement their own
+ * adaptive backoff. The scheduler's job only wakes up when the earliest task is due.
+ * <p>
+ * Only the scheduling is centralised: due tasks are polled on a bounded pool of
+ * worker threads, so a poll that hangs (e.g. a JMX connect to an unresponsive
+ * process) does not hold up the other tasks. A poll that takes longer than the
+ * poll timeout is interrupted and its result is ignored. Since not every blocking
+ * call gives up when interrupted, the task is only polled again once the aborted
+ * poll has returned, and no earlier than another timeout period later. A task is
+ * therefore never polled twice at the same time, and each hung task holds on to
+ * at most one worker.
+ */
+public class PollingScheduler {
+
+	/**
+	 * Value returned from {@link PollingTask#poll()} to indicate the task does
+	 * not want to be polled again.
+	 */
+	public static final long STOP = -1;
+
+	/**
+	 * Default time in milliseconds a single poll may take.
+	 */
+	public static final long DEFAULT_POLL_TIMEOUT = 30_000;
+
+	/**
+	 * Default maximum number of polls that run at the same time.
+	 */
+	public static final int DEFAULT_MAX_WORKERS = 8;
+
+	private static final PollingScheduler DEFAULT = new PollingScheduler("Boot Dash poller");
+
+	public static PollingScheduler getDefault() {
+		return DEFAULT;
+	}
+
+	@FunctionalInterface
+	public interface PollingTask {
+		/**
+		 * @return delay in milliseconds before the task should be polled again, or
+		 *         {@link PollingScheduler#STOP} to stop polling.
+		 */
+		long poll();
+	}
+
+	/**
+	 * A poll of a task that is waiting for or running on a worker thread.
+	 */
+	private static class Poll {
+		/**
+		 * Time by which the poll must be done, or Long.MAX_VALUE while it waits for a worker.
+		 */
+		long deadline = Long.MAX_VALUE; //guarded by the scheduler
+		/**
+		 * Set when the poll timed out or its task was cancelled. The result of
+		 * an abandoned poll is ignored.
+		 */
+		boolean abandoned = false; //guarded by the scheduler
+		Future<?> future;
+	}
+
+	/**
+	 * Maps each scheduled task to the time (in ms) it is next due.
+	 */
+	private final Map<PollingTask, Long> dueTimes = new HashMap<>();
+
+	/**
+	 * Tasks that are currently being polled, including abandoned polls whose
+	 * thread hasn't returned yet.
+	 */
+	private final Map<PollingTask, Poll> polling = new HashMap<>();
+
+	private final long pollTimeout;
+
+	private final ExecutorService workers;
+
+	private final Job job;
+
+	public PollingScheduler(String name) {
+		this(name, DEFAULT_POLL_TIMEOUT);
+	}
+
+	public PollingScheduler(String name, long pollTimeout) {
+		this(name, pollTimeout, DEFAULT_MAX_WORKERS);
+	}
+
+	public PollingScheduler(String name, long pollTimeout, int maxWorkers) {
+		this.pollTimeout = pollTimeout;
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor workers = new ThreadPoolExecutor(maxWorkers, maxWorkers, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, name + " " + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		workers.allowCoreThreadTimeOut(true);
+		this.workers = workers;
+		job = new Job(name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				abortTimedOutPolls();
+				for (PollingTask task : takeDueTasks()) {
+					startPoll(task);
+				}
+				wakeUpForNextTask();
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+	}
+
+	/**
+	 * Schedule a task to be polled after a given delay. If the task is already scheduled
+	 * to be polled earlier than that, this has no effect.
+	 */
+	public void schedule(PollingTask task, long delay) {
+		synchronized (this) {
+			long due = System.currentTimeMillis() + Math.max(0, delay);
+			Long existing = dueTimes.get(task);
+			if (existing==null || due < existing) {
+				dueTimes.put(task, due);
+			}
+		}
+		wakeUpForNextTask();
+	}
+
+	/**
+	 * Stop polling a given task. If the task is being polled right now, the result
+	 * of that poll is ignored. Scheduling the task again won't poll it before the
+	 * running poll has returned.
+	 */
+	public synchronized void cancel(PollingTask task) {
+		dueTimes.remove(task);
+		Poll poll = polling.get(task);
+		if (poll!=null) {
+			poll.abandoned = true;
+		}
+	}
+
+	/**
+	 * @return Number of tasks currently registered with the scheduler.
+	 */
+	public synchronized int size() {
+		return dueTimes.size();
+	}
+
+	private void startPoll(PollingTask task) {
+		Poll poll = new Poll();
+		synchronized (this) {
+			polling.put(task, poll);
+			poll.future = workers.submit(() -> {
+				synchronized (this) {
+					poll.deadline = System.currentTimeMillis() + pollTimeout;
+				}
+				wakeUpForNextTask();
+				long delay = STOP;
+				try {
+					if (!isAbandoned(poll)) {
+						delay = task.poll();
+					}
+				} catch (Throwable e) {
+					Log.log(e);
+				} finally {
+					finished(task, poll, delay);
+				}
+			});
+		}
+	}
+
+	private synchronized boolean isAbandoned(Poll poll) {
+		return poll.abandoned;
+	}
+
+	private void finished(PollingTask task, Poll poll, long delay) {
+		synchronized (this) {
+			if (polling.get(task)==poll) {
+				polling.remove(task);
+			}
+			//Only put it back if the poll wasn't abandoned and nobody rescheduled it
+			// while it was being polled
+			if (!poll.abandoned && delay>=0 && !dueTimes.containsKey(task)) {
+				dueTimes.put(task, System.currentTimeMillis() + delay);
+			}
+		}
+		wakeUpForNextTask();
+	}
+
+	private void abortTimedOutPolls() {
+		List<Poll> timedOut = new ArrayList<>();
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			for (Entry<PollingTask, Poll> e : polling.entrySet()) {
+				Poll poll = e.getValue();
+				if (!poll.abandoned && poll.deadline<=now) {
+					//The poll stays registered until its thread returns, so the task
+					// isn't polled again in the mean time
+					poll.abandoned = true;
+					timedOut.add(poll);
+					if (!dueTimes.containsKey(e.getKey())) {
+						dueTimes.put(e.getKey(), now + pollTimeout);
+					}
+				}
+			}
+		}
+		for (Poll poll : timedOut) {
+			Log.warn("Poll did not finish within "+pollTimeout+" ms and was aborted");
+			poll.future.cancel(true);
+		}
+	}
+
+	private synchronized List<PollingTask> takeDueTasks() {
+		long now = System.currentTimeMillis();
+		List<PollingTask> due = new ArrayList<>();
+		for (Entry<PollingTask, Long> e : dueTimes.entrySet()) {
+			//A task that is still being polled waits until its running poll is done
+			if (e.getValue()<=now && !polling.containsKey(e.getKey())) {
+				due.add(e.getKey());
+			}
+		}
+		for (PollingTask task : due) {
+			dueTimes.remove(task);
+		}
+		return due;
+	}
+
+	private void wakeUpForNextTask() {
+		long delay;
+		synchronized (this) {
+			long next = Long.MAX_VALUE;
+			for (Entry<PollingTask, Long> e : dueTimes.entrySet()) {
+				if (!polling.containsKey(e.getKey())) {
+					next = Math.min(next, e.getValue());
+				}
+			}
+			for (Poll poll : polling.values()) {
+				if (!poll.abandoned) {
+					next = Math.min(next, poll.deadline);
+				}
+			}
+			if (next==Long.MAX_VALUE) {
+				return;
+			}
+			delay = Math.max(0, next - System.currentTimeMillis());
+		}
+		if (job.getState()==Job.SLEEPING) {
+			job.wakeUp(delay);
+		} else {
+			job.schedule(delay);
+		}
+	}
+
+}
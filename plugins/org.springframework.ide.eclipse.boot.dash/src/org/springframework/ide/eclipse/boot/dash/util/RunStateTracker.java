@@ -137,6 +137,10 @@ public abstract class RunStateTracker<T> extends ProcessListenerAdapter implemen
 		ReadyStateMonitor tracker = readyStateTrackers.get(l);
 		if (tracker==null) {
 			readyStateTrackers.put(l, tracker = createReadyStateTracker(l));
+			if (!(tracker instanceof DummyReadyStateMonitor)) {
+				//Must be added before readyStateListener, so the startup time is known when listeners are notified.
+				tracker.getReady().addListener(startupTimeRecorder(l));
+			}
 			tracker.getReady().addListener(readyStateListener);
 //		} else {
 //			debug("getReadyState["+l+"] "+BootLaunchUtils.getProject(l)+" FROM CACHE");
@@ -154,6 +158,16 @@ public abstract class RunStateTracker<T> extends ProcessListenerAdapter implemen
 	};
 	private boolean updateInProgress;
 
+	private ValueListener<Boolean> startupTimeRecorder(ILaunch l) {
+		return new ValueListener<Boolean>() {
+			public void gotValue(LiveExpression<Boolean> exp, Boolean value) {
+				if (value) {
+					BootLaunchConfigurationDelegate.recordStartupTime(l);
+				}
+			}
+		};
+	}
+
 	protected final ReadyStateMonitor createReadyStateTracker(ILaunch l) {
 		try {
 			Boolean canUseLifeCycle=null, cliCanUseLifeCycle=null, isSingleProcessServiceLaunch = null;
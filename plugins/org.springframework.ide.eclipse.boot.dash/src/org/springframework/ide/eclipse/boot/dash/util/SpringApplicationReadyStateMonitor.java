@@ -13,6 +13,7 @@ package org.springframework.ide.eclipse.boot.dash.util;
 import org.eclipse.debug.core.ILaunch;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifeCycleClientManager;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
+import org.springsource.ide.eclipse.commons.livexp.ui.Disposable;
 
 /**
  * An instance of this class starts checking a spring application's lifecyle using
@@ -20,6 +21,10 @@ import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecyc
  * polls. This continues until either the  SpringApplicationReadyStateMonitor is disposed,
  * or the application enters the 'ready' state.
  * <p>
+ * Once a JMX connection is established the monitor also listens for mbean
+ * registrations in the application. Each registration triggers an immediate check,
+ * so the (backed off) polling interval only matters for apps that have gone quiet.
+ * <p>
  * When the application reaches ready state then its 'ready' LiveExp will change value from
  * false to true. Clients who wish to respond to this 'event' can attach a listener to
  * the livexp.
@@ -29,6 +34,9 @@ import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecyc
 public class SpringApplicationReadyStateMonitor extends AbstractPollingAppReadyStateMonitor {
 
 	private SpringApplicationLifeCycleClientManager clientManager;
+	private SpringApplicationLifecycleClient listeningTo;
+	private Disposable registrationListener;
+	private boolean disposed;
 
 	public SpringApplicationReadyStateMonitor(ILaunch launch) {
 		super();
@@ -36,6 +44,11 @@ public class SpringApplicationReadyStateMonitor extends AbstractPollingAppReadyS
 	}
 
 	public void dispose() {
+		synchronized (this) {
+			//A poll still running on a worker thread must not add a listener after this point
+			disposed = true;
+			removeRegistrationListener();
+		}
 		if (clientManager != null) {
 			clientManager.disposeClient();
 		}
@@ -46,11 +59,18 @@ public class SpringApplicationReadyStateMonitor extends AbstractPollingAppReadyS
 		try {
 			SpringApplicationLifecycleClient client = clientManager.getLifeCycleClient();
 			if (client!=null) {
-				return client.isReady();
+				boolean isReady = client.isReady();
+				if (isReady) {
+					removeRegistrationListener();
+				} else {
+					listenForRegistrations(client);
+				}
+				return isReady;
 			}
 		} catch (Exception e) {
 			//Something went wrong asking client for ready state.
 			// most likely process died.
+			removeRegistrationListener();
 			if (clientManager != null) {
 				clientManager.disposeClient();
 			}
@@ -58,4 +78,20 @@ public class SpringApplicationReadyStateMonitor extends AbstractPollingAppReadyS
 		return false;
 	}
 
+	private synchronized void listenForRegistrations(SpringApplicationLifecycleClient client) throws Exception {
+		if (!disposed && client!=listeningTo) {
+			removeRegistrationListener();
+			registrationListener = client.onMBeanRegistered(this::checkNow);
+			listeningTo = client;
+		}
+	}
+
+	private synchronized void removeRegistrationListener() {
+		if (registrationListener!=null) {
+			registrationListener.dispose();
+			registrationListener = null;
+		}
+		listeningTo = null;
+	}
+
 }
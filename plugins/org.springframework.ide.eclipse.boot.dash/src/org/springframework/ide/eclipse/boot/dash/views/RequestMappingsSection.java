@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 Pivotal, Inc.
+ * Copyright (c) 2015, 2018 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,7 +22,6 @@ import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
 import org.eclipse.jface.viewers.Viewer;
-import org.eclipse.jface.viewers.ViewerSorter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ControlEvent;
 import org.eclipse.swt.events.ControlListener;
@@ -56,32 +55,6 @@ public class RequestMappingsSection extends PageSection implements Disposable {
 	private ElementStateListener modelListener;
 	private RequestMappingLabelProvider labelProvider;
 	private Stylers stylers;
-	private ViewerSorter sorter = new ViewerSorter() {
-
-		 @Override
-		 public int compare(Viewer viewer, Object e1, Object e2) {
-			 if (e1 instanceof RequestMapping && e2 instanceof RequestMapping) {
-				 RequestMapping rm1 = (RequestMapping) e1;
-				 RequestMapping rm2 = (RequestMapping) e2;
-				 int cat1 = getCategory(rm1);
-				 int cat2 = getCategory(rm2);
-				 if (cat1!=cat2) {
-					 return cat1-cat2;
-				 } else {
-					 return rm1.getPath().compareTo(rm2.getPath());
-				 }
-			 }
-			 return 0;
-		 }
-
-		private int getCategory(RequestMapping rm) {
-			if (rm.isUserDefined()) {
-				return 0;
-			} else {
-				return 1;
-			}
-		}
-	};
 
 	public RequestMappingsSection(IPageWithSections owner, BootDashViewModel model, LiveExpression<BootDashElement> selection) {
 		super(owner);
@@ -97,9 +70,10 @@ public class RequestMappingsSection extends PageSection implements Disposable {
 	@Override
 	public void createContents(final Composite page) {
 		this.page = page;
-		this.tv = new TableViewer(page, SWT.BORDER|SWT.FULL_SELECTION|SWT.V_SCROLL);
+		//VIRTUAL: only rows that are actually shown get their labels computed. There is
+		// no sorter, the mappings come in display order (see ActuatorClient).
+		this.tv = new TableViewer(page, SWT.BORDER|SWT.FULL_SELECTION|SWT.V_SCROLL|SWT.VIRTUAL);
 		tv.setContentProvider(new ContentProvider());
-		tv.setSorter(sorter);
 //		tv.setLabelProvider(labelProvider = new RequestMappingLabelProvider(tv.getTable().getFont(), input));
 		tv.setInput(model);
 		tv.getTable().setHeaderVisible(true);
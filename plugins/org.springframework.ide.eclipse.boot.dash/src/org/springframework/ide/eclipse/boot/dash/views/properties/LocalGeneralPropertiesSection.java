@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.views.properties;
 
+import org.springframework.ide.eclipse.boot.dash.model.AbstractLaunchConfigurationsDashElement;
 import org.springframework.ide.eclipse.boot.dash.model.BootDashElement;
 
 /**
@@ -24,6 +25,7 @@ public class LocalGeneralPropertiesSection extends AbstractBdeGeneralPropertiesS
 	protected BootDashElementPropertyControl[] createPropertyControls() {
 		return new BootDashElementPropertyControl[] {
 				new RunStatePropertyControl(),
+				new ReadOnlyStringPropertyControl<>(AbstractLaunchConfigurationsDashElement.class, "Startup Time:", (e) -> e.getStartupTime()),
 				new InstancesPropertyControl(),
 				new ProjectPropertyControl(),
 				new AppPropertyControl(),
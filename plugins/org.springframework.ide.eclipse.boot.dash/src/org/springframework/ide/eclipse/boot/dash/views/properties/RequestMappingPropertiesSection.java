@@ -26,7 +26,6 @@ import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerCell;
-import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StackLayout;
 import org.eclipse.swt.events.MouseAdapter;
@@ -102,32 +101,6 @@ public class RequestMappingPropertiesSection extends AbstractBdePropertiesSectio
 	private TableViewer tv;
 	private RequestMappingLabelProvider labelProvider;
 	private Stylers stylers;
-	private ViewerComparator sorter = new ViewerComparator() {
-
-		 @Override
-		 public int compare(Viewer viewer, Object e1, Object e2) {
-			 if (e1 instanceof RequestMapping && e2 instanceof RequestMapping) {
-				 RequestMapping rm1 = (RequestMapping) e1;
-				 RequestMapping rm2 = (RequestMapping) e2;
-				 int cat1 = getCategory(rm1);
-				 int cat2 = getCategory(rm2);
-				 if (cat1!=cat2) {
-					 return cat1-cat2;
-				 } else {
-					 return rm1.getPath().compareTo(rm2.getPath());
-				 }
-			 }
-			 return 0;
-		 }
-
-		private int getCategory(RequestMapping rm) {
-			if (rm.isUserDefined()) {
-				return 0;
-			} else {
-				return 1;
-			}
-		}
-	};
 
 	public void createControls(Composite parent, TabbedPropertySheetPage aTabbedPropertySheetPage) {
 		super.createControls(parent, aTabbedPropertySheetPage);
@@ -146,8 +119,8 @@ public class RequestMappingPropertiesSection extends AbstractBdePropertiesSectio
 
 		this.tv = new TableViewer(composite, SWT.BORDER|SWT.FULL_SELECTION/*|SWT.NO_SCROLL*/);
 
+		//The mappings come in display order (see ActuatorClient)
 		tv.setContentProvider(new ContentProvider());
-		tv.setComparator(sorter);
 //		tv.setLabelProvider(labelProvider = new RequestMappingLabelProvider(tv.getTable().getFont(), input));
 		tv.setInput(getBootDashElement());
 		tv.getTable().setHeaderVisible(true);
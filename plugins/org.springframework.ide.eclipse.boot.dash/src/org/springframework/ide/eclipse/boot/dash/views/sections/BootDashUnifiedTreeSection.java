@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2016 Pivotal, Inc.
+ * Copyright (c) 2015, 2018 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,9 @@ package org.springframework.ide.eclipse.boot.dash.views.sections;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.eclipse.core.runtime.Assert;
@@ -97,6 +99,7 @@ import org.springsource.ide.eclipse.commons.ui.UiUtil;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 
 /**
  * Displays all runtargets and elements in a single 'unified' tree viewer.
@@ -128,13 +131,33 @@ public class BootDashUnifiedTreeSection extends PageSection implements MultiSele
 	private UserInteractions ui;
 	private LiveExpression<Filter<BootDashElement>> searchFilterModel;
 	private Stylers stylers;
+	private CoalescingTreeRefresher refresher;
+	private final FilterMatchCache filterMatches = new FilterMatchCache();
+
+	/**
+	 * Delay (in ms) before the filter is re-evaluated after the user changes it. Avoids
+	 * re-evaluating the filter for every keystroke typed in the search box.
+	 */
+	private static final long FILTER_DELAY = 150;
 
 	public static class BootModelViewerSorter extends ViewerSorter {
 
 		private final BootDashViewModel viewModel;
 
+		/**
+		 * Elements without a comparator of their own are sorted by keys taken from the
+		 * model, which are precomputed by the filter job. The label provider is never asked,
+		 * so sorting doesn't compute labels of rows that aren't shown.
+		 */
+		private final FilterMatchCache sortKeys;
+
 		public BootModelViewerSorter(BootDashViewModel viewModel) {
+			this(viewModel, new FilterMatchCache());
+		}
+
+		BootModelViewerSorter(BootDashViewModel viewModel, FilterMatchCache sortKeys) {
 			this.viewModel = viewModel;
+			this.sortKeys = sortKeys;
 		}
 
 		@Override
@@ -157,98 +180,175 @@ public class BootDashUnifiedTreeSection extends PageSection implements MultiSele
 			} else if (e2 instanceof ButtonModel) {
 				return +1;
 			}
-			return super.compare(viewer, e1, e2);
+			if (category(e1)!=category(e2)) {
+				return category(e1) - category(e2);
+			}
+			return getComparator().compare(sortKeys.getSortKey(e1), sortKeys.getSortKey(e2));
 		}
 	}
 
-	final private ValueListener<Filter<BootDashElement>> FILTER_LISTENER = new UIValueListener<Filter<BootDashElement>>() {
-		public void uiGotValue(LiveExpression<Filter<BootDashElement>> exp, Filter<BootDashElement> value) {
-			tv.refresh();
-			final Tree t = tv.getTree();
-			t.getDisplay().asyncExec(new Runnable() {
+	/**
+	 * Evaluates the search filter and the sort keys for all elements in the background,
+	 * then shows or hides only the rows the new filter accepts differently.
+	 */
+	private final Job filterJob = new Job("Boot Dash filter") {
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Filter<BootDashElement> filter = searchFilterModel.getValue();
+			Map<BootDashElement, Boolean> changed = filterMatches.precompute(filter, model);
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			if (refresher==null) {
+				return Status.OK_STATUS;
+			}
+			if (changed!=null) {
+				refresher.filterChanged(changed);
+			} else {
+				//Elements changed while the filter was evaluated
+				refresher.refreshAll();
+			}
+			Display.getDefault().asyncExec(new Runnable() {
 				public void run() {
-					Composite parent = t.getParent();
-					parent.layout();
+					if (tv != null && !tv.getControl().isDisposed()) {
+						refresher.flush();
+						final Tree t = tv.getTree();
+						t.getDisplay().asyncExec(new Runnable() {
+							public void run() {
+								if (!t.isDisposed()) {
+									Composite parent = t.getParent();
+									parent.layout();
+								}
+							}
+						});
+					}
 				}
 			});
+			return Status.OK_STATUS;
+		}
+	};
+
+	final private ValueListener<Filter<BootDashElement>> FILTER_LISTENER = new ValueListener<Filter<BootDashElement>>() {
+		public void gotValue(LiveExpression<Filter<BootDashElement>> exp, Filter<BootDashElement> value) {
+			filterJob.cancel();
+			filterJob.schedule(FILTER_DELAY);
 		}
 	};
 
 	final private ElementStateListener ELEMENT_STATE_LISTENER = new ElementStateListener() {
 		public void stateChanged(final BootDashElement e) {
-			Display.getDefault().asyncExec(new Runnable() {
-				public void run() {
-					if (tv != null && !tv.getControl().isDisposed()) {
-						//tv.update(e, null);
-						tv.refresh(e, true);
-						tv.getControl().redraw();
-					}
-				}
-			});
+			filterMatches.invalidate(e);
+			if (refresher!=null) {
+				refresher.refresh(e);
+			}
 		}
 	};
 
 	final private ModelStateListener MODEL_STATE_LISTENER = new ModelStateListener() {
 		public void stateChanged(final BootDashModel model) {
-			Display.getDefault().asyncExec(new Runnable() {
-				public void run() {
-					if (tv != null && !tv.getControl().isDisposed()) {
-						tv.refresh();
-						/*
-						 * TODO: ideally the above should do the repaint of
-						 * the control's area where the tree item is
-						 * located, but for some reason repaint doesn't
-						 * happen. #refresh() didn't trigger the repaint either
-						 */
-						tv.getControl().redraw();
-					} else {
-						model.removeModelStateListener(MODEL_STATE_LISTENER);
-					}
-				}
-			});
+			if (tv != null && !tv.getControl().isDisposed()) {
+				refresher.refresh(model);
+			} else {
+				model.removeModelStateListener(MODEL_STATE_LISTENER);
+			}
 		}
 	};
 
 	final private ValueListener<ImmutableSet<RunTarget>> RUN_TARGET_LISTENER = new UIValueListener<ImmutableSet<RunTarget>>() {
 		protected void uiGotValue(LiveExpression<ImmutableSet<RunTarget>> exp, ImmutableSet<RunTarget> value) {
 			if (tv != null && !tv.getControl().isDisposed()) {
-				tv.refresh();
+				refresher.refreshAll();
 			}
 		}
 	};
 
-	@SuppressWarnings({"rawtypes", "unchecked"}) //Raw types, because the types are getting in the way.
-		//This is fine because we don't really care about the values here, so we don't really care about
-		//their types either.
-	private final ValueListener ELEMENTS_SET_LISTENER = new UIValueListener() {
-		protected void uiGotValue(LiveExpression exp, Object value) {
-			if (tv != null && !tv.getControl().isDisposed()) {
-				//TODO: refreshing the whole table is overkill, but is a bit tricky to figure out which BDM
-				// this set of elements belong to. If we did know then we could just refresh the node representing its section
-				// only.
-				tv.refresh();
-			} else {
-				//This listener can't easily be removed because of the intermediary adapter that adds it to a numner of different
-				// things. So at least remove it when model remains chatty after view got disposed.
-				exp.removeListener(this);
+	/**
+	 * Tracks the children (elements and buttons) of a single section model. When they change,
+	 * the difference with the previous set of children is computed on the thread that
+	 * reports the change, and only the added / removed rows are pushed to the viewer.
+	 */
+	private class ChildrenTracker implements ValueListener<Object> {
+
+		private final BootDashModel section;
+		private ImmutableSet<Object> children;
+
+		ChildrenTracker(BootDashModel section) {
+			this.section = section;
+			this.children = currentChildren();
+		}
+
+		private ImmutableSet<Object> currentChildren() {
+			return ImmutableSet.builder()
+					.addAll(section.getButtons().getValue())
+					.addAll(section.getElements().getValue())
+					.build();
+		}
+
+		@Override
+		public void gotValue(LiveExpression<Object> exp, Object value) {
+			if (tv != null && tv.getControl().isDisposed()) {
+				//Model remains chatty after view got disposed.
+				dispose();
+				return;
+			}
+			ImmutableSet<Object> oldChildren;
+			ImmutableSet<Object> newChildren;
+			synchronized (this) {
+				oldChildren = children;
+				children = newChildren = currentChildren();
+			}
+			Set<Object> removed = Sets.difference(oldChildren, newChildren).immutableCopy();
+			for (Object r : removed) {
+				if (r instanceof BootDashElement) {
+					filterMatches.invalidate((BootDashElement) r);
+				}
+			}
+			if (refresher!=null) {
+				refresher.childrenChanged(section, Sets.difference(newChildren, oldChildren).immutableCopy(), removed);
 			}
 		}
-	};
+
+		@SuppressWarnings({ "unchecked", "rawtypes" }) //Raw types, because the listener is shared between the
+			// elements and buttons expressions which have different types. We don't care about the values here anyway.
+		void attach() {
+			section.getElements().addListener((ValueListener)this);
+			section.getButtons().addListener((ValueListener)this);
+			section.addModelStateListener(MODEL_STATE_LISTENER);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		void dispose() {
+			section.getElements().removeListener((ValueListener)this);
+			section.getButtons().removeListener((ValueListener)this);
+			section.removeModelStateListener(MODEL_STATE_LISTENER);
+		}
+	}
+
+	private final Map<BootDashModel, ChildrenTracker> childrenTrackers = new ConcurrentHashMap<>();
 
 	/**
 	 * Listener which adds element set listener to each section model.
 	 */
-	@SuppressWarnings("unchecked")
 	final private ValueListener<ImmutableSet<BootDashModel>> ELEMENTS_SET_LISTENER_ADAPTER = new ElementwiseListener<BootDashModel>() {
 		protected void added(LiveExpression<ImmutableSet<BootDashModel>> exp, BootDashModel e) {
-			e.getElements().addListener((ValueListener<ImmutableSet<BootDashElement>>) ELEMENTS_SET_LISTENER);
-			e.getButtons().addListener((ValueListener<ImmutableSet<ButtonModel>>) ELEMENTS_SET_LISTENER);
-			e.addModelStateListener(MODEL_STATE_LISTENER);
+			ChildrenTracker tracker = new ChildrenTracker(e);
+			ChildrenTracker old = childrenTrackers.put(e, tracker);
+			if (old!=null) {
+				old.dispose();
+			}
+			tracker.attach();
+			if (refresher!=null) {
+				refresher.refreshAll();
+			}
 		}
 		protected void removed(LiveExpression<ImmutableSet<BootDashModel>> exp, BootDashModel e) {
-			e.getElements().removeListener((ValueListener<ImmutableSet<BootDashElement>>) ELEMENTS_SET_LISTENER);
-			e.getButtons().removeListener((ValueListener<ImmutableSet<ButtonModel>>) ELEMENTS_SET_LISTENER);
-			e.removeModelStateListener(MODEL_STATE_LISTENER);
+			ChildrenTracker tracker = childrenTrackers.remove(e);
+			if (tracker!=null) {
+				tracker.dispose();
+			}
+			if (refresher!=null) {
+				refresher.refreshAll();
+			}
 		}
 	};
 
@@ -260,10 +360,34 @@ public class BootDashUnifiedTreeSection extends PageSection implements MultiSele
 			super(page, style);
 		}
 
+		private boolean batching = false;
+
 		@Override
 		public void refresh(Object obj) {
 			super.refresh(obj);
 			// Every sub-tree refresh should update the hidden elements label
+			if (!batching) {
+				updateHiddenElementCount();
+			}
+		}
+
+		/**
+		 * Perform a number of changes to the viewer, updating the hidden elements
+		 * label only once, at the end.
+		 */
+		public void batchRefresh(Runnable changes) {
+			getControl().setRedraw(false);
+			batching = true;
+			try {
+				changes.run();
+			} finally {
+				batching = false;
+				getControl().setRedraw(true);
+			}
+			updateHiddenElementCount();
+		}
+
+		private void updateHiddenElementCount() {
 			int totalElements = countChildren(getRoot());
 			int filteredElements = countFilteredChildren(getRoot());
 			hiddenElementCount.setValue(totalElements - filteredElements);
@@ -297,10 +421,12 @@ public class BootDashUnifiedTreeSection extends PageSection implements MultiSele
 
 	@Override
 	public void createContents(Composite page) {
-		tv = new CustomTreeViewer(page, SWT.V_SCROLL | SWT.H_SCROLL | SWT.MULTI);
+		//VIRTUAL: only compute labels for rows that are actually shown
+		tv = new CustomTreeViewer(page, SWT.V_SCROLL | SWT.H_SCROLL | SWT.MULTI | SWT.VIRTUAL);
+		refresher = new CoalescingTreeRefresher(tv);
 		tv.setExpandPreCheckFilters(true);
 		tv.setContentProvider(new BootDashTreeContentProvider());
-		tv.setSorter(new BootModelViewerSorter(this.model));
+		tv.setSorter(new BootModelViewerSorter(this.model, filterMatches));
 		tv.setInput(model);
 		tv.getTree().setLinesVisible(false);
 
@@ -388,8 +514,9 @@ public class BootDashUnifiedTreeSection extends PageSection implements MultiSele
 			tv.addFilter(new ViewerFilter() {
 				@Override
 				public boolean select(Viewer viewer, Object parentElement, Object element) {
-					if (searchFilterModel.getValue() != null && element instanceof BootDashElement) {
-						return searchFilterModel.getValue().accept((BootDashElement) element);
+					Filter<BootDashElement> filter = searchFilterModel.getValue();
+					if (filter != null && element instanceof BootDashElement) {
+						return filterMatches.accept(filter, (BootDashElement) element);
 					}
 					return true;
 				}
@@ -402,12 +529,14 @@ public class BootDashUnifiedTreeSection extends PageSection implements MultiSele
 				model.removeElementStateListener(ELEMENT_STATE_LISTENER);
 				model.getRunTargets().removeListener(RUN_TARGET_LISTENER);
 				model.getSectionModels().removeListener(ELEMENTS_SET_LISTENER_ADAPTER);
-				for (BootDashModel m : model.getSectionModels().getValue()) {
-					m.removeModelStateListener(MODEL_STATE_LISTENER);
+				for (ChildrenTracker tracker : childrenTrackers.values()) {
+					tracker.dispose();
 				}
+				childrenTrackers.clear();
 
 				if (searchFilterModel!=null) {
 					searchFilterModel.removeListener(FILTER_LISTENER);
+					filterJob.cancel();
 				}
 
 				if (actions!=null) {
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.views.sections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.swt.widgets.Display;
+import org.springframework.ide.eclipse.boot.dash.views.sections.BootDashUnifiedTreeSection.CustomTreeViewer;
+
+/**
+ * Collects refresh requests for a tree viewer from any thread and applies them together
+ * in a single UI runnable.
+ * <p>
+ * Many model changes tend to arrive in bursts (e.g. when a run target is refreshed). Rather
+ * than refreshing the tree once per event, the requests are merged: a full refresh makes all
+ * other requests redundant, subtree refreshes that are covered by a refresh of one of their
+ * ancestors are skipped, and changes to a node's children are applied as adds/removes
+ * of only the affected rows.
+ */
+class CoalescingTreeRefresher {
+
+	private static class ChildrenDelta {
+		final Set<Object> added = new LinkedHashSet<>();
+		final Set<Object> removed = new LinkedHashSet<>();
+	}
+
+	private final CustomTreeViewer tv;
+
+	//All of the below are guarded by 'this'
+	private boolean scheduled = false;
+	private boolean refreshAll = false;
+	private Set<Object> refreshes = new LinkedHashSet<>();
+	private Map<Object, ChildrenDelta> deltas = new LinkedHashMap<>();
+
+	public CoalescingTreeRefresher(CustomTreeViewer tv) {
+		this.tv = tv;
+	}
+
+	/**
+	 * Request a refresh of the whole tree.
+	 */
+	public synchronized void refreshAll() {
+		refreshAll = true;
+		schedule();
+	}
+
+	/**
+	 * Request a refresh of the subtree rooted at a given node.
+	 */
+	public synchronized void refresh(Object node) {
+		if (!refreshAll) {
+			refreshes.add(node);
+			schedule();
+		}
+	}
+
+	/**
+	 * Request that some children be added to / removed from a given node.
+	 */
+	public synchronized void childrenChanged(Object parent, Set<?> added, Set<?> removed) {
+		if (!refreshAll && !(added.isEmpty() && removed.isEmpty())) {
+			ChildrenDelta delta = deltas.get(parent);
+			if (delta==null) {
+				deltas.put(parent, delta = new ChildrenDelta());
+			}
+			for (Object a : added) {
+				if (!delta.removed.remove(a)) {
+					delta.added.add(a);
+				}
+			}
+			for (Object r : removed) {
+				if (!delta.added.remove(r)) {
+					delta.removed.add(r);
+				}
+			}
+			schedule();
+		}
+	}
+
+	/**
+	 * Request that rows be shown or hidden because the viewer's filter now accepts them
+	 * differently.
+	 *
+	 * @param accepted Maps each affected node to whether the filter accepts it now.
+	 */
+	public synchronized void filterChanged(Map<?, Boolean> accepted) {
+		Map<Object, Set<Object>> shown = new LinkedHashMap<>();
+		Map<Object, Set<Object>> hidden = new LinkedHashMap<>();
+		for (Entry<?, Boolean> e : accepted.entrySet()) {
+			Object parent = getParent(e.getKey());
+			if (parent==null) {
+				refreshAll();
+				return;
+			}
+			Map<Object, Set<Object>> rows = e.getValue() ? shown : hidden;
+			rows.computeIfAbsent(parent, p -> new LinkedHashSet<>()).add(e.getKey());
+		}
+		for (Entry<Object, Set<Object>> e : hidden.entrySet()) {
+			childrenChanged(e.getKey(), Collections.emptySet(), e.getValue());
+		}
+		for (Entry<Object, Set<Object>> e : shown.entrySet()) {
+			childrenChanged(e.getKey(), e.getValue(), Collections.emptySet());
+		}
+	}
+
+	private void schedule() {
+		if (!scheduled) {
+			scheduled = true;
+			Display.getDefault().asyncExec(this::flush);
+		}
+	}
+
+	/**
+	 * Apply all pending requests to the viewer. Must be called from the UI thread.
+	 */
+	public void flush() {
+		boolean refreshAll;
+		Set<Object> refreshes;
+		Map<Object, ChildrenDelta> deltas;
+		synchronized (this) {
+			scheduled = false;
+			refreshAll = this.refreshAll;
+			refreshes = this.refreshes;
+			deltas = this.deltas;
+			this.refreshAll = false;
+			this.refreshes = new LinkedHashSet<>();
+			this.deltas = new LinkedHashMap<>();
+		}
+		if (tv.getControl().isDisposed()) {
+			return;
+		}
+		if (refreshAll) {
+			tv.refresh();
+		} else if (!refreshes.isEmpty() || !deltas.isEmpty()) {
+			tv.batchRefresh(() -> {
+				for (Entry<Object, ChildrenDelta> e : deltas.entrySet()) {
+					Object parent = e.getKey();
+					if (!isCovered(parent, refreshes)) {
+						ChildrenDelta delta = e.getValue();
+						if (!delta.removed.isEmpty()) {
+							tv.remove(parent, delta.removed.toArray());
+						}
+						if (!delta.added.isEmpty()) {
+							tv.add(parent, delta.added.toArray());
+						}
+					}
+				}
+				for (Object node : topMost(refreshes)) {
+					tv.refresh(node, true);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Remove nodes from a set of nodes if one of their ancestors is also in the set.
+	 */
+	private List<Object> topMost(Set<Object> nodes) {
+		List<Object> topMost = new ArrayList<>(nodes.size());
+		for (Object node : nodes) {
+			if (!isCovered(getParent(node), nodes)) {
+				topMost.add(node);
+			}
+		}
+		return topMost;
+	}
+
+	/**
+	 * @return true if node or one of its ancestors is in the given set of nodes.
+	 */
+	private boolean isCovered(Object node, Set<Object> nodes) {
+		while (node!=null) {
+			if (nodes.contains(node)) {
+				return true;
+			}
+			node = getParent(node);
+		}
+		return false;
+	}
+
+	private Object getParent(Object node) {
+		return ((ITreeContentProvider)tv.getContentProvider()).getParent(node);
+	}
+
+}
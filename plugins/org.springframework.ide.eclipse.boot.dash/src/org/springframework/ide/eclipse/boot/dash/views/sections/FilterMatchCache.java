@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.views.sections;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.ide.eclipse.boot.dash.model.BootDashElement;
+import org.springframework.ide.eclipse.boot.dash.model.BootDashModel;
+import org.springframework.ide.eclipse.boot.dash.model.BootDashViewModel;
+import org.springframework.ide.eclipse.boot.dash.model.ButtonModel;
+import org.springsource.ide.eclipse.commons.livexp.util.Filter;
+
+/**
+ * Remembers which elements are accepted by the current search filter, so that the
+ * tree viewer doesn't re-evaluate the filter for every element on every refresh.
+ * Also remembers the keys the viewer sorts elements by.
+ * <p>
+ * The cached results belong to a specific filter instance and are discarded as soon
+ * as a different filter is used. Results for elements whose state changes must be
+ * invalidated explicitly.
+ * <p>
+ * Every invalidation bumps a generation counter. Results precomputed in the background
+ * are only published if no invalidation happened while they were computed, so they can
+ * never overwrite a newer invalidation with matches computed from older element state.
+ */
+class FilterMatchCache {
+
+	private static class Matches {
+		final Filter<BootDashElement> filter;
+		final ConcurrentMap<BootDashElement, Boolean> accepted = new ConcurrentHashMap<>();
+		Matches(Filter<BootDashElement> filter) {
+			this.filter = filter;
+		}
+		/**
+		 * A null filter stands for no filter, which accepts everything.
+		 */
+		boolean evaluate(BootDashElement e) {
+			return filter==null || filter.accept(e);
+		}
+	}
+
+	private volatile Matches current = new Matches(null);
+
+	private volatile ConcurrentMap<Object, String> sortKeys = new ConcurrentHashMap<>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public boolean accept(Filter<BootDashElement> filter, BootDashElement e) {
+		Matches matches = current;
+		if (matches.filter!=filter) {
+			current = matches = new Matches(filter);
+		}
+		return matches.accepted.computeIfAbsent(e, matches::evaluate);
+	}
+
+	/**
+	 * @return The key to sort an element by, when it isn't sorted by a comparator
+	 *         of its model.
+	 */
+	public String getSortKey(Object e) {
+		return sortKeys.computeIfAbsent(e, FilterMatchCache::computeSortKey);
+	}
+
+	/**
+	 * Sort keys are taken from the model rather than from the viewer's label provider,
+	 * so they can be computed on any thread.
+	 */
+	static String computeSortKey(Object e) {
+		String key;
+		if (e instanceof BootDashElement) {
+			key = ((BootDashElement) e).getName();
+		} else if (e instanceof ButtonModel) {
+			key = ((ButtonModel) e).getLabel();
+		} else {
+			key = String.valueOf(e);
+		}
+		return key==null ? "" : key;
+	}
+
+	public synchronized void invalidate(BootDashElement e) {
+		generation.incrementAndGet();
+		current.accepted.remove(e);
+		sortKeys.remove(e);
+	}
+
+	/**
+	 * Evaluate a filter and the sort keys for all elements in the view model. Meant
+	 * to be called from a background job, so that the UI thread finds all results
+	 * ready to use when it updates the viewer.
+	 *
+	 * @return The elements that the filter accepts differently than the filter used
+	 *         before, each mapped to whether it is accepted now. Or null if the results
+	 *         were not published, because elements were invalidated or another filter
+	 *         was used in the mean time.
+	 */
+	public Map<BootDashElement, Boolean> precompute(Filter<BootDashElement> filter, BootDashViewModel viewModel) {
+		long startGeneration = generation.get();
+		Matches previous = current;
+		Matches matches = new Matches(filter);
+		ConcurrentMap<Object, String> sortKeys = new ConcurrentHashMap<>();
+		Map<BootDashElement, Boolean> changed = new LinkedHashMap<>();
+		for (BootDashModel section : viewModel.getSectionModels().getValue()) {
+			for (BootDashElement e : section.getElements().getValue()) {
+				precompute(previous, matches, sortKeys, changed, e);
+			}
+		}
+		synchronized (this) {
+			//Elements invalidated in the meantime may have been evaluated in their old state
+			if (generation.get()==startGeneration && current==previous) {
+				current = matches;
+				this.sortKeys = sortKeys;
+				return changed;
+			}
+		}
+		return null;
+	}
+
+	private void precompute(Matches previous, Matches matches, Map<Object, String> sortKeys,
+			Map<BootDashElement, Boolean> changed, BootDashElement e) {
+		boolean accepted = matches.evaluate(e);
+		matches.accepted.put(e, accepted);
+		Boolean wasAccepted = previous.accepted.get(e);
+		if (wasAccepted==null) {
+			wasAccepted = previous.evaluate(e);
+		}
+		if (accepted!=wasAccepted) {
+			changed.put(e, accepted);
+		}
+		sortKeys.put(e, computeSortKey(e));
+		for (BootDashElement child : e.getCurrentChildren()) {
+			precompute(previous, matches, sortKeys, changed, child);
+		}
+	}
+
+}
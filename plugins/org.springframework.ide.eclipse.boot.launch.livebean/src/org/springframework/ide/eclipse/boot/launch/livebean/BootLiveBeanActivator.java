@@ -1,7 +1,16 @@
 package org.springframework.ide.eclipse.boot.launch.livebean;
 
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunch;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.beans.ui.livegraph.model.LiveBeansModelGenerator;
+import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
+import org.springframework.ide.eclipse.boot.launch.util.JMXClient;
+import org.springframework.ide.eclipse.boot.launch.util.JMXConnectionPool;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -27,6 +36,14 @@ public class BootLiveBeanActivator extends AbstractUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		LiveBeansModelGenerator.setConnectorFactory((url, env) -> {
+			if ((env==null || env.isEmpty()) && isLaunchedProcess(url)) {
+				//A process launched from the IDE, so its connection is already shared with other clients.
+				// User entered urls of other (possibly remote) processes are not pooled.
+				return JMXConnectionPool.getDefault().connect(url.toString(), () -> JMXConnectorFactory.connect(url, env));
+			}
+			return JMXConnectorFactory.connect(url, env);
+		});
 	}
 
 	/*
@@ -34,10 +51,27 @@ public class BootLiveBeanActivator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		LiveBeansModelGenerator.setConnectorFactory(null);
 		plugin = null;
 		super.stop(context);
 	}
 
+	/**
+	 * @return true if the url is the local JMX service url of a running Boot app launched from the IDE.
+	 */
+	private static boolean isLaunchedProcess(JMXServiceURL url) {
+		String urlString = url.toString();
+		for (ILaunch launch : DebugPlugin.getDefault().getLaunchManager().getLaunches()) {
+			if (!launch.isTerminated()) {
+				int port = BootLaunchConfigurationDelegate.getJMXPortAsInt(launch);
+				if (port>0 && urlString.equals(JMXClient.localJmxServiceUrl(port))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns the shared instance
 	 *
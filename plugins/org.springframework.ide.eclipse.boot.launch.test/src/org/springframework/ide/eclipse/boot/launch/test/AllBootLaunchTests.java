@@ -20,7 +20,9 @@ import org.junit.runners.Suite.SuiteClasses;
 	ProfileHistoryTest.class,
 	BootLaunchConfigurationDelegateTest.class,
 	BootLaunchShortcutTest.class,
-	BootGroovyScriptLaunchConfigurationDelegateTest.class
+	BootGroovyScriptLaunchConfigurationDelegateTest.class,
+	JMXConnectionPoolTest.class,
+	ClassDataSharingTest.class
 })
 public class AllBootLaunchTests {
 
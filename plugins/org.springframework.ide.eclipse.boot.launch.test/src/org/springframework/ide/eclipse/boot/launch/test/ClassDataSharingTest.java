@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.eclipse.jdt.launching.ExecutionArguments;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.ide.eclipse.boot.launch.ClassDataSharing;
+
+/**
+ * Tests for the archive bookkeeping of {@link ClassDataSharing} that doesn't need a launch.
+ */
+public class ClassDataSharingTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void majorVersion() {
+		assertEquals(8, ClassDataSharing.getMajorVersion("1.8.0_181"));
+		assertEquals(11, ClassDataSharing.getMajorVersion("11"));
+		assertEquals(13, ClassDataSharing.getMajorVersion("13.0.1"));
+		assertEquals(17, ClassDataSharing.getMajorVersion("17-ea"));
+		assertEquals(-1, ClassDataSharing.getMajorVersion(null));
+		assertEquals(-1, ClassDataSharing.getMajorVersion(""));
+		assertEquals(-1, ClassDataSharing.getMajorVersion("unknown"));
+	}
+
+	@Test
+	public void fingerprintChangesWithClasspath() throws Exception {
+		File jar = tmp.newFile("lib.jar");
+		File classes = tmp.newFolder("classes");
+		String[] classpath = { classes.getAbsolutePath(), jar.getAbsolutePath() };
+		String fingerprint = ClassDataSharing.fingerprint(classpath);
+
+		assertEquals(fingerprint, ClassDataSharing.fingerprint(classpath.clone()));
+		assertNotEquals(fingerprint, ClassDataSharing.fingerprint(new String[] { jar.getAbsolutePath(), classes.getAbsolutePath() }));
+		assertNotEquals(fingerprint, ClassDataSharing.fingerprint(new String[] { classes.getAbsolutePath() }));
+
+		//A rebuilt jar invalidates the archive
+		Files.write(jar.toPath(), new byte[] { 1, 2, 3 });
+		assertNotEquals(fingerprint, ClassDataSharing.fingerprint(classpath));
+	}
+
+	@Test
+	public void fingerprintIgnoresDirectoryContents() throws Exception {
+		File classes = tmp.newFolder("classes");
+		String[] classpath = { classes.getAbsolutePath() };
+		String fingerprint = ClassDataSharing.fingerprint(classpath);
+		new File(classes, "Foo.class").createNewFile();
+		assertEquals(fingerprint, ClassDataSharing.fingerprint(classpath));
+	}
+
+	@Test
+	public void archiveNamesDontCollide() {
+		String name = ClassDataSharing.archiveName("/demo/my app.launch");
+		assertEquals(name, ClassDataSharing.archiveName("/demo/my app.launch"));
+		assertNotEquals(name, ClassDataSharing.archiveName("/demo/my_app.launch"));
+		assertNotEquals(name, ClassDataSharing.archiveName("/other/my app.launch"));
+		assertFalse(name.contains("/"));
+	}
+
+	@Test
+	public void archivePathWithSpacesStaysOneArgument() throws Exception {
+		File archive = new File(tmp.newFolder("my workspace"), "app.jsa");
+		String vmArgs = "-Xmx512m\n"+ClassDataSharing.vmArgument(ClassDataSharing.SHARED_ARCHIVE_FILE, archive)+" -Xshare:auto";
+
+		String[] parsed = new ExecutionArguments(vmArgs, "").getVMArgumentsArray();
+		assertEquals(3, parsed.length);
+		assertEquals("-Xmx512m", parsed[0]);
+		assertEquals(ClassDataSharing.SHARED_ARCHIVE_FILE+archive.getAbsolutePath(), parsed[1].replace("\"", ""));
+		assertEquals("-Xshare:auto", parsed[2]);
+
+		String dumpArg = ClassDataSharing.vmArgument(ClassDataSharing.ARCHIVE_CLASSES_AT_EXIT, archive);
+		assertTrue(dumpArg.startsWith(ClassDataSharing.ARCHIVE_CLASSES_AT_EXIT));
+		assertEquals(1, new ExecutionArguments(dumpArg, "").getVMArgumentsArray().length);
+	}
+
+	@Test
+	public void archivePathWithoutSpacesIsNotQuoted() throws Exception {
+		File archive = new File(tmp.newFolder("workspace"), "app.jsa");
+		assertEquals(ClassDataSharing.SHARED_ARCHIVE_FILE+archive.getAbsolutePath(),
+				ClassDataSharing.vmArgument(ClassDataSharing.SHARED_ARCHIVE_FILE, archive));
+	}
+
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+import javax.management.remote.rmi.RMIConnectorServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.launch.util.JMXConnectionPool;
+
+/**
+ * Tests sharing of pooled JMX connections between the keys a process is asked for by.
+ */
+public class JMXConnectionPoolTest {
+
+	private JMXConnectorServer server;
+	private JMXConnectionPool pool = new JMXConnectionPool();
+
+	@Before
+	public void startServer() throws Exception {
+		server = JMXConnectorServerFactory.newJMXConnectorServer(new JMXServiceURL("service:jmx:rmi://"), null,
+				ManagementFactory.getPlatformMBeanServer());
+		server.start();
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		server.stop();
+	}
+
+	@Test
+	public void urlAndPidShareOneConnection() throws Exception {
+		AtomicInteger opened = new AtomicInteger();
+		String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+
+		JMXConnector byUrl = pool.connect("service:jmx:rmi:///jndi/rmi://127.0.0.1:1234/jmxrmi", factory(opened));
+		JMXConnector byPid = pool.connect(JMXConnectionPool.processKey(pid), factory(opened));
+		JMXConnector byUrlAgain = pool.connect("service:jmx:rmi:///jndi/rmi://127.0.0.1:1234/jmxrmi", factory(opened));
+
+		assertEquals(1, opened.get());
+		assertEquals(1, pool.size());
+		assertNotNull(byPid.getMBeanServerConnection().getMBeanCount());
+
+		byUrl.close();
+		byPid.close();
+		assertEquals(1, pool.size());
+		byUrlAgain.close();
+		assertEquals(0, pool.size());
+	}
+
+	@Test
+	public void secondUrlOfSameProcessIsMerged() throws Exception {
+		AtomicInteger opened = new AtomicInteger();
+		JMXConnector first = pool.connect("first-url", factory(opened));
+		JMXConnector second = pool.connect("second-url", factory(opened));
+
+		//The second connection was opened before its process was known, then dropped in favour of the first
+		assertEquals(2, opened.get());
+		assertEquals(1, pool.size());
+
+		JMXConnector third = pool.connect("second-url", factory(opened));
+		assertEquals(2, opened.get());
+
+		first.close();
+		second.close();
+		third.close();
+		assertEquals(0, pool.size());
+	}
+
+	private Callable<JMXConnector> factory(AtomicInteger opened) {
+		return () -> {
+			opened.incrementAndGet();
+			JMXConnector connector = ((RMIConnectorServer) server).toJMXConnector(null);
+			connector.connect();
+			return connector;
+		};
+	}
+
+}
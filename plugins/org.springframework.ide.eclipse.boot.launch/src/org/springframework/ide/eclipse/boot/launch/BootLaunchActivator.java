@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal, Inc.
+ * Copyright (c) 2015, 2018 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,8 @@ package org.springframework.ide.eclipse.boot.launch;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationListener;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -26,6 +28,25 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 
 	private BootLaunchConfDeleter workspaceListener;
 
+	private ClassDataSharing classDataSharing;
+
+	private final ILaunchConfigurationListener archiveDeleter = new ILaunchConfigurationListener() {
+
+		@Override
+		public void launchConfigurationRemoved(ILaunchConfiguration conf) {
+			//Also called for the old configuration when a configuration is renamed
+			getClassDataSharing().delete(conf);
+		}
+
+		@Override
+		public void launchConfigurationChanged(ILaunchConfiguration conf) {
+		}
+
+		@Override
+		public void launchConfigurationAdded(ILaunchConfiguration conf) {
+		}
+	};
+
 	public BootLaunchActivator() {
 	}
 
@@ -33,12 +54,14 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		workspaceListener = new BootLaunchConfDeleter(ResourcesPlugin.getWorkspace(), DebugPlugin.getDefault().getLaunchManager());
+		DebugPlugin.getDefault().getLaunchManager().addLaunchConfigurationListener(archiveDeleter);
 		instance = this;
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		instance = null;
+		DebugPlugin.getDefault().getLaunchManager().removeLaunchConfigurationListener(archiveDeleter);
 		if (workspaceListener!=null) {
 			workspaceListener.dispose();
 		}
@@ -49,6 +72,13 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 		return instance;
 	}
 
+	public synchronized ClassDataSharing getClassDataSharing() {
+		if (classDataSharing==null) {
+			classDataSharing = new ClassDataSharing(getStateLocation().append("cds").toFile());
+		}
+		return classDataSharing;
+	}
+
 	private static final String LIVEBEAN_SUPPORT_BUNDLE_ID = "org.springframework.ide.eclipse.boot.launch.livebean";
 	public boolean isLiveBeanSupported() {
 		for (Bundle bndl : getBundle().getBundleContext().getBundles()) {
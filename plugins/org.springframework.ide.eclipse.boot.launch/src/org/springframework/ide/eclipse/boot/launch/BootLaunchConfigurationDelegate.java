@@ -112,6 +112,20 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 
 	public static final String FAST_STARTUP = "spring.boot.fast.startup";
 
+	public static final String ENABLE_CLASS_DATA_SHARING = "spring.boot.cds.enable";
+	public static final boolean DEFAULT_ENABLE_CLASS_DATA_SHARING = false;
+
+	/**
+	 * Launch attributes used to measure how long it took for a launched app to become ready.
+	 */
+	public static final String LAUNCH_START_TIME = "spring.boot.launch.start.time";
+	public static final String STARTUP_TIME = "spring.boot.startup.time";
+
+	/**
+	 * Launch attribute marking a launch that writes a class data sharing archive when it exits.
+	 */
+	public static final String CDS_ARCHIVE_DUMP = "spring.boot.cds.dump";
+
 	private static final String PROFILE = "spring.boot.profile";
 	public static final String DEFAULT_PROFILE = "";
 
@@ -140,17 +154,24 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 	 */
 	private static final ThreadLocal<ILaunch> CURRENT_LAUNCH = new ThreadLocal<>();
 
+	/**
+	 * The classpath resolved for the current launch, so that it is only resolved once per launch.
+	 */
+	private static final ThreadLocal<String[]> CURRENT_CLASSPATH = new ThreadLocal<>();
+
 	@Override
 	public void launch(ILaunchConfiguration conf, String mode,
 			ILaunch launch, IProgressMonitor monitor) throws CoreException {
 		ensureDeletedLaunchConfTerminator();
 		launch.setAttribute(BOOT_LAUNCH_MARKER, "true");
+		launch.setAttribute(LAUNCH_START_TIME, ""+System.currentTimeMillis());
 		CURRENT_LAUNCH.set(launch);
 		try {
 			profileHistory.updateHistory(getProject(conf), getProfile(conf));
 			super.launch(conf, mode, launch, monitor);
 		} finally {
 			CURRENT_LAUNCH.remove();
+			CURRENT_CLASSPATH.remove();
 		}
 	}
 
@@ -235,6 +256,17 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 				vmArgs.append('\n');
 				vmArgs.append(fastStartupArgs);
 			}
+			// Class data sharing VM args
+			if (getEnableClassDataSharing(conf)) {
+				String cdsArgs = BootLaunchActivator.getInstance().getClassDataSharing().getVMArguments(conf, getClasspath(conf), canUseLifeCycle(conf));
+				if (cdsArgs!=null) {
+					if (cdsArgs.startsWith(ClassDataSharing.ARCHIVE_CLASSES_AT_EXIT)) {
+						CURRENT_LAUNCH.get().setAttribute(CDS_ARCHIVE_DUMP, "true");
+					}
+					vmArgs.append('\n');
+					vmArgs.append(cdsArgs);
+				}
+			}
 			return vmArgs.toString();
 		} catch (Exception e) {
 			Log.log(e);
@@ -295,6 +327,51 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 		return defaultValue;
 	}
 
+	public static boolean getEnableClassDataSharing(ILaunchConfiguration conf) {
+		try {
+			return conf.getAttribute(ENABLE_CLASS_DATA_SHARING, DEFAULT_ENABLE_CLASS_DATA_SHARING);
+		} catch (Exception e) {
+			Log.log(e);
+		}
+		return DEFAULT_ENABLE_CLASS_DATA_SHARING;
+	}
+
+	public static void setEnableClassDataSharing(ILaunchConfigurationWorkingCopy wc, boolean enable) {
+		wc.setAttribute(ENABLE_CLASS_DATA_SHARING, enable);
+	}
+
+	/**
+	 * Record the time it took for a launch to become ready. Only the first call for a given launch
+	 * has any effect.
+	 */
+	public static void recordStartupTime(ILaunch launch) {
+		String start = launch.getAttribute(LAUNCH_START_TIME);
+		if (start!=null && launch.getAttribute(STARTUP_TIME)==null) {
+			try {
+				long startupTime = System.currentTimeMillis() - Long.parseLong(start);
+				launch.setAttribute(STARTUP_TIME, ""+startupTime);
+			} catch (NumberFormatException e) {
+				Log.log(e);
+			}
+		}
+	}
+
+	/**
+	 * @return The measured startup time of a launch in milliseconds, or -1 if it is not known
+	 *         (e.g. the app hasn't become ready yet).
+	 */
+	public static long getStartupTime(ILaunch launch) {
+		String time = launch.getAttribute(STARTUP_TIME);
+		if (time!=null) {
+			try {
+				return Long.parseLong(time);
+			} catch (NumberFormatException e) {
+				Log.log(e);
+			}
+		}
+		return -1;
+	}
+
 	public static void setEnableJMX(ILaunchConfigurationWorkingCopy wc, boolean enable) {
 		wc.setAttribute(ENABLE_JMX, enable);
 	}
@@ -522,10 +599,14 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 
 	public static long getTerminationTimeoutAsLong(ILaunch launch) {
 		ILaunchConfiguration conf = launch.getLaunchConfiguration();
-		if (conf!=null) {
-			return BootLaunchConfigurationDelegate.getTerminationTimeoutAsLong(conf);
+		long timeout = conf!=null
+				? BootLaunchConfigurationDelegate.getTerminationTimeoutAsLong(conf)
+				: BootLaunchConfigurationDelegate.DEFAULT_TERMINATION_TIMEOUT;
+		if ("true".equals(launch.getAttribute(CDS_ARCHIVE_DUMP))) {
+			//Give the app time to write its class data sharing archive before it gets killed.
+			timeout = Math.max(timeout, ClassDataSharing.ARCHIVE_DUMP_TIMEOUT);
 		}
-		return BootLaunchConfigurationDelegate.DEFAULT_TERMINATION_TIMEOUT;
+		return timeout;
 	}
 
 	public static boolean supportsAnsiConsoleOutput() {
@@ -571,6 +652,18 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 
 	@Override
 	public String[] getClasspath(ILaunchConfiguration conf) throws CoreException {
+		if (CURRENT_LAUNCH.get()==null) {
+			return resolveClasspath(conf);
+		}
+		String[] classpath = CURRENT_CLASSPATH.get();
+		if (classpath==null) {
+			classpath = resolveClasspath(conf);
+			CURRENT_CLASSPATH.set(classpath);
+		}
+		return classpath;
+	}
+
+	private String[] resolveClasspath(ILaunchConfiguration conf) throws CoreException {
 		if (useThinWrapper(conf)) {
 			File thinWrapper = BootPreferences.getInstance().getThinWrapper();
 			Assert.isLegal(thinWrapper!=null, "'Use thin wrapper' option is selected, but thin wrapper is not defined");
@@ -73,6 +73,7 @@ public class BootLaunchUIModel {
 	public final LaunchTabSelectionModel<Boolean> hideFromDash;
 	public final LaunchTabSelectionModel<Boolean> ansiConsoleOutput;
 	public final LaunchTabSelectionModel<Boolean> fastStartup;
+	public final LaunchTabSelectionModel<Boolean> classDataSharing;
 	public final LaunchTabSelectionModel<Boolean> useThinWrapper;
 
 	public BootLaunchUIModel(IProfileHistory profileHistory) {
@@ -85,6 +86,7 @@ public class BootLaunchUIModel {
 		ansiConsoleOutput = CheckboxLaunchTabModel.create(ANSI_CONSOLE_OUTPUT, BootLaunchConfigurationDelegate.supportsAnsiConsoleOutput());
 		fastStartup = CheckboxLaunchTabModel.create(FAST_STARTUP, BootActivator.getDefault().getPreferenceStore()
 				.getBoolean(BootPreferences.PREF_BOOT_FAST_STARTUP_DEFAULT));
+		classDataSharing = CheckboxLaunchTabModel.create(ENABLE_CLASS_DATA_SHARING, DEFAULT_ENABLE_CLASS_DATA_SHARING);
 		Validator thinWrapperValidator = new Validator() {
 			@Override
 			protected ValidationResult compute() {
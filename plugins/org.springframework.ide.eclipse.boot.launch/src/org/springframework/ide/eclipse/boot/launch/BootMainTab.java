@@ -54,6 +54,7 @@ public class BootMainTab extends LaunchConfigurationTabWithSections implements I
 		jvmArgsSections.add(new EnableDebugSection(this, model.enableDebug));
 		jvmArgsSections.add(new HideFromBootDashSection(this, model.hideFromDash));
 		jvmArgsSections.add(new FastStartupLaunchTabSection(this, model.fastStartup));
+		jvmArgsSections.add(new DelegatingLaunchConfigurationTabSection(this, model.classDataSharing, new CheckboxSection(this, model.classDataSharing, "Class data sharing archive (Java "+ClassDataSharing.MIN_JAVA_VERSION+"+)")));
 		/*
 		 * Show UI for enabling/disabling ANSI console output only if
 		 * IDE supports ANSI console output
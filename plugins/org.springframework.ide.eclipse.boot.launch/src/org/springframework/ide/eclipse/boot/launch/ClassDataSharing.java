@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
+import org.eclipse.jdt.launching.JavaRuntime;
+import org.springframework.ide.eclipse.boot.util.Log;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Maintains an AppCDS (application class data sharing) archive per launch configuration,
+ * to speed up the class loading phase of app startup.
+ * <p>
+ * The archive is created by the JVM itself when the app exits after a launch that requests it
+ * (via '-XX:ArchiveClassesAtExit') and is reused by subsequent launches (via '-XX:SharedArchiveFile').
+ * The JVM only writes the archive on an orderly exit, so it is only requested for launches that are
+ * stopped gracefully through the JMX life cycle bean, and such launches are given
+ * {@link #ARCHIVE_DUMP_TIMEOUT} to write it before they are killed.
+ * A fingerprint of the runtime classpath (as computed by the launch configuration's classpath provider,
+ * e.g. {@link BootMavenClassPathProvider}) is stored next to the archive. When the classpath changes,
+ * the archive is discarded and regenerated on the next launch.
+ * <p>
+ * Archives are named after a hash of the launch configuration's memento, so configurations with similar
+ * names don't share an archive. The archive of a renamed or deleted configuration is removed by {@link #delete(ILaunchConfiguration)}.
+ * <p>
+ * Dynamic archives require Java 13 or later. For older JVMs no extra arguments are added.
+ */
+public class ClassDataSharing {
+
+	public static final int MIN_JAVA_VERSION = 13;
+
+	public static final String ARCHIVE_CLASSES_AT_EXIT = "-XX:ArchiveClassesAtExit=";
+
+	public static final String SHARED_ARCHIVE_FILE = "-XX:SharedArchiveFile=";
+
+	/**
+	 * Minimum time in milliseconds a launch that writes an archive is given to exit after it was asked to stop.
+	 */
+	public static final long ARCHIVE_DUMP_TIMEOUT = 60_000;
+
+	private final File archiveDir;
+
+	public ClassDataSharing(File archiveDir) {
+		this.archiveDir = archiveDir;
+	}
+
+	/**
+	 * Determine the JVM arguments to use CDS for a given launch configuration.
+	 *
+	 * @param classpath The runtime classpath the app will be launched with.
+	 * @param gracefulStop Whether the app will be stopped gracefully, so that it can write an archive at exit.
+	 * @return The extra VM arguments, or null if CDS can not be used for this launch.
+	 */
+	public String getVMArguments(ILaunchConfiguration conf, String[] classpath, boolean gracefulStop) throws CoreException {
+		if (!isSupported(JavaRuntime.computeVMInstall(conf))) {
+			return null;
+		}
+		File archive = getArchive(conf);
+		File fingerprintFile = getFingerprintFile(archive);
+		String fingerprint = fingerprint(classpath);
+		try {
+			if (archive.isFile() && fingerprintFile.isFile() && fingerprint.equals(readFingerprint(fingerprintFile))) {
+				return vmArgument(SHARED_ARCHIVE_FILE, archive)+" -Xshare:auto";
+			}
+			//Archive missing or stale: have the JVM create a fresh one when the app exits.
+			if (!gracefulStop) {
+				//A killed app never writes its archive
+				return null;
+			}
+			archiveDir.mkdirs();
+			Files.deleteIfExists(archive.toPath());
+			Files.write(fingerprintFile.toPath(), fingerprint.getBytes(StandardCharsets.UTF_8));
+			return ARCHIVE_CLASSES_AT_EXIT+archive.getAbsolutePath();
+		} catch (IOException e) {
+			Log.log(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Builds a VM argument that points an option at a file. The path is quoted when it contains
+	 * whitespace (e.g. an Eclipse workspace under 'My Documents'), so that the launch
+	 * configuration's argument parser keeps it in one piece.
+	 */
+	public static String vmArgument(String option, File file) {
+		String path = file.getAbsolutePath();
+		for (int i = 0; i < path.length(); i++) {
+			if (Character.isWhitespace(path.charAt(i))) {
+				return option+'"'+path+'"';
+			}
+		}
+		return option+path;
+	}
+
+	public File getArchive(ILaunchConfiguration conf) throws CoreException {
+		if (conf instanceof ILaunchConfigurationWorkingCopy && ((ILaunchConfigurationWorkingCopy) conf).getOriginal()!=null) {
+			conf = ((ILaunchConfigurationWorkingCopy) conf).getOriginal();
+		}
+		return new File(archiveDir, archiveName(conf.getMemento()));
+	}
+
+	/**
+	 * Deletes the archive of a launch configuration, e.g. because the configuration was renamed or deleted.
+	 */
+	public void delete(ILaunchConfiguration conf) {
+		try {
+			File archive = getArchive(conf);
+			Files.deleteIfExists(archive.toPath());
+			Files.deleteIfExists(getFingerprintFile(archive).toPath());
+		} catch (Exception e) {
+			Log.log(e);
+		}
+	}
+
+	/**
+	 * The archive file name for a launch configuration with the given memento.
+	 */
+	public static String archiveName(String memento) {
+		return Hashing.murmur3_128().hashString(memento, StandardCharsets.UTF_8).toString()+".jsa";
+	}
+
+	private File getFingerprintFile(File archive) {
+		return new File(archive.getPath()+".classpath");
+	}
+
+	private String readFingerprint(File fingerprintFile) throws IOException {
+		return new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Computes a hash of the classpath. Jar entries contribute their size and timestamp
+	 * so that a rebuilt dependency also invalidates the archive. Directories only
+	 * contribute their path, as CDS only archives classes loaded from jars.
+	 */
+	public static String fingerprint(String[] classpath) {
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		for (String entry : classpath) {
+			hasher.putString(entry, StandardCharsets.UTF_8);
+			File file = new File(entry);
+			if (file.isFile()) {
+				hasher.putLong(file.length());
+				hasher.putLong(file.lastModified());
+			}
+			hasher.putChar(File.pathSeparatorChar);
+		}
+		return hasher.hash().toString();
+	}
+
+	public static boolean isSupported(IVMInstall vm) {
+		if (vm instanceof IVMInstall2) {
+			return getMajorVersion(((IVMInstall2) vm).getJavaVersion()) >= MIN_JAVA_VERSION;
+		}
+		return false;
+	}
+
+	/**
+	 * Parse the major version from a java version string (e.g. "1.8.0_181" => 8, "13.0.1" => 13).
+	 * Returns -1 if the version can not be determined.
+	 */
+	public static int getMajorVersion(String javaVersion) {
+		if (javaVersion!=null) {
+			String[] parts = javaVersion.split("[^0-9]+");
+			try {
+				int major = Integer.parseInt(parts[0]);
+				if (major==1 && parts.length>1) {
+					major = Integer.parseInt(parts[1]);
+				}
+				return major;
+			} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				//unparseable
+			}
+		}
+		return -1;
+	}
+
+}
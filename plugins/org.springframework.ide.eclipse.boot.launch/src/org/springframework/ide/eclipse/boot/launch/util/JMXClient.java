@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.boot.launch.util;
 
 import java.io.IOException;
+import java.util.Set;
 
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
@@ -39,8 +40,12 @@ public class JMXClient implements Disposable {
 	private JMXConnector connector;
 	private MBeanServerConnection connection;
 
+	/**
+	 * Create a client for a local process exposing an mbean server on the given port.
+	 * The underlying connection is obtained from (and shared via) the {@link JMXConnectionPool}.
+	 */
 	public JMXClient(int port) throws IOException {
-		this(createLocalJmxConnector(port));
+		this(JMXConnectionPool.getDefault().connect(port));
 	}
 
 	private JMXClient(JMXConnector connector) throws IOException {
@@ -80,6 +85,13 @@ public class JMXClient implements Disposable {
 	}
 
 
+	/**
+	 * Find all the mbeans matching a given object name pattern in a single round trip.
+	 */
+	public Set<ObjectName> queryNames(String objectNamePattern) throws IOException {
+		return this.connection.queryNames(toObjectName(objectNamePattern), null);
+	}
+
 	private ObjectName toObjectName(String name) {
 		try {
 			return new ObjectName(name);
@@ -97,9 +109,16 @@ public class JMXClient implements Disposable {
 	 * @throws IOException if the connection to that server failed
 	 */
 	public static JMXConnector createLocalJmxConnector(int port) throws IOException {
-		String url = "service:jmx:rmi:///jndi/rmi://127.0.0.1:" + port + "/jmxrmi";
-		JMXServiceURL serviceUrl = new JMXServiceURL(url);
+		JMXServiceURL serviceUrl = new JMXServiceURL(localJmxServiceUrl(port));
 		return JMXConnectorFactory.connect(serviceUrl, null);
 	}
 
+	/**
+	 * @return The service url for an {@link javax.management.MBeanServer} exposed on the
+	 * current machine and the given port.
+	 */
+	public static String localJmxServiceUrl(int port) {
+		return "service:jmx:rmi:///jndi/rmi://127.0.0.1:" + port + "/jmxrmi";
+	}
+
 }
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.util;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.security.auth.Subject;
+
+/**
+ * Shares JMX connections to locally launched processes between all the
+ * clients that need one (ready state monitors, actuator clients, lifecycle
+ * managers etc.).
+ * <p>
+ * Connections are reference counted. Each call to one of the 'connect' methods
+ * returns a {@link JMXConnector} handle that must be closed by the client
+ * once it no longer needs it. The real connection is only closed when the
+ * last handle is closed. A connection that fails or is closed by the remote
+ * process is evicted from the pool, so that the next request will open a
+ * fresh connection.
+ * <p>
+ * Since remote processes may die without the connection noticing, a pooled
+ * connection that hasn't been checked recently is health checked (with a
+ * cheap remote call) before it is handed out again.
+ * <p>
+ * The same process may be asked for by its JMX service url as well as by its
+ * process id ({@link #processKey(String)}). Once connected, a connection is
+ * therefore pooled under the process id it reports, and the key it was asked
+ * for is remembered as an alias, so that all clients of a process share one
+ * connection. Aliases are forgotten together with the connection they point to.
+ */
+public class JMXConnectionPool {
+
+	private static final JMXConnectionPool DEFAULT = new JMXConnectionPool();
+
+	/**
+	 * Minimum time in ms between health checks of a pooled connection.
+	 */
+	private static final long HEALTH_CHECK_INTERVAL = 5000;
+
+	public static JMXConnectionPool getDefault() {
+		return DEFAULT;
+	}
+
+	private final Map<String, SharedConnection> connections = new HashMap<>();
+
+	/**
+	 * Maps the keys connections were asked for to the process key they are pooled under.
+	 */
+	private final Map<String, String> aliases = new HashMap<>();
+
+	/**
+	 * @return The key of a connection to the local process with the given id.
+	 */
+	public static String processKey(String pid) {
+		return "pid:" + pid;
+	}
+
+	/**
+	 * Obtain a shared connector for a local process exposing an mbean server on
+	 * the given port.
+	 */
+	public JMXConnector connect(int port) throws IOException {
+		return connect(JMXClient.localJmxServiceUrl(port), () -> JMXClient.createLocalJmxConnector(port));
+	}
+
+	/**
+	 * Obtain a shared connector identified by a given key (typically the JMX service
+	 * url of the process it connects to). The factory is only
+	 * called when there is no live connection for the key in the pool.
+	 * <p>
+	 * The factory may return null (e.g. when the process is not yet known), in which
+	 * case this method also returns null.
+	 */
+	public JMXConnector connect(String key, Callable<JMXConnector> factory) throws IOException {
+		SharedConnection shared = acquire(key);
+		if (!shared.isHealthy()) {
+			evict(shared);
+			release(shared);
+			shared = acquire(key);
+		}
+		//The connection that currently holds the caller's reference
+		SharedConnection held = shared;
+		try {
+			JMXConnector connector = held.getConnector(factory);
+			if (connector!=null) {
+				SharedConnection canonical = poolByProcess(key, held);
+				if (canonical!=held) {
+					held = canonical;
+					release(shared);
+					connector = held.getConnector(factory);
+				}
+			}
+			if (connector==null) {
+				release(held);
+				return null;
+			}
+			return new Handle(held, connector);
+		} catch (Exception e) {
+			release(held);
+			if (e instanceof IOException) {
+				throw (IOException)e;
+			} else if (e instanceof RuntimeException) {
+				throw (RuntimeException)e;
+			}
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Number of distinct connections currently held by the pool. Mostly
+	 * useful for testing.
+	 */
+	public synchronized int size() {
+		return connections.size();
+	}
+
+	/**
+	 * Moves a newly opened connection under the key of the process it is connected to.
+	 * If the pool already holds a connection to that process, a reference to the
+	 * existing one is taken and returned instead. The caller must then release its
+	 * reference to the new connection.
+	 */
+	private SharedConnection poolByProcess(String requestedKey, SharedConnection shared) {
+		String processKey = shared.getProcessKey();
+		if (processKey==null) {
+			return shared;
+		}
+		synchronized (this) {
+			if (!processKey.equals(requestedKey)) {
+				aliases.put(requestedKey, processKey);
+			}
+			if (shared.key.equals(processKey)) {
+				return shared;
+			}
+			SharedConnection existing = connections.get(processKey);
+			if (existing==null) {
+				if (connections.get(shared.key)==shared) {
+					connections.remove(shared.key);
+				}
+				shared.key = processKey;
+				connections.put(processKey, shared);
+				return shared;
+			}
+			existing.refCount++;
+			return existing;
+		}
+	}
+
+	private synchronized SharedConnection acquire(String requestedKey) {
+		String key = aliases.containsKey(requestedKey) ? aliases.get(requestedKey) : requestedKey;
+		SharedConnection shared = connections.get(key);
+		if (shared==null) {
+			shared = new SharedConnection(key);
+			connections.put(key, shared);
+		}
+		shared.refCount++;
+		return shared;
+	}
+
+	private void release(SharedConnection shared) {
+		boolean close = false;
+		synchronized (this) {
+			shared.refCount--;
+			if (shared.refCount<=0) {
+				evict(shared);
+				close = true;
+			}
+		}
+		if (close) {
+			shared.close();
+		}
+	}
+
+	private synchronized void evict(SharedConnection shared) {
+		if (connections.get(shared.key)==shared) {
+			connections.remove(shared.key);
+			aliases.values().removeIf(shared.key::equals);
+		}
+	}
+
+	/**
+	 * A pooled connection and its reference count.
+	 */
+	private class SharedConnection implements NotificationListener {
+
+		String key; //guarded by the pool
+		int refCount = 0; //guarded by the pool
+		private JMXConnector connector;
+		private long lastHealthCheck;
+		private String processKey;
+		private boolean processKeyResolved;
+
+		SharedConnection(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * @return false if the connection is known to be broken.
+		 */
+		synchronized boolean isHealthy() {
+			if (connector!=null) {
+				long now = System.currentTimeMillis();
+				if (now - lastHealthCheck >= HEALTH_CHECK_INTERVAL) {
+					try {
+						connector.getMBeanServerConnection().getMBeanCount();
+						lastHealthCheck = now;
+					} catch (IOException e) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return The {@link JMXConnectionPool#processKey(String) key} of the process this
+		 * is connected to, or null if the process doesn't tell its id.
+		 */
+		synchronized String getProcessKey() {
+			if (!processKeyResolved && connector!=null) {
+				processKeyResolved = true;
+				try {
+					//The runtime name of a HotSpot VM is 'pid@hostname'
+					Object name = connector.getMBeanServerConnection().getAttribute(
+							new ObjectName(ManagementFactory.RUNTIME_MXBEAN_NAME), "Name");
+					if (name instanceof String) {
+						int at = ((String) name).indexOf('@');
+						if (at>0) {
+							processKey = processKey(((String) name).substring(0, at));
+						}
+					}
+				} catch (Exception e) {
+					//Not a HotSpot VM or no permission, keep the connection under the requested key
+				}
+			}
+			return processKey;
+		}
+
+		synchronized JMXConnector getConnector(Callable<JMXConnector> factory) throws Exception {
+			if (connector==null) {
+				JMXConnector c = factory.call();
+				if (c==null) {
+					return null;
+				}
+				c.addConnectionNotificationListener(this, null, null);
+				connector = c;
+				lastHealthCheck = System.currentTimeMillis();
+			}
+			return connector;
+		}
+
+		@Override
+		public void handleNotification(Notification notification, Object handback) {
+			String type = notification.getType();
+			if (JMXConnectionNotification.FAILED.equals(type) || JMXConnectionNotification.CLOSED.equals(type)) {
+				//Make sure nobody else gets handed this connection. Current holders
+				// still own their handles and will release them as usual.
+				evict(this);
+			}
+		}
+
+		synchronized void close() {
+			if (connector!=null) {
+				try {
+					connector.removeConnectionNotificationListener(this);
+				} catch (ListenerNotFoundException e) {
+					//ignore
+				}
+				try {
+					connector.close();
+				} catch (IOException e) {
+					//Ignore - process might be dead already
+				}
+				connector = null;
+			}
+		}
+	}
+
+	/**
+	 * The connector handed out to clients. Delegates everything to the shared
+	 * connector, except for {@link #close()} which releases a reference.
+	 */
+	private class Handle implements JMXConnector {
+
+		private final SharedConnection shared;
+		private final JMXConnector delegate;
+		private boolean closed = false;
+
+		Handle(SharedConnection shared, JMXConnector delegate) {
+			this.shared = shared;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void connect() throws IOException {
+			delegate.connect();
+		}
+
+		@Override
+		public void connect(Map<String, ?> env) throws IOException {
+			delegate.connect(env);
+		}
+
+		@Override
+		public MBeanServerConnection getMBeanServerConnection() throws IOException {
+			return delegate.getMBeanServerConnection();
+		}
+
+		@Override
+		public MBeanServerConnection getMBeanServerConnection(Subject delegationSubject) throws IOException {
+			return delegate.getMBeanServerConnection(delegationSubject);
+		}
+
+		@Override
+		public void close() throws IOException {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+			}
+			release(shared);
+		}
+
+		@Override
+		public void addConnectionNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+			delegate.addConnectionNotificationListener(listener, filter, handback);
+		}
+
+		@Override
+		public void removeConnectionNotificationListener(NotificationListener listener) throws ListenerNotFoundException {
+			delegate.removeConnectionNotificationListener(listener);
+		}
+
+		@Override
+		public void removeConnectionNotificationListener(NotificationListener l, NotificationFilter f, Object handback) throws ListenerNotFoundException {
+			delegate.removeConnectionNotificationListener(l, f, handback);
+		}
+
+		@Override
+		public String getConnectionId() throws IOException {
+			return delegate.getConnectionId();
+		}
+	}
+
+}
@@ -47,7 +47,7 @@ public class SpringApplicationLifeCycleClientManager {
 			throw new IllegalStateException("JMX port not specified");
 		}
 		try {
-			return JMXClient.createLocalJmxConnector(port);
+			return JMXConnectionPool.getDefault().connect(port);
 		} catch (IOException e) {
 			return null;
 		}
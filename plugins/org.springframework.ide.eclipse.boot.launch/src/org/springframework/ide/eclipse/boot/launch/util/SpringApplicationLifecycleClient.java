@@ -14,11 +14,18 @@ import java.io.IOException;
 
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanException;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
+import javax.management.MBeanServerNotification;
 import javax.management.MalformedObjectNameException;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
+import javax.management.relation.MBeanServerNotificationFilter;
+
+import org.springsource.ide.eclipse.commons.livexp.ui.Disposable;
 
 /**
  * A JMX client for the {@code SpringApplicationLifecycle} mbean. Permits to obtain
@@ -71,6 +78,30 @@ public class SpringApplicationLifecycleClient {
 		}
 	}
 
+	/**
+	 * Register a callback that is called whenever an mbean is registered with the
+	 * application's mbean server. Registrations happen while the application
+	 * context is starting up, so this is a cheap signal that the application is
+	 * making progress towards the 'ready' state.
+	 *
+	 * @return A {@link Disposable} that removes the listener again.
+	 */
+	public Disposable onMBeanRegistered(Runnable callback) throws Exception {
+		MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+		filter.enableAllObjectNames();
+		filter.disableAllTypes();
+		filter.enableType(MBeanServerNotification.REGISTRATION_NOTIFICATION);
+		NotificationListener listener = (notification, handback) -> callback.run();
+		this.connection.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, filter, null);
+		return () -> {
+			try {
+				this.connection.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener);
+			} catch (ListenerNotFoundException | InstanceNotFoundException | IOException e) {
+				//ignore: connection already gone
+			}
+		};
+	}
+
 	public int getProperty(String prop, int defaultValue) throws InstanceNotFoundException, MBeanException, ReflectionException, IOException {
 		Object o = this.connection.invoke(this.objectName,"getProperty",
 				new String[] {prop},
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 Spring IDE Developers
+ * Copyright (c) 2005, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,8 +23,10 @@ import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 import org.osgi.framework.BundleContext;
 import org.springframework.ide.eclipse.core.internal.model.SpringModel;
+import org.springframework.ide.eclipse.core.io.xml.XercesDocumentLoader;
 import org.springframework.ide.eclipse.core.java.ITypeStructureCache;
 import org.springframework.ide.eclipse.core.java.TypeStructureCache;
+import org.springframework.ide.eclipse.core.java.classreading.ProjectMetadataReaderCache;
 import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReaderFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
@@ -74,6 +76,12 @@ public class SpringCore extends Plugin {
 	/** Temporally setting to enable or disable the use of XBean's non-locking classloader infrastructure */
 	public static final String USE_NON_LOCKING_CLASSLOADER = PLUGIN_ID + ".useNonLockingClassLoader";
 
+	/** Setting to enable or disable validating several resources concurrently */
+	public static final String USE_PARALLEL_VALIDATION = PLUGIN_ID + ".useParallelValidation";
+
+	/** Setting to enable or disable collecting timings of validation rules and resources */
+	public static final String USE_VALIDATION_PROFILING = PLUGIN_ID + ".useValidationProfiling";
+
 	/** The shared instance */
 	private static SpringCore plugin;
 
@@ -97,7 +105,8 @@ public class SpringCore extends Plugin {
 		model = new SpringModel();
 		typeStructureCache = new TypeStructureCache();
 
-		typeHierarchyEngine = new TypeHierarchyEngine(true);
+		// lookups of concurrent validators and builders share the class readers; idle jars are closed on their own
+		typeHierarchyEngine = new TypeHierarchyEngine(false);
 		typeHierarchyEngine.setClassReaderFactory(new BytecodeTypeHierarchyClassReaderFactory());
 		typeHierarchyEngine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
 
@@ -121,12 +130,17 @@ public class SpringCore extends Plugin {
 		plugin.getPluginPreferences().setDefault(USE_CHANGE_DETECTION_IN_JAVA_FILES, true);
 		// non.locking classloader is not enabled by default
 		plugin.getPluginPreferences().setDefault(USE_NON_LOCKING_CLASSLOADER, false);
+		// parallel validation is not enabled by default
+		plugin.getPluginPreferences().setDefault(USE_PARALLEL_VALIDATION, false);
+		plugin.getPluginPreferences().setDefault(USE_VALIDATION_PROFILING, false);
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		model.shutdown();
 		typeStructureCache.shutdown();
+		XercesDocumentLoader.shutdown();
+		ProjectMetadataReaderCache.getDefault().shutdown();
 		super.stop(context);
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2012 Spring IDE Developers
+ * Copyright (c) 2008, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.springframework.ide.eclipse.core.internal.model.validation;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -94,6 +95,14 @@ public class SpringValidator extends AbstractValidator {
 		return resources;
 	}
 
+	/**
+	 * Reconciles the markers of the default cleanup instead of recreating them.
+	 */
+	@Override
+	protected IMarker[] findExistingMarkers(IResource resource) throws CoreException {
+		return findDefaultCleanupMarkers(resource);
+	}
+
 	private static class SpringValidationElementLifecycleManager implements
 			IValidationElementLifecycleManager {
 
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+
+/**
+ * Remembers a hash of the content of every file of a project that was relevant to a builder or validator during the
+ * last successful build, so that subsequent builds can ignore changes that leave the content of a file untouched (e.g.
+ * touching a file, switching to a Git branch with an identical version of the file or Maven copying resources).
+ * <p>
+ * The hashes are only valid together with the dependency fingerprint they were recorded with. The fingerprint
+ * covers the resolved classpath of the project (including size and timestamp of archives) and the enabled builders
+ * and validators. If it changes, all hashes are discarded. Dependencies between files (e.g. a bean config importing
+ * another one) don't need to be covered: a file that really changed is never skipped, so contributors still see it and
+ * can compute the files depending on it.
+ * <p>
+ * The hashes are persisted per project in the state location of the core plugin.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ResourceContentHashes {
+
+	private static final String FINGERPRINT_KEY = "#fingerprint";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final File store;
+
+	private final String fingerprint;
+
+	private final Properties hashes = new Properties();
+
+	/** Hashes computed during the current build; only written back if the build completes */
+	private final Map<String, String> pending = new HashMap<String, String>();
+
+	private final Set<String> removed = new HashSet<String>();
+
+	private ResourceContentHashes(File store, String fingerprint) {
+		this.store = store;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Loads the hashes recorded for the given project. Hashes recorded with a different dependency fingerprint are
+	 * ignored.
+	 */
+	public static ResourceContentHashes load(IProject project, Set<String> contributorIds) {
+		File dir = SpringCore.getDefault().getStateLocation().append("content-hashes").toFile();
+		ResourceContentHashes contentHashes = new ResourceContentHashes(new File(dir, project.getName()
+				+ ".properties"), computeFingerprint(project, contributorIds));
+		contentHashes.read();
+		return contentHashes;
+	}
+
+	/**
+	 * Returns <code>true</code> if the content of the given file is known to be the same as during the last
+	 * successful build. Files that weren't relevant to any contributor during that build are never reported as
+	 * unchanged (and aren't even read).
+	 */
+	public synchronized boolean isUnchanged(IFile file) {
+		String key = file.getProjectRelativePath().toString();
+		String recorded = hashes.getProperty(key);
+		if (recorded == null) {
+			return false;
+		}
+		String hash = getHash(key, file);
+		return hash != null && hash.equals(recorded);
+	}
+
+	/**
+	 * Remembers the current content hash of a file that is relevant to a contributor. The hash is written back by
+	 * {@link #save()}.
+	 */
+	public synchronized void record(IFile file) {
+		getHash(file.getProjectRelativePath().toString(), file);
+	}
+
+	/**
+	 * Forgets the hash of a deleted file.
+	 */
+	public synchronized void remove(IFile file) {
+		removed.add(file.getProjectRelativePath().toString());
+	}
+
+	/**
+	 * Forgets all previously recorded hashes; used for full builds which process every file anyway.
+	 */
+	public synchronized void reset() {
+		hashes.clear();
+		store.delete();
+	}
+
+	/**
+	 * Persists the hashes of all files recorded during a build that completed successfully. The store is only
+	 * rewritten if the build recorded a new hash or removed a file.
+	 * @return <code>true</code> if the store had to be written
+	 */
+	public synchronized boolean save() {
+		boolean changed = !fingerprint.equals(hashes.getProperty(FINGERPRINT_KEY));
+		for (String key : removed) {
+			changed |= hashes.remove(key) != null;
+		}
+		for (Map.Entry<String, String> entry : pending.entrySet()) {
+			changed |= !entry.getValue().equals(hashes.setProperty(entry.getKey(), entry.getValue()));
+		}
+		if (changed) {
+			hashes.setProperty(FINGERPRINT_KEY, fingerprint);
+			write();
+		}
+		return changed;
+	}
+
+	/**
+	 * Forgets the hashes of all files seen during a build that didn't complete. Their markers might reflect a
+	 * partial validation, so they must not be skipped by the next build, even if their content is restored.
+	 */
+	public synchronized void discard() {
+		boolean changed = false;
+		for (String key : pending.keySet()) {
+			changed |= hashes.remove(key) != null;
+		}
+		if (changed) {
+			write();
+		}
+	}
+
+	private String getHash(String key, IFile file) {
+		String hash = pending.get(key);
+		if (hash == null) {
+			hash = hash(file);
+			if (hash != null) {
+				pending.put(key, hash);
+			}
+		}
+		return hash;
+	}
+
+	private void read() {
+		if (store.isFile()) {
+			InputStream in = null;
+			try {
+				in = new FileInputStream(store);
+				hashes.load(in);
+			}
+			catch (IOException e) {
+				SpringCore.log("Error reading content hashes from '" + store + "'", e);
+				hashes.clear();
+			}
+			finally {
+				close(in);
+			}
+			if (!fingerprint.equals(hashes.getProperty(FINGERPRINT_KEY))) {
+				hashes.clear();
+			}
+		}
+	}
+
+	private void write() {
+		store.getParentFile().mkdirs();
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(store);
+			hashes.store(out, null);
+		}
+		catch (IOException e) {
+			SpringCore.log("Error writing content hashes to '" + store + "'", e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	private static String hash(IFile file) {
+		InputStream in = null;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			in = file.getContents(true);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			return toHex(digest.digest());
+		}
+		catch (CoreException e) {
+			// file is out of sync or gone -> treat as changed
+			return null;
+		}
+		catch (IOException e) {
+			return null;
+		}
+		catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+		finally {
+			close(in);
+		}
+	}
+
+	private static String computeFingerprint(IProject project, Set<String> contributorIds) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (String id : contributorIds) {
+				update(digest, id);
+			}
+			IJavaProject javaProject = JdtUtils.getJavaProject(project);
+			if (javaProject != null) {
+				for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+					update(digest, entry.getPath().toString());
+					if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+						File archive = entry.getPath().toFile();
+						if (archive.isFile()) {
+							update(digest, archive.length() + ":" + archive.lastModified());
+						}
+					}
+				}
+			}
+			return toHex(digest.digest());
+		}
+		catch (JavaModelException e) {
+			// no reliable fingerprint -> never reuse any hashes
+			return Long.toString(System.nanoTime());
+		}
+		catch (NoSuchAlgorithmException e) {
+			return Long.toString(System.nanoTime());
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+
+	private static void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+}
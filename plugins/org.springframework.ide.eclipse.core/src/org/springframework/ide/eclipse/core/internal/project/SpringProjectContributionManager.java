@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IFile;
@@ -55,6 +56,9 @@ import org.springframework.ide.eclipse.core.project.ProjectContributionEventList
  * <p>
  * {@link IProjectBuilder} or {@link IValidator} implementations that want to access the state should implement the
  * {@link IProjectContributorStateAware} interface to a call back with the current state.
+ * <p>
+ * Changed files whose content is the same as during the last successful build (see {@link ResourceContentHashes})
+ * are not passed to any {@link IProjectContributor}.
  * 
  * @author Torsten Juergeleit
  * @author Christian Dupuis
@@ -105,6 +109,12 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		Object removed = classpathChanged.remove(project.getName());
 		final int buildKind = removed != null ? IncrementalProjectBuilder.FULL_BUILD : kind;
 		
+		final ResourceContentHashes contentHashes = ResourceContentHashes.load(project,
+				getEnabledContributorIds(project, builderDefinitions, validatorDefinitions));
+		if (delta == null || buildKind == IncrementalProjectBuilder.FULL_BUILD) {
+			contentHashes.reset();
+		}
+
 		// Fire start event on listeners
 		for (final IProjectContributionEventListener listener : listeners) {
 			execute(new SafeExecutableWithMonitor() {
@@ -119,7 +129,7 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		for (ProjectBuilderDefinition builderDefinition : builderDefinitions) {
 			if (builderDefinition.isEnabled(project)) {
 				Set<IResource> affectedResources = getAffectedResources(builderDefinition.getProjectBuilder(), project,
-						buildKind, delta);
+						buildKind, delta, contentHashes);
 				runBuilder(builderDefinition, affectedResources, buildKind, monitor, listeners);
 			}
 		}
@@ -127,7 +137,8 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		// Finally run all validators
 		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
 			if (validatorDefinition.isEnabled(project)) {
-				Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project, buildKind, delta);
+				Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project,
+						buildKind, delta, contentHashes);
 				runValidator(validatorDefinition, affectedResources, buildKind, monitor, listeners);
 			}
 		}
@@ -141,22 +152,45 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 			}, monitor);
 		}
 
+		if (monitor.isCanceled()) {
+			contentHashes.discard();
+		}
+		else {
+			contentHashes.save();
+		}
+
 		return null;
 	}
 
+	private Set<String> getEnabledContributorIds(IProject project, List<ProjectBuilderDefinition> builderDefinitions,
+			List<ValidatorDefinition> validatorDefinitions) {
+		Set<String> ids = new TreeSet<String>();
+		for (ProjectBuilderDefinition builderDefinition : builderDefinitions) {
+			if (builderDefinition.isEnabled(project)) {
+				ids.add(builderDefinition.getId());
+			}
+		}
+		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
+			if (validatorDefinition.isEnabled(project)) {
+				ids.add(validatorDefinition.getID());
+			}
+		}
+		return ids;
+	}
+
 	/**
 	 * Collects all affected resources from the given {@link IResourceDelta} and {@link IProjectContributor}.
 	 */
 	private Set<IResource> getAffectedResources(IProjectContributor contributor, IProject project, int kind,
-			IResourceDelta delta) throws CoreException {
+			IResourceDelta delta, ResourceContentHashes contentHashes) throws CoreException {
 		Set<IResource> affectedResources;
 		if (delta == null || kind == IncrementalProjectBuilder.FULL_BUILD) {
-			ResourceTreeVisitor visitor = new ResourceTreeVisitor(contributor);
+			ResourceTreeVisitor visitor = new ResourceTreeVisitor(contributor, contentHashes);
 			project.accept(visitor);
 			affectedResources = visitor.getResources();
 		}
 		else {
-			ResourceDeltaVisitor visitor = new ResourceDeltaVisitor(contributor, kind);
+			ResourceDeltaVisitor visitor = new ResourceDeltaVisitor(contributor, kind, contentHashes);
 			delta.accept(visitor);
 			affectedResources = visitor.getResources();
 		}
@@ -313,10 +347,17 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 
 		private Set<IResource> resources;
 
+		private ResourceContentHashes contentHashes;
+
 		public ResourceDeltaVisitor(IProjectContributor builder, int kind) {
+			this(builder, kind, null);
+		}
+
+		ResourceDeltaVisitor(IProjectContributor builder, int kind, ResourceContentHashes contentHashes) {
 			this.contributor = builder;
 			this.resources = new LinkedHashSet<IResource>();
 			this.kind = kind;
+			this.contentHashes = contentHashes;
 		}
 
 		public Set<IResource> getResources() {
@@ -341,19 +382,34 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 			}
 			else if (resource instanceof IFile) {
 				switch (aDelta.getKind()) {
-				case IResourceDelta.ADDED:
 				case IResourceDelta.CHANGED:
-					resources.addAll(contributor.getAffectedResources(resource, kind, aDelta.getKind()));
+					if (contentHashes != null && (aDelta.getFlags() & IResourceDelta.CONTENT) != 0
+							&& contentHashes.isUnchanged((IFile) resource)) {
+						break;
+					}
+					// fall through
+				case IResourceDelta.ADDED:
+					addAffectedResources(resource, contributor.getAffectedResources(resource, kind, aDelta.getKind()));
 					visitChildren = true;
 					break;
 
 				case IResourceDelta.REMOVED:
 					resources.addAll(contributor.getAffectedResources(resource, kind, aDelta.getKind()));
+					if (contentHashes != null) {
+						contentHashes.remove((IFile) resource);
+					}
 					break;
 				}
 			}
 			return visitChildren;
 		}
+
+		private void addAffectedResources(IResource file, Set<IResource> affectedResources) {
+			resources.addAll(affectedResources);
+			if (contentHashes != null && !affectedResources.isEmpty()) {
+				contentHashes.record((IFile) file);
+			}
+		}
 	}
 
 	/**
@@ -365,9 +421,16 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 
 		private Set<IResource> resources;
 
+		private ResourceContentHashes contentHashes;
+
 		public ResourceTreeVisitor(IProjectContributor builder) {
+			this(builder, null);
+		}
+
+		ResourceTreeVisitor(IProjectContributor builder, ResourceContentHashes contentHashes) {
 			this.contributor = builder;
 			this.resources = new LinkedHashSet<IResource>();
+			this.contentHashes = contentHashes;
 		}
 
 		public Set<IResource> getResources() {
@@ -376,8 +439,12 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 
 		public boolean visit(IResource resource) throws CoreException {
 			if (resource instanceof IFile) {
-				resources.addAll(contributor.getAffectedResources(resource, IncrementalProjectBuilder.FULL_BUILD,
-						IResourceDelta.CHANGED));
+				Set<IResource> affectedResources = contributor.getAffectedResources(resource,
+						IncrementalProjectBuilder.FULL_BUILD, IResourceDelta.CHANGED);
+				resources.addAll(affectedResources);
+				if (contentHashes != null && !affectedResources.isEmpty()) {
+					contentHashes.record((IFile) resource);
+				}
 			}
 			else if (resource instanceof IProject) {
 				resources.addAll(contributor.getAffectedResources(resource, IncrementalProjectBuilder.FULL_BUILD,
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 Spring IDE Developers
+ * Copyright (c) 2005, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,12 +14,14 @@ import java.util.Map;
 import java.util.WeakHashMap;
 
 import org.apache.xerces.parsers.DOMParser;
+import org.apache.xerces.util.SymbolTable;
 import org.apache.xerces.xni.Augmentations;
 import org.apache.xerces.xni.NamespaceContext;
 import org.apache.xerces.xni.QName;
 import org.apache.xerces.xni.XMLAttributes;
 import org.apache.xerces.xni.XMLLocator;
 import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
@@ -42,6 +44,16 @@ public class LineNumberPreservingDOMParser extends DOMParser {
 		setFeature(DEFER_NODE_EXPANSION, false);
 	}
 
+	/**
+	 * Creates a parser that looks up and caches grammars in the given pool. All parsers sharing a grammar pool must
+	 * share the symbol table as well.
+	 * @since 3.9.7
+	 */
+	public LineNumberPreservingDOMParser(SymbolTable symbolTable, XMLGrammarPool grammarPool) throws SAXException {
+		super(symbolTable, grammarPool);
+		setFeature(DEFER_NODE_EXPANSION, false);
+	}
+
 	public static final int getStartLineNumber(Node node) {
 		return getLineNumberFromUserData(node, START_LINE);
 	}
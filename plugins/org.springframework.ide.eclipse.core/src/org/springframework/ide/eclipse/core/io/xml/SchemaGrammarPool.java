@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.io.xml;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.grammars.XMLSchemaDescription;
+
+/**
+ * Thread-safe {@link XMLGrammarPool} for XML schemas that caches grammars by namespace <b>and</b> schema location.
+ * <p>
+ * Xerces' own pool implementation identifies schema grammars by their namespace only, which would hand out e.g. the
+ * grammar of <code>spring-beans-4.3.xsd</code> to a config referring to <code>spring-beans-2.5.xsd</code>. Grammars
+ * that are referred to by a relative location or without any location are not cached, as their identity depends on
+ * the referring document.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class SchemaGrammarPool implements XMLGrammarPool {
+
+	private static final Grammar[] NO_GRAMMARS = new Grammar[0];
+
+	private final ConcurrentMap<String, Grammar> grammars = new ConcurrentHashMap<String, Grammar>();
+
+	private volatile boolean locked;
+
+	public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+		// grammars are only handed out on request, see retrieveGrammar
+		return NO_GRAMMARS;
+	}
+
+	public void cacheGrammars(String grammarType, Grammar[] grammarsToCache) {
+		if (locked || grammarsToCache == null) {
+			return;
+		}
+		for (Grammar grammar : grammarsToCache) {
+			String key = getKey(grammar.getGrammarDescription());
+			if (key != null) {
+				grammars.putIfAbsent(key, grammar);
+			}
+		}
+	}
+
+	public Grammar retrieveGrammar(XMLGrammarDescription description) {
+		String key = getKey(description);
+		return key != null ? grammars.get(key) : null;
+	}
+
+	public void lockPool() {
+		locked = true;
+	}
+
+	public void unlockPool() {
+		locked = false;
+	}
+
+	public void clear() {
+		grammars.clear();
+	}
+
+	/**
+	 * Returns the key a grammar of the given description is cached by, or <code>null</code> if it can't be cached.
+	 */
+	public static String getKey(XMLGrammarDescription description) {
+		if (!(description instanceof XMLSchemaDescription)) {
+			return null;
+		}
+		String location = description.getLiteralSystemId();
+		if (location == null) {
+			String[] locationHints = ((XMLSchemaDescription) description).getLocationHints();
+			if (locationHints != null && locationHints.length > 0) {
+				location = locationHints[0];
+			}
+		}
+		if (location == null || location.indexOf(':') < 0) {
+			return null;
+		}
+		String namespace = description.getNamespace();
+		return (namespace != null ? namespace : "") + ' ' + location;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 Spring IDE Developers
+ * Copyright (c) 2006, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,10 +10,21 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.io.xml;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.xerces.util.SymbolTable;
+import org.apache.xerces.util.SynchronizedSymbolTable;
+import org.eclipse.core.resources.IProject;
 import org.springframework.beans.factory.xml.DocumentLoader;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.java.ClassUtils;
+import org.springframework.ide.eclipse.core.java.ClasspathChangeListener;
 import org.w3c.dom.Document;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
@@ -23,16 +34,54 @@ import org.xml.sax.SAXNotSupportedException;
 
 /**
  * A {@link DocumentLoader} implementation which loads {@link Document documents} using Apache's Xerces XML parser.
+ * <p>
+ * Loaders created for a project share compiled XML schemas and parser instances with all other loaders for the same
+ * project, see {@link #XercesDocumentLoader(IProject, ClassLoader)}.
  * @author Torsten Juergeleit
  * @author Christian Dupuis
  * @auhtor Christian Dupuis
  */
 public class XercesDocumentLoader implements DocumentLoader {
 
+	/** Shared parsers by project name, kind of schema class loader and classpath generation */
+	private static final ConcurrentMap<String, ParserPool> PARSER_POOLS = new ConcurrentHashMap<String, ParserPool>();
+
+	/** Classpath generations by project name; bumped whenever schemas on the classpath of a project may have changed */
+	private static final ConcurrentMap<String, AtomicInteger> CLASSPATH_GENERATIONS = new ConcurrentHashMap<String, AtomicInteger>();
+
+	private static final ClasspathChangeListener SCHEMA_CHANGE_LISTENER = new ClasspathChangeListener("xsd", "jar") {
+
+		@Override
+		protected void filesChanged(Set<IProject> projects) {
+			for (IProject project : projects) {
+				discardSharedSchemas(project);
+			}
+		}
+	};
+
+	private final ParserPool parserPool;
+
+	public XercesDocumentLoader() {
+		this.parserPool = null;
+	}
+
+	/**
+	 * Creates a loader that reuses parsers and compiled XML schemas of earlier loads for the given project. The given
+	 * class loader is the one used to resolve schemas. Compiled schemas are discarded before the next build once a
+	 * schema file or a library of the project or of a project it depends on changed, and as soon as the classpath of
+	 * one of these projects changes.
+	 * @since 3.9.7
+	 */
+	public XercesDocumentLoader(IProject project, ClassLoader schemaClassLoader) {
+		this.parserPool = getParserPool(project, schemaClassLoader);
+	}
+
 	public Document loadDocument(InputSource inputSource, EntityResolver entityResolver, ErrorHandler errorHandler,
 			int validationMode, boolean namespaceAware) throws Exception {
 		try {
-			LineNumberPreservingDOMParser parser = new LineNumberPreservingDOMParser();
+			// Only XSD based documents benefit from shared grammars, all others use a parser of their own
+			boolean pooled = (parserPool != null && validationMode == XmlBeanDefinitionReader.VALIDATION_XSD);
+			LineNumberPreservingDOMParser parser = (pooled ? parserPool.acquire() : new LineNumberPreservingDOMParser());
 			parser.setEntityResolver(entityResolver);
 			parser.setErrorHandler(errorHandler);
 			
@@ -46,7 +95,12 @@ public class XercesDocumentLoader implements DocumentLoader {
 				}
 			}
 			parser.parse(inputSource);
-			return parser.getDocument();
+			Document document = parser.getDocument();
+
+			if (pooled) {
+				parserPool.release(parser);
+			}
+			return document;
 		}
 		catch (LinkageError e) {
 			logXercesLocation(e);
@@ -61,6 +115,30 @@ public class XercesDocumentLoader implements DocumentLoader {
 		}
 	}
 
+	/**
+	 * Discards the shared parsers and compiled schemas of the given project, e.g. because schemas on its classpath
+	 * changed. Loaders created before keep using their parsers, but don't share them with later loaders.
+	 * @since 3.9.7
+	 */
+	public static void discardSharedSchemas(IProject project) {
+		getClasspathGeneration(project.getName()).incrementAndGet();
+		String keyPrefix = project.getName() + '|';
+		for (String key : PARSER_POOLS.keySet()) {
+			if (key.startsWith(keyPrefix)) {
+				PARSER_POOLS.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Stops listening for schema and classpath changes and discards all shared parsers and compiled schemas.
+	 * @since 3.9.7
+	 */
+	public static void shutdown() {
+		SCHEMA_CHANGE_LISTENER.unregister();
+		PARSER_POOLS.clear();
+	}
+
 	/**
 	 * Logs the location of the Xerces XML parser's class {@link org.apache.xerces.impl.Version} to the error log.
 	 */
@@ -70,4 +148,72 @@ public class XercesDocumentLoader implements DocumentLoader {
 				.getClassVersion(xercesVersion), ClassUtils.getClassLocation(xercesVersion), ClassUtils
 				.getClassLoaderHierachy(xercesVersion)), throwable);
 	}
+
+	private static ParserPool getParserPool(IProject project, ClassLoader schemaClassLoader) {
+		SCHEMA_CHANGE_LISTENER.register();
+
+		// Project class loaders are created anew on every request, so only tell schemas from the project's classpath
+		// apart from the ones shipped with the IDE; the generation tells the classpaths of a project apart
+		String key = project.getName() + '|' + schemaClassLoader.getClass().getName() + '|'
+				+ getClasspathGeneration(project.getName()).get();
+		ParserPool pool = PARSER_POOLS.get(key);
+		if (pool == null) {
+			ParserPool newPool = new ParserPool();
+			pool = PARSER_POOLS.putIfAbsent(key, newPool);
+			if (pool == null) {
+				pool = newPool;
+			}
+		}
+		return pool;
+	}
+
+	private static AtomicInteger getClasspathGeneration(String projectName) {
+		AtomicInteger generation = CLASSPATH_GENERATIONS.get(projectName);
+		if (generation == null) {
+			AtomicInteger newGeneration = new AtomicInteger();
+			generation = CLASSPATH_GENERATIONS.putIfAbsent(projectName, newGeneration);
+			if (generation == null) {
+				generation = newGeneration;
+			}
+		}
+		return generation;
+	}
+
+	/**
+	 * Idle parsers sharing one symbol table and schema grammar pool, as required by Xerces for grammar caching.
+	 */
+	private static class ParserPool {
+
+		private static final int MAX_IDLE_PARSERS = 4;
+
+		private final SymbolTable symbolTable = new SynchronizedSymbolTable();
+
+		private final SchemaGrammarPool grammarPool = new SchemaGrammarPool();
+
+		private final Deque<LineNumberPreservingDOMParser> idleParsers = new ArrayDeque<LineNumberPreservingDOMParser>();
+
+		public LineNumberPreservingDOMParser acquire() throws SAXException {
+			synchronized (idleParsers) {
+				LineNumberPreservingDOMParser parser = idleParsers.poll();
+				if (parser != null) {
+					return parser;
+				}
+			}
+			return new LineNumberPreservingDOMParser(symbolTable, grammarPool);
+		}
+
+		/**
+		 * Returns a parser that completed a parse without errors to the pool.
+		 */
+		public void release(LineNumberPreservingDOMParser parser) {
+			parser.dropDocumentReferences();
+			parser.setEntityResolver(null);
+			parser.setErrorHandler(null);
+			synchronized (idleParsers) {
+				if (idleParsers.size() < MAX_IDLE_PARSERS) {
+					idleParsers.push(parser);
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Tells caches of data read from the classpath of projects (e.g. compiled classes, libraries or XML schemas) which
+ * projects changed, so that they only discard what might be stale.
+ * <p>
+ * Changed files are taken from the {@link IResourceChangeEvent#PRE_BUILD} delta, so caches are invalidated before any
+ * builder reads from them. That delta covers all changes since the previous build, including the class files written
+ * by the Java builder during that build and libraries replaced outside of builds. Projects whose classpath changed are
+ * reported as soon as JDT resolved the new classpath. Both also report all projects that have a changed project on
+ * their classpath.
+ * <p>
+ * Owners must {@link #register()} the listener when their plug-in starts and {@link #unregister()} it when it stops.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public abstract class ClasspathChangeListener implements IResourceChangeListener, IElementChangedListener {
+
+	private final Set<String> fileExtensions;
+
+	private boolean registered;
+
+	/**
+	 * Creates a listener for changes to files with the given extensions, e.g. <code>"class"</code> and
+	 * <code>"jar"</code>.
+	 */
+	protected ClasspathChangeListener(String... fileExtensions) {
+		this.fileExtensions = new HashSet<String>(Arrays.asList(fileExtensions));
+	}
+
+	public synchronized void register() {
+		if (!registered) {
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.PRE_BUILD);
+			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+			registered = true;
+		}
+	}
+
+	public synchronized void unregister() {
+		if (registered) {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+			JavaCore.removeElementChangedListener(this);
+			registered = false;
+		}
+	}
+
+	/**
+	 * Called with the projects that contain changed files of interest, and the projects that depend on them.
+	 */
+	protected abstract void filesChanged(Set<IProject> projects);
+
+	/**
+	 * Called with the projects whose classpath changed, and the projects that depend on them. Discards the same as a
+	 * change of files unless overridden.
+	 */
+	protected void classpathChanged(Set<IProject> projects) {
+		filesChanged(projects);
+	}
+
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (event.getType() != IResourceChangeEvent.PRE_BUILD || delta == null) {
+			return;
+		}
+		final Set<IProject> projects = new LinkedHashSet<IProject>();
+		try {
+			delta.accept(new IResourceDeltaVisitor() {
+				public boolean visit(IResourceDelta delta) {
+					IResource resource = delta.getResource();
+					if (resource.getType() == IResource.PROJECT) {
+						return !projects.contains(resource);
+					}
+					if (resource.getType() == IResource.FILE) {
+						// marker changes, e.g. from validation, don't change the file
+						int contentFlags = IResourceDelta.CONTENT | IResourceDelta.REPLACED;
+						if (fileExtensions.contains(resource.getFileExtension())
+								&& (delta.getKind() != IResourceDelta.CHANGED || (delta.getFlags() & contentFlags) != 0)) {
+							projects.add(resource.getProject());
+						}
+						return false;
+					}
+					return !projects.contains(resource.getProject());
+				}
+			});
+		}
+		catch (CoreException e) {
+			SpringCore.log("Error while traversing resource change delta", e);
+		}
+		if (!projects.isEmpty()) {
+			filesChanged(addDependentProjects(projects));
+		}
+	}
+
+	public void elementChanged(ElementChangedEvent event) {
+		Set<IProject> projects = new LinkedHashSet<IProject>();
+		for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
+			if ((delta.getFlags() & IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED) != 0
+					|| (delta.getFlags() & IJavaElementDelta.F_CLASSPATH_CHANGED) != 0) {
+				projects.add(delta.getElement().getJavaProject().getProject());
+			}
+		}
+		if (!projects.isEmpty()) {
+			classpathChanged(addDependentProjects(projects));
+		}
+	}
+
+	/**
+	 * Adds all Java projects that directly or indirectly require one of the given projects.
+	 */
+	private static Set<IProject> addDependentProjects(Set<IProject> projects) {
+		Set<String> names = new HashSet<String>();
+		for (IProject project : projects) {
+			names.add(project.getName());
+		}
+		boolean added = true;
+		while (added) {
+			added = false;
+			for (IProject candidate : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+				if (names.contains(candidate.getName()) || !JdtUtils.isJavaProject(candidate)) {
+					continue;
+				}
+				for (String required : getRequiredProjectNames(JavaCore.create(candidate))) {
+					if (names.contains(required)) {
+						names.add(candidate.getName());
+						projects.add(candidate);
+						added = true;
+						break;
+					}
+				}
+			}
+		}
+		return projects;
+	}
+
+	private static Iterable<String> getRequiredProjectNames(IJavaProject project) {
+		try {
+			return Arrays.asList(project.getRequiredProjectNames());
+		}
+		catch (JavaModelException e) {
+			return Collections.emptyList();
+		}
+	}
+
+}
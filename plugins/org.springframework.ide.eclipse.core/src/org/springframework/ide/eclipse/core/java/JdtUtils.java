@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -62,6 +62,7 @@ import org.osgi.framework.Bundle;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.java.Introspector.Public;
 import org.springframework.ide.eclipse.core.java.Introspector.Static;
+import org.springframework.ide.eclipse.core.java.annotation.AnnotationIndex;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
@@ -91,6 +92,13 @@ public class JdtUtils {
 
 	private static final boolean IS_AJDT_PRESENT = isAjdtPresent();
 
+	/** Annotations that mark a type as a candidate for a Java config */
+	private static final String[] JAVA_CONFIG_ANNOTATIONS = { "org.springframework.context.annotation.Configuration",
+			"org.springframework.stereotype.Component", "org.springframework.context.annotation.Bean",
+			"org.springframework.context.annotation.Import",
+			"org.springframework.boot.autoconfigure.EnableAutoConfiguration",
+			"org.springframework.boot.autoconfigure.SpringBootApplication" };
+
 	/**
 	 * Creates specified Java project.
 	 */
@@ -1041,32 +1049,25 @@ public class JdtUtils {
 	}
 	
 	public static Set<IType> searchForJavaConfigs(IJavaSearchScope scope) {
-		SearchPattern configurationPattern = SearchPattern.createPattern("org.springframework.context.annotation.Configuration",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern componentPattern = SearchPattern.createPattern( "org.springframework.stereotype.Component",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern beanPattern = SearchPattern.createPattern("org.springframework.context.annotation.Bean",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern importPattern = SearchPattern.createPattern("org.springframework.context.annotation.Import",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern enableAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.EnableAutoConfiguration",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern bootAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.SpringBootApplication",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-
-		SearchPattern pattern = SearchPattern.createOrPattern(configurationPattern, componentPattern);
-		pattern = SearchPattern.createOrPattern(pattern, beanPattern);
-		pattern = SearchPattern.createOrPattern(pattern, importPattern);
-		pattern = SearchPattern.createOrPattern(pattern, enableAutoConfigPattern);
-		pattern = SearchPattern.createOrPattern(pattern, bootAutoConfigPattern);
+		SearchPattern pattern = null;
+		for (String annotationType : JAVA_CONFIG_ANNOTATIONS) {
+			SearchPattern annotationPattern = SearchPattern.createPattern(annotationType,
+					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			pattern = (pattern == null ? annotationPattern : SearchPattern.createOrPattern(pattern, annotationPattern));
+		}
 		return searchForJavaConfigs(pattern, scope);
 	}
 
+	/**
+	 * Returns the Java config candidates among the source types of the given project, i.e. the same types that
+	 * {@link #searchForJavaConfigs(IJavaSearchScope)} finds for a sources-only scope of the project. The result is
+	 * answered from the {@link AnnotationIndex}.
+	 * @since 3.9.7
+	 */
+	public static Set<IType> searchForJavaConfigs(IJavaProject project) {
+		return AnnotationIndex.getDefault().getAnnotatedTypes(project, JAVA_CONFIG_ANNOTATIONS);
+	}
+
 
 }
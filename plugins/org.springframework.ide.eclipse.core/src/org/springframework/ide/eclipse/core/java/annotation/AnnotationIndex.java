@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.annotation;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+
+/**
+ * Index of the source types of a project that are annotated with a given annotation, either on the type itself or on
+ * one of its methods.
+ * <p>
+ * The types annotated with an annotation are searched once per project when they are requested for the first time.
+ * Afterwards the index is kept up to date from Java element deltas: only compilation units that have changed since
+ * the last request are searched again. Adding or removing source folders or packages and classpath changes discard
+ * the index of a project.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class AnnotationIndex {
+
+	private static final AnnotationIndex INSTANCE = new AnnotationIndex();
+
+	public static AnnotationIndex getDefault() {
+		return INSTANCE;
+	}
+
+	private final ConcurrentMap<IJavaProject, ProjectIndex> projects = new ConcurrentHashMap<IJavaProject, ProjectIndex>();
+
+	private IElementChangedListener changeListener;
+
+	/**
+	 * Returns the source types of the given project that are annotated with at least one of the given annotations on
+	 * type or method level. Only direct annotations are considered, not meta-annotations.
+	 * @param project the project to search in
+	 * @param annotationTypes fully-qualified names of annotation types
+	 */
+	public Set<IType> getAnnotatedTypes(IJavaProject project, String... annotationTypes) {
+		registerListenerIfRequired();
+
+		ProjectIndex projectIndex = projects.get(project);
+		if (projectIndex == null) {
+			ProjectIndex newIndex = new ProjectIndex(project);
+			projectIndex = projects.putIfAbsent(project, newIndex);
+			if (projectIndex == null) {
+				projectIndex = newIndex;
+			}
+		}
+		return projectIndex.getAnnotatedTypes(annotationTypes);
+	}
+
+	/**
+	 * Discards the index of the given project.
+	 */
+	public void clear(IJavaProject project) {
+		projects.remove(project);
+	}
+
+	/**
+	 * Discards all indexes.
+	 */
+	public void clear() {
+		projects.clear();
+	}
+
+	private synchronized void registerListenerIfRequired() {
+		if (changeListener == null) {
+			changeListener = new IndexUpdatingElementChangedListener();
+			JavaCore.addElementChangedListener(changeListener, ElementChangedEvent.POST_CHANGE);
+		}
+	}
+
+	private static Set<IType> search(String annotationType, IJavaSearchScope scope) {
+		SearchPattern pattern = SearchPattern.createPattern(annotationType, IJavaSearchConstants.ANNOTATION_TYPE,
+				IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE, SearchPattern.R_EXACT_MATCH
+						| SearchPattern.R_CASE_SENSITIVE);
+		return JdtUtils.searchForJavaConfigs(pattern, scope);
+	}
+
+	/**
+	 * The annotated types of a single project.
+	 */
+	private static class ProjectIndex {
+
+		private final IJavaProject project;
+
+		/** Annotated types by annotation type name; contains the annotations that have been requested so far */
+		private final Map<String, Set<IType>> typesByAnnotation = new HashMap<String, Set<IType>>();
+
+		/** Compilation units that changed since the last update */
+		private final Set<ICompilationUnit> changedUnits = new LinkedHashSet<ICompilationUnit>();
+
+		public ProjectIndex(IJavaProject project) {
+			this.project = project;
+		}
+
+		public synchronized Set<IType> getAnnotatedTypes(String... annotationTypes) {
+			updateChangedUnits();
+
+			Set<IType> annotatedTypes = new HashSet<IType>();
+			for (String annotationType : annotationTypes) {
+				Set<IType> types = typesByAnnotation.get(annotationType);
+				if (types == null) {
+					types = search(annotationType, SearchEngine.createJavaSearchScope(new IJavaElement[] { project },
+							IJavaSearchScope.SOURCES));
+					typesByAnnotation.put(annotationType, types);
+				}
+				annotatedTypes.addAll(types);
+			}
+			return annotatedTypes;
+		}
+
+		public synchronized void unitChanged(ICompilationUnit unit) {
+			if (!typesByAnnotation.isEmpty()) {
+				changedUnits.add(unit);
+			}
+		}
+
+		private void updateChangedUnits() {
+			if (changedUnits.isEmpty()) {
+				return;
+			}
+
+			Set<IJavaElement> existingUnits = new HashSet<IJavaElement>();
+			for (ICompilationUnit unit : changedUnits) {
+				if (unit.exists()) {
+					existingUnits.add(unit);
+				}
+			}
+			IJavaSearchScope scope = (existingUnits.isEmpty() ? null : SearchEngine.createJavaSearchScope(
+					existingUnits.toArray(new IJavaElement[existingUnits.size()]), IJavaSearchScope.SOURCES));
+
+			for (Map.Entry<String, Set<IType>> entry : typesByAnnotation.entrySet()) {
+				Set<IType> types = entry.getValue();
+				for (Iterator<IType> iterator = types.iterator(); iterator.hasNext();) {
+					if (changedUnits.contains(iterator.next().getCompilationUnit())) {
+						iterator.remove();
+					}
+				}
+				if (scope != null) {
+					types.addAll(search(entry.getKey(), scope));
+				}
+			}
+			changedUnits.clear();
+		}
+	}
+
+	/**
+	 * Records changed compilation units with the index of their project and discards indexes on structural changes.
+	 */
+	private class IndexUpdatingElementChangedListener implements IElementChangedListener {
+
+		private static final int CLASSPATH_CHANGED = IJavaElementDelta.F_CLASSPATH_CHANGED
+				| IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED
+				| IJavaElementDelta.F_CLOSED;
+
+		public void elementChanged(ElementChangedEvent event) {
+			if (!projects.isEmpty()) {
+				visit(event.getDelta());
+			}
+		}
+
+		private void visit(IJavaElementDelta delta) {
+			IJavaElement element = delta.getElement();
+			switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_CHANGED) != 0) {
+					projects.remove(element);
+					return;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED) {
+					projects.remove(element.getJavaProject());
+					return;
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				ProjectIndex projectIndex = projects.get(element.getJavaProject());
+				if (projectIndex != null) {
+					projectIndex.unitChanged((ICompilationUnit) element);
+				}
+				return;
+			default:
+				return;
+			}
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				visit(child);
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2014 Spring IDE Developers
+ * Copyright (c) 2012, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,8 @@
 package org.springframework.ide.eclipse.core.java.classreading;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.jdt.core.IJavaProject;
 import org.springframework.core.io.Resource;
@@ -26,20 +26,33 @@ import org.springframework.core.type.classreading.MetadataReaderFactory;
 public class CachingJdtMetadataReaderFactory implements MetadataReaderFactory {
 	
 	private final JdtMetadataReaderFactory factory;
-	private final Map<String, MetadataReader> cache = new HashMap<String, MetadataReader>();
+	private final ConcurrentMap<String, MetadataReader> cache;
 	
 	public CachingJdtMetadataReaderFactory(IJavaProject project, ClassLoader classloader) {
-		this.factory = new JdtMetadataReaderFactory(project, classloader);
+		this(new JdtMetadataReaderFactory(project, classloader), new ConcurrentHashMap<String, MetadataReader>());
+	}
+
+	/**
+	 * Creates a factory that reads through the given factory into the given cache, which may be shared with other
+	 * factories.
+	 * @since 3.9.7
+	 * @see ProjectMetadataReaderCache
+	 */
+	public CachingJdtMetadataReaderFactory(JdtMetadataReaderFactory factory, ConcurrentMap<String, MetadataReader> cache) {
+		this.factory = factory;
+		this.cache = cache;
 	}
 
 	public MetadataReader getMetadataReader(String className) throws IOException {
-		synchronized(cache) {
-			if (!cache.containsKey(className)) {
-				cache.put(className, factory.getMetadataReader(className));
+		MetadataReader metadataReader = cache.get(className);
+		if (metadataReader == null) {
+			metadataReader = factory.getMetadataReader(className);
+			MetadataReader existingReader = cache.putIfAbsent(className, metadataReader);
+			if (existingReader != null) {
+				metadataReader = existingReader;
 			}
 		}
-		
-		return cache.get(className);
+		return metadataReader;
 	}
 
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
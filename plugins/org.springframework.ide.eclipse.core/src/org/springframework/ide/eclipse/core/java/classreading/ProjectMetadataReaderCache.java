@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.classreading;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.ide.eclipse.core.java.ClasspathChangeListener;
+
+/**
+ * Project-level cache of {@link MetadataReader}s that is shared by all Java configs of a project and the
+ * post-processors they run, so that the class and annotation metadata of a type is read once instead of once per
+ * config.
+ * <p>
+ * Readers are kept per project and classpath. Project class loaders are created anew for every request, but share a
+ * parent class loader for the libraries that is only replaced when the classpath changes, so the parent identifies the
+ * classpath; readers of the least recently used classpaths are dropped. The readers of a project, together with the
+ * factories and class loaders they were read with, are discarded before the next build once sources, class files or
+ * libraries of the project or of a project it depends on changed, and as soon as the classpath of one of these
+ * projects changes.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class ProjectMetadataReaderCache {
+
+	private static final ProjectMetadataReaderCache INSTANCE = new ProjectMetadataReaderCache();
+
+	/** Number of classpaths per project to keep readers for, e.g. for the class loaders of XML and Java configs */
+	private static final int MAX_CLASSPATHS_PER_PROJECT = 4;
+
+	public static ProjectMetadataReaderCache getDefault() {
+		return INSTANCE;
+	}
+
+	/** Readers by project name and library class loader */
+	private final ConcurrentMap<String, Map<ClassLoader, SharedReaders>> readers = new ConcurrentHashMap<String, Map<ClassLoader, SharedReaders>>();
+
+	private final ClasspathChangeListener changeListener = new ClasspathChangeListener("java", "class", "jar") {
+
+		@Override
+		protected void filesChanged(Set<IProject> projects) {
+			for (IProject project : projects) {
+				clear(project);
+			}
+		}
+	};
+
+	/**
+	 * Returns a {@link MetadataReaderFactory} for the given project that shares its readers with all other factories
+	 * returned for the project and a class loader of the same classpath.
+	 * @param project the project to read types from
+	 * @param classLoader the project class loader, as returned by
+	 * {@link org.springframework.ide.eclipse.core.java.JdtUtils#getClassLoader(IProject, ClassLoader)}
+	 */
+	public MetadataReaderFactory getMetadataReaderFactory(IJavaProject project, ClassLoader classLoader) {
+		changeListener.register();
+
+		SharedReaders sharedReaders = getSharedReaders(project, classLoader);
+		return new CachingJdtMetadataReaderFactory(sharedReaders.factory, sharedReaders.readers);
+	}
+
+	/**
+	 * Discards the readers of the given project.
+	 */
+	public void clear(IProject project) {
+		readers.remove(project.getName());
+	}
+
+	/**
+	 * Discards all readers.
+	 */
+	public void clear() {
+		readers.clear();
+	}
+
+	/**
+	 * Stops listening for changes and discards all readers.
+	 */
+	public void shutdown() {
+		changeListener.unregister();
+		clear();
+	}
+
+	private SharedReaders getSharedReaders(IJavaProject project, ClassLoader classLoader) {
+		String projectName = project.getElementName();
+		Map<ClassLoader, SharedReaders> projectReaders = readers.get(projectName);
+		if (projectReaders == null) {
+			Map<ClassLoader, SharedReaders> newReaders = new LinkedHashMap<ClassLoader, SharedReaders>(8, 0.75f, true) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<ClassLoader, SharedReaders> eldest) {
+					return size() > MAX_CLASSPATHS_PER_PROJECT;
+				}
+			};
+			projectReaders = readers.putIfAbsent(projectName, newReaders);
+			if (projectReaders == null) {
+				projectReaders = newReaders;
+			}
+		}
+
+		ClassLoader classpathKey = (classLoader.getParent() != null ? classLoader.getParent() : classLoader);
+		synchronized (projectReaders) {
+			SharedReaders sharedReaders = projectReaders.get(classpathKey);
+			if (sharedReaders == null) {
+				sharedReaders = new SharedReaders(new JdtMetadataReaderFactory(project, classLoader));
+				projectReaders.put(classpathKey, sharedReaders);
+			}
+			return sharedReaders;
+		}
+	}
+
+	/**
+	 * The readers of a project and classpath.
+	 */
+	private static class SharedReaders {
+
+		private final JdtMetadataReaderFactory factory;
+
+		private final ConcurrentMap<String, MetadataReader> readers = new ConcurrentHashMap<String, MetadataReader>();
+
+		public SharedReaders(JdtMetadataReaderFactory factory) {
+			this.factory = factory;
+		}
+	}
+
+}
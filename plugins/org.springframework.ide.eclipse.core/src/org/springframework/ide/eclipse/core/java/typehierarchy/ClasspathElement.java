@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,9 @@ package org.springframework.ide.eclipse.core.java.typehierarchy;
 import java.io.InputStream;
 
 /**
+ * Element of the classpath the type hierarchy engine reads class files from.
+ * <p>
+ * Implementations have to support concurrent lookups without external synchronization.
  * @author Martin Lippert
  * @since 3.3.0
  */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,97 +18,154 @@ import java.util.Enumeration;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.jar.JarFile;
+import java.util.jar.JarEntry;
 import java.util.zip.ZipEntry;
 
 /**
+ * Jar on the classpath that is read by the type hierarchy engine.
+ * <p>
+ * Lookups don't lock: the packages of the jar are computed once and published, and the jar file itself is shared
+ * with all other readers through {@link SharedJarFiles}. The modification time and size of the jar are checked again
+ * after {@link #STAMP_CHECK_INTERVAL}, so a jar replaced on disk is read again without a {@link #cleanup()}.
  * @author Martin Lippert
  * @since 3.3.0
  */
 public class ClasspathElementJar implements ClasspathElement {
 	
-	private JarFile jarFile;
-	private String jarFileName;
-	private Set<String> knownPackageNames;
-	private long lastModified;
+	/** Time in milliseconds the last seen modification time and size of the jar are trusted */
+	static final long STAMP_CHECK_INTERVAL = 1000;
+
+	private final String jarFileName;
+	private volatile JarStamp stamp;
+	private volatile KnownPackages knownPackages;
 
 	public ClasspathElementJar(String jarFileName) {
 		this.jarFileName = jarFileName;
 	}
 
 	public InputStream getStream(String fullyQualifiedClassFileName, String packageName, String classFileName) throws Exception {
-		if (!isPackage(packageName)) return null;
+		JarStamp stamp = getStamp();
+		if (!isPackage(packageName, stamp)) return null;
 		
-		ZipEntry entry = jarFile.getEntry(fullyQualifiedClassFileName);
-		if (entry != null) {
-			return jarFile.getInputStream(entry);
+		SharedJarFiles.Handle handle = SharedJarFiles.acquire(this.jarFileName, stamp.lastModified, stamp.size);
+		InputStream stream = null;
+		try {
+			ZipEntry entry = handle.getJarFile().getEntry(fullyQualifiedClassFileName);
+			if (entry != null) {
+				stream = handle.releaseOnClose(handle.getJarFile().getInputStream(entry));
+			}
+			return stream;
+		}
+		finally {
+			// the stream keeps the handle until it is closed
+			if (stream == null) {
+				handle.release();
+			}
 		}
-		return null;
 	}
 
 	public void cleanup() {
-		synchronized(this) {
-			if (this.jarFile != null) {
-				try {
-					this.jarFile.close();
-				} catch(IOException e) { // ignore it
-				}
-				this.jarFile = null;
-			}
-			this.knownPackageNames = null;
-		}
+		this.knownPackages = null;
+		this.stamp = null;
+		SharedJarFiles.closeIfUnused(this.jarFileName);
 	}
 
 	public long lastModified() {
-		if (this.lastModified == 0)
-			this.lastModified = new File(this.jarFile.getName()).lastModified();
-		return this.lastModified;
+		return getStamp().lastModified;
 	}
 
-	private boolean isPackage(String qualifiedPackageName) {
-		if (this.knownPackageNames != null)
-			return this.knownPackageNames.contains(qualifiedPackageName);
+	private JarStamp getStamp() {
+		JarStamp stamp = this.stamp;
+		long now = System.currentTimeMillis();
+		if (stamp == null || now - stamp.checked > STAMP_CHECK_INTERVAL) {
+			File file = new File(this.jarFileName);
+			stamp = new JarStamp(file.lastModified(), file.length(), now);
+			this.stamp = stamp;
+		}
+		return stamp;
+	}
 
-		try {
-			synchronized(this) {
-				if (this.jarFile == null) {
-					this.jarFile = new JarFile(this.jarFileName);
-				}
-				this.knownPackageNames = findPackageSet();
+	private boolean isPackage(String qualifiedPackageName, JarStamp stamp) {
+		KnownPackages packages = this.knownPackages;
+		if (packages == null || !packages.stamp.isSameJar(stamp)) {
+			// concurrent readers may compute the packages at the same time, but they all get the same result
+			Set<String> packageNames;
+			try {
+				packageNames = findPackageSet(stamp);
+			} catch(Exception e) {
+				packageNames = Collections.emptySet();
 			}
-		} catch(Exception e) {
-			this.knownPackageNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+			packages = new KnownPackages(stamp, packageNames);
+			this.knownPackages = packages;
 		}
-		return this.knownPackageNames.contains(qualifiedPackageName);
+		return packages.packageNames.contains(qualifiedPackageName);
 	}
 
-	private Set<String> findPackageSet() {
-		long lastModified = lastModified();
-		long fileSize = new File(jarFileName).length();
+	private Set<String> findPackageSet(JarStamp stamp) throws IOException {
+		long lastModified = stamp.lastModified;
+		long fileSize = stamp.size;
 		PackageCacheEntry cacheEntry = (PackageCacheEntry) PackageCache.get(jarFileName);
 		if (cacheEntry != null && cacheEntry.lastModified == lastModified && cacheEntry.fileSize == fileSize)
 			return cacheEntry.packageSet;
 		
 		Set<String> packageSet = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 		packageSet.add(""); //$NON-NLS-1$
-		nextEntry : for (Enumeration e = jarFile.entries(); e.hasMoreElements(); ) {
-			String fileName = ((ZipEntry) e.nextElement()).getName();
-
-			// add the package name & all of its parent packages
-			int last = fileName.lastIndexOf('/');
-			while (last > 0) {
-				// extract the package name
-				String packageName = fileName.substring(0, last);
-				if (!packageSet.add(packageName))
-					continue nextEntry; // already existed
-				last = packageName.lastIndexOf('/');
+		SharedJarFiles.Handle handle = SharedJarFiles.acquire(this.jarFileName, lastModified, fileSize);
+		try {
+			nextEntry : for (Enumeration<JarEntry> e = handle.getJarFile().entries(); e.hasMoreElements(); ) {
+				String fileName = e.nextElement().getName();
+
+				// add the package name & all of its parent packages
+				int last = fileName.lastIndexOf('/');
+				while (last > 0) {
+					// extract the package name
+					String packageName = fileName.substring(0, last);
+					if (!packageSet.add(packageName))
+						continue nextEntry; // already existed
+					last = packageName.lastIndexOf('/');
+				}
 			}
 		}
+		finally {
+			handle.release();
+		}
 
 		PackageCache.put(jarFileName, new PackageCacheEntry(lastModified, fileSize, packageSet));
 		return packageSet;
 	}
 	
+	/**
+	 * Modification time and size of the jar and when they were read.
+	 */
+	private static class JarStamp {
+		final long lastModified;
+		final long size;
+		final long checked;
+
+		public JarStamp(long lastModified, long size, long checked) {
+			this.lastModified = lastModified;
+			this.size = size;
+			this.checked = checked;
+		}
+
+		boolean isSameJar(JarStamp other) {
+			return lastModified == other.lastModified && size == other.size;
+		}
+	}
+
+	/**
+	 * Packages of the jar as it was when the stamp was read.
+	 */
+	private static class KnownPackages {
+		final JarStamp stamp;
+		final Set<String> packageNames;
+
+		public KnownPackages(JarStamp stamp, Set<String> packageNames) {
+			this.stamp = stamp;
+			this.packageNames = packageNames;
+		}
+	}
+
 	// global zip file content cache
 	private static Map<String, PackageCacheEntry> PackageCache = new ConcurrentHashMap<String, PackageCacheEntry>();
 	
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Pivotal Software, Inc. and others.
+ * Copyright (c) 2015, 2018 Pivotal Software, Inc. and others.
  * All rights reserved. This program and the accompanying materials are made 
  * available under the terms of the Eclipse Public License v1.0 
  * (http://www.eclipse.org/legal/epl-v10.html), and the Eclipse Distribution 
@@ -32,7 +32,7 @@ import org.springframework.ide.eclipse.core.SpringCore;
  */
 public class ClasspathLookupDirect implements ClasspathLookup {
 	
-	private ClasspathElement[] cpElements;
+	private final ClasspathElement[] cpElements;
 	
 	public ClasspathLookupDirect(URL[] urls) {
 		List<ClasspathElement> locations = new ArrayList<ClasspathElement>();
@@ -69,16 +69,14 @@ public class ClasspathLookupDirect implements ClasspathLookup {
 	}
 
 	public InputStream getStream(String fullyQualifiedClassFileName, String packageName, String className) {
+		// the classpath elements are safe for concurrent lookups
 		for (int i = 0; i < cpElements.length; i++) {
-			InputStream stream = null;
-			synchronized(cpElements[i]) {
-				try {
-					stream = cpElements[i].getStream(fullyQualifiedClassFileName, packageName, className);
-					if (stream != null) {
-						return stream;
-					}
-				} catch (Exception e) {
+			try {
+				InputStream stream = cpElements[i].getStream(fullyQualifiedClassFileName, packageName, className);
+				if (stream != null) {
+					return stream;
 				}
+			} catch (Exception e) {
 			}
 		}
 		return null;
@@ -86,9 +84,7 @@ public class ClasspathLookupDirect implements ClasspathLookup {
 
 	public void close() {
 		for (int i = 0; i < cpElements.length; i++) {
-			synchronized(cpElements[i]) {
-				cpElements[i].cleanup();
-			}
+			cpElements[i].cleanup();
 		}
 	}
 
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+
+/**
+ * The open {@link JarFile}s read by the {@link ClasspathElementJar}s, shared by all concurrent readers.
+ * <p>
+ * A jar is opened once and every reader holds a reference to its {@link Handle} while reading from it. Jars that are
+ * no longer referenced are closed after they were idle for the {@link #setIdleTimeout(long) idle timeout}, or right
+ * away by {@link #closeIfUnused(String)}. Acquiring and releasing a handle doesn't lock.
+ * <p>
+ * A handle remembers the modification time and size of the jar when it was opened. Once a reader finds the jar
+ * changed on disk, new readers get a newly opened jar, and the replaced jar is closed as soon as its last reader
+ * releases it.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+final class SharedJarFiles {
+
+	/** Default time in milliseconds an unused jar stays open */
+	static final long DEFAULT_IDLE_TIMEOUT = 30000;
+
+	private static final ConcurrentMap<String, Handle> HANDLES = new ConcurrentHashMap<String, Handle>();
+
+	private static final AtomicBoolean SWEEP_SCHEDULED = new AtomicBoolean();
+
+	private static final ScheduledExecutorService SWEEPER = Executors
+			.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Spring IDE Jar File Closer");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+
+	private static volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+	private SharedJarFiles() {
+	}
+
+	/**
+	 * Returns a referenced handle of the given jar, opening the jar if it isn't open yet or if it changed on disk
+	 * since it was opened. The caller has to {@link Handle#release() release} the handle once done reading.
+	 * @param lastModified the modification time of the jar as last seen by the caller
+	 * @param size the size of the jar as last seen by the caller
+	 */
+	static Handle acquire(String jarFileName, long lastModified, long size) throws IOException {
+		while (true) {
+			Handle handle = HANDLES.get(jarFileName);
+			if (handle != null && !handle.isOf(lastModified, size)) {
+				// the caller may have seen an outdated jar; only the jar on disk tells if the handle is outdated
+				File file = new File(jarFileName);
+				if (!handle.isOf(file.lastModified(), file.length())) {
+					if (HANDLES.remove(jarFileName, handle)) {
+						handle.retire();
+					}
+					continue;
+				}
+			}
+			if (handle == null) {
+				Handle newHandle = open(jarFileName);
+				handle = HANDLES.putIfAbsent(jarFileName, newHandle);
+				if (handle == null) {
+					handle = newHandle;
+				}
+				else {
+					// another thread opened the jar in the meantime
+					newHandle.close();
+				}
+			}
+			if (handle.tryReference()) {
+				return handle;
+			}
+			// closed concurrently; make sure the stale handle is gone and open the jar again
+			HANDLES.remove(jarFileName, handle);
+		}
+	}
+
+	private static Handle open(String jarFileName) throws IOException {
+		// take the stamp first, so that a jar changed while opening it is opened again by the next reader
+		File file = new File(jarFileName);
+		long lastModified = file.lastModified();
+		long size = file.length();
+		return new Handle(jarFileName, new JarFile(file), lastModified, size);
+	}
+
+	/**
+	 * Closes the given jar if no reader is currently holding it.
+	 */
+	static void closeIfUnused(String jarFileName) {
+		Handle handle = HANDLES.get(jarFileName);
+		if (handle != null) {
+			handle.tryClose();
+		}
+	}
+
+	/**
+	 * Sets the time in milliseconds an unused jar stays open.
+	 */
+	static void setIdleTimeout(long idleTimeout) {
+		SharedJarFiles.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Returns the number of currently open jars.
+	 */
+	static int getOpenCount() {
+		return HANDLES.size();
+	}
+
+	/**
+	 * Closes all unused jars that were idle for the idle timeout.
+	 * @return <code>true</code> if jars remain open
+	 */
+	static boolean closeIdle() {
+		long idleSince = System.currentTimeMillis() - idleTimeout;
+		boolean remaining = false;
+		for (Handle handle : HANDLES.values()) {
+			if (handle.lastUsed > idleSince || !handle.tryClose()) {
+				remaining = true;
+			}
+		}
+		return remaining;
+	}
+
+	private static void scheduleCloseIdle() {
+		if (SWEEP_SCHEDULED.compareAndSet(false, true)) {
+			SWEEPER.schedule(new Runnable() {
+				public void run() {
+					SWEEP_SCHEDULED.set(false);
+					if (closeIdle()) {
+						scheduleCloseIdle();
+					}
+				}
+			}, idleTimeout, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * An open jar and the number of readers currently holding it.
+	 */
+	static final class Handle {
+
+		private final String jarFileName;
+
+		private final JarFile jarFile;
+
+		private final long lastModified;
+
+		private final long size;
+
+		/** The number of references or <code>-1</code> once the jar is closed */
+		private final AtomicInteger references = new AtomicInteger();
+
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		/** <code>true</code> once the jar changed on disk; it is closed as soon as it is no longer referenced */
+		private volatile boolean retired = false;
+
+		private Handle(String jarFileName, JarFile jarFile, long lastModified, long size) {
+			this.jarFileName = jarFileName;
+			this.jarFile = jarFile;
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+
+		JarFile getJarFile() {
+			return jarFile;
+		}
+
+		private boolean isOf(long lastModified, long size) {
+			return this.lastModified == lastModified && this.size == size;
+		}
+
+		/**
+		 * Releases the reference to this handle; the jar is closed once it was unused for the idle timeout.
+		 */
+		void release() {
+			// record the usage first so that the closer never sees an unused but outdated handle
+			lastUsed = System.currentTimeMillis();
+			if (references.decrementAndGet() == 0) {
+				if (retired) {
+					tryClose();
+				}
+				else {
+					scheduleCloseIdle();
+				}
+			}
+		}
+
+		/**
+		 * Returns a stream that releases this handle when it gets closed.
+		 */
+		InputStream releaseOnClose(InputStream stream) {
+			return new FilterInputStream(stream) {
+
+				private final AtomicBoolean closed = new AtomicBoolean();
+
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					}
+					finally {
+						if (closed.compareAndSet(false, true)) {
+							release();
+						}
+					}
+				}
+			};
+		}
+
+		private boolean tryReference() {
+			while (true) {
+				int count = references.get();
+				if (count < 0) {
+					return false;
+				}
+				if (references.compareAndSet(count, count + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Closes this jar once it is no longer referenced; the handle must already be removed from the open jars.
+		 */
+		private void retire() {
+			// mark first, so that either this or the last release closes the jar
+			retired = true;
+			tryClose();
+		}
+
+		private boolean tryClose() {
+			if (references.compareAndSet(0, -1)) {
+				HANDLES.remove(jarFileName, this);
+				close();
+				return true;
+			}
+			return false;
+		}
+
+		private void close() {
+			try {
+				jarFile.close();
+			}
+			catch (IOException e) { // ignore it
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,10 +23,10 @@ public class TypeHierarchyElement {
 	
 	public final char[] className;
 	public final char[] superclassName;
-	public TypeHierarchyElement superclassElement; // lazy set
+	public TypeHierarchyElement superclassElement; // lazy set, concurrent lookups may set it more than once
 	
 	public final char[][] interfaces;
-	public TypeHierarchyElement[] interfacesElements; // array initialized, but elements being set lazy
+	public final TypeHierarchyElement[] interfacesElements; // array initialized, but elements being set lazy
 	
 	public TypeHierarchyElement(char[] className, char[] superclassName, char[][] interfaces) {
 		super();
@@ -34,9 +34,7 @@ public class TypeHierarchyElement {
 		this.superclassName = superclassName;
 		
 		this.interfaces = interfaces;
-		if (this.interfaces != null) {
-			this.interfacesElements = new TypeHierarchyElement[this.interfaces.length];
-		}
+		this.interfacesElements = (this.interfaces != null ? new TypeHierarchyElement[this.interfaces.length] : null);
 	}
 	
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,8 @@
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
 import java.util.ArrayDeque;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.IJavaElement;
@@ -21,6 +21,10 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.compiler.CharOperation;
 
 /**
+ * Answers type hierarchy questions by reading the class files of a project's classpath.
+ * <p>
+ * Lookups may run concurrently: the element caches and class readers of a project are created once and then shared
+ * without locking by all lookups of that project.
  * @author Martin Lippert
  * @since 3.3.0
  */
@@ -31,11 +35,16 @@ public class TypeHierarchyEngine {
 	private TypeHierarchyClassReaderFactory classReaderFactory;
 	private TypeHierarchyElementCacheFactory elementCacheFactory;
 
-	private final Map<IProject, TypeHierarchyElementCache> cache;
-	private final Map<IProject, TypeHierarchyClassReader> readers;
+	private final ConcurrentMap<IProject, TypeHierarchyElementCache> cache;
+	private final ConcurrentMap<IProject, TypeHierarchyClassReader> readers;
 
 	private final boolean autoCleanup;
 	
+	/**
+	 * @param autoCleanup <code>true</code> to clean up the class reader of a project after every lookup, or
+	 * <code>false</code> for concurrent lookups that share the class readers and their open jars; the jars are then
+	 * closed once they are idle or the engine is {@link #cleanup() cleaned up}
+	 */
 	public TypeHierarchyEngine(boolean autoCleanup) {
 		this.autoCleanup = autoCleanup;
 		this.cache = new ConcurrentHashMap<IProject, TypeHierarchyElementCache>();
@@ -64,8 +73,10 @@ public class TypeHierarchyEngine {
 	}
 
 	public void clearCache(IProject project) {
-		cleanup(project);
-		this.readers.remove(project);
+		TypeHierarchyClassReader reader = this.readers.remove(project);
+		if (reader != null) {
+			reader.cleanup();
+		}
 		this.cache.remove(project);
 	}
 	
@@ -262,8 +273,11 @@ public class TypeHierarchyEngine {
 	protected TypeHierarchyElementCache getTypeHierarchyElementCache(IProject project) {
 		TypeHierarchyElementCache elementCache = this.cache.get(project);
 		if (elementCache == null) {
-			elementCache = this.elementCacheFactory.createTypeHierarchyElementCache();
-			this.cache.put(project, elementCache);
+			TypeHierarchyElementCache newElementCache = this.elementCacheFactory.createTypeHierarchyElementCache();
+			elementCache = this.cache.putIfAbsent(project, newElementCache);
+			if (elementCache == null) {
+				elementCache = newElementCache;
+			}
 		}
 		return elementCache;
 	}
@@ -271,8 +285,15 @@ public class TypeHierarchyEngine {
 	private TypeHierarchyClassReader getClassReader(IProject project) {
 		TypeHierarchyClassReader result = this.readers.get(project);
 		if (result == null) {
-			result = classReaderFactory.createClassReader(project);
-			this.readers.put(project, result);
+			TypeHierarchyClassReader newReader = classReaderFactory.createClassReader(project);
+			result = this.readers.putIfAbsent(project, newReader);
+			if (result == null) {
+				result = newReader;
+			}
+			else {
+				// a concurrent lookup created the reader first
+				newReader.cleanup();
+			}
 		}
 		return result;
 	}
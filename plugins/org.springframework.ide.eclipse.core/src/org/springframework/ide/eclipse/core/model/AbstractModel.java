@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 Spring IDE Developers
+ * Copyright (c) 2005, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -41,10 +41,18 @@ public abstract class AbstractModel extends AbstractModelElement implements IMod
 
 	public final void notifyListeners(IModelElement element, Type type) {
 		if (element!=null) { //no element? => Nobody to notify.
-			ModelChangeEvent event = new ModelChangeEvent(element, type);
-			for (Object listener : listeners.getListeners()) {
-				((IModelChangeListener) listener).elementChanged(event);
-			}
+			notifyListeners(new ModelChangeEvent(element, type));
+		}
+	}
+
+	/**
+	 * Notifies the listeners of the given event, e.g. of a subclass of {@link ModelChangeEvent} that carries details
+	 * of the change.
+	 * @since 3.9.7
+	 */
+	public final void notifyListeners(ModelChangeEvent event) {
+		for (Object listener : listeners.getListeners()) {
+			((IModelChangeListener) listener).elementChanged(event);
 		}
 	}
 }
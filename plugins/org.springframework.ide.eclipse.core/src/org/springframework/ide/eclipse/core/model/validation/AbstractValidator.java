@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,25 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
+import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinitionFactory;
 import org.springframework.ide.eclipse.core.model.IModelElement;
@@ -39,6 +48,9 @@ import org.springframework.ide.eclipse.core.project.IProjectContributorStateAwar
  */
 public abstract class AbstractValidator implements IValidator, IProjectContributorStateAware {
 
+	/** Shared pool of threads for parallel validation; created on first use */
+	private static ForkJoinPool validationPool;
+
 	/** Internal state object */
 	private IProjectContributorState contributorState;
 
@@ -50,6 +62,9 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	/** unique id for this validator */
 	private String validatorId;
 
+	/** Collects rule and resource timings if validation profiling is enabled */
+	private final ValidationMetrics metrics = ValidationMetrics.getDefault();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -78,47 +93,174 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	 */
 	public final void validate(Set<IResource> affectedResources, int kind, IProgressMonitor monitor)
 			throws CoreException {
+		if (affectedResources.size() > 1 && isParallelValidationEnabled()) {
+			validateInParallel(affectedResources, kind, monitor);
+			return;
+		}
 		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size());
 		try {
 			for (IResource resource : affectedResources) {
 				String progressMessage = "Validating '" + resource.getFullPath().toString().substring(1) + "'";
 				reportProgress(progressMessage, subMonitor);
 
-				cleanup(resource, subMonitor);
+				// Markers are reconciled with the new problems if possible; otherwise they are wiped upfront
+				IMarker[] existingMarkers = findExistingMarkers(resource);
+				if (existingMarkers == null) {
+					cleanup(resource, subMonitor);
+				}
 				if (subMonitor.isCanceled()) {
 					throw new OperationCanceledException();
 				}
 
+				long start = metrics.isEnabled() ? System.nanoTime() : 0;
 				IValidationElementLifecycleManager callback = initValidationElementCallback(resource, kind);
 
 				IResourceModelElement rootElement = callback.getRootElement();
 
 				// Check if resource model element is external to the workspace -> if so, do not validate the resource
 				if (rootElement != null && rootElement.isExternal()) {
+					updateProblemMarkers(resource, existingMarkers, null);
 					monitor.worked(1);
 					break;
 				}
 
+				Set<ValidationProblem> problems = null;
 				Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
 				if (rootElement != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
-					Set<ValidationProblem> problems = validate(callback, ruleDefinitions, subMonitor);
-					ValidationUtils.createProblemMarkers(resource, problems, getMarkerId());
+					problems = validate(callback, ruleDefinitions, subMonitor);
 				}
+				updateProblemMarkers(resource, existingMarkers, problems);
 
 				// call close on callback to execute any required resource cleanup in template
 				callback.destroy();
+				if (start != 0) {
+					metrics.recordResource(validatorId, resource.getFullPath().toString(), System.nanoTime() - start);
+				}
+
+				subMonitor.worked(1);
+				if (subMonitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			}
+		}
+		finally {
+			subMonitor.done();
+		}
+	}
+
+	/**
+	 * Validates the given resources concurrently. The resources (and the context elements of each
+	 * resource) are validated on a shared pool of threads, each with its own {@link IValidationContext}.
+	 * Markers are written afterwards on the calling thread, in the order the resources were given, so
+	 * that the outcome is the same as validating the resources one after another.
+	 * <p>
+	 * As in serial mode, no resource after the first external one is validated: the resources are
+	 * initialized on the calling thread up to the first external one before any validation starts.
+	 */
+	private void validateInParallel(Set<IResource> affectedResources, int kind, IProgressMonitor monitor)
+			throws CoreException {
+		final SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size());
+		// Progress monitors are not thread-safe; worker threads only check for cancellation
+		final IProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return subMonitor.isCanceled();
+			}
+		};
+		List<ResourceValidation> validations = new ArrayList<ResourceValidation>(affectedResources.size());
+		List<ForkJoinTask<Set<ValidationProblem>>> tasks = new ArrayList<ForkJoinTask<Set<ValidationProblem>>>(affectedResources.size());
+		IResource externalResource = null;
+		try {
+			for (IResource resource : affectedResources) {
+				IValidationElementLifecycleManager callback = initValidationElementCallback(resource, kind);
+				IResourceModelElement rootElement = callback.getRootElement();
+				if (rootElement != null && rootElement.isExternal()) {
+					callback.destroy();
+					externalResource = resource;
+					break;
+				}
+				validations.add(new ResourceValidation(resource, callback, workerMonitor));
+			}
+			for (ResourceValidation validation : validations) {
+				tasks.add(getValidationPool().submit(validation));
+			}
+			for (int i = 0; i < validations.size(); i++) {
+				IResource resource = validations.get(i).resource;
+				String progressMessage = "Validating '" + resource.getFullPath().toString().substring(1) + "'";
+				reportProgress(progressMessage, subMonitor);
+
+				Set<ValidationProblem> problems = tasks.get(i).join();
+
+				IMarker[] existingMarkers = findExistingMarkers(resource);
+				if (existingMarkers == null) {
+					cleanup(resource, subMonitor);
+				}
+				if (subMonitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				updateProblemMarkers(resource, existingMarkers, problems);
 
 				subMonitor.worked(1);
 				if (subMonitor.isCanceled()) {
 					throw new OperationCanceledException();
 				}
 			}
+			if (externalResource != null) {
+				// same as serial mode: clear the markers of the first external resource and stop
+				IMarker[] existingMarkers = findExistingMarkers(externalResource);
+				if (existingMarkers == null) {
+					cleanup(externalResource, subMonitor);
+				}
+				updateProblemMarkers(externalResource, existingMarkers, null);
+				monitor.worked(1);
+			}
 		}
 		finally {
+			for (ForkJoinTask<Set<ValidationProblem>> task : tasks) {
+				task.cancel(false);
+			}
+			for (ResourceValidation validation : validations) {
+				validation.discard();
+			}
 			subMonitor.done();
 		}
 	}
 
+	/**
+	 * Validates the context elements of a resource concurrently, merging the problems in the order of the
+	 * context elements. Must be called from a thread of the validation pool.
+	 */
+	private Set<ValidationProblem> validateConcurrently(final IValidationElementLifecycleManager callback,
+			final Set<ValidationRuleDefinition> ruleDefinitions, final IProgressMonitor monitor) {
+		List<ForkJoinTask<Set<ValidationProblem>>> tasks = new ArrayList<ForkJoinTask<Set<ValidationProblem>>>();
+		for (final IResourceModelElement contextElement : callback.getContextElements()) {
+			tasks.add(ForkJoinTask.adapt(new Callable<Set<ValidationProblem>>() {
+				public Set<ValidationProblem> call() throws Exception {
+					return validate(callback, contextElement, ruleDefinitions, monitor);
+				}
+			}));
+		}
+		ForkJoinTask.invokeAll(tasks);
+		Set<ValidationProblem> problems = new LinkedHashSet<ValidationProblem>();
+		for (ForkJoinTask<Set<ValidationProblem>> task : tasks) {
+			problems.addAll(task.join());
+		}
+		return problems;
+	}
+
+	/**
+	 * Writes the markers for the problems found in a resource. If the existing markers are known, only the
+	 * difference is applied, otherwise the markers are simply created (as they have been cleaned up before).
+	 */
+	private void updateProblemMarkers(IResource resource, IMarker[] existingMarkers, Set<ValidationProblem> problems) {
+		if (existingMarkers != null) {
+			ValidationUtils.reconcileProblemMarkers(resource, existingMarkers, problems, getMarkerId());
+		}
+		else if (problems != null) {
+			ValidationUtils.createProblemMarkers(resource, problems, getMarkerId());
+		}
+	}
+
 	private IValidationElementLifecycleManager initValidationElementCallback(IResource resource, int kind) {
 		IValidationElementLifecycleManager callback = createValidationElementLifecycleManager();
 		if (callback instanceof IValidationElementLifecycleManagerExtension) {
@@ -132,19 +274,27 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 			Set<ValidationRuleDefinition> ruleDefinitions, SubProgressMonitor subMonitor) {
 		Set<ValidationProblem> problems = new LinkedHashSet<ValidationProblem>();
 		for (IResourceModelElement contextElement : callback.getContextElements()) {
-			IValidationContext context = createContext(callback.getRootElement(), contextElement);
-			if (context instanceof IProjectContributorStateAware) {
-				((IProjectContributorStateAware) context).setProjectContributorState(contributorState);
-			}
+			problems.addAll(validate(callback, contextElement, ruleDefinitions, subMonitor));
+		}
+		return problems;
+	}
 
-			if (context != null) {
-				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions);
-				callback.getRootElement().accept(visitor, subMonitor);
-				problems.addAll(context.getProblems());
-			}
-			if (subMonitor.isCanceled()) {
-				throw new OperationCanceledException();
-			}
+	private Set<ValidationProblem> validate(IValidationElementLifecycleManager callback,
+			IResourceModelElement contextElement, Set<ValidationRuleDefinition> ruleDefinitions,
+			IProgressMonitor monitor) {
+		Set<ValidationProblem> problems = Collections.emptySet();
+		IValidationContext context = createContext(callback.getRootElement(), contextElement);
+		if (context instanceof IProjectContributorStateAware) {
+			((IProjectContributorStateAware) context).setProjectContributorState(contributorState);
+		}
+
+		if (context != null) {
+			IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions);
+			callback.getRootElement().accept(visitor, monitor);
+			problems = context.getProblems();
+		}
+		if (monitor.isCanceled()) {
+			throw new OperationCanceledException();
 		}
 		return problems;
 	}
@@ -161,6 +311,48 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	 */
 	protected abstract IValidationElementLifecycleManager createValidationElementLifecycleManager();
 
+	/**
+	 * Returns the markers that {@link #cleanup(IResource, IProgressMonitor)} would delete for the given resource, so
+	 * that they can be reconciled with the new validation problems instead of being deleted and recreated. Returns
+	 * <code>null</code> if the markers are not known, in which case the resource is cleaned up before validation.
+	 * <p>
+	 * Returns <code>null</code> by default. Sub classes that keep the default cleanup can return
+	 * {@link #findDefaultCleanupMarkers(IResource)}; sub classes that override the cleanup have to return the markers
+	 * their cleanup deletes.
+	 * @since 3.9.7
+	 */
+	protected IMarker[] findExistingMarkers(IResource resource) throws CoreException {
+		return null;
+	}
+
+	/**
+	 * Returns the markers the default {@link #cleanup(IResource, IProgressMonitor)} deletes for the given resource,
+	 * or <code>null</code> if the resource is not accessible.
+	 * @since 3.9.7
+	 */
+	protected final IMarker[] findDefaultCleanupMarkers(IResource resource) throws CoreException {
+		if (resource == null || !resource.isAccessible()) {
+			return null;
+		}
+		return resource.findMarkers(getMarkerId(), true, IResource.DEPTH_INFINITE);
+	}
+
+	/**
+	 * Returns <code>true</code> if resources should be validated concurrently.
+	 * @since 3.9.7
+	 */
+	protected boolean isParallelValidationEnabled() {
+		SpringCore plugin = SpringCore.getDefault();
+		return plugin != null && plugin.getPluginPreferences().getBoolean(SpringCore.USE_PARALLEL_VALIDATION);
+	}
+
+	private static synchronized ForkJoinPool getValidationPool() {
+		if (validationPool == null) {
+			validationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return validationPool;
+	}
+
 	/**
 	 * Returns the ID of this validator's {@link IMarker validation problem marker} ID.
 	 */
@@ -248,6 +440,58 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 		return true;
 	}
 
+	/**
+	 * Validation of a single, already initialized resource in parallel mode. The lifecycle manager is
+	 * destroyed exactly once, either after the validation ran or when the validation is discarded before
+	 * it started.
+	 */
+	private class ResourceValidation implements Callable<Set<ValidationProblem>> {
+
+		private final IResource resource;
+
+		private final IValidationElementLifecycleManager callback;
+
+		private final IProgressMonitor monitor;
+
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		ResourceValidation(IResource resource, IValidationElementLifecycleManager callback, IProgressMonitor monitor) {
+			this.resource = resource;
+			this.callback = callback;
+			this.monitor = monitor;
+		}
+
+		public Set<ValidationProblem> call() {
+			if (!started.compareAndSet(false, true)) {
+				return null;
+			}
+			if (monitor.isCanceled()) {
+				callback.destroy();
+				throw new OperationCanceledException();
+			}
+			long start = metrics.isEnabled() ? System.nanoTime() : 0;
+			try {
+				Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
+				if (callback.getRootElement() != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
+					return validateConcurrently(callback, ruleDefinitions, monitor);
+				}
+				return null;
+			}
+			finally {
+				callback.destroy();
+				if (start != 0) {
+					metrics.recordResource(validatorId, resource.getFullPath().toString(), System.nanoTime() - start);
+				}
+			}
+		}
+
+		void discard() {
+			if (started.compareAndSet(false, true)) {
+				callback.destroy();
+			}
+		}
+	}
+
 	/**
 	 * {@link IModelElementVisitor} implementation that validates a specified model tree.
 	 */
@@ -257,9 +501,12 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 
 		private Set<ValidationRuleDefinition> ruleDefinitions;
 
+		private final boolean profile;
+
 		public ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions) {
 			this.ruleDefinitions = ruleDefinitions;
 			this.context = context;
+			this.profile = metrics.isEnabled();
 		}
 
 		@SuppressWarnings("unchecked")
@@ -277,7 +524,14 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 						IValidationRule rule = ruleDefinition.getRule();
 						if (rule.supports(element, context)) {
 							context.setCurrentRuleDefinition(ruleDefinition);
-							rule.validate(element, context, monitor);
+							if (profile) {
+								long start = System.nanoTime();
+								rule.validate(element, context, monitor);
+								metrics.recordRule(ruleDefinition.getId(), ruleDefinition.getName(), System.nanoTime() - start);
+							}
+							else {
+								rule.validate(element, context, monitor);
+							}
 						}
 						subMonitor.worked(1);
 					}
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Collects timing information about validation: how often each validation rule and each validated resource was
+ * processed, and how much time that took in total and at most.
+ * <p>
+ * Collection is controlled by the {@link SpringCore#USE_VALIDATION_PROFILING} preference. When disabled, the
+ * validation framework doesn't take any timings at all. When enabled, the collected data can be exported as a CSV or
+ * JSON report. A trace line per validated resource is only printed if the {@link #DEBUG_OPTION} debug option is on.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public final class ValidationMetrics {
+
+	public static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/validation/debug";
+
+	private static final boolean DEBUG = SpringCore.isDebug(DEBUG_OPTION);
+
+	private static final ValidationMetrics INSTANCE = new ValidationMetrics();
+
+	public static ValidationMetrics getDefault() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Timing statistics for a single rule or resource.
+	 */
+	public static final class Stats {
+
+		private final String id;
+
+		private final String name;
+
+		private long count;
+
+		private long totalNanos;
+
+		private long maxNanos;
+
+		private Stats(String id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		private Stats(Stats other) {
+			synchronized (other) {
+				this.id = other.id;
+				this.name = other.name;
+				this.count = other.count;
+				this.totalNanos = other.totalNanos;
+				this.maxNanos = other.maxNanos;
+			}
+		}
+
+		private synchronized void record(long nanos) {
+			count++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+		}
+
+		public long getMaxMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+		}
+
+		private long getTotalNanos() {
+			return totalNanos;
+		}
+	}
+
+	private final ConcurrentMap<String, Stats> ruleStats = new ConcurrentHashMap<String, Stats>();
+
+	private final ConcurrentMap<String, Stats> resourceStats = new ConcurrentHashMap<String, Stats>();
+
+	private ValidationMetrics() {
+	}
+
+	/**
+	 * Returns <code>true</code> if validation timings should be collected.
+	 */
+	public boolean isEnabled() {
+		SpringCore plugin = SpringCore.getDefault();
+		return plugin != null && plugin.getPluginPreferences().getBoolean(SpringCore.USE_VALIDATION_PROFILING);
+	}
+
+	/**
+	 * Records a single invocation of a validation rule.
+	 */
+	public void recordRule(String ruleId, String ruleName, long nanos) {
+		getStats(ruleStats, ruleId, ruleName).record(nanos);
+	}
+
+	/**
+	 * Records the validation of a single resource by a validator.
+	 */
+	public void recordResource(String validatorId, String resourcePath, long nanos) {
+		String id = validatorId + ":" + resourcePath;
+		getStats(resourceStats, id, resourcePath).record(nanos);
+		if (DEBUG) {
+			System.out.println(String.format("spring-tooling.validation - validator: %s - resource: %s - %d ms",
+					validatorId, resourcePath, TimeUnit.NANOSECONDS.toMillis(nanos)));
+		}
+	}
+
+	private Stats getStats(ConcurrentMap<String, Stats> stats, String id, String name) {
+		Stats s = stats.get(id);
+		if (s == null) {
+			Stats newStats = new Stats(id, name);
+			s = stats.putIfAbsent(id, newStats);
+			if (s == null) {
+				s = newStats;
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Returns a snapshot of the statistics per validation rule, slowest (in total) first.
+	 */
+	public List<Stats> getRuleStats() {
+		return snapshot(ruleStats);
+	}
+
+	/**
+	 * Returns a snapshot of the statistics per validated resource, slowest (in total) first.
+	 */
+	public List<Stats> getResourceStats() {
+		return snapshot(resourceStats);
+	}
+
+	private List<Stats> snapshot(ConcurrentMap<String, Stats> stats) {
+		List<Stats> snapshot = new ArrayList<Stats>(stats.size());
+		for (Stats s : stats.values()) {
+			snapshot.add(new Stats(s));
+		}
+		Collections.sort(snapshot, new Comparator<Stats>() {
+			public int compare(Stats s1, Stats s2) {
+				return Long.compare(s2.getTotalNanos(), s1.getTotalNanos());
+			}
+		});
+		return snapshot;
+	}
+
+	/**
+	 * Discards all collected statistics.
+	 */
+	public void reset() {
+		ruleStats.clear();
+		resourceStats.clear();
+	}
+
+	/**
+	 * Returns the collected statistics as CSV, one line per rule and resource.
+	 */
+	public String toCsv() {
+		StringBuilder csv = new StringBuilder("kind,id,name,count,totalMillis,maxMillis\n");
+		appendCsv(csv, "rule", getRuleStats());
+		appendCsv(csv, "resource", getResourceStats());
+		return csv.toString();
+	}
+
+	private void appendCsv(StringBuilder csv, String kind, List<Stats> stats) {
+		for (Stats s : stats) {
+			csv.append(kind).append(',').append(csvValue(s.getId())).append(',').append(csvValue(s.getName()))
+					.append(',').append(s.getCount()).append(',').append(s.getTotalMillis()).append(',')
+					.append(s.getMaxMillis()).append('\n');
+		}
+	}
+
+	private String csvValue(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the collected statistics as a JSON document with a "rules" and a "resources" array.
+	 */
+	public String toJson() {
+		StringBuilder json = new StringBuilder("{\n");
+		appendJson(json, "rules", getRuleStats());
+		json.append(",\n");
+		appendJson(json, "resources", getResourceStats());
+		json.append("\n}\n");
+		return json.toString();
+	}
+
+	private void appendJson(StringBuilder json, String name, List<Stats> stats) {
+		json.append("  \"").append(name).append("\": [");
+		boolean first = true;
+		for (Stats s : stats) {
+			json.append(first ? "\n" : ",\n");
+			first = false;
+			json.append("    {\"id\": ").append(jsonValue(s.getId())).append(", \"name\": ").append(jsonValue(s.getName()))
+					.append(", \"count\": ").append(s.getCount()).append(", \"totalMillis\": ").append(s.getTotalMillis())
+					.append(", \"maxMillis\": ").append(s.getMaxMillis()).append('}');
+		}
+		json.append(first ? "]" : "\n  ]");
+	}
+
+	private String jsonValue(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder escaped = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			switch (c) {
+			case '"':
+				escaped.append("\\\"");
+				break;
+			case '\\':
+				escaped.append("\\\\");
+				break;
+			case '\n':
+				escaped.append("\\n");
+				break;
+			case '\r':
+				escaped.append("\\r");
+				break;
+			case '\t':
+				escaped.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					escaped.append(String.format("\\u%04x", (int) c));
+				}
+				else {
+					escaped.append(c);
+				}
+			}
+		}
+		return escaped.append('"').toString();
+	}
+
+}
@@ -10,14 +10,21 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
 import org.springframework.ide.eclipse.core.SpringCore;
 
@@ -30,6 +37,102 @@ import org.springframework.ide.eclipse.core.SpringCore;
  */
 public final class ValidationUtils {
 
+	/**
+	 * Brings the {@link IMarker validation markers} for the given validation problems up to date, given the markers
+	 * that currently exist for them.
+	 * <p>
+	 * Existing markers that match a problem are left untouched, only the difference is applied: obsolete markers
+	 * are deleted and markers for new problems are created. All changes are applied in a single workspace operation,
+	 * so that listeners receive at most one resource delta. Nothing is done if the markers are already up to date.
+	 * @param resource the validated resource
+	 * @param existingMarkers the markers currently reported for the validated resource
+	 * @param problems the problems that should be reported; may be <code>null</code> if there are none
+	 * @param markerId the type of the markers to create
+	 * @since 3.9.7
+	 */
+	public static void reconcileProblemMarkers(IResource resource, IMarker[] existingMarkers,
+			Set<ValidationProblem> problems, String markerId) {
+
+		// Index existing markers by resource and attributes
+		final Map<MarkerKey, List<IMarker>> obsolete = new HashMap<MarkerKey, List<IMarker>>();
+		for (IMarker marker : existingMarkers) {
+			try {
+				if (marker.exists()) {
+					MarkerKey key = new MarkerKey(marker.getResource(), marker.getType(), marker.getAttributes());
+					List<IMarker> markers = obsolete.get(key);
+					if (markers == null) {
+						markers = new ArrayList<IMarker>(1);
+						obsolete.put(key, markers);
+					}
+					markers.add(marker);
+				}
+			}
+			catch (CoreException e) {
+				SpringCore.log(e);
+			}
+		}
+
+		// Determine which of the required markers are missing
+		final List<MarkerKey> missing = new ArrayList<MarkerKey>();
+		if (problems != null) {
+			Set<String> reported = new HashSet<String>();
+			for (ValidationProblem problem : problems) {
+				// Don't install problems that are configured to get ignored
+				if (problem.getSeverity() < 0) {
+					continue;
+				}
+				IResource target = problem.getResource() != null ? problem.getResource() : resource;
+				if (target == null || !target.isAccessible()) {
+					continue;
+				}
+				// Only one marker per resource, line and message (same as createProblemMarker)
+				if (!reported.add(target.getFullPath() + ":" + problem.getLine() + ":" + problem.getMessage())) {
+					continue;
+				}
+				MarkerKey key = new MarkerKey(target, markerId, getMarkerAttributes(resource, problem));
+				List<IMarker> markers = obsolete.get(key);
+				if (markers != null && !markers.isEmpty()) {
+					// Marker exists already: keep it
+					markers.remove(markers.size() - 1);
+				}
+				else {
+					missing.add(key);
+				}
+			}
+		}
+
+		boolean hasObsolete = false;
+		for (List<IMarker> markers : obsolete.values()) {
+			hasObsolete |= !markers.isEmpty();
+		}
+		if (!hasObsolete && missing.isEmpty()) {
+			return;
+		}
+
+		IWorkspaceRunnable update = new IWorkspaceRunnable() {
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (List<IMarker> markers : obsolete.values()) {
+					for (IMarker marker : markers) {
+						marker.delete();
+					}
+				}
+				for (MarkerKey key : missing) {
+					// Problems may be reported against other resources, which may hold an equivalent marker already
+					if (!hasMarker(key.resource, key.type, key.getLine(), key.getMessage())) {
+						IMarker marker = key.resource.createMarker(key.type);
+						marker.setAttributes(key.attributes);
+					}
+				}
+			}
+		};
+		try {
+			ResourcesPlugin.getWorkspace().run(update, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (CoreException e) {
+			SpringCore.log(e);
+		}
+	}
+
 	/**
 	 * Creates the {@link IMarker validation markers} on the specified resource for the given validation problems.
 	 */
@@ -62,60 +165,119 @@ public final class ValidationUtils {
 			try {
 
 				// First check if specified marker already exists
-				IMarker[] markers = resource.findMarkers(markerId, false, IResource.DEPTH_ZERO);
-				for (IMarker marker : markers) {
-					int line = marker.getAttribute(IMarker.LINE_NUMBER, -1);
-					if (line == problem.getLine()) {
-						String msg = marker.getAttribute(IMarker.MESSAGE, "");
-						if (msg.equals(problem.getMessage())) {
-							return;
-						}
-					}
+				if (hasMarker(resource, markerId, problem.getLine(), problem.getMessage())) {
+					return;
 				}
 
 				// Create new marker
 				IMarker marker = resource.createMarker(markerId);
-				Map<String, Object> attributes = new HashMap<String, Object>();
-				attributes.put(IMarker.MESSAGE, problem.getMessage());
-				attributes.put(IMarker.SEVERITY, new Integer(problem.getSeverity()));
-
-				// Store the originating resource reference in marker so that
-				// the marker can later on be deleted with a reference from the
-				// initial resource
-				attributes.put(MarkerUtils.ORIGINATING_RESOURCE_KEY, originatingResource.getFullPath().toString());
-				if (problem.getLine() > 0) {
-					attributes.put(IMarker.LINE_NUMBER, new Integer(problem.getLine()));
-				}
-				if (problem.getErrorId() != null) {
-					attributes.put(IValidationProblemMarker.ERROR_ID, problem.getErrorId());
-				}
-				if (problem.getRuleId() != null) {
-					attributes.put(IValidationProblemMarker.RULE_ID, problem.getRuleId());
+				marker.setAttributes(getMarkerAttributes(originatingResource, problem));
+			}
+			catch (CoreException e) {
+				SpringCore.log(e);
+			}
+		}
+	}
+
+	/**
+	 * Checks if the given resource has a marker of the given type for the given line and message.
+	 */
+	private static boolean hasMarker(IResource resource, String markerId, int line, String message)
+			throws CoreException {
+		IMarker[] markers = resource.findMarkers(markerId, false, IResource.DEPTH_ZERO);
+		for (IMarker marker : markers) {
+			if (marker.getAttribute(IMarker.LINE_NUMBER, -1) == line) {
+				String msg = marker.getAttribute(IMarker.MESSAGE, "");
+				if (msg.equals(message)) {
+					return true;
 				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the attributes of the {@link IMarker validation marker} for the given validation problem.
+	 */
+	private static Map<String, Object> getMarkerAttributes(IResource originatingResource, ValidationProblem problem) {
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		attributes.put(IMarker.MESSAGE, problem.getMessage());
+		attributes.put(IMarker.SEVERITY, new Integer(problem.getSeverity()));
+
+		// Store the originating resource reference in marker so that
+		// the marker can later on be deleted with a reference from the
+		// initial resource
+		attributes.put(MarkerUtils.ORIGINATING_RESOURCE_KEY, originatingResource.getFullPath().toString());
+		if (problem.getLine() > 0) {
+			attributes.put(IMarker.LINE_NUMBER, new Integer(problem.getLine()));
+		}
+		if (problem.getErrorId() != null) {
+			attributes.put(IValidationProblemMarker.ERROR_ID, problem.getErrorId());
+		}
+		if (problem.getRuleId() != null) {
+			attributes.put(IValidationProblemMarker.RULE_ID, problem.getRuleId());
+		}
 
-				// Add validation attributes to the list of marker attributes
-				for (ValidationProblemAttribute attribute : problem.getAttributes()) {
-					Object value = attribute.getValue();
-
-					// Marker can only handle value of type String, Integer or Boolean
-					if (value instanceof String || value instanceof Integer || value instanceof Boolean) {
-						attributes.put(attribute.getKey(), value);
-					} else if (value instanceof List<?>) {
-						int counter = 1;
-						for(Object v: (List<?>) value) {
-							if (v instanceof String || value instanceof Integer || value instanceof Boolean) {
-								attributes.put(attribute.getKey() + counter, v);
-								counter++;
-							}
-						}
+		// Add validation attributes to the list of marker attributes
+		for (ValidationProblemAttribute attribute : problem.getAttributes()) {
+			Object value = attribute.getValue();
+
+			// Marker can only handle value of type String, Integer or Boolean
+			if (value instanceof String || value instanceof Integer || value instanceof Boolean) {
+				attributes.put(attribute.getKey(), value);
+			} else if (value instanceof List<?>) {
+				int counter = 1;
+				for(Object v: (List<?>) value) {
+					if (v instanceof String || value instanceof Integer || value instanceof Boolean) {
+						attributes.put(attribute.getKey() + counter, v);
+						counter++;
 					}
 				}
-
-				marker.setAttributes(attributes);
 			}
-			catch (CoreException e) {
-				SpringCore.log(e);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Identifies a marker by its resource, type and attributes.
+	 */
+	private static class MarkerKey {
+
+		private final IResource resource;
+
+		private final String type;
+
+		private final Map<String, Object> attributes;
+
+		@SuppressWarnings("unchecked")
+		public MarkerKey(IResource resource, String type, Map<String, ?> attributes) {
+			this.resource = resource;
+			this.type = type;
+			this.attributes = attributes != null ? (Map<String, Object>) attributes : Collections.<String, Object>emptyMap();
+		}
+
+		public int getLine() {
+			Object line = attributes.get(IMarker.LINE_NUMBER);
+			return line instanceof Integer ? (Integer) line : -1;
+		}
+
+		public String getMessage() {
+			Object message = attributes.get(IMarker.MESSAGE);
+			return message instanceof String ? (String) message : "";
+		}
+
+		@Override
+		public int hashCode() {
+			return resource.hashCode() * 31 + attributes.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof MarkerKey)) {
+				return false;
 			}
+			MarkerKey other = (MarkerKey) obj;
+			return resource.equals(other.resource) && type.equals(other.type) && attributes.equals(other.attributes);
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2013 Spring IDE Developers
+ * Copyright (c) 2012, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,7 +18,8 @@ import org.junit.runners.Suite.SuiteClasses;
  * @author Tomasz Zarna
  */
 @RunWith(Suite.class)
-@SuiteClasses({ KeywordProviderSupportUnitTests.class, //
+@SuiteClasses({ DerivedQueryValidationCacheUnitTests.class, //
+		KeywordProviderSupportUnitTests.class, //
 		QueryMethodCandidateUnitTests.class, //
 		QueryMethodPartUnitTests.class, //
 		RepositoryInformationTest.class //
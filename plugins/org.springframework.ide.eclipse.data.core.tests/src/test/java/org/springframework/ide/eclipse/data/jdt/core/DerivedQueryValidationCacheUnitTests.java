@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.data.jdt.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Spring IDE Developers
+ */
+public class DerivedQueryValidationCacheUnitTests {
+
+	private DerivedQueryValidationCache cache;
+
+	private IProject project;
+
+	@Before
+	public void setUp() {
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("project");
+		cache = DerivedQueryValidationCache.getDefault();
+		cache.clear();
+	}
+
+	@Test
+	public void validatesDerivedQueries() {
+
+		assertThat(cache.validate(project, "findByFirstname", User.class), is(nullValue()));
+		assertThat(cache.validate(project, "findByLastname", User.class), is(notNullValue()));
+	}
+
+	@Test
+	public void remembersResultsPerDomainClass() {
+
+		assertThat(cache.isValidated(project, "findByFirstname", User.class), is(false));
+		cache.validate(project, "findByFirstname", User.class);
+		assertThat(cache.isValidated(project, "findByFirstname", User.class), is(true));
+		assertThat(cache.isValidated(project, "findByFirstname", Customer.class), is(false));
+
+		assertThat(cache.validate(project, "findByFirstname", Customer.class), is(notNullValue()));
+		assertThat(cache.validate(project, "findByFirstname", User.class), is(nullValue()));
+	}
+
+	@Test
+	public void remembersResultsPerProject() {
+
+		cache.validate(project, "findByFirstname", User.class);
+		IProject otherProject = ResourcesPlugin.getWorkspace().getRoot().getProject("otherProject");
+		assertThat(cache.isValidated(otherProject, "findByFirstname", User.class), is(false));
+	}
+
+	@Test
+	public void clearDiscardsResults() {
+
+		cache.validate(project, "findByFirstname", User.class);
+		cache.clear();
+		assertThat(cache.isValidated(project, "findByFirstname", User.class), is(false));
+	}
+
+	@Test
+	public void clearOfProjectKeepsResultsOfOtherProjects() {
+
+		IProject otherProject = ResourcesPlugin.getWorkspace().getRoot().getProject("otherProject");
+		cache.validate(project, "findByFirstname", User.class);
+		cache.validate(otherProject, "findByFirstname", User.class);
+		cache.clear(project);
+		assertThat(cache.isValidated(project, "findByFirstname", User.class), is(false));
+		assertThat(cache.isValidated(otherProject, "findByFirstname", User.class), is(true));
+	}
+
+	@Test
+	public void reusesResultsForReloadedDomainClassOfSameStructure() throws Exception {
+
+		assertThat(cache.validate(project, "findByAddressCity", Order.class), is(nullValue()));
+		assertThat(cache.validate(project, "findByAddressStreet", Order.class), is(notNullValue()));
+
+		Class<?> reloaded = new ReloadingClassLoader(Order.class, Address.class).loadClass(Order.class.getName());
+		assertThat(reloaded, is(not(sameInstance((Object) Order.class))));
+		assertThat(DerivedQueryValidationCache.getStructureHash(reloaded),
+				is(DerivedQueryValidationCache.getStructureHash(Order.class)));
+		assertThat(cache.isValidated(project, "findByAddressCity", reloaded), is(true));
+		assertThat(cache.validate(project, "findByAddressStreet", reloaded), is(notNullValue()));
+	}
+
+	class User {
+
+		String firstname;
+	}
+
+	class Customer {
+
+		String lastname;
+	}
+
+	static class Order {
+
+		String number;
+
+		Address address;
+	}
+
+	static class Address {
+
+		String city;
+	}
+
+	/**
+	 * Loads the given classes anew from their class files, like a project class loader after a build.
+	 */
+	static class ReloadingClassLoader extends ClassLoader {
+
+		private final Set<String> names = new HashSet<String>();
+
+		ReloadingClassLoader(Class<?>... classes) {
+			super(DerivedQueryValidationCacheUnitTests.class.getClassLoader());
+			for (Class<?> type : classes) {
+				names.add(type.getName());
+			}
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!names.contains(name)) {
+				return super.loadClass(name, resolve);
+			}
+			Class<?> type = findLoadedClass(name);
+			if (type == null) {
+				byte[] bytes = readClassFile(name);
+				type = defineClass(name, bytes, 0, bytes.length);
+			}
+			return type;
+		}
+
+		private byte[] readClassFile(String name) throws ClassNotFoundException {
+			InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+			if (in == null) {
+				throw new ClassNotFoundException(name);
+			}
+			try {
+				try {
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					byte[] buffer = new byte[4096];
+					for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+						out.write(buffer, 0, read);
+					}
+					return out.toByteArray();
+				}
+				finally {
+					in.close();
+				}
+			}
+			catch (IOException e) {
+				throw new ClassNotFoundException(name, e);
+			}
+		}
+	}
+}
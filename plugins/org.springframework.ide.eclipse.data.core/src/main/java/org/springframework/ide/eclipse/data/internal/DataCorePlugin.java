@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Spring IDE Developers
+ * Copyright (c) 2012, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,8 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.data.jdt.core.DerivedQueryValidationCache;
 
 /**
  * Central access point for the Spring Data Support plug-in (id
@@ -47,6 +49,18 @@ public class DataCorePlugin extends AbstractUIPlugin {
 		return plugin;
 	}
 
+	@Override
+	public void start(BundleContext context) throws Exception {
+		super.start(context);
+		DerivedQueryValidationCache.getDefault().startup();
+	}
+
+	@Override
+	public void stop(BundleContext context) throws Exception {
+		DerivedQueryValidationCache.getDefault().shutdown();
+		super.stop(context);
+	}
+
 	public static void log(Throwable exception) {
 		getDefault().getLog().log(createErrorStatus("Internal Error", exception));
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 Spring IDE Developers
+ * Copyright (c) 2012, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,14 +16,13 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
-import org.springframework.data.mapping.PropertyReferenceException;
-import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.core.model.java.JavaModelSourceLocation;
 import org.springframework.ide.eclipse.core.model.validation.IValidationContext;
 import org.springframework.ide.eclipse.core.model.validation.IValidationRule;
 import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
+import org.springframework.ide.eclipse.data.jdt.core.DerivedQueryValidationCache;
 import org.springframework.ide.eclipse.data.jdt.core.RepositoryInformation;
 import org.springframework.ide.eclipse.data.jdt.core.SpringDataCompilationParticipant;
 
@@ -96,13 +95,14 @@ public class InvalidDerivedQueryRule implements IValidationRule<CompilationUnit,
 				return;
 			}
 
+			DerivedQueryValidationCache cache = DerivedQueryValidationCache.getDefault();
+
 			for (IMethod method : information.getMethodsToValidate()) {
 
 				String methodName = method.getElementName();
 
-				try {
-					new PartTree(methodName, domainClass);
-				} catch (PropertyReferenceException e) {
+				String error = cache.validate(type.getJavaProject().getProject(), methodName, domainClass);
+				if (error != null) {
 					element.setElementSourceLocation(new JavaModelSourceLocation(
 							method));
 					ValidationProblemAttribute start = new ValidationProblemAttribute(
@@ -113,7 +113,7 @@ public class InvalidDerivedQueryRule implements IValidationRule<CompilationUnit,
 									.getOffset()
 									+ method.getSourceRange().getLength());
 					context.error(element, "INVALID_DERIVED_QUERY",
-							"Invalid derived query! " + e.getMessage(),
+							"Invalid derived query! " + error,
 							new ValidationProblemAttribute[] { start, end });
 				}
 			}
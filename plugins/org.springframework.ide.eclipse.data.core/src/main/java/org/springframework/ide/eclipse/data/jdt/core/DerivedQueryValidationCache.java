@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.data.jdt.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.ide.eclipse.core.java.ClasspathChangeListener;
+
+/**
+ * Caches the outcome of parsing derived query method names against a domain class, so that only query methods that
+ * were added or renamed need to be parsed again.
+ * <p>
+ * Results are cached per project, domain class name and structure of the domain class, i.e. the fields and methods of
+ * the domain class, its super classes and the types of their properties. Domain classes are loaded from the compiled
+ * classes of a project, so a changed domain class simply misses the cache. The results of a project are discarded
+ * before the next build once class files or libraries of the project or of a project it depends on changed, which
+ * requires the cache to be {@link #startup() started}.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class DerivedQueryValidationCache {
+
+	private static final DerivedQueryValidationCache INSTANCE = new DerivedQueryValidationCache();
+
+	/** Marks a method name that parsed successfully */
+	private static final String VALID = "";
+
+	public static DerivedQueryValidationCache getDefault() {
+		return INSTANCE;
+	}
+
+	/** Results by project name, keyed by domain class, its structure and method name */
+	private final ConcurrentMap<String, ConcurrentMap<String, String>> results = new ConcurrentHashMap<String, ConcurrentMap<String, String>>();
+
+	/** Structure hashes of loaded domain classes; a changed domain class is loaded by a new class loader */
+	private final Map<Class<?>, String> structureHashes = Collections.synchronizedMap(new WeakHashMap<Class<?>, String>());
+
+	private final ClasspathChangeListener changeListener = new ClasspathChangeListener("class", "jar") {
+
+		@Override
+		protected void filesChanged(Set<IProject> projects) {
+			for (IProject project : projects) {
+				clear(project);
+			}
+		}
+	};
+
+	public void startup() {
+		changeListener.register();
+	}
+
+	public void shutdown() {
+		changeListener.unregister();
+		clear();
+	}
+
+	/**
+	 * Returns <code>true</code> if the given method name has already been validated against the given domain class of
+	 * the given project.
+	 */
+	public boolean isValidated(IProject project, String methodName, Class<?> domainClass) {
+		return getResults(project).containsKey(getKey(methodName, domainClass));
+	}
+
+	/**
+	 * Validates the given query method name against the given domain class of the given project, reusing an earlier
+	 * result if there is one.
+	 * @return the error message if the method name can't be parsed into a query on the domain class, otherwise
+	 * <code>null</code>
+	 */
+	public String validate(IProject project, String methodName, Class<?> domainClass) {
+		ConcurrentMap<String, String> projectResults = getResults(project);
+		String key = getKey(methodName, domainClass);
+		String result = projectResults.get(key);
+		if (result == null) {
+			try {
+				new PartTree(methodName, domainClass);
+				result = VALID;
+			}
+			catch (PropertyReferenceException e) {
+				result = e.getMessage() != null && e.getMessage().length() > 0 ? e.getMessage() : e.toString();
+			}
+			projectResults.put(key, result);
+		}
+		return VALID.equals(result) ? null : result;
+	}
+
+	/**
+	 * Discards the cached results of the given project.
+	 */
+	public void clear(IProject project) {
+		results.remove(project.getName());
+	}
+
+	/**
+	 * Discards all cached results.
+	 */
+	public void clear() {
+		results.clear();
+		structureHashes.clear();
+	}
+
+	private ConcurrentMap<String, String> getResults(IProject project) {
+		ConcurrentMap<String, String> projectResults = results.get(project.getName());
+		if (projectResults == null) {
+			ConcurrentMap<String, String> newResults = new ConcurrentHashMap<String, String>();
+			projectResults = results.putIfAbsent(project.getName(), newResults);
+			if (projectResults == null) {
+				projectResults = newResults;
+			}
+		}
+		return projectResults;
+	}
+
+	private String getKey(String methodName, Class<?> domainClass) {
+		String structureHash = structureHashes.get(domainClass);
+		if (structureHash == null) {
+			structureHash = getStructureHash(domainClass);
+			structureHashes.put(domainClass, structureHash);
+		}
+		return domainClass.getName() + '#' + structureHash + '#' + methodName;
+	}
+
+	/**
+	 * Hashes the names and types of the fields and methods of the given domain class, its super classes and the types
+	 * of their fields, i.e. of everything a query method name may refer to.
+	 */
+	static String getStructureHash(Class<?> domainClass) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			updateStructureHash(digest, domainClass, new HashSet<Class<?>>());
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest.digest()) {
+				hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		catch (LinkageError e) {
+			// the structure can't be told, so the result must not be reused
+			return "unresolved-" + System.identityHashCode(domainClass);
+		}
+	}
+
+	private static void updateStructureHash(MessageDigest digest, Class<?> type, Set<Class<?>> visited) {
+		while (type != null && isDomainType(type) && visited.add(type)) {
+			update(digest, "class " + type.getName());
+			Field[] fields = type.getDeclaredFields();
+			Arrays.sort(fields, new Comparator<Field>() {
+				public int compare(Field f1, Field f2) {
+					return f1.getName().compareTo(f2.getName());
+				}
+			});
+			for (Field field : fields) {
+				update(digest, field.getName() + ':' + field.getGenericType());
+			}
+			Method[] methods = type.getDeclaredMethods();
+			String[] signatures = new String[methods.length];
+			for (int i = 0; i < methods.length; i++) {
+				signatures[i] = methods[i].toGenericString();
+			}
+			Arrays.sort(signatures);
+			for (String signature : signatures) {
+				update(digest, signature);
+			}
+			for (Field field : fields) {
+				updateStructureHash(digest, field.getType(), visited);
+			}
+			type = type.getSuperclass();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> for types that may be defined in a project, as opposed to the JDK.
+	 */
+	private static boolean isDomainType(Class<?> type) {
+		return !type.isPrimitive() && !type.isArray() && type.getClassLoader() != null;
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+}
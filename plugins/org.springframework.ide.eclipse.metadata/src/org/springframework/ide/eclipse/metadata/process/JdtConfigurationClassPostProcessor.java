@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2012, 2014 Pivotal Software, Inc.
+ *  Copyright (c) 2012, 2018 Pivotal Software, Inc.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -45,7 +45,7 @@ import org.springframework.ide.eclipse.beans.core.model.process.IBeansConfigPost
 import org.springframework.ide.eclipse.beans.core.model.process.IBeansConfigPostProcessor;
 import org.springframework.ide.eclipse.beans.core.model.process.IBeansConfigRegistrationSupport;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
-import org.springframework.ide.eclipse.core.java.classreading.CachingJdtMetadataReaderFactory;
+import org.springframework.ide.eclipse.core.java.classreading.ProjectMetadataReaderCache;
 import org.springframework.ide.eclipse.core.java.classreading.JdtConnectedMetadata;
 import org.springframework.ide.eclipse.core.model.java.JavaModelMethodSourceLocation;
 import org.springframework.ide.eclipse.core.model.java.JavaModelSourceLocation;
@@ -76,7 +76,8 @@ public class JdtConfigurationClassPostProcessor implements IBeansConfigPostProce
 
 		processor.setEnvironment(new ToolingAwareEnvironment());
 		processor.setSourceExtractor(sourceExtractor);
-		processor.setMetadataReaderFactory(new CachingJdtMetadataReaderFactory(project, classLoader));
+		processor.setMetadataReaderFactory(ProjectMetadataReaderCache.getDefault().getMetadataReaderFactory(project,
+				classLoader));
 		processor.setProblemReporter(new JdtAnnotationMetadataProblemReporter(postProcessingContext));
 		processor.setResourceLoader(new DefaultResourceLoader(classLoader));
 
@@ -43,6 +43,11 @@ public final class SpringUIMessages extends NLS {
 	public static String ProjectBuilderPropertyPage_IncrementalCompileNote;
 	public static String ProjectBuilderPropertyPage_NonLockingClassLoaderMessage;
 	public static String ProjectBuilderPropertyPage_NonLockingClassLoaderNote;
+	public static String ProjectBuilderPropertyPage_ParallelValidationMessage;
+	public static String ProjectBuilderPropertyPage_ParallelValidationNote;
+	public static String ProjectBuilderPropertyPage_ValidationProfilingMessage;
+	public static String ProjectBuilderPropertyPage_ValidationProfilingNote;
+	public static String ProjectBuilderPropertyPage_ExportValidationReport;
 	
 	public static String ProjectValidatorPropertyPage_title;
 	public static String ProjectValidatorPropertyPage_description;
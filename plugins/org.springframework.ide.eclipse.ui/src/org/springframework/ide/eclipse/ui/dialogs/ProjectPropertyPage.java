@@ -10,15 +10,24 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.ui.dialogs;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.TabFolder;
 import org.eclipse.swt.widgets.TabItem;
@@ -26,6 +35,7 @@ import org.eclipse.ui.dialogs.PropertyPage;
 import org.osgi.service.prefs.BackingStoreException;
 import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.model.validation.IValidator;
+import org.springframework.ide.eclipse.core.model.validation.ValidationMetrics;
 import org.springframework.ide.eclipse.core.project.IProjectBuilder;
 import org.springframework.ide.eclipse.ui.SpringUIMessages;
 import org.springsource.ide.eclipse.commons.core.SpringCorePreferences;
@@ -51,6 +61,10 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 
 	private Button useNonLockingClassLoader;
 
+	private Button useParallelValidation;
+
+	private Button useValidationProfiling;
+
 	public ProjectPropertyPage() {
 		noDefaultAndApplyButton();
 	}
@@ -95,6 +109,33 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 			note = new Label(composite, SWT.WRAP);
 			note.setText(SpringUIMessages.ProjectBuilderPropertyPage_NonLockingClassLoaderNote);
 			note.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+			useParallelValidation = new Button(composite, SWT.CHECK);
+			useParallelValidation.setText(SpringUIMessages.ProjectBuilderPropertyPage_ParallelValidationMessage);
+			useParallelValidation.setSelection(prefs.getBoolean(
+					SpringCore.USE_PARALLEL_VALIDATION, false));
+
+			note = new Label(composite, SWT.WRAP);
+			note.setText(SpringUIMessages.ProjectBuilderPropertyPage_ParallelValidationNote);
+			note.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+			useValidationProfiling = new Button(composite, SWT.CHECK);
+			useValidationProfiling.setText(SpringUIMessages.ProjectBuilderPropertyPage_ValidationProfilingMessage);
+			useValidationProfiling.setSelection(prefs.getBoolean(
+					SpringCore.USE_VALIDATION_PROFILING, false));
+
+			note = new Label(composite, SWT.WRAP);
+			note.setText(SpringUIMessages.ProjectBuilderPropertyPage_ValidationProfilingNote);
+			note.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+			Button exportValidationReport = new Button(composite, SWT.PUSH);
+			exportValidationReport.setText(SpringUIMessages.ProjectBuilderPropertyPage_ExportValidationReport);
+			exportValidationReport.addSelectionListener(new SelectionAdapter() {
+				@Override
+				public void widgetSelected(SelectionEvent e) {
+					exportValidationReport();
+				}
+			});
 		}
 
 		Dialog.applyDialogFont(folder);
@@ -130,6 +171,8 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 		} else {
 			prefs.putBoolean(SpringCore.USE_CHANGE_DETECTION_IN_JAVA_FILES, useChangeDetectionForJavaFiles.getSelection());
 			prefs.putBoolean(SpringCore.USE_NON_LOCKING_CLASSLOADER, useNonLockingClassLoader.getSelection());
+			prefs.putBoolean(SpringCore.USE_PARALLEL_VALIDATION, useParallelValidation.getSelection());
+			prefs.putBoolean(SpringCore.USE_VALIDATION_PROFILING, useValidationProfiling.getSelection());
 		}
 
 		this.builderTab.performOk();
@@ -144,6 +187,30 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 		return super.performOk();
 	}
 
+	/**
+	 * Writes the validation timings collected so far to a file chosen by the user. Files ending with '.json' are
+	 * written as JSON, all others as CSV.
+	 */
+	private void exportValidationReport() {
+		FileDialog dialog = new FileDialog(getShell(), SWT.SAVE);
+		dialog.setFilterExtensions(new String[] { "*.csv", "*.json" }); //$NON-NLS-1$ //$NON-NLS-2$
+		dialog.setFileName("validation-report.csv"); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path != null) {
+			ValidationMetrics metrics = ValidationMetrics.getDefault();
+			String report = path.endsWith(".json") ? metrics.toJson() : metrics.toCsv(); //$NON-NLS-1$
+			try {
+				Files.write(new File(path).toPath(), report.getBytes(StandardCharsets.UTF_8));
+			}
+			catch (IOException e) {
+				SpringCore.log(e);
+				MessageDialog.openError(getShell(), SpringUIMessages.ProjectBuilderPropertyPage_ExportValidationReport,
+						e.getMessage());
+			}
+		}
+	}
+
 	@Override
 	protected void performDefaults() {
 		super.performDefaults();
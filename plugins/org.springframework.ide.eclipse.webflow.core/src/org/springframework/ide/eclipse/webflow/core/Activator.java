@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowBeanIndex;
 import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowModel;
 import org.springframework.ide.eclipse.webflow.core.model.IWebflowModel;
 
@@ -64,6 +65,7 @@ public class Activator extends AbstractUIPlugin {
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		plugin = null;
+		WebflowBeanIndex.dispose();
 		super.stop(context);
 		WEBFLOW_MODEL.shutdown();
 	}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.webflow.core.internal.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigDelta;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProjectChangeEvent;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
+import org.springframework.ide.eclipse.core.model.IModelChangeListener;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+import org.springframework.ide.eclipse.core.model.ModelChangeEvent;
+import org.springframework.ide.eclipse.webflow.core.Activator;
+import org.springframework.ide.eclipse.webflow.core.model.IWebflowConfig;
+import org.springframework.ide.eclipse.webflow.core.model.IWebflowModelListener;
+import org.springframework.ide.eclipse.webflow.core.model.IWebflowProject;
+
+/**
+ * Caches the beans visible to each {@link IWebflowConfig} (i.e. the beans of its linked beans configs and config
+ * sets), indexed by bean name.
+ * <p>
+ * The index of a flow is built on first use and reused until the beans model reports a change or the flow's web flow
+ * project changes. It is also rebuilt if the set of beans configs linked to the flow changes. When an incremental
+ * build reloads configs, only the indexes of flows that link one of the reloaded configs are dropped.
+ * <p>
+ * Every change bumps a generation counter. An index built while a change happened is still handed to the caller that
+ * built it, but isn't kept, so that it can't outlive the change it missed.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+public class WebflowBeanIndex {
+
+	private static WebflowBeanIndex instance;
+
+	public static synchronized WebflowBeanIndex getDefault() {
+		if (instance == null) {
+			instance = new WebflowBeanIndex();
+			BeansCorePlugin.getModel().addChangeListener(instance.beansModelListener);
+			Activator.getModel().registerModelChangeListener(instance.webflowModelListener);
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance != null) {
+			BeansCorePlugin.getModel().removeChangeListener(instance.beansModelListener);
+			Activator.getModel().removeModelChangeListener(instance.webflowModelListener);
+			instance = null;
+		}
+	}
+
+	private final ConcurrentMap<IWebflowConfig, ConfigBeans> configs = new ConcurrentHashMap<IWebflowConfig, ConfigBeans>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final IModelChangeListener beansModelListener = new IModelChangeListener() {
+		public void elementChanged(ModelChangeEvent event) {
+			if (event instanceof BeansProjectChangeEvent) {
+				// only the beans of the reloaded configs changed
+				Set<IBeansConfig> reloadedConfigs = new HashSet<IBeansConfig>();
+				for (BeansConfigDelta delta : ((BeansProjectChangeEvent) event).getDeltas()) {
+					reloadedConfigs.add(delta.getConfig());
+				}
+				invalidate(reloadedConfigs);
+			}
+			else {
+				// flows may link beans configs of other projects, so any other change may be relevant
+				invalidate();
+			}
+		}
+	};
+
+	private final IWebflowModelListener webflowModelListener = new IWebflowModelListener() {
+		public void modelChanged(IWebflowProject project) {
+			invalidate();
+		}
+	};
+
+	private WebflowBeanIndex() {
+	}
+
+	/**
+	 * Returns all beans visible to the given flow. The returned set must not be modified.
+	 */
+	public Set<IBean> getBeans(IWebflowConfig config) {
+		return getConfigBeans(config).beans;
+	}
+
+	/**
+	 * Returns a bean visible to the given flow with the given name, or <code>null</code> if there is none.
+	 */
+	public IBean getBean(IWebflowConfig config, String beanName) {
+		return beanName != null ? getConfigBeans(config).beansByName.get(beanName) : null;
+	}
+
+	/**
+	 * Returns <code>true</code> if a bean with the given name or alias can be resolved in one of the beans configs
+	 * linked to the given flow.
+	 */
+	public boolean isBeanFound(IWebflowConfig config, String beanName) {
+		ConfigBeans configBeans = getConfigBeans(config);
+		Boolean found = configBeans.referencedBeans.get(beanName);
+		if (found == null) {
+			found = Boolean.FALSE;
+			for (IModelElement beansConfig : configBeans.beansConfigs) {
+				if (BeansModelUtils.getBean(beanName, beansConfig) != null) {
+					found = Boolean.TRUE;
+					break;
+				}
+			}
+			configBeans.referencedBeans.put(beanName, found);
+		}
+		return found;
+	}
+
+	private void invalidate() {
+		generation.incrementAndGet();
+		configs.clear();
+	}
+
+	private void invalidate(Set<IBeansConfig> reloadedConfigs) {
+		generation.incrementAndGet();
+		Iterator<ConfigBeans> configBeans = configs.values().iterator();
+		while (configBeans.hasNext()) {
+			if (configBeans.next().isAffectedBy(reloadedConfigs)) {
+				configBeans.remove();
+			}
+		}
+	}
+
+	private ConfigBeans getConfigBeans(IWebflowConfig config) {
+		long startGeneration = generation.get();
+		Set<IModelElement> beansConfigs = config.getBeansConfigs();
+		ConfigBeans configBeans = configs.get(config);
+		if (configBeans == null || !configBeans.beansConfigs.equals(beansConfigs != null ? beansConfigs
+				: Collections.<IModelElement> emptySet())) {
+			configBeans = new ConfigBeans(beansConfigs);
+			configs.put(config, configBeans);
+			// the beans model changed while the beans were collected and its clear may have run before the put
+			if (generation.get() != startGeneration) {
+				configs.remove(config, configBeans);
+			}
+		}
+		return configBeans;
+	}
+
+	/**
+	 * The beans of a single flow.
+	 */
+	private static class ConfigBeans {
+
+		private final Set<IModelElement> beansConfigs;
+
+		private final Set<IBean> beans;
+
+		private final Map<String, IBean> beansByName = new HashMap<String, IBean>();
+
+		/** Memoized results of {@link WebflowBeanIndex#isBeanFound(IWebflowConfig, String)} */
+		private final ConcurrentMap<String, Boolean> referencedBeans = new ConcurrentHashMap<String, Boolean>();
+
+		/** The configs whose beans are indexed, or <code>null</code> if they aren't known */
+		private final Set<IBeansConfig> indexedConfigs;
+
+		public ConfigBeans(Set<IModelElement> beansConfigs) {
+			this.beansConfigs = beansConfigs != null ? new LinkedHashSet<IModelElement>(beansConfigs) : Collections
+					.<IModelElement> emptySet();
+			Set<IBean> beans = new HashSet<IBean>();
+			for (IModelElement bc : this.beansConfigs) {
+				beans.addAll(BeansModelUtils.getBeans(bc, null));
+			}
+			for (IBean bean : beans) {
+				if (!beansByName.containsKey(bean.getElementName())) {
+					beansByName.put(bean.getElementName(), bean);
+				}
+			}
+			this.beans = Collections.unmodifiableSet(beans);
+
+			Set<IBeansConfig> indexedConfigs = new HashSet<IBeansConfig>();
+			for (IModelElement bc : this.beansConfigs) {
+				if (bc instanceof IBeansConfig) {
+					indexedConfigs.add((IBeansConfig) bc);
+				}
+				else if (bc instanceof IBeansConfigSet) {
+					indexedConfigs.addAll(((IBeansConfigSet) bc).getConfigs());
+				}
+				else {
+					indexedConfigs = null;
+					break;
+				}
+			}
+			this.indexedConfigs = indexedConfigs;
+		}
+
+		/**
+		 * Returns <code>true</code> if one of the given configs contributed beans to this index.
+		 */
+		public boolean isAffectedBy(Set<IBeansConfig> reloadedConfigs) {
+			return indexedConfigs == null || !Collections.disjoint(indexedConfigs, reloadedConfigs);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,7 +32,6 @@ import org.springframework.ide.eclipse.core.java.FlagsMethodFilter;
 import org.springframework.ide.eclipse.core.java.IMethodFilter;
 import org.springframework.ide.eclipse.core.java.Introspector;
 import org.springframework.ide.eclipse.core.java.JdtUtils;
-import org.springframework.ide.eclipse.core.model.IModelElement;
 import org.springframework.ide.eclipse.webflow.core.Activator;
 import org.springframework.ide.eclipse.webflow.core.model.IInlineFlowState;
 import org.springframework.ide.eclipse.webflow.core.model.IState;
@@ -70,14 +69,11 @@ public class WebflowModelUtils {
 	}
 	
 	public static IType getActionType(IWebflowConfig config, IDOMNode node) {
-		Set<IBean> beans = getBeans(config);
+		IBean bean = WebflowBeanIndex.getDefault().getBean(config,
+				BeansEditorUtils.getAttribute(node, "bean"));
 		String className = null;
-		for (IBean bean : beans) {
-			if (bean.getElementName().equals(
-					BeansEditorUtils.getAttribute(node, "bean"))) {
-				className = BeansModelUtils.getBeanClass(bean, null);
-				break;
-			}
+		if (bean != null) {
+			className = BeansModelUtils.getBeanClass(bean, null);
 		}
 
 		return JdtUtils.getJavaType(config.getProject().getProject(), className);
@@ -97,17 +93,12 @@ public class WebflowModelUtils {
 		return NO_METHOD_MATCHES;
 	}
 
+	/**
+	 * Returns the beans of all beans configs linked to the given flow. The
+	 * returned set is shared and must not be modified.
+	 */
 	public static Set<IBean> getBeans(IWebflowConfig config) {
-		Set<IModelElement> beansConfigs = config.getBeansConfigs();
-		Set<IBean> beans = new HashSet<IBean>();
-
-		if (beansConfigs != null) {
-			for (IModelElement bc : beansConfigs) {
-				beans.addAll(BeansModelUtils.getBeans(bc, null));
-			}
-		}
-
-		return beans;
+		return WebflowBeanIndex.getDefault().getBeans(config);
 	}
 
 	public static List<IFile> getFiles(IProject project) {
@@ -162,13 +153,7 @@ public class WebflowModelUtils {
 
 	public static boolean isReferencedBeanFound(IWebflowConfig config,
 			String beanName) {
-		Set<IModelElement> beansConfigs = config.getBeansConfigs();
-		for (IModelElement beansConfig : beansConfigs) {
-			if (BeansModelUtils.getBean(beanName, beansConfig) != null) {
-				return true;
-			}
-		}
-		return false;
+		return WebflowBeanIndex.getDefault().isBeanFound(config, beanName);
 	}
 
 	public static IWebflowState getWebflowState(IWebflowModelElement element,
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.webflow.core.internal.model.validation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.wst.sse.core.StructuredModelManager;
+import org.eclipse.wst.sse.core.internal.provisional.IStructuredModel;
+import org.eclipse.wst.xml.core.internal.document.DOMModelImpl;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMAttr;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMDocument;
+import org.eclipse.wst.xml.core.internal.provisional.document.IDOMNode;
+import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowState;
+import org.springframework.ide.eclipse.webflow.core.model.IState;
+import org.springframework.ide.eclipse.webflow.core.model.IWebflowConfig;
+import org.springframework.ide.eclipse.webflow.core.model.IWebflowState;
+import org.w3c.dom.NamedNodeMap;
+
+/**
+ * Caches what web flow validation needs to know about flow files (version, parent flows and states by id), so that
+ * each flow's structured model is acquired at most twice per validation run, no matter how many subflow states and
+ * transitions refer to it.
+ * <p>
+ * One instance is held in the {@link org.springframework.ide.eclipse.core.project.IProjectContributorState} of a
+ * build and shared by all {@link WebflowValidationContext}s of that build.
+ * @author Spring IDE Developers
+ * @since 3.9.7
+ */
+@SuppressWarnings("restriction")
+public class WebflowValidationModelCache {
+
+	private final ConcurrentMap<IResource, FlowInfo> flows = new ConcurrentHashMap<IResource, FlowInfo>();
+
+	/**
+	 * Returns <code>true</code> if the given flow file uses the Spring Web Flow 1 schema.
+	 */
+	public boolean isVersion1(IResource file) {
+		return getFlowInfo(file).version1;
+	}
+
+	/**
+	 * Returns the value of the 'parent' attribute of the given flow, or <code>null</code> if there is none.
+	 */
+	public String getParent(IWebflowConfig config) {
+		return config != null ? getFlowInfo(config.getElementResource()).parent : null;
+	}
+
+	/**
+	 * Returns the top-level state with the given id of the given flow, or <code>null</code> if there is none.
+	 */
+	public IState getStateById(IWebflowConfig config, String stateId) {
+		if (config == null || stateId == null) {
+			return null;
+		}
+		return getFlowInfo(config.getElementResource()).getStates(config).get(stateId);
+	}
+
+	private FlowInfo getFlowInfo(IResource file) {
+		FlowInfo info = flows.get(file);
+		if (info == null) {
+			FlowInfo newInfo = new FlowInfo(file);
+			info = flows.putIfAbsent(file, newInfo);
+			if (info == null) {
+				info = newInfo;
+			}
+		}
+		return info;
+	}
+
+	private static IStructuredModel getModelForRead(IResource file) throws Exception {
+		IStructuredModel model = StructuredModelManager.getModelManager().getExistingModelForRead(file);
+		if (model == null) {
+			model = StructuredModelManager.getModelManager().getModelForRead((IFile) file);
+		}
+		return model;
+	}
+
+	/**
+	 * The cached information about a single flow file.
+	 */
+	private static class FlowInfo {
+
+		private final IResource file;
+
+		private boolean version1 = true;
+
+		private String parent;
+
+		/** Top-level states by id; the first state wins if ids are not unique */
+		private Map<String, IState> states;
+
+		public FlowInfo(IResource file) {
+			this.file = file;
+			IStructuredModel model = null;
+			try {
+				model = getModelForRead(file);
+				if (model != null) {
+					IDOMDocument document = ((DOMModelImpl) model).getDocument();
+					NamedNodeMap attributes = document.getDocumentElement().getAttributes();
+					if (attributes.getNamedItem("parent") != null) {
+						parent = ((IDOMAttr) attributes.getNamedItem("parent")).getValue();
+					}
+					IDOMAttr schemaLocationNode = (IDOMAttr) attributes.getNamedItemNS(
+							"http://www.w3.org/2001/XMLSchema-instance", "schemaLocation");
+					String content = schemaLocationNode.getValue();
+					version1 = content.contains("spring-webflow-1");
+				}
+			}
+			catch (Exception e) {
+			}
+			finally {
+				if (model != null) {
+					model.releaseFromRead();
+				}
+			}
+		}
+
+		/**
+		 * Parses the flow's states on first use. Only needed for flows that are referenced as parents.
+		 */
+		public synchronized Map<String, IState> getStates(IWebflowConfig config) {
+			if (states == null) {
+				states = new HashMap<String, IState>();
+				IStructuredModel model = null;
+				try {
+					model = getModelForRead(file);
+					if (model != null) {
+						IDOMDocument document = ((DOMModelImpl) model).getDocument();
+						IWebflowState flowState = new WebflowState(config);
+						flowState.init((IDOMNode) document.getDocumentElement(), null);
+						if (flowState.getStates() != null) {
+							for (IState state : flowState.getStates()) {
+								if (state.getId() != null && !states.containsKey(state.getId())) {
+									states.put(state.getId(), state);
+								}
+							}
+						}
+					}
+				}
+				catch (Exception e) {
+				}
+				finally {
+					if (model != null) {
+						model.releaseFromRead();
+					}
+				}
+			}
+			return states;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.wst.sse.core.StructuredModelManager;
@@ -34,6 +35,7 @@ import org.springframework.ide.eclipse.core.model.validation.AbstractValidator;
 import org.springframework.ide.eclipse.core.model.validation.IValidationContext;
 import org.springframework.ide.eclipse.core.model.validation.IValidationElementLifecycleManager;
 import org.springframework.ide.eclipse.core.model.validation.IValidator;
+import org.springframework.ide.eclipse.core.project.IProjectContributorState;
 import org.springframework.ide.eclipse.webflow.core.Activator;
 import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowModelUtils;
 import org.springframework.ide.eclipse.webflow.core.internal.model.WebflowState;
@@ -56,6 +58,16 @@ public class WebflowValidator extends AbstractValidator {
 	public static final String VALIDATOR_ID = Activator.PLUGIN_ID
 			+ ".validator";
 
+	/** State of the current build; holds the flow file cache shared by all validation contexts */
+	private IProjectContributorState contributorState;
+
+	@Override
+	public void setProjectContributorState(IProjectContributorState contributorState) {
+		super.setProjectContributorState(contributorState);
+		contributorState.hold(new WebflowValidationModelCache());
+		this.contributorState = contributorState;
+	}
+
 	public Set<IResource> deriveResources(Object object) {
 		Set<IResource> resources = new LinkedHashSet<IResource>();
 		if (object instanceof ISpringProject) {
@@ -129,6 +141,11 @@ public class WebflowValidator extends AbstractValidator {
 			IWebflowState state = (IWebflowState) rootElement;
 			IWebflowConfig config = WebflowModelUtils
 					.getWebflowConfig((IFile) state.getElementResource());
+			WebflowValidationModelCache modelCache = (contributorState != null ? contributorState
+					.get(WebflowValidationModelCache.class) : null);
+			if (modelCache != null) {
+				return new WebflowValidationContext(state, config, modelCache);
+			}
 			return new WebflowValidationContext(state, config);
 		}
 		return null;
@@ -144,6 +161,14 @@ public class WebflowValidator extends AbstractValidator {
 		return new WebflowStateLifecycleManager();
 	}
 
+	/**
+	 * Reconciles the markers of the default cleanup instead of recreating them.
+	 */
+	@Override
+	protected IMarker[] findExistingMarkers(IResource resource) throws CoreException {
+		return findDefaultCleanupMarkers(resource);
+	}
+
 	private static class WebflowStateLifecycleManager implements
 			IValidationElementLifecycleManager {
 
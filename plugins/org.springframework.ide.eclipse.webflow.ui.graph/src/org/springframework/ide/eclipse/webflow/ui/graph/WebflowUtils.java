@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 Spring IDE Developers
+ * Copyright (c) 2007, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.runtime.CoreException;
@@ -179,6 +180,12 @@ public abstract class WebflowUtils {
 		public void cleanup(IResource resource, IProgressMonitor monitor) {
 		}
 
+		@Override
+		protected IMarker[] findExistingMarkers(IResource resource) {
+			// nothing gets cleaned up, so nothing must be reconciled either
+			return null;
+		}
+
 		public Set<ValidationProblem> getValidationProblems() {
 			return this.validationProblems;
 		}